@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+
+/**
+ * Reads the contents of the files of one archive of the store by file id.
+ * The store is only read when a file which the reference table lists is
+ * first asked for. Files are compressed together, so the whole archive is
+ * decompressed then, and its file contents are held softly so they can be
+ * dropped when memory is short and decompressed again later.
+ */
+class ArchiveFileLoader implements LazyDefinitions.Contents
+{
+	private final Store store;
+	private final Archive archive;
+	private final BitSet fileIds = new BitSet();
+	private volatile SoftReference<Map<Integer, byte[]>> files = new SoftReference<>(null);
+
+	ArchiveFileLoader(Store store, IndexType indexType, int archiveId) throws IOException
+	{
+		Index index = store.getIndex(indexType);
+		Archive archive = index == null ? null : index.getArchive(archiveId);
+		if (archive == null)
+		{
+			throw new IOException("no archive " + archiveId + " in index " + indexType);
+		}
+
+		this.store = store;
+		this.archive = archive;
+
+		for (FileData fd : archive.getFileData())
+		{
+			fileIds.set(fd.getId());
+		}
+	}
+
+	@Override
+	public byte[] get(int fileId) throws IOException
+	{
+		if (fileId < 0 || !fileIds.get(fileId))
+		{
+			return null;
+		}
+
+		Map<Integer, byte[]> files = this.files.get();
+		if (files == null)
+		{
+			synchronized (this)
+			{
+				files = this.files.get();
+				if (files == null)
+				{
+					files = loadFiles();
+					this.files = new SoftReference<>(files);
+				}
+			}
+		}
+
+		return files.get(fileId);
+	}
+
+	private Map<Integer, byte[]> loadFiles() throws IOException
+	{
+		byte[] archiveData = store.getStorage().loadArchive(archive);
+		if (archiveData == null)
+		{
+			throw new IOException("archive " + archive.getArchiveId() + " of index " + archive.getIndex().getId() + " is missing");
+		}
+
+		ArchiveFiles archiveFiles = archive.getFiles(archiveData);
+
+		Map<Integer, byte[]> files = new HashMap<>();
+		for (FSFile f : archiveFiles.getFiles())
+		{
+			files.put(f.getFileId(), f.getContents());
+		}
+		return files;
+	}
+}
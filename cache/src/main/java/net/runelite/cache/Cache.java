@@ -26,6 +26,9 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import net.runelite.cache.diff.CacheDiff;
+import net.runelite.cache.diff.CacheManifest;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Store;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -45,6 +48,7 @@ public class Cache
 		options.addOption(null, "npcs", true, "directory to dump npcs to");
 		options.addOption(null, "objects", true, "directory to dump objects to");
 		options.addOption(null, "sprites", true, "directory to dump sprites to");
+		options.addOption(null, "manifest", true, "manifest of the previous dump to the same directory, to only dump what changed since");
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -63,6 +67,20 @@ public class Cache
 
 		Store store = loadStore(cache);
 
+		File manifestFile = null;
+		CacheManifest manifest = null;
+		CacheDiff diff = null;
+		if (cmd.hasOption("manifest"))
+		{
+			manifestFile = new File(cmd.getOptionValue("manifest"));
+			manifest = createManifest(store);
+			if (manifestFile.exists())
+			{
+				diff = CacheDiff.diff(CacheManifest.load(manifestFile), manifest);
+				System.out.println("Dumping the " + diff.getArchives().size() + " archives changed since " + manifestFile);
+			}
+		}
+
 		if (cmd.hasOption("items"))
 		{
 			String itemdir = cmd.getOptionValue("items");
@@ -74,7 +92,7 @@ public class Cache
 			}
 
 			System.out.println("Dumping items to " + itemdir);
-			dumpItems(store, new File(itemdir));
+			dumpItems(store, diff, new File(itemdir));
 		}
 		else if (cmd.hasOption("npcs"))
 		{
@@ -87,7 +105,7 @@ public class Cache
 			}
 
 			System.out.println("Dumping npcs to " + npcdir);
-			dumpNpcs(store, new File(npcdir));
+			dumpNpcs(store, diff, new File(npcdir));
 		}
 		else if (cmd.hasOption("objects"))
 		{
@@ -100,7 +118,7 @@ public class Cache
 			}
 
 			System.out.println("Dumping objects to " + objectdir);
-			dumpObjects(store, new File(objectdir));
+			dumpObjects(store, diff, new File(objectdir));
 		}
 		else if (cmd.hasOption("sprites"))
 		{
@@ -113,11 +131,17 @@ public class Cache
 			}
 
 			System.out.println("Dumping sprites to " + spritedir);
-			dumpSprites(store, new File(spritedir));
+			dumpSprites(store, diff, new File(spritedir));
 		}
 		else
 		{
 			System.err.println("Nothing to do");
+			return;
+		}
+
+		if (manifestFile != null)
+		{
+			manifest.save(manifestFile);
 		}
 	}
 
@@ -128,34 +152,76 @@ public class Cache
 		return store;
 	}
 
-	private static void dumpItems(Store store, File itemdir) throws IOException
+	/**
+	 * Create a manifest of the store with the crcs of the config files,
+	 * so a later diff knows exactly which items, npcs and objects changed
+	 */
+	static CacheManifest createManifest(Store store) throws IOException
+	{
+		CacheManifest manifest = CacheManifest.create(store);
+		try (ParallelLoader loader = new ParallelLoader(store))
+		{
+			manifest.hashFiles(loader, IndexType.CONFIGS);
+		}
+		return manifest;
+	}
+
+	static void dumpItems(Store store, CacheDiff diff, File itemdir) throws IOException
 	{
 		ItemManager dumper = new ItemManager(store);
 		dumper.load();
-		dumper.export(itemdir);
+		if (diff == null)
+		{
+			dumper.export(itemdir);
+		}
+		else
+		{
+			dumper.export(itemdir, diff.getAffectedFiles(IndexType.CONFIGS, ConfigType.ITEM.getId()));
+		}
 		dumper.java(itemdir);
 	}
 
-	private static void dumpNpcs(Store store, File npcdir) throws IOException
+	static void dumpNpcs(Store store, CacheDiff diff, File npcdir) throws IOException
 	{
 		NpcManager dumper = new NpcManager(store);
 		dumper.load();
-		dumper.dump(npcdir);
+		if (diff == null)
+		{
+			dumper.dump(npcdir);
+		}
+		else
+		{
+			dumper.dump(npcdir, diff.getAffectedFiles(IndexType.CONFIGS, ConfigType.NPC.getId()));
+		}
 		dumper.java(npcdir);
 	}
 
-	private static void dumpObjects(Store store, File objectdir) throws IOException
+	static void dumpObjects(Store store, CacheDiff diff, File objectdir) throws IOException
 	{
 		ObjectManager dumper = new ObjectManager(store);
 		dumper.load();
-		dumper.dump(objectdir);
+		if (diff == null)
+		{
+			dumper.dump(objectdir);
+		}
+		else
+		{
+			dumper.dump(objectdir, diff.getAffectedFiles(IndexType.CONFIGS, ConfigType.OBJECT.getId()));
+		}
 		dumper.java(objectdir);
 	}
 
-	private static void dumpSprites(Store store, File spritedir) throws IOException
+	static void dumpSprites(Store store, CacheDiff diff, File spritedir) throws IOException
 	{
 		SpriteManager dumper = new SpriteManager(store);
 		dumper.load();
-		dumper.export(spritedir);
+		if (diff == null)
+		{
+			dumper.export(spritedir);
+		}
+		else
+		{
+			dumper.export(spritedir, diff.getAffectedArchives(IndexType.SPRITES));
+		}
 	}
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.IOException;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+
+/**
+ * Reads the decompressed contents of the archives of an index by archive
+ * id, for indexes which hold one definition per archive such as models
+ * and sprites. Each archive is read and decompressed when asked for.
+ */
+class IndexArchiveLoader implements LazyDefinitions.Contents
+{
+	private final Store store;
+	private final Index index;
+
+	IndexArchiveLoader(Store store, IndexType indexType) throws IOException
+	{
+		Index index = store.getIndex(indexType);
+		if (index == null)
+		{
+			throw new IOException("no index " + indexType);
+		}
+
+		this.store = store;
+		this.index = index;
+	}
+
+	@Override
+	public byte[] get(int archiveId) throws IOException
+	{
+		Archive archive = index.getArchive(archiveId);
+		if (archive == null)
+		{
+			return null;
+		}
+
+		byte[] archiveData = store.getStorage().loadArchive(archive);
+		if (archiveData == null)
+		{
+			throw new IOException("archive " + archiveId + " of index " + index.getId() + " is missing");
+		}
+
+		return archive.decompress(archiveData);
+	}
+}
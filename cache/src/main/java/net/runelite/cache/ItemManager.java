@@ -26,10 +26,12 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.exporters.ItemExporter;
 import net.runelite.cache.definitions.loaders.ItemLoader;
@@ -38,14 +40,17 @@ import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 import net.runelite.cache.util.IDClass;
 
 public class ItemManager implements ItemProvider
 {
 	private final Store store;
-	private final Map<Integer, ItemDefinition> items = new HashMap<>();
+	private final Map<Integer, ItemDefinition> items = new ConcurrentHashMap<>();
+	private final LazyDefinitions<ItemDefinition> lazy = new LazyDefinitions<>(items, (id, contents) -> new ItemLoader().load(id, contents));
 
 	public ItemManager(Store store)
 	{
@@ -70,19 +75,48 @@ public class ItemManager implements ItemProvider
 		}
 	}
 
+	/**
+	 * Load the definitions, parsing them in parallel
+	 */
+	public void load(ParallelLoader parallelLoader) throws IOException
+	{
+		ItemLoader loader = new ItemLoader();
+
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.ITEM.getId());
+
+		List<ItemDefinition> defs = parallelLoader.loadFiles(archive, null, f -> loader.load(f.getFileId(), f.getContents()));
+		for (ItemDefinition def : defs)
+		{
+			items.put(def.id, def);
+		}
+	}
+
+	/**
+	 * Load the definitions from a snapshot, which is rebuilt first if the
+	 * archive has changed since it was taken. Definitions are parsed from
+	 * the snapshot when they are first used.
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		lazy.setSnapshot(snapshots.getArchive(IndexType.CONFIGS, ConfigType.ITEM.getId()));
+	}
+
 	public Collection<ItemDefinition> getItems()
 	{
+		lazy.parseAll();
 		return Collections.unmodifiableCollection(items.values());
 	}
 
 	public ItemDefinition getItem(int itemId)
 	{
-		return items.get(itemId);
+		return lazy.get(itemId);
 	}
 
 	public void export(File out) throws IOException
 	{
 		out.mkdirs();
+		lazy.parseAll();
 
 		for (ItemDefinition def : items.values())
 		{
@@ -93,9 +127,34 @@ public class ItemManager implements ItemProvider
 		}
 	}
 
+	/**
+	 * Export only the given items, for example the ones affected by a
+	 * {@link net.runelite.cache.diff.CacheDiff}. Exports of items which
+	 * no longer exist are deleted.
+	 */
+	public void export(File out, Collection<Integer> ids) throws IOException
+	{
+		out.mkdirs();
+
+		for (int id : ids)
+		{
+			File targ = new File(out, id + ".json");
+			ItemDefinition def = getItem(id);
+			if (def == null)
+			{
+				Files.deleteIfExists(targ.toPath());
+				continue;
+			}
+
+			ItemExporter exporter = new ItemExporter(def);
+			exporter.exportTo(targ);
+		}
+	}
+
 	public void java(File java) throws IOException
 	{
 		java.mkdirs();
+		lazy.parseAll();
 		try (IDClass ids = IDClass.create(java, "ItemID");
 			IDClass nulls = IDClass.create(java, "NullItemID"))
 		{
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+
+/**
+ * Parses definitions from their contents when they are first used. The
+ * parsed definitions are either kept in the map of a manager, which ends up
+ * holding all of them, or in a size bounded cache which drops the least
+ * recently used ones.
+ */
+class LazyDefinitions<T>
+{
+	interface Parser<T>
+	{
+		T parse(int id, byte[] contents);
+	}
+
+	/**
+	 * Where the contents of definitions are read from, such as a
+	 * {@link DefinitionSnapshot} or an archive of the store
+	 */
+	@FunctionalInterface
+	interface Contents
+	{
+		/**
+		 * @return the contents of the definition, or null if there is none with this id
+		 * @throws IOException
+		 */
+		byte[] get(int id) throws IOException;
+	}
+
+	private final Parser<T> parser;
+	private final Map<Integer, T> definitions;
+	private final LoadingCache<Integer, Optional<T>> cache;
+	private volatile Contents contents;
+	private volatile int[] ids;
+
+	/**
+	 * Parse into the map of a manager, from a snapshot set with {@link #setSnapshot(DefinitionSnapshot)}
+	 */
+	LazyDefinitions(Map<Integer, T> definitions, Parser<T> parser)
+	{
+		this.parser = parser;
+		this.definitions = definitions;
+		this.cache = null;
+	}
+
+	/**
+	 * Parse into a cache which keeps at most {@code maximumSize} definitions,
+	 * and remembers the ids which have none
+	 */
+	LazyDefinitions(long maximumSize, Contents contents, Parser<T> parser)
+	{
+		this.parser = parser;
+		this.definitions = null;
+		this.contents = contents;
+		this.cache = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats()
+			.build(new CacheLoader<Integer, Optional<T>>()
+			{
+				@Override
+				public Optional<T> load(Integer id) throws IOException
+				{
+					return Optional.ofNullable(parse(contents, id));
+				}
+			});
+	}
+
+	void setSnapshot(DefinitionSnapshot snapshot)
+	{
+		Preconditions.checkState(definitions != null, "bounded definitions have fixed contents");
+		this.ids = snapshot.getIds();
+		this.contents = snapshot::get;
+	}
+
+	/**
+	 * Get a definition, parsing it if it has not been used yet or was dropped
+	 *
+	 * @throws UncheckedIOException if the contents can't be read
+	 */
+	T get(int id)
+	{
+		if (cache != null)
+		{
+			try
+			{
+				return cache.get(id).orElse(null);
+			}
+			catch (ExecutionException | UncheckedExecutionException ex)
+			{
+				if (ex.getCause() instanceof IOException)
+				{
+					throw new UncheckedIOException((IOException) ex.getCause());
+				}
+				Throwables.throwIfUnchecked(ex.getCause());
+				throw new UncheckedIOException(new IOException(ex.getCause()));
+			}
+		}
+
+		T def = definitions.get(id);
+		if (def == null && contents != null)
+		{
+			def = definitions.computeIfAbsent(id, this::parse);
+		}
+		return def;
+	}
+
+	/**
+	 * Parse the definitions of the snapshot which have not been used yet
+	 */
+	void parseAll()
+	{
+		int[] ids = this.ids;
+		if (ids == null)
+		{
+			return;
+		}
+
+		for (int id : ids)
+		{
+			definitions.computeIfAbsent(id, this::parse);
+		}
+
+		// everything is parsed now
+		this.ids = null;
+		this.contents = null;
+	}
+
+	/**
+	 * @return hit, miss, load and eviction counts of the bounded cache
+	 */
+	CacheStats getStats()
+	{
+		Preconditions.checkState(cache != null, "definitions are not bounded");
+		return cache.stats();
+	}
+
+	long size()
+	{
+		return cache != null ? cache.size() : definitions.size();
+	}
+
+	private T parse(int id)
+	{
+		Contents contents = this.contents;
+		if (contents == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return parse(contents, id);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private T parse(Contents contents, int id) throws IOException
+	{
+		byte[] data = contents.get(id);
+		return data == null ? null : parser.parse(id, data);
+	}
+}
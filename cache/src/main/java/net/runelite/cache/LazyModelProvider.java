@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+
+/**
+ * A {@link ModelProvider} which reads and decodes a model the first time
+ * it is asked for, and keeps only the most recently used models. The
+ * models are shared between callers and must not be modified, copy them
+ * with {@link ModelDefinition#copy()} first.
+ */
+public class LazyModelProvider implements ModelProvider
+{
+	private final LazyDefinitions<ModelDefinition> models;
+
+	public LazyModelProvider(Store store, long maximumSize) throws IOException
+	{
+		this(new IndexArchiveLoader(store, IndexType.MODELS), maximumSize);
+	}
+
+	/**
+	 * @param snapshot snapshot of the model index
+	 * @param maximumSize number of models to keep
+	 */
+	public LazyModelProvider(DefinitionSnapshot snapshot, long maximumSize)
+	{
+		this(snapshot::get, maximumSize);
+	}
+
+	private LazyModelProvider(LazyDefinitions.Contents contents, long maximumSize)
+	{
+		ModelLoader loader = new ModelLoader();
+		models = new LazyDefinitions<>(maximumSize, contents, loader::load);
+	}
+
+	@Override
+	public ModelDefinition provide(int modelId) throws IOException
+	{
+		try
+		{
+			return models.get(modelId);
+		}
+		catch (UncheckedIOException ex)
+		{
+			throw ex.getCause();
+		}
+	}
+
+	public CacheStats getStats()
+	{
+		return models.getStats();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.definitions.loaders.ObjectLoader;
+import net.runelite.cache.definitions.providers.ObjectProvider;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+
+/**
+ * An {@link ObjectProvider} which decodes objects when they are first asked
+ * for, and keeps only the most recently used ones. {@link ObjectManager}
+ * instead decodes every object up front. The objects are shared between
+ * callers and must not be modified.
+ */
+public class LazyObjectProvider implements ObjectProvider
+{
+	private final LazyDefinitions<ObjectDefinition> objects;
+
+	public LazyObjectProvider(Store store, long maximumSize) throws IOException
+	{
+		this(new ArchiveFileLoader(store, IndexType.CONFIGS, ConfigType.OBJECT.getId()), maximumSize);
+	}
+
+	/**
+	 * @param snapshot snapshot of the object archive
+	 * @param maximumSize number of objects to keep
+	 */
+	public LazyObjectProvider(DefinitionSnapshot snapshot, long maximumSize)
+	{
+		this(snapshot::get, maximumSize);
+	}
+
+	private LazyObjectProvider(LazyDefinitions.Contents contents, long maximumSize)
+	{
+		ObjectLoader loader = new ObjectLoader();
+		objects = new LazyDefinitions<>(maximumSize, contents, loader::load);
+	}
+
+	@Override
+	public ObjectDefinition provide(int objectId)
+	{
+		return objects.get(objectId);
+	}
+
+	public CacheStats getStats()
+	{
+		return objects.getStats();
+	}
+}
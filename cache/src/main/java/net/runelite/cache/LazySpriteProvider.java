@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.loaders.SpriteLoader;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+
+/**
+ * A {@link SpriteProvider} which reads and decodes the frames of a sprite
+ * the first time it is asked for, and keeps only the most recently used
+ * sprites. {@link SpriteManager} instead decodes every sprite up front.
+ */
+public class LazySpriteProvider implements SpriteProvider
+{
+	private final LazyDefinitions<SpriteDefinition[]> sprites;
+
+	public LazySpriteProvider(Store store, long maximumSize) throws IOException
+	{
+		this(new IndexArchiveLoader(store, IndexType.SPRITES), maximumSize);
+	}
+
+	/**
+	 * @param snapshot snapshot of the sprite index
+	 * @param maximumSize number of sprites to keep, each with all of its frames
+	 */
+	public LazySpriteProvider(DefinitionSnapshot snapshot, long maximumSize)
+	{
+		this(snapshot::get, maximumSize);
+	}
+
+	private LazySpriteProvider(LazyDefinitions.Contents contents, long maximumSize)
+	{
+		SpriteLoader loader = new SpriteLoader();
+		sprites = new LazyDefinitions<>(maximumSize, contents, loader::load);
+	}
+
+	@Override
+	public SpriteDefinition provide(int spriteId, int frameId)
+	{
+		SpriteDefinition[] frames = sprites.get(spriteId);
+		if (frames != null)
+		{
+			for (SpriteDefinition sprite : frames)
+			{
+				if (sprite.getFrame() == frameId)
+				{
+					return sprite;
+				}
+			}
+		}
+		return null;
+	}
+
+	public CacheStats getStats()
+	{
+		return sprites.getStats();
+	}
+}
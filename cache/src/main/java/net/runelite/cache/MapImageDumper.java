@@ -24,13 +24,24 @@
  */
 package net.runelite.cache;
 
+import com.google.common.base.Preconditions;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Point;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -45,6 +56,7 @@ import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.item.ColorPalette;
@@ -64,6 +76,7 @@ public class MapImageDumper
 	private static final int MAPICON_MAX_WIDTH = 5; // scale minimap icons down to this size so they fit..
 	private static final int MAPICON_MAX_HEIGHT = 6;
 	private static final int BLEND = 5; // number of surrounding tiles for ground blending
+	private static final int TILE_MARGIN = 32; // pixels icons and outlines of a region may spill into the next, labels are drawn within their region
 
 	private static int[] colorPalette = new ColorPalette(0.9d, 0, 512).getColorPalette();
 
@@ -102,6 +115,15 @@ public class MapImageDumper
 	}
 
 	public void load() throws IOException
+	{
+		load(null);
+	}
+
+	/**
+	 * Load the definitions needed to draw the map, and only the given
+	 * regions, or every region if null
+	 */
+	void load(Collection<Integer> regionIds) throws IOException
 	{
 		loadUnderlays(store);
 		loadOverlays(store);
@@ -111,7 +133,29 @@ public class MapImageDumper
 		textureManager.load();
 		rsTextureProvider = new RSTextureProvider(textureManager, sprites);
 
-		loadRegions(store);
+		loadRegions(store, regionIds);
+		areas.load();
+		sprites.load();
+		loadSprites();
+	}
+
+	/**
+	 * Load the definitions and regions needed to draw the map, decoding
+	 * the objects and regions in parallel
+	 */
+	public void load(ParallelLoader parallelLoader) throws IOException
+	{
+		loadUnderlays(store);
+		loadOverlays(store);
+		objectManager.load(parallelLoader);
+
+		TextureManager textureManager = new TextureManager(store);
+		textureManager.load();
+		rsTextureProvider = new RSTextureProvider(textureManager, sprites);
+
+		regionLoader = new RegionLoader(store);
+		regionLoader.loadRegions(parallelLoader);
+		logRegionBounds();
 		areas.load();
 		sprites.load();
 		loadSprites();
@@ -158,6 +202,242 @@ public class MapImageDumper
 		return image;
 	}
 
+	/**
+	 * Render a single square tile of the map of a plane. The tiles form a
+	 * grid over the image returned by {@link #drawMap(int)}, with tile 0,0
+	 * in its top left corner, and a tile is identical to the same area of
+	 * that image. Ground blending still reads the neighbouring regions, and
+	 * icons and labels of regions just outside of the tile are drawn where
+	 * they spill into it.
+	 * <p>
+	 * A tile size of {@code Region.X * MAP_SCALE} (256) puts every region
+	 * in exactly one tile. Smaller tiles redo the ground of a region for
+	 * each tile it covers.
+	 *
+	 * @param z plane
+	 * @param tileX tile column, from west to east
+	 * @param tileY tile row, from north to south
+	 * @param tileSize width and height of the tile in pixels, a multiple of the map scale
+	 * @return the tile, or null if no region covers it
+	 */
+	public BufferedImage drawTile(int z, int tileX, int tileY, int tileSize)
+	{
+		Preconditions.checkArgument(tileSize > 0 && tileSize % MAP_SCALE == 0, "tile size must be a multiple of %s", MAP_SCALE);
+
+		// tile origin in map squares from the top left of the map
+		int originX = tileX * (tileSize / MAP_SCALE);
+		int originY = tileY * (tileSize / MAP_SCALE);
+		int squares = tileSize / MAP_SCALE;
+		int margin = TILE_MARGIN / MAP_SCALE;
+
+		List<Region> covering = new ArrayList<>();
+		List<Region> nearby = new ArrayList<>();
+		for (Region region : regionLoader.getRegions())
+		{
+			int drawBaseX = getDrawBaseX(region) - originX;
+			int drawBaseY = getDrawBaseY(region) - originY;
+
+			if (overlaps(drawBaseX, drawBaseY, squares, 0))
+			{
+				covering.add(region);
+				nearby.add(region);
+			}
+			else if (overlaps(drawBaseX, drawBaseY, squares, margin))
+			{
+				nearby.add(region);
+			}
+		}
+
+		if (covering.isEmpty())
+		{
+			return null;
+		}
+
+		BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB);
+
+		for (Region region : covering)
+		{
+			drawMap(image, getDrawBaseX(region) - originX, getDrawBaseY(region) - originY, z, region);
+		}
+
+		for (Region region : nearby)
+		{
+			drawObjects(image, getDrawBaseX(region) - originX, getDrawBaseY(region) - originY, region, z);
+		}
+
+		for (Region region : nearby)
+		{
+			drawMapIcons(image, getDrawBaseX(region) - originX, getDrawBaseY(region) - originY, region, z);
+		}
+
+		return image;
+	}
+
+	/**
+	 * Render the map of a plane as tiles and write them out as a pyramid of
+	 * png files, {@code <outDir>/<z>/<zoom>/<x>/<y>.png}. Zoom 0 holds the
+	 * tiles of {@link #drawTile(int, int, int, int)}, and each further zoom
+	 * level halves the scale of the previous one, merging four tiles into
+	 * one. Tiles are rendered and written on the pool of the given loader,
+	 * so only a few tiles are in memory at a time.
+	 *
+	 * @param parallelLoader loader whose pool renders the tiles
+	 * @param outDir output directory
+	 * @param z plane
+	 * @param tileSize width and height of a tile in pixels, a multiple of the map scale
+	 * @param zoomLevels number of zoom levels to write, at least 1
+	 * @return number of tiles written
+	 * @throws IOException
+	 */
+	public int drawTiles(ParallelLoader parallelLoader, File outDir, int z, int tileSize, int zoomLevels) throws IOException
+	{
+		Preconditions.checkArgument(tileSize > 0 && tileSize % MAP_SCALE == 0, "tile size must be a multiple of %s", MAP_SCALE);
+		Preconditions.checkArgument(zoomLevels > 0);
+
+		int squares = tileSize / MAP_SCALE;
+		Set<Point> tiles = new LinkedHashSet<>();
+		for (Region region : regionLoader.getRegions())
+		{
+			int drawBaseX = getDrawBaseX(region);
+			int drawBaseY = getDrawBaseY(region);
+
+			for (int x = drawBaseX / squares; x <= (drawBaseX + Region.X - 1) / squares; ++x)
+			{
+				for (int y = drawBaseY / squares; y <= (drawBaseY + Region.Y - 1) / squares; ++y)
+				{
+					tiles.add(new Point(x, y));
+				}
+			}
+		}
+
+		List<Point> level = new ArrayList<>(tiles);
+		List<Boolean> written = parallelLoader.map(level, tile ->
+		{
+			BufferedImage image = drawTile(z, tile.x, tile.y, tileSize);
+			if (image == null)
+			{
+				return false;
+			}
+
+			writeTile(outDir, z, 0, tile, image);
+			return true;
+		});
+		int count = countWritten(written);
+		logger.info("Wrote {} tiles for plane {} zoom 0", count, z);
+
+		for (int zoom = 1; zoom < zoomLevels; ++zoom)
+		{
+			final int childZoom = zoom - 1;
+			final int parentZoom = zoom;
+
+			tiles.clear();
+			for (Point tile : level)
+			{
+				tiles.add(new Point(tile.x >> 1, tile.y >> 1));
+			}
+
+			level = new ArrayList<>(tiles);
+			written = parallelLoader.map(level, tile ->
+			{
+				BufferedImage image = mergeTiles(outDir, z, childZoom, tile, tileSize);
+				if (image == null)
+				{
+					return false;
+				}
+
+				writeTile(outDir, z, parentZoom, tile, image);
+				return true;
+			});
+			int levelCount = countWritten(written);
+			logger.info("Wrote {} tiles for plane {} zoom {}", levelCount, z, zoom);
+			count += levelCount;
+		}
+
+		return count;
+	}
+
+	private BufferedImage mergeTiles(File outDir, int z, int childZoom, Point tile, int tileSize) throws IOException
+	{
+		BufferedImage image = null;
+		Graphics2D graphics = null;
+		int half = tileSize / 2;
+
+		for (int i = 0; i < 4; ++i)
+		{
+			int dx = i & 1, dy = i >> 1;
+			File file = getTileFile(outDir, z, childZoom, tile.x * 2 + dx, tile.y * 2 + dy);
+			if (!file.exists())
+			{
+				continue;
+			}
+
+			BufferedImage child = ImageIO.read(file);
+			if (image == null)
+			{
+				image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB);
+				graphics = image.createGraphics();
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			}
+
+			graphics.drawImage(child, dx * half, dy * half, half, half, null);
+		}
+
+		if (graphics != null)
+		{
+			graphics.dispose();
+		}
+
+		return image;
+	}
+
+	private static void writeTile(File outDir, int z, int zoom, Point tile, BufferedImage image) throws IOException
+	{
+		File file = getTileFile(outDir, z, zoom, tile.x, tile.y);
+		Files.createDirectories(file.getParentFile().toPath());
+		ImageIO.write(image, "png", file);
+	}
+
+	private static File getTileFile(File outDir, int z, int zoom, int x, int y)
+	{
+		return new File(outDir, z + File.separator + zoom + File.separator + x + File.separator + y + ".png");
+	}
+
+	private static int countWritten(List<Boolean> written)
+	{
+		int count = 0;
+		for (boolean w : written)
+		{
+			if (w)
+			{
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Whether a region drawn at the given map square overlaps a tile of the
+	 * given size at the origin, grown by margin squares on each side
+	 */
+	private static boolean overlaps(int drawBaseX, int drawBaseY, int squares, int margin)
+	{
+		return drawBaseX < squares + margin && drawBaseX + Region.X > -margin
+			&& drawBaseY < squares + margin && drawBaseY + Region.Y > -margin;
+	}
+
+	private int getDrawBaseX(Region region)
+	{
+		// to pixel X
+		return region.getBaseX() - regionLoader.getLowestX().getBaseX();
+	}
+
+	private int getDrawBaseY(Region region)
+	{
+		// to pixel Y. top most y is 0, but the top most
+		// region has the greatest y, so invert
+		return regionLoader.getHighestY().getBaseY() - region.getBaseY();
+	}
+
 	private void drawMap(BufferedImage image, int drawBaseX, int drawBaseY, int z, Region region)
 	{
 		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
@@ -194,15 +474,8 @@ public class MapImageDumper
 	{
 		for (Region region : regionLoader.getRegions())
 		{
-			int baseX = region.getBaseX();
-			int baseY = region.getBaseY();
-
-			// to pixel X
-			int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
-
-			// to pixel Y. top most y is 0, but the top most
-			// region has the greatest y, so invert
-			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+			int drawBaseX = getDrawBaseX(region);
+			int drawBaseY = getDrawBaseY(region);
 
 			drawMap(image, drawBaseX, drawBaseY, z, region);
 		}
@@ -210,13 +483,19 @@ public class MapImageDumper
 
 	private void drawTile(BufferedImage to, int[][] pixels, int drawBaseX, int drawBaseY, int x, int y)
 	{
+		int toX = drawBaseX * MAP_SCALE + x * MAP_SCALE;
+		int toY = drawBaseY * MAP_SCALE + y * MAP_SCALE;
+		if (toX < 0 || toY < 0 || toX >= to.getWidth() || toY >= to.getHeight())
+		{
+			// outside of the tile being rendered
+			return;
+		}
+
 		for (int i = 0; i < MAP_SCALE; ++i)
 		{
 			for (int j = 0; j < MAP_SCALE; ++j)
 			{
-				to.setRGB(drawBaseX * MAP_SCALE + x * MAP_SCALE + i,
-					drawBaseY * MAP_SCALE + y * MAP_SCALE + j,
-					pixels[x * MAP_SCALE + i][y * MAP_SCALE + j]);
+				to.setRGB(toX + i, toY + j, pixels[x * MAP_SCALE + i][y * MAP_SCALE + j]);
 			}
 		}
 	}
@@ -546,7 +825,7 @@ public class MapImageDumper
 				if (object.getMapSceneID() != -1)
 				{
 					Image spriteImage = scaledMapIcons.get(object.getMapSceneID());
-					graphics.drawImage(spriteImage, drawX * MAP_SCALE, drawY * MAP_SCALE, null);
+					graphics.drawImage(spriteImage, drawX, drawY, null);
 				}
 				else
 				{
@@ -554,31 +833,31 @@ public class MapImageDumper
 					{
 						if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 0, drawY + 1, rgb);
-							image.setRGB(drawX + 0, drawY + 2, rgb);
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 1, rgb);
+							setPixel(image, drawX + 0, drawY + 2, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 1, drawY + 0, rgb);
-							image.setRGB(drawX + 2, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 1, drawY + 0, rgb);
+							setPixel(image, drawX + 2, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 1, rgb);
-							image.setRGB(drawX + 3, drawY + 2, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 1, rgb);
+							setPixel(image, drawX + 3, drawY + 2, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
-							image.setRGB(drawX + 1, drawY + 3, rgb);
-							image.setRGB(drawX + 2, drawY + 3, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 1, drawY + 3, rgb);
+							setPixel(image, drawX + 2, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 					}
 
@@ -586,19 +865,19 @@ public class MapImageDumper
 					{
 						if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 					}
 
@@ -606,31 +885,31 @@ public class MapImageDumper
 					{
 						if (rotation == 3)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 0, drawY + 1, rgb);
-							image.setRGB(drawX + 0, drawY + 2, rgb);
-							image.setRGB(drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 1, rgb);
+							setPixel(image, drawX + 0, drawY + 2, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
 						}
 						else if (rotation == 0)
 						{
-							image.setRGB(drawX + 0, drawY + 0, rgb);
-							image.setRGB(drawX + 1, drawY + 0, rgb);
-							image.setRGB(drawX + 2, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 0, drawY + 0, rgb);
+							setPixel(image, drawX + 1, drawY + 0, rgb);
+							setPixel(image, drawX + 2, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
 						}
 						else if (rotation == 1)
 						{
-							image.setRGB(drawX + 3, drawY + 0, rgb);
-							image.setRGB(drawX + 3, drawY + 1, rgb);
-							image.setRGB(drawX + 3, drawY + 2, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 0, rgb);
+							setPixel(image, drawX + 3, drawY + 1, rgb);
+							setPixel(image, drawX + 3, drawY + 2, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 						else if (rotation == 2)
 						{
-							image.setRGB(drawX + 0, drawY + 3, rgb);
-							image.setRGB(drawX + 1, drawY + 3, rgb);
-							image.setRGB(drawX + 2, drawY + 3, rgb);
-							image.setRGB(drawX + 3, drawY + 3, rgb);
+							setPixel(image, drawX + 0, drawY + 3, rgb);
+							setPixel(image, drawX + 1, drawY + 3, rgb);
+							setPixel(image, drawX + 2, drawY + 3, rgb);
+							setPixel(image, drawX + 3, drawY + 3, rgb);
 						}
 					}
 				}
@@ -663,17 +942,17 @@ public class MapImageDumper
 
 				if (rotation != 0 && rotation != 2)
 				{
-					image.setRGB(drawX + 0, drawY + 0, rgb);
-					image.setRGB(drawX + 1, drawY + 1, rgb);
-					image.setRGB(drawX + 2, drawY + 2, rgb);
-					image.setRGB(drawX + 3, drawY + 3, rgb);
+					setPixel(image, drawX + 0, drawY + 0, rgb);
+					setPixel(image, drawX + 1, drawY + 1, rgb);
+					setPixel(image, drawX + 2, drawY + 2, rgb);
+					setPixel(image, drawX + 3, drawY + 3, rgb);
 				}
 				else
 				{
-					image.setRGB(drawX + 0, drawY + 3, rgb);
-					image.setRGB(drawX + 1, drawY + 2, rgb);
-					image.setRGB(drawX + 2, drawY + 1, rgb);
-					image.setRGB(drawX + 3, drawY + 0, rgb);
+					setPixel(image, drawX + 0, drawY + 3, rgb);
+					setPixel(image, drawX + 1, drawY + 2, rgb);
+					setPixel(image, drawX + 2, drawY + 1, rgb);
+					setPixel(image, drawX + 3, drawY + 0, rgb);
 				}
 			}
 			else if (type == 22 || (type >= 9 && type <= 11))
@@ -694,15 +973,8 @@ public class MapImageDumper
 	{
 		for (Region region : regionLoader.getRegions())
 		{
-			int baseX = region.getBaseX();
-			int baseY = region.getBaseY();
-
-			// to pixel X
-			int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
-
-			// to pixel Y. top most y is 0, but the top most
-			// region has the greatest y, so invert
-			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+			int drawBaseX = getDrawBaseX(region);
+			int drawBaseY = getDrawBaseY(region);
 
 			drawObjects(image, drawBaseX, drawBaseY, region, z);
 		}
@@ -738,15 +1010,8 @@ public class MapImageDumper
 		// map icons
 		for (Region region : regionLoader.getRegions())
 		{
-			int baseX = region.getBaseX();
-			int baseY = region.getBaseY();
-
-			// to pixel X
-			int drawBaseX = baseX - regionLoader.getLowestX().getBaseX();
-
-			// to pixel Y. top most y is 0, but the top most
-			// region has the greatest y, so invert
-			int drawBaseY = regionLoader.getHighestY().getBaseY() - baseY;
+			int drawBaseX = getDrawBaseX(region);
+			int drawBaseY = getDrawBaseY(region);
 
 			drawMapIcons(image, drawBaseX, drawBaseY, region, z);
 		}
@@ -840,6 +1105,14 @@ public class MapImageDumper
 		}
 	}
 
+	private static void setPixel(BufferedImage image, int x, int y, int rgb)
+	{
+		if (x >= 0 && y >= 0 && x < image.getWidth() && y < image.getHeight())
+		{
+			image.setRGB(x, y, rgb);
+		}
+	}
+
 	private void drawMapSquare(int[][] pixels, int x, int y, int rgb)
 	{
 		x *= MAP_SCALE;
@@ -891,10 +1164,22 @@ public class MapImageDumper
 		}
 	}
 
-	private void loadRegions(Store store) throws IOException
+	private void loadRegions(Store store, Collection<Integer> regionIds) throws IOException
 	{
 		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
+		if (regionIds == null)
+		{
+			regionLoader.loadRegions();
+		}
+		else
+		{
+			regionLoader.loadRegions(regionIds);
+		}
+		logRegionBounds();
+	}
+
+	private void logRegionBounds()
+	{
 		regionLoader.calculateBounds();
 
 		logger.info("North most region: {}", regionLoader.getLowestY().getBaseY());
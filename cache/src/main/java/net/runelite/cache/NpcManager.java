@@ -26,10 +26,12 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.runelite.cache.definitions.NpcDefinition;
 import net.runelite.cache.definitions.exporters.NpcExporter;
 import net.runelite.cache.definitions.loaders.NpcLoader;
@@ -37,14 +39,17 @@ import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 import net.runelite.cache.util.IDClass;
 
 public class NpcManager
 {
 	private final Store store;
-	private final Map<Integer, NpcDefinition> npcs = new HashMap<>();
+	private final Map<Integer, NpcDefinition> npcs = new ConcurrentHashMap<>();
+	private final LazyDefinitions<NpcDefinition> lazy = new LazyDefinitions<>(npcs, (id, contents) -> new NpcLoader().load(id, contents));
 
 	public NpcManager(Store store)
 	{
@@ -69,19 +74,48 @@ public class NpcManager
 		}
 	}
 
+	/**
+	 * Load the definitions, parsing them in parallel
+	 */
+	public void load(ParallelLoader parallelLoader) throws IOException
+	{
+		NpcLoader loader = new NpcLoader();
+
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.NPC.getId());
+
+		List<NpcDefinition> defs = parallelLoader.loadFiles(archive, null, f -> loader.load(f.getFileId(), f.getContents()));
+		for (NpcDefinition def : defs)
+		{
+			npcs.put(def.id, def);
+		}
+	}
+
+	/**
+	 * Load the definitions from a snapshot, which is rebuilt first if the
+	 * archive has changed since it was taken. Definitions are parsed from
+	 * the snapshot when they are first used.
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		lazy.setSnapshot(snapshots.getArchive(IndexType.CONFIGS, ConfigType.NPC.getId()));
+	}
+
 	public Collection<NpcDefinition> getNpcs()
 	{
+		lazy.parseAll();
 		return Collections.unmodifiableCollection(npcs.values());
 	}
 
 	public NpcDefinition get(int npcId)
 	{
-		return npcs.get(npcId);
+		return lazy.get(npcId);
 	}
 
 	public void dump(File out) throws IOException
 	{
 		out.mkdirs();
+		lazy.parseAll();
 
 		for (NpcDefinition def : npcs.values())
 		{
@@ -92,9 +126,33 @@ public class NpcManager
 		}
 	}
 
+	/**
+	 * Dump only the npcs with the given ids, deleting the dumps of
+	 * ids which no longer exist
+	 */
+	public void dump(File out, Collection<Integer> ids) throws IOException
+	{
+		out.mkdirs();
+
+		for (int id : ids)
+		{
+			File targ = new File(out, id + ".json");
+			NpcDefinition def = get(id);
+			if (def == null)
+			{
+				Files.deleteIfExists(targ.toPath());
+				continue;
+			}
+
+			NpcExporter exporter = new NpcExporter(def);
+			exporter.exportTo(targ);
+		}
+	}
+
 	public void java(File java) throws IOException
 	{
 		java.mkdirs();
+		lazy.parseAll();
 		try (IDClass ids = IDClass.create(java, "NpcID");
 			IDClass nulls = IDClass.create(java, "NullNpcID"))
 		{
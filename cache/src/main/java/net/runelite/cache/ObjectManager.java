@@ -26,25 +26,31 @@ package net.runelite.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.runelite.cache.definitions.ObjectDefinition;
 import net.runelite.cache.definitions.exporters.ObjectExporter;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
+import net.runelite.cache.definitions.providers.ObjectProvider;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 import net.runelite.cache.util.IDClass;
 
-public class ObjectManager
+public class ObjectManager implements ObjectProvider
 {
 	private final Store store;
-	private final Map<Integer, ObjectDefinition> objects = new HashMap<>();
+	private final Map<Integer, ObjectDefinition> objects = new ConcurrentHashMap<>();
+	private final LazyDefinitions<ObjectDefinition> lazy = new LazyDefinitions<>(objects, (id, contents) -> new ObjectLoader().load(id, contents));
 
 	public ObjectManager(Store store)
 	{
@@ -69,19 +75,48 @@ public class ObjectManager
 		}
 	}
 
+	/**
+	 * Load the definitions, parsing them in parallel
+	 */
+	public void load(ParallelLoader parallelLoader) throws IOException
+	{
+		ObjectLoader loader = new ObjectLoader();
+
+		Index index = store.getIndex(IndexType.CONFIGS);
+		Archive archive = index.getArchive(ConfigType.OBJECT.getId());
+
+		List<ObjectDefinition> defs = parallelLoader.loadFiles(archive, null, f -> loader.load(f.getFileId(), f.getContents()));
+		for (ObjectDefinition def : defs)
+		{
+			objects.put(def.getId(), def);
+		}
+	}
+
+	/**
+	 * Load the definitions from a snapshot, which is rebuilt first if the
+	 * archive has changed since it was taken. Definitions are parsed from
+	 * the snapshot when they are first used.
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		lazy.setSnapshot(snapshots.getArchive(IndexType.CONFIGS, ConfigType.OBJECT.getId()));
+	}
+
 	public Collection<ObjectDefinition> getObjects()
 	{
+		lazy.parseAll();
 		return Collections.unmodifiableCollection(objects.values());
 	}
 
 	public ObjectDefinition getObject(int id)
 	{
-		return objects.get(id);
+		return lazy.get(id);
 	}
 
 	public void dump(File out) throws IOException
 	{
 		out.mkdirs();
+		lazy.parseAll();
 
 		for (ObjectDefinition def : objects.values())
 		{
@@ -92,9 +127,33 @@ public class ObjectManager
 		}
 	}
 
+	/**
+	 * Dump only the objects with the given ids, deleting the dumps of
+	 * ids which no longer exist
+	 */
+	public void dump(File out, Collection<Integer> ids) throws IOException
+	{
+		out.mkdirs();
+
+		for (int id : ids)
+		{
+			File targ = new File(out, id + ".json");
+			ObjectDefinition def = getObject(id);
+			if (def == null)
+			{
+				Files.deleteIfExists(targ.toPath());
+				continue;
+			}
+
+			ObjectExporter exporter = new ObjectExporter(def);
+			exporter.exportTo(targ);
+		}
+	}
+
 	public void java(File java) throws IOException
 	{
 		java.mkdirs();
+		lazy.parseAll();
 		try (IDClass ids = IDClass.create(java, "ObjectID");
 			IDClass nulls = IDClass.create(java, "NullObjectID"))
 		{
@@ -111,4 +170,10 @@ public class ObjectManager
 			}
 		}
 	}
+
+	@Override
+	public ObjectDefinition provide(int objectId)
+	{
+		return getObject(objectId);
+	}
 }
@@ -29,6 +29,7 @@ import com.google.common.collect.Multimap;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
 import net.runelite.cache.definitions.SpriteDefinition;
@@ -39,6 +40,8 @@ import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 
 public class SpriteManager implements SpriteProvider
 {
@@ -69,6 +72,26 @@ public class SpriteManager implements SpriteProvider
 		}
 	}
 
+	/**
+	 * Load the sprites from a snapshot of the sprite index, which is
+	 * rebuilt first if any sprite has changed since it was taken
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		DefinitionSnapshot snapshot = snapshots.getIndex(IndexType.SPRITES);
+		SpriteLoader loader = new SpriteLoader();
+
+		for (int id : snapshot.getIds())
+		{
+			SpriteDefinition[] defs = loader.load(id, snapshot.get(id));
+
+			for (SpriteDefinition sprite : defs)
+			{
+				sprites.put(sprite.getId(), sprite);
+			}
+		}
+	}
+
 	public Collection<SpriteDefinition> getSprites()
 	{
 		return Collections.unmodifiableCollection(sprites.values());
@@ -110,6 +133,38 @@ public class SpriteManager implements SpriteProvider
 		}
 	}
 
+	/**
+	 * Export the frames of the given sprites only. Earlier exports of these
+	 * sprites are deleted first, so removed frames don't linger.
+	 */
+	public void export(File outDir, Collection<Integer> spriteIds) throws IOException
+	{
+		for (int id : spriteIds)
+		{
+			File[] old = outDir.listFiles((dir, name) -> name.startsWith(id + "-") && name.endsWith(".png"));
+			if (old != null)
+			{
+				for (File file : old)
+				{
+					Files.delete(file.toPath());
+				}
+			}
+
+			for (SpriteDefinition sprite : sprites.get(id))
+			{
+				if (sprite.getHeight() <= 0 || sprite.getWidth() <= 0)
+				{
+					continue;
+				}
+
+				SpriteExporter exporter = new SpriteExporter(sprite);
+				File png = new File(outDir, sprite.getId() + "-" + sprite.getFrame() + ".png");
+
+				exporter.exportTo(png);
+			}
+		}
+	}
+
 	@Override
 	public SpriteDefinition provide(int spriteId, int frameId)
 	{
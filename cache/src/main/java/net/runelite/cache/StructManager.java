@@ -26,8 +26,8 @@ package net.runelite.cache;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.runelite.cache.definitions.StructDefinition;
 import net.runelite.cache.definitions.loaders.StructLoader;
 import net.runelite.cache.definitions.providers.StructProvider;
@@ -37,11 +37,13 @@ import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 
 public class StructManager implements StructProvider
 {
 	private final Store store;
-	private final Map<Integer, StructDefinition> structs = new HashMap<>();
+	private final Map<Integer, StructDefinition> structs = new ConcurrentHashMap<>();
+	private final LazyDefinitions<StructDefinition> lazy = new LazyDefinitions<>(structs, (id, contents) -> new StructLoader().load(id, contents));
 
 	public StructManager(Store store)
 	{
@@ -66,14 +68,25 @@ public class StructManager implements StructProvider
 		}
 	}
 
+	/**
+	 * Load the definitions from a snapshot, which is rebuilt first if the
+	 * archive has changed since it was taken. Definitions are parsed from
+	 * the snapshot when they are first used.
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		lazy.setSnapshot(snapshots.getArchive(IndexType.CONFIGS, ConfigType.STRUCT.getId()));
+	}
+
 	public Map<Integer, StructDefinition> getStructs()
 	{
+		lazy.parseAll();
 		return Collections.unmodifiableMap(structs);
 	}
 
 	public StructDefinition getStruct(int structId)
 	{
-		return structs.get(structId);
+		return lazy.get(structId);
 	}
 
 	@Override
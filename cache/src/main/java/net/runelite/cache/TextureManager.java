@@ -36,6 +36,8 @@ import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
 
 public class TextureManager implements TextureProvider
 {
@@ -65,6 +67,22 @@ public class TextureManager implements TextureProvider
 		}
 	}
 
+	/**
+	 * Load the textures from a snapshot, which is rebuilt first if the
+	 * textures have changed since it was taken
+	 */
+	public void load(DefinitionSnapshots snapshots) throws IOException
+	{
+		DefinitionSnapshot snapshot = snapshots.getArchive(IndexType.TEXTURES, 0);
+		TextureLoader loader = new TextureLoader();
+
+		for (int id : snapshot.getIds())
+		{
+			TextureDefinition texture = loader.load(id, snapshot.get(id));
+			textures.add(texture);
+		}
+	}
+
 	public List<TextureDefinition> getTextures()
 	{
 		return textures;
@@ -102,6 +102,63 @@ public class ItemDefinition
 
 	public Map<Integer, Object> params = null;
 
+	/**
+	 * Copy this item so the copy can be updated, for example by
+	 * {@link #updateNote}, without changing this item. Arrays and
+	 * params are shared.
+	 */
+	public ItemDefinition copy()
+	{
+		ItemDefinition copy = new ItemDefinition(id);
+		copy.name = name;
+		copy.resizeX = resizeX;
+		copy.resizeY = resizeY;
+		copy.resizeZ = resizeZ;
+		copy.xan2d = xan2d;
+		copy.yan2d = yan2d;
+		copy.zan2d = zan2d;
+		copy.cost = cost;
+		copy.isTradeable = isTradeable;
+		copy.stackable = stackable;
+		copy.inventoryModel = inventoryModel;
+		copy.members = members;
+		copy.colorFind = colorFind;
+		copy.colorReplace = colorReplace;
+		copy.textureFind = textureFind;
+		copy.textureReplace = textureReplace;
+		copy.zoom2d = zoom2d;
+		copy.xOffset2d = xOffset2d;
+		copy.yOffset2d = yOffset2d;
+		copy.ambient = ambient;
+		copy.contrast = contrast;
+		copy.countCo = countCo;
+		copy.countObj = countObj;
+		copy.options = options;
+		copy.interfaceOptions = interfaceOptions;
+		copy.maleModel0 = maleModel0;
+		copy.maleModel1 = maleModel1;
+		copy.maleModel2 = maleModel2;
+		copy.maleOffset = maleOffset;
+		copy.maleHeadModel = maleHeadModel;
+		copy.maleHeadModel2 = maleHeadModel2;
+		copy.femaleModel0 = femaleModel0;
+		copy.femaleModel1 = femaleModel1;
+		copy.femaleModel2 = femaleModel2;
+		copy.femaleOffset = femaleOffset;
+		copy.femaleHeadModel = femaleHeadModel;
+		copy.femaleHeadModel2 = femaleHeadModel2;
+		copy.notedID = notedID;
+		copy.notedTemplate = notedTemplate;
+		copy.team = team;
+		copy.shiftClickDropIndex = shiftClickDropIndex;
+		copy.boughtId = boughtId;
+		copy.boughtTemplateId = boughtTemplateId;
+		copy.placeholderId = placeholderId;
+		copy.placeholderTemplateId = placeholderTemplateId;
+		copy.params = params;
+		return copy;
+	}
+
 	public void updateNote(ItemDefinition notedItem, ItemDefinition unnotedItem)
 	{
 		this.inventoryModel = notedItem.inventoryModel;
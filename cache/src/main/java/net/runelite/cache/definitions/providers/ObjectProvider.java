@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, Woox <https://github.com/wooxsolo>
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
  * All rights reserved.
  *
  * Redistribution and use in source and binary forms, with or without
@@ -22,15 +22,11 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package net.runelite.client.graphics;
+package net.runelite.cache.definitions.providers;
 
-import lombok.RequiredArgsConstructor;
-import lombok.Value;
+import net.runelite.cache.definitions.ObjectDefinition;
 
-@Value
-@RequiredArgsConstructor
-class PixelDistanceAlpha
+public interface ObjectProvider
 {
-	private final int outerAlpha;
-	private final int distArrayPos;
-}
\ No newline at end of file
+	ObjectDefinition provide(int objectId);
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.diff;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.Getter;
+
+/**
+ * A change to one archive between two caches
+ */
+@Getter
+public class ArchiveDiff
+{
+	private final int indexId;
+	private final int archiveId;
+	private final ChangeType type;
+	/**
+	 * The archive in the old cache, or null if it was added
+	 */
+	private final ArchiveManifest from;
+	/**
+	 * The archive in the new cache, or null if it was removed
+	 */
+	private final ArchiveManifest to;
+	private final Set<Integer> addedFiles;
+	private final Set<Integer> removedFiles;
+	/**
+	 * Files present in both caches whose contents changed, or null if this
+	 * is unknown because the files were not hashed
+	 */
+	private final Set<Integer> changedFiles;
+
+	ArchiveDiff(int indexId, int archiveId, ChangeType type, ArchiveManifest from, ArchiveManifest to)
+	{
+		this.indexId = indexId;
+		this.archiveId = archiveId;
+		this.type = type;
+		this.from = from;
+		this.to = to;
+
+		Set<Integer> oldFiles = files(from), newFiles = files(to);
+
+		Set<Integer> added = new TreeSet<>(newFiles);
+		added.removeAll(oldFiles);
+		this.addedFiles = Collections.unmodifiableSet(added);
+
+		Set<Integer> removed = new TreeSet<>(oldFiles);
+		removed.removeAll(newFiles);
+		this.removedFiles = Collections.unmodifiableSet(removed);
+
+		this.changedFiles = changedFiles(from, to);
+	}
+
+	/**
+	 * Get the ids of all files which may have been added, removed or changed.
+	 * If the files were not hashed, every file of a changed archive is
+	 * assumed to have changed.
+	 */
+	public Set<Integer> getAffectedFiles()
+	{
+		Set<Integer> affected = new TreeSet<>(removedFiles);
+		if (changedFiles != null)
+		{
+			affected.addAll(addedFiles);
+			affected.addAll(changedFiles);
+		}
+		else
+		{
+			affected.addAll(files(to));
+		}
+		return affected;
+	}
+
+	private static Set<Integer> files(ArchiveManifest archive)
+	{
+		Set<Integer> files = new TreeSet<>();
+		if (archive != null && archive.getFiles() != null)
+		{
+			for (int id : archive.getFiles())
+			{
+				files.add(id);
+			}
+		}
+		return files;
+	}
+
+	private static Set<Integer> changedFiles(ArchiveManifest from, ArchiveManifest to)
+	{
+		if (from == null || to == null)
+		{
+			// every file was added or removed
+			return Collections.emptySet();
+		}
+
+		int[] oldCrcs = from.getFileCrcs(), newCrcs = to.getFileCrcs();
+		if (oldCrcs == null || newCrcs == null)
+		{
+			return null;
+		}
+
+		int[] oldFiles = from.getFiles(), newFiles = to.getFiles();
+		Map<Integer, Integer> oldCrcById = new HashMap<>(oldFiles.length * 2);
+		for (int i = 0; i < oldFiles.length; ++i)
+		{
+			oldCrcById.put(oldFiles[i], oldCrcs[i]);
+		}
+
+		Set<Integer> changed = new TreeSet<>();
+		for (int i = 0; i < newFiles.length; ++i)
+		{
+			Integer oldCrc = oldCrcById.get(newFiles[i]);
+			if (oldCrc != null && oldCrc != newCrcs[i])
+			{
+				changed.add(newFiles[i]);
+			}
+		}
+		return Collections.unmodifiableSet(changed);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ArchiveDiff{index=" + indexId + ", archive=" + archiveId + ", type=" + type + "}";
+	}
+}
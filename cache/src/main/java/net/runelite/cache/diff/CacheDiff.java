@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Store;
+
+/**
+ * The archives which were added, removed or changed between two caches,
+ * computed from their reference tables. Indexes whose reference table crc
+ * and revision are unchanged are skipped without looking at their archives.
+ */
+public class CacheDiff
+{
+	private final List<ArchiveDiff> archives;
+
+	private CacheDiff(List<ArchiveDiff> archives)
+	{
+		this.archives = Collections.unmodifiableList(archives);
+	}
+
+	public static CacheDiff diff(Store from, Store to)
+	{
+		return diff(CacheManifest.create(from), CacheManifest.create(to));
+	}
+
+	public static CacheDiff diff(CacheManifest from, Store to)
+	{
+		return diff(from, CacheManifest.create(to));
+	}
+
+	public static CacheDiff diff(CacheManifest from, CacheManifest to)
+	{
+		List<ArchiveDiff> archives = new ArrayList<>();
+
+		for (IndexManifest oldIndex : from.getIndexes())
+		{
+			IndexManifest newIndex = to.findIndex(oldIndex.getId());
+			if (newIndex == null)
+			{
+				for (ArchiveManifest archive : oldIndex.getArchives())
+				{
+					archives.add(new ArchiveDiff(oldIndex.getId(), archive.getId(), ChangeType.REMOVED, archive, null));
+				}
+				continue;
+			}
+
+			if (oldIndex.getCrc() != 0 && oldIndex.getCrc() == newIndex.getCrc()
+				&& oldIndex.getRevision() == newIndex.getRevision())
+			{
+				// same reference table, so every archive is the same
+				continue;
+			}
+
+			diffIndex(oldIndex, newIndex, archives);
+		}
+
+		for (IndexManifest newIndex : to.getIndexes())
+		{
+			if (from.findIndex(newIndex.getId()) == null)
+			{
+				for (ArchiveManifest archive : newIndex.getArchives())
+				{
+					archives.add(new ArchiveDiff(newIndex.getId(), archive.getId(), ChangeType.ADDED, null, archive));
+				}
+			}
+		}
+
+		return new CacheDiff(archives);
+	}
+
+	private static void diffIndex(IndexManifest from, IndexManifest to, List<ArchiveDiff> out)
+	{
+		Map<Integer, ArchiveManifest> newArchives = new HashMap<>();
+		for (ArchiveManifest archive : to.getArchives())
+		{
+			newArchives.put(archive.getId(), archive);
+		}
+
+		for (ArchiveManifest oldArchive : from.getArchives())
+		{
+			ArchiveManifest newArchive = newArchives.remove(oldArchive.getId());
+			if (newArchive == null)
+			{
+				out.add(new ArchiveDiff(from.getId(), oldArchive.getId(), ChangeType.REMOVED, oldArchive, null));
+			}
+			else if (oldArchive.getCrc() != newArchive.getCrc() || oldArchive.getRevision() != newArchive.getRevision())
+			{
+				out.add(new ArchiveDiff(from.getId(), oldArchive.getId(), ChangeType.CHANGED, oldArchive, newArchive));
+			}
+		}
+
+		for (ArchiveManifest newArchive : to.getArchives())
+		{
+			if (newArchives.containsKey(newArchive.getId()))
+			{
+				out.add(new ArchiveDiff(to.getId(), newArchive.getId(), ChangeType.ADDED, null, newArchive));
+			}
+		}
+	}
+
+	public List<ArchiveDiff> getArchives()
+	{
+		return archives;
+	}
+
+	public List<ArchiveDiff> getArchives(IndexType type)
+	{
+		List<ArchiveDiff> diffs = new ArrayList<>();
+		for (ArchiveDiff diff : archives)
+		{
+			if (diff.getIndexId() == type.getNumber())
+			{
+				diffs.add(diff);
+			}
+		}
+		return diffs;
+	}
+
+	public ArchiveDiff getArchive(IndexType type, int archiveId)
+	{
+		for (ArchiveDiff diff : archives)
+		{
+			if (diff.getIndexId() == type.getNumber() && diff.getArchiveId() == archiveId)
+			{
+				return diff;
+			}
+		}
+		return null;
+	}
+
+	public boolean isEmpty()
+	{
+		return archives.isEmpty();
+	}
+
+	/**
+	 * Get the ids of the archives of an index which were added, removed or
+	 * changed. This is what to re-export for indexes which store one
+	 * definition per archive, such as sprites.
+	 */
+	public Set<Integer> getAffectedArchives(IndexType type)
+	{
+		Set<Integer> ids = new TreeSet<>();
+		for (ArchiveDiff diff : getArchives(type))
+		{
+			ids.add(diff.getArchiveId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Get the ids of the files of an archive which may have been added, removed
+	 * or changed. This is what to re-export for archives which store one
+	 * definition per file, such as the item, npc and object configs.
+	 */
+	public Set<Integer> getAffectedFiles(IndexType type, int archiveId)
+	{
+		ArchiveDiff diff = getArchive(type, archiveId);
+		return diff != null ? diff.getAffectedFiles() : Collections.emptySet();
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.diff;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.util.Crc32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A snapshot of the reference tables of a {@link Store}, which can be saved
+ * and later diffed against a newer store with {@link CacheDiff}.
+ */
+public class CacheManifest
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheManifest.class);
+
+	private static final Gson GSON = new GsonBuilder().create();
+
+	private final List<IndexManifest> indexes = new ArrayList<>();
+
+	public static CacheManifest create(Store store)
+	{
+		CacheManifest manifest = new CacheManifest();
+
+		for (Index index : store.getIndexes())
+		{
+			IndexManifest im = new IndexManifest();
+			im.setId(index.getId());
+			im.setCrc(index.getCrc());
+			im.setRevision(index.getRevision());
+
+			for (Archive archive : index.getArchives())
+			{
+				ArchiveManifest am = new ArchiveManifest();
+				am.setId(archive.getArchiveId());
+				am.setNameHash(archive.getNameHash());
+				am.setCrc(archive.getCrc());
+				am.setRevision(archive.getRevision());
+
+				FileData[] fileData = archive.getFileData();
+				int[] files = new int[fileData.length];
+				for (int i = 0; i < fileData.length; ++i)
+				{
+					files[i] = fileData[i].getId();
+				}
+				am.setFiles(files);
+
+				im.getArchives().add(am);
+			}
+
+			manifest.indexes.add(im);
+		}
+
+		return manifest;
+	}
+
+	/**
+	 * Hash the contents of each file of an index, so that a diff against
+	 * this manifest can tell which files of a changed archive have changed.
+	 * This has to load every archive of the index. Archives which are missing,
+	 * or can't be read, such as encrypted archives without their keys, are
+	 * left unhashed.
+	 */
+	public void hashFiles(ParallelLoader loader, IndexType type) throws IOException
+	{
+		Index index = loader.getStore().getIndex(type);
+		IndexManifest im = findIndex(type.getNumber());
+		if (index == null || im == null)
+		{
+			return;
+		}
+
+		List<int[]> crcs = loader.loadArchives(index.getArchives(), (archive, data) ->
+		{
+			if (data == null)
+			{
+				return null;
+			}
+
+			ArchiveFiles files;
+			try
+			{
+				files = archive.getFiles(data);
+			}
+			catch (IOException ex)
+			{
+				logger.debug("Unable to read archive {}/{}, leaving it unhashed", index.getId(), archive.getArchiveId(), ex);
+				return null;
+			}
+
+			int[] fileCrcs = new int[files.getFiles().size()];
+			int i = 0;
+			for (FSFile file : files.getFiles())
+			{
+				byte[] contents = file.getContents();
+				Crc32 crc = new Crc32();
+				crc.update(contents, 0, contents.length);
+				fileCrcs[i++] = crc.getHash();
+			}
+			return fileCrcs;
+		});
+
+		for (int i = 0; i < crcs.size(); ++i)
+		{
+			Archive archive = index.getArchives().get(i);
+			ArchiveManifest am = im.findArchive(archive.getArchiveId());
+			if (am != null)
+			{
+				am.setFileCrcs(crcs.get(i));
+			}
+		}
+	}
+
+	public List<IndexManifest> getIndexes()
+	{
+		return indexes;
+	}
+
+	public IndexManifest findIndex(int id)
+	{
+		for (IndexManifest index : indexes)
+		{
+			if (index.getId() == id)
+			{
+				return index;
+			}
+		}
+		return null;
+	}
+
+	public void save(File file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+		{
+			GSON.toJson(this, writer);
+		}
+	}
+
+	public static CacheManifest load(File file) throws IOException
+	{
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			return GSON.fromJson(reader, CacheManifest.class);
+		}
+	}
+}
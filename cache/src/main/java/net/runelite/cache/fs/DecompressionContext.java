@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.util.Crc32;
+import net.runelite.cache.util.Xtea;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Reusable state for decompressing containers. The encrypted data is copied
+ * once into a pooled buffer and decrypted in place, and gzip data is inflated
+ * with a single reused {@link Inflater} directly into the output. Bzip2 data
+ * reuses the buffer, but not the decoder, see {@link #bunzip2(ByteBuffer)}.
+ * <p>
+ * A context is not thread safe, use one per thread.
+ */
+public final class DecompressionContext implements Closeable
+{
+	private static final int MAX_COMPRESSED_LENGTH = 1000000;
+	// far larger than any archive in the cache, but bounds what a corrupt length can allocate
+	private static final int MAX_DECOMPRESSED_LENGTH = 64 * 1024 * 1024;
+	// deflate can not compress better than this
+	private static final int MAX_GZIP_RATIO = 1032;
+
+	private static final byte[] BZIP_HEADER = new byte[]
+	{
+		'B', 'Z', // magic
+		'h',      // 'h' for Bzip2 ('H'uffman coding)
+		'1'       // block size
+	};
+
+	private static final byte[] BZIP_BLOCK_MAGIC = new byte[]
+	{
+		0x31, 0x41, 0x59, 0x26, 0x53, 0x59
+	};
+	private static final byte[] BZIP_EOS_MAGIC = new byte[]
+	{
+		0x17, 0x72, 0x45, 0x38, 0x50, (byte) 0x90
+	};
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int GZIP_FHCRC = 2;
+	private static final int GZIP_FEXTRA = 4;
+	private static final int GZIP_FNAME = 8;
+	private static final int GZIP_FCOMMENT = 16;
+
+	private final Inflater inflater = new Inflater(true);
+	private final CRC32 gzipCrc = new CRC32();
+	private final byte[] probe = new byte[1];
+	private final Crc32 crc32 = new Crc32();
+	private byte[] buffer = new byte[4096];
+	private byte[] transfer;
+
+	// state of the container being decompressed
+	private byte[] source;
+	private int sourceOffset;
+	private int compressedLength;
+	private int decompressedLength;
+
+	private int compression;
+	private int revision;
+	private int crc;
+
+	@Override
+	public void close()
+	{
+		inflater.end();
+	}
+
+	/**
+	 * Decompress a container into a new array
+	 *
+	 * @param b container data
+	 * @param keys xtea keys, or null
+	 * @return the container
+	 * @throws IOException
+	 */
+	public Container decompress(byte[] b, int[] keys) throws IOException
+	{
+		prepare(b, keys);
+
+		byte[] data = new byte[decompressedLength];
+		decompress(ByteBuffer.wrap(data));
+
+		Container container = new Container(compression, revision);
+		container.data = data;
+		container.crc = crc;
+		return container;
+	}
+
+	/**
+	 * Decompress a container into the given buffer. The buffer position is
+	 * advanced by the decompressed length. The compression, revision and
+	 * crc of the container are available from this context afterwards.
+	 *
+	 * @param b container data
+	 * @param keys xtea keys, or null
+	 * @param out buffer to write the decompressed data to
+	 * @return the decompressed length
+	 * @throws IOException
+	 * @throws BufferOverflowException if the buffer does not have enough space remaining
+	 */
+	public int decompress(byte[] b, int[] keys, ByteBuffer out) throws IOException
+	{
+		prepare(b, keys);
+
+		if (out.remaining() < decompressedLength)
+		{
+			throw new BufferOverflowException();
+		}
+
+		decompress(out);
+		return decompressedLength;
+	}
+
+	public int getCompression()
+	{
+		return compression;
+	}
+
+	public int getRevision()
+	{
+		return revision;
+	}
+
+	public int getCrc()
+	{
+		return crc;
+	}
+
+	/**
+	 * Read the container header, checksum and decrypt the data, and read
+	 * the decompressed length. The length and the magic of the compressed
+	 * data are checked before anything is allocated for the output, so data
+	 * decrypted with the wrong keys fails here with an IOException.
+	 */
+	private void prepare(byte[] b, int[] keys) throws IOException
+	{
+		if (b.length < 5)
+		{
+			throw new IOException("Invalid data");
+		}
+
+		compression = b[0] & 0xFF;
+		compressedLength = ((b[1] & 0xFF) << 24) | ((b[2] & 0xFF) << 16) | ((b[3] & 0xFF) << 8) | (b[4] & 0xFF);
+		if (compressedLength < 0 || compressedLength > MAX_COMPRESSED_LENGTH)
+		{
+			throw new IOException("Invalid data");
+		}
+
+		int encryptedLength;
+		switch (compression)
+		{
+			case CompressionType.NONE:
+				encryptedLength = compressedLength;
+				break;
+			case CompressionType.BZ2:
+			case CompressionType.GZ:
+				// includes the decompressed length
+				encryptedLength = compressedLength + 4;
+				break;
+			default:
+				throw new IOException("Unknown decompression type " + compression);
+		}
+
+		if (5 + encryptedLength > b.length)
+		{
+			throw new IOException("Invalid data");
+		}
+
+		crc32.reset();
+		crc32.update(b, 0, 5 + encryptedLength);
+		crc = crc32.getHash();
+
+		revision = -1;
+		if (b.length - 5 - encryptedLength >= 2)
+		{
+			int pos = 5 + encryptedLength;
+			revision = ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+		}
+
+		if (keys == null)
+		{
+			source = b;
+			sourceOffset = 5;
+		}
+		else
+		{
+			if (buffer.length < encryptedLength)
+			{
+				buffer = new byte[Math.max(encryptedLength, buffer.length * 2)];
+			}
+
+			System.arraycopy(b, 5, buffer, 0, encryptedLength);
+			new Xtea(keys).decrypt(buffer, 0, encryptedLength);
+
+			source = buffer;
+			sourceOffset = 0;
+		}
+
+		if (compression == CompressionType.NONE)
+		{
+			decompressedLength = compressedLength;
+		}
+		else
+		{
+			decompressedLength = ((source[sourceOffset] & 0xFF) << 24)
+				| ((source[sourceOffset + 1] & 0xFF) << 16)
+				| ((source[sourceOffset + 2] & 0xFF) << 8)
+				| (source[sourceOffset + 3] & 0xFF);
+			if (decompressedLength < 0 || decompressedLength > MAX_DECOMPRESSED_LENGTH)
+			{
+				throw new IOException("Invalid decompressed length " + decompressedLength);
+			}
+
+			int data = sourceOffset + 4;
+			if (compression == CompressionType.GZ)
+			{
+				if ((long) decompressedLength > (long) compressedLength * MAX_GZIP_RATIO)
+				{
+					throw new IOException("Invalid decompressed length " + decompressedLength);
+				}
+
+				if (compressedLength < 18 || readUnsignedShortLE(source, data) != GZIP_MAGIC)
+				{
+					throw new ZipException("Not in GZIP format");
+				}
+			}
+			else if (compressedLength < BZIP_BLOCK_MAGIC.length
+				|| !(startsWith(source, data, BZIP_BLOCK_MAGIC) || startsWith(source, data, BZIP_EOS_MAGIC)))
+			{
+				throw new IOException("Not in BZIP2 format");
+			}
+		}
+	}
+
+	private static boolean startsWith(byte[] in, int pos, byte[] magic)
+	{
+		for (int i = 0; i < magic.length; ++i)
+		{
+			if (in[pos + i] != magic[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void decompress(ByteBuffer out) throws IOException
+	{
+		switch (compression)
+		{
+			case CompressionType.NONE:
+				out.put(source, sourceOffset, compressedLength);
+				break;
+			case CompressionType.BZ2:
+				bunzip2(out);
+				break;
+			case CompressionType.GZ:
+				gunzip(out);
+				break;
+		}
+	}
+
+	/**
+	 * Decompress bzip2 data from the pooled buffer. Unlike the inflater, the
+	 * decoder is created per container: {@link BZip2CompressorInputStream}
+	 * can't be reset onto new input, and allocates its block tables when it
+	 * reads the first block, so a reused instance would save nothing but the
+	 * wrapper objects.
+	 */
+	private void bunzip2(ByteBuffer out) throws IOException
+	{
+		if (source != buffer)
+		{
+			if (buffer.length < compressedLength + 4)
+			{
+				buffer = new byte[Math.max(compressedLength + 4, buffer.length * 2)];
+			}
+
+			System.arraycopy(source, sourceOffset, buffer, 0, compressedLength + 4);
+		}
+
+		// the bzip2 header is not stored, but it is the same length as the decompressed length which precedes the data
+		System.arraycopy(BZIP_HEADER, 0, buffer, 0, BZIP_HEADER.length);
+
+		int remaining = decompressedLength;
+		try (InputStream is = new BZip2CompressorInputStream(new ByteArrayInputStream(buffer, 0, compressedLength + 4)))
+		{
+			if (out.hasArray())
+			{
+				byte[] array = out.array();
+				int pos = out.arrayOffset() + out.position();
+				while (remaining > 0)
+				{
+					int n = is.read(array, pos, remaining);
+					if (n == -1)
+					{
+						break;
+					}
+					pos += n;
+					remaining -= n;
+				}
+				out.position(pos - out.arrayOffset());
+			}
+			else
+			{
+				if (transfer == null)
+				{
+					transfer = new byte[4096];
+				}
+
+				while (remaining > 0)
+				{
+					int n = is.read(transfer, 0, Math.min(transfer.length, remaining));
+					if (n == -1)
+					{
+						break;
+					}
+					out.put(transfer, 0, n);
+					remaining -= n;
+				}
+			}
+
+			if (remaining == 0 && is.read() != -1)
+			{
+				throw new IOException("bzip2 data is longer than " + decompressedLength + " bytes");
+			}
+		}
+
+		if (remaining != 0)
+		{
+			throw new IOException("bzip2 data is shorter than " + decompressedLength + " bytes");
+		}
+	}
+
+	private void gunzip(ByteBuffer out) throws IOException
+	{
+		final byte[] in = source;
+		final int start = sourceOffset + 4;
+		final int end = start + compressedLength;
+		int pos = start;
+
+		if (compressedLength < 18 || readUnsignedShortLE(in, pos) != GZIP_MAGIC || in[pos + 2] != 8)
+		{
+			throw new ZipException("Not in GZIP format");
+		}
+
+		int flags = in[pos + 3] & 0xFF;
+		pos += 10; // magic, method, flags, mtime, xfl, os
+		if ((flags & GZIP_FEXTRA) != 0)
+		{
+			pos += 2 + readUnsignedShortLE(in, pos);
+		}
+		if ((flags & GZIP_FNAME) != 0)
+		{
+			pos = skipString(in, pos, end);
+		}
+		if ((flags & GZIP_FCOMMENT) != 0)
+		{
+			pos = skipString(in, pos, end);
+		}
+		if ((flags & GZIP_FHCRC) != 0)
+		{
+			pos += 2;
+		}
+
+		if (pos >= end)
+		{
+			throw new ZipException("Corrupt GZIP header");
+		}
+
+		final int outStart = out.position();
+		final int limit = out.limit();
+		out.limit(outStart + decompressedLength);
+
+		inflater.reset();
+		inflater.setInput(in, pos, end - pos);
+		try
+		{
+			while (!inflater.finished())
+			{
+				// once the output is full, only the end of the stream may follow
+				boolean full = !out.hasRemaining();
+				int n = full ? inflater.inflate(probe) : inflater.inflate(out);
+				if (full && n != 0)
+				{
+					throw new IOException("gzip data is longer than " + decompressedLength + " bytes");
+				}
+				if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary()))
+				{
+					throw new ZipException("Unexpected end of ZLIB input stream");
+				}
+			}
+		}
+		catch (DataFormatException ex)
+		{
+			throw new ZipException(ex.getMessage());
+		}
+		finally
+		{
+			out.limit(limit);
+		}
+
+		int written = out.position() - outStart;
+		if (written != decompressedLength)
+		{
+			throw new IOException("gzip data is shorter than " + decompressedLength + " bytes");
+		}
+
+		// trailer is the crc32 and size of the uncompressed data
+		int trailer = end - inflater.getRemaining();
+		if (end - trailer < 8)
+		{
+			throw new ZipException("Corrupt GZIP trailer");
+		}
+
+		ByteBuffer view = out.duplicate();
+		view.position(outStart);
+		view.limit(outStart + decompressedLength);
+		gzipCrc.reset();
+		gzipCrc.update(view);
+		if (readIntLE(in, trailer) != (int) gzipCrc.getValue() || readIntLE(in, trailer + 4) != decompressedLength)
+		{
+			throw new ZipException("Corrupt GZIP trailer");
+		}
+	}
+
+	private static int skipString(byte[] in, int pos, int end)
+	{
+		while (pos < end && in[pos] != 0)
+		{
+			++pos;
+		}
+		return pos + 1;
+	}
+
+	private static int readUnsignedShortLE(byte[] in, int pos)
+	{
+		return (in[pos] & 0xFF) | ((in[pos + 1] & 0xFF) << 8);
+	}
+
+	private static int readIntLE(byte[] in, int pos)
+	{
+		return (in[pos] & 0xFF)
+			| ((in[pos + 1] & 0xFF) << 8)
+			| ((in[pos + 2] & 0xFF) << 16)
+			| ((in[pos + 3] & 0xFF) << 24);
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads archives, decompresses them and parses their contents on a
+ * {@link ForkJoinPool}. Results are always returned in the order of the
+ * input, regardless of the order in which the work completes.
+ * <p>
+ * The {@link Storage} of the store must support concurrent reads, which
+ * {@link net.runelite.cache.fs.jagex.DiskStorage} does.
+ */
+public class ParallelLoader implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(ParallelLoader.class);
+
+	/**
+	 * Number of items a single task processes before it stops splitting
+	 */
+	private static final int THRESHOLD = 16;
+
+	@FunctionalInterface
+	public interface ArchiveFunction<T>
+	{
+		/**
+		 * @param archive the archive
+		 * @param data the archive data as read from storage, still compressed
+		 * @return the result for this archive
+		 * @throws IOException
+		 */
+		T apply(Archive archive, byte[] data) throws IOException;
+	}
+
+	@FunctionalInterface
+	public interface LoadFunction<I, T>
+	{
+		T apply(I input) throws IOException;
+	}
+
+	@FunctionalInterface
+	public interface ProgressListener
+	{
+		/**
+		 * Called from the worker threads as work completes
+		 *
+		 * @param completed number of completed items
+		 * @param total total number of items
+		 */
+		void progress(int completed, int total);
+	}
+
+	private final Store store;
+	private final ForkJoinPool pool;
+	private volatile ProgressListener progressListener;
+
+	public ParallelLoader(Store store)
+	{
+		this(store, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelLoader(Store store, int parallelism)
+	{
+		this.store = store;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	@Override
+	public void close()
+	{
+		pool.shutdown();
+	}
+
+	public Store getStore()
+	{
+		return store;
+	}
+
+	public int getParallelism()
+	{
+		return pool.getParallelism();
+	}
+
+	public void setProgressListener(ProgressListener progressListener)
+	{
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Read each archive from storage and apply the given function to it
+	 *
+	 * @param archives archives to load
+	 * @param function function applied to each archive and its data
+	 * @return the results, in the order of the archives
+	 * @throws IOException
+	 */
+	public <T> List<T> loadArchives(List<Archive> archives, ArchiveFunction<T> function) throws IOException
+	{
+		final Storage storage = store.getStorage();
+		return map(archives, archive -> function.apply(archive, storage.loadArchive(archive)));
+	}
+
+	/**
+	 * Load and decompress the given archives
+	 *
+	 * @param archives archives to load
+	 * @return the decompressed data, in the order of the archives
+	 * @throws IOException
+	 */
+	public List<byte[]> decompressArchives(List<Archive> archives) throws IOException
+	{
+		return loadArchives(archives, Archive::decompress);
+	}
+
+	/**
+	 * Load and decompress a single archive, and then apply the given
+	 * function to each of its files
+	 *
+	 * @param archive archive to load
+	 * @param keys xtea keys, or null
+	 * @param function function to apply to each file
+	 * @return the results, in the order of the files in the archive
+	 * @throws IOException
+	 */
+	public <T> List<T> loadFiles(Archive archive, int[] keys, LoadFunction<FSFile, T> function) throws IOException
+	{
+		byte[] archiveData = store.getStorage().loadArchive(archive);
+		ArchiveFiles files = archive.getFiles(archiveData, keys);
+		return map(files.getFiles(), function);
+	}
+
+	/**
+	 * Apply the given function to each input on the pool
+	 *
+	 * @param inputs inputs
+	 * @param function function to apply
+	 * @return the results, in the order of the inputs
+	 * @throws IOException the first exception thrown by the function
+	 */
+	@SuppressWarnings("unchecked")
+	public <I, T> List<T> map(List<I> inputs, LoadFunction<I, T> function) throws IOException
+	{
+		if (inputs.isEmpty())
+		{
+			return Collections.emptyList();
+		}
+
+		final Object[] in = inputs.toArray();
+		final Object[] out = new Object[in.length];
+		final AtomicInteger completed = new AtomicInteger();
+
+		try
+		{
+			pool.invoke(new MapAction(in, out, (LoadFunction<Object, Object>) function, completed, 0, in.length));
+		}
+		catch (UncheckedIOException ex)
+		{
+			throw ex.getCause();
+		}
+
+		logger.debug("Loaded {} items with parallelism {}", in.length, pool.getParallelism());
+
+		return (List<T>) Collections.unmodifiableList(Arrays.asList(out));
+	}
+
+	private class MapAction extends RecursiveAction
+	{
+		private final Object[] in;
+		private final Object[] out;
+		private final LoadFunction<Object, Object> function;
+		private final AtomicInteger completed;
+		private final int from;
+		private final int to;
+
+		private MapAction(Object[] in, Object[] out, LoadFunction<Object, Object> function, AtomicInteger completed, int from, int to)
+		{
+			this.in = in;
+			this.out = out;
+			this.function = function;
+			this.completed = completed;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from > THRESHOLD)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new MapAction(in, out, function, completed, from, mid),
+					new MapAction(in, out, function, completed, mid, to));
+				return;
+			}
+
+			for (int i = from; i < to; ++i)
+			{
+				try
+				{
+					out[i] = function.apply(in[i]);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+
+				int done = completed.incrementAndGet();
+				ProgressListener listener = progressListener;
+				if (listener != null)
+				{
+					listener.progress(done, in.length);
+				}
+			}
+		}
+	}
+}
@@ -30,6 +30,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
@@ -54,12 +56,48 @@ public class DiskStorage implements Storage
 	private final IndexFile index255;
 	private final List<IndexFile> indexFiles = new ArrayList<>();
 
+	/**
+	 * Memory mapped read path, or null if reads go through the
+	 * {@link DataFile} and {@link IndexFile}.
+	 */
+	private final MappedDataFile mappedData;
+	private final MappedIndexFile mappedIndex255;
+	private final Map<Integer, MappedIndexFile> mappedIndexFiles = new ConcurrentHashMap<>();
+
 	public DiskStorage(File folder) throws IOException
+	{
+		this(folder, false);
+	}
+
+	/**
+	 * @param folder cache folder
+	 * @param memoryMapped whether to read archives through memory mapped
+	 * views of the data and index files. Writes always go through the
+	 * regular file path, and the mappings are refreshed afterwards.
+	 * @throws IOException
+	 */
+	public DiskStorage(File folder, boolean memoryMapped) throws IOException
 	{
 		this.folder = folder;
 
 		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT));
 		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
+
+		if (memoryMapped)
+		{
+			this.mappedData = new MappedDataFile(new File(folder, MAIN_FILE_CACHE_DAT));
+			this.mappedIndex255 = new MappedIndexFile(index255);
+		}
+		else
+		{
+			this.mappedData = null;
+			this.mappedIndex255 = null;
+		}
+	}
+
+	public boolean isMemoryMapped()
+	{
+		return mappedData != null;
 	}
 
 	@Override
@@ -77,6 +115,16 @@ public class DiskStorage implements Storage
 	@Override
 	public void close() throws IOException
 	{
+		if (mappedData != null)
+		{
+			mappedData.close();
+			mappedIndex255.close();
+			for (MappedIndexFile mappedIndexFile : mappedIndexFiles.values())
+			{
+				mappedIndexFile.close();
+			}
+		}
+
 		data.close();
 		index255.close();
 		for (IndexFile indexFile : indexFiles)
@@ -85,7 +133,7 @@ public class DiskStorage implements Storage
 		}
 	}
 
-	private IndexFile getIndex(int i) throws FileNotFoundException
+	private synchronized IndexFile getIndex(int i) throws FileNotFoundException
 	{
 		for (IndexFile indexFile : indexFiles)
 		{
@@ -100,6 +148,26 @@ public class DiskStorage implements Storage
 		return indexFile;
 	}
 
+	private MappedIndexFile getMappedIndex(int i) throws IOException
+	{
+		MappedIndexFile mappedIndexFile = mappedIndexFiles.get(i);
+		if (mappedIndexFile != null)
+		{
+			return mappedIndexFile;
+		}
+
+		synchronized (this)
+		{
+			mappedIndexFile = mappedIndexFiles.get(i);
+			if (mappedIndexFile == null)
+			{
+				mappedIndexFile = new MappedIndexFile(getIndex(i));
+				mappedIndexFiles.put(i, mappedIndexFile);
+			}
+			return mappedIndexFile;
+		}
+	}
+
 	@Override
 	public void load(Store store) throws IOException
 	{
@@ -111,6 +179,12 @@ public class DiskStorage implements Storage
 
 	public byte[] readIndex(int indexId) throws IOException
 	{
+		if (mappedData != null)
+		{
+			IndexEntry entry = mappedIndex255.read(indexId);
+			return entry != null ? mappedData.read(index255.getIndexFileId(), entry.getId(), entry.getSector(), entry.getLength()) : null;
+		}
+
 		IndexEntry entry = index255.read(indexId);
 		if (entry != null)
 		{
@@ -162,6 +236,12 @@ public class DiskStorage implements Storage
 	public byte[] loadArchive(Archive archive) throws IOException
 	{
 		Index index = archive.getIndex();
+
+		if (mappedData != null)
+		{
+			return loadMappedArchive(archive);
+		}
+
 		IndexFile indexFile = getIndex(index.getId());
 
 		assert indexFile.getIndexFileId() == index.getId();
@@ -182,6 +262,24 @@ public class DiskStorage implements Storage
 		return archiveData;
 	}
 
+	private byte[] loadMappedArchive(Archive archive) throws IOException
+	{
+		Index index = archive.getIndex();
+		MappedIndexFile indexFile = getMappedIndex(index.getId());
+
+		IndexEntry entry = indexFile.read(archive.getArchiveId());
+		if (entry == null)
+		{
+			logger.debug("can't read archive " + archive.getArchiveId() + " from index " + index.getId());
+			return null;
+		}
+
+		logger.trace("Loading mapped archive {} for index {} from sector {} length {}",
+			archive.getArchiveId(), index.getId(), entry.getSector(), entry.getLength());
+
+		return mappedData.read(index.getId(), entry.getId(), entry.getSector(), entry.getLength());
+	}
+
 	@Override
 	public void save(Store store) throws IOException
 	{
@@ -205,6 +303,12 @@ public class DiskStorage implements Storage
 
 		index255.write(new IndexEntry(index255, index.getId(), res.sector, res.compressedLength));
 
+		if (mappedData != null)
+		{
+			mappedData.invalidate();
+			mappedIndex255.invalidate();
+		}
+
 		Crc32 crc = new Crc32();
 		crc.update(compressedData, 0, compressedData.length);
 		index.setCrc(crc.getHash());
@@ -220,6 +324,12 @@ public class DiskStorage implements Storage
 		DataFileWriteResult res = data.write(index.getId(), a.getArchiveId(), archiveData);
 		indexFile.write(new IndexEntry(indexFile, a.getArchiveId(), res.sector, res.compressedLength));
 
+		if (mappedData != null)
+		{
+			mappedData.invalidate();
+			getMappedIndex(index.getId()).invalidate();
+		}
+
 		byte compression = archiveData[0];
 		int compressedSize = Ints.fromBytes(archiveData[1], archiveData[2],
 			archiveData[3], archiveData[4]);
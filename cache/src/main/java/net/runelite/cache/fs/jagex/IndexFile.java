@@ -94,6 +94,11 @@ public class IndexFile implements Closeable
 		return indexFileId;
 	}
 
+	public File getFile()
+	{
+		return file;
+	}
+
 	public synchronized void write(IndexEntry entry) throws IOException
 	{
 		idx.seek(entry.getId() * INDEX_ENTRY_LEN);
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read only, memory mapped view of a {@link DataFile}. Sector chains are
+ * followed directly over the mapped file, so concurrent readers do not
+ * contend on a shared file pointer.
+ */
+public class MappedDataFile implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDataFile.class);
+
+	private static final int SECTOR_SIZE = 520;
+	/**
+	 * A single mapping is limited to 2GB, so larger files are mapped in
+	 * segments. Segments are a whole number of sectors so a sector never
+	 * straddles two mappings.
+	 */
+	private static final long SEGMENT_SIZE = (long) SECTOR_SIZE * (Integer.MAX_VALUE / SECTOR_SIZE);
+
+	private final FileChannel channel;
+	private volatile Mapping mapping;
+
+	private static class Mapping
+	{
+		private final MappedByteBuffer[] segments;
+		private final long length;
+
+		private Mapping(MappedByteBuffer[] segments, long length)
+		{
+			this.segments = segments;
+			this.length = length;
+		}
+	}
+
+	public MappedDataFile(File file) throws IOException
+	{
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		mapping = null;
+		channel.close();
+	}
+
+	/**
+	 * Drop the current mapping, so that the next read maps the file again.
+	 * This must be called after the underlying file has grown.
+	 */
+	public void invalidate()
+	{
+		mapping = null;
+	}
+
+	private Mapping getMapping() throws IOException
+	{
+		Mapping m = mapping;
+		if (m != null)
+		{
+			return m;
+		}
+
+		synchronized (this)
+		{
+			m = mapping;
+			if (m == null)
+			{
+				long length = channel.size();
+				int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+				MappedByteBuffer[] segments = new MappedByteBuffer[count];
+				for (int i = 0; i < count; ++i)
+				{
+					long position = i * SEGMENT_SIZE;
+					segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, length - position));
+				}
+				mapping = m = new Mapping(segments, length);
+			}
+			return m;
+		}
+	}
+
+	/**
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @return the archive data, or null if the sector chain is invalid
+	 * @throws IOException
+	 * @see DataFile#read(int, int, int, int)
+	 */
+	public byte[] read(int indexId, int archiveId, int sector, int size) throws IOException
+	{
+		Mapping m = getMapping();
+		long sectors = m.length / SECTOR_SIZE;
+
+		if (sector <= 0L || sectors < (long) sector)
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", m.length, sector);
+			return null;
+		}
+
+		final boolean extended = archiveId > 0xFFFF;
+		final int headerSize = extended ? 10 : 8;
+		final byte[] result = new byte[size];
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector == 0)
+			{
+				logger.warn("Unexpected end of file");
+				return null;
+			}
+
+			int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+
+			long offset = (long) SECTOR_SIZE * sector;
+			if (offset + headerSize + dataBlockSize > m.length)
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return null;
+			}
+
+			// absolute gets do not touch the buffer position, so the shared mapping is safe to read concurrently
+			ByteBuffer segment = m.segments[(int) (offset / SEGMENT_SIZE)];
+			int pos = (int) (offset % SEGMENT_SIZE);
+
+			int currentArchive;
+			int currentPart;
+			int currentIndex;
+			if (extended)
+			{
+				currentArchive = segment.getInt(pos);
+				currentPart = segment.getShort(pos + 4) & 0xFFFF;
+				nextSector = ((segment.get(pos + 6) & 0xFF) << 16)
+					| ((segment.get(pos + 7) & 0xFF) << 8)
+					| (segment.get(pos + 8) & 0xFF);
+				currentIndex = segment.get(pos + 9) & 0xFF;
+			}
+			else
+			{
+				currentArchive = segment.getShort(pos) & 0xFFFF;
+				currentPart = segment.getShort(pos + 2) & 0xFFFF;
+				nextSector = ((segment.get(pos + 4) & 0xFF) << 16)
+					| ((segment.get(pos + 5) & 0xFF) << 8)
+					| (segment.get(pos + 6) & 0xFF);
+				currentIndex = segment.get(pos + 7) & 0xFF;
+			}
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return null;
+			}
+
+			if (nextSector < 0 || sectors < (long) nextSector)
+			{
+				logger.warn("Invalid next sector");
+				return null;
+			}
+
+			ByteBuffer view = segment.duplicate();
+			view.position(pos + headerSize);
+			view.get(result, readBytesCount, dataBlockSize);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read only, memory mapped view of an {@link IndexFile}. Unlike
+ * {@link IndexFile#read(int)} reads are not synchronized.
+ */
+public class MappedIndexFile implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedIndexFile.class);
+
+	private static final int INDEX_ENTRY_LEN = 6;
+
+	private final IndexFile indexFile;
+	private final FileChannel channel;
+	private volatile MappedByteBuffer buffer;
+
+	public MappedIndexFile(IndexFile indexFile) throws IOException
+	{
+		this.indexFile = indexFile;
+		this.channel = FileChannel.open(indexFile.getFile().toPath(), StandardOpenOption.READ);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		buffer = null;
+		channel.close();
+	}
+
+	/**
+	 * Drop the current mapping, so that the next read maps the file again.
+	 * This must be called after the underlying file has grown.
+	 */
+	public void invalidate()
+	{
+		buffer = null;
+	}
+
+	public IndexFile getIndexFile()
+	{
+		return indexFile;
+	}
+
+	private MappedByteBuffer getBuffer() throws IOException
+	{
+		MappedByteBuffer b = buffer;
+		if (b != null)
+		{
+			return b;
+		}
+
+		synchronized (this)
+		{
+			b = buffer;
+			if (b == null)
+			{
+				buffer = b = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			return b;
+		}
+	}
+
+	public IndexEntry read(int id) throws IOException
+	{
+		MappedByteBuffer b = getBuffer();
+		int pos = id * INDEX_ENTRY_LEN;
+		if (id < 0 || pos + INDEX_ENTRY_LEN > b.limit())
+		{
+			logger.debug("short read for id {} on index {}", id, indexFile.getIndexFileId());
+			return null;
+		}
+
+		int length = ((b.get(pos) & 0xFF) << 16) | ((b.get(pos + 1) & 0xFF) << 8) | (b.get(pos + 2) & 0xFF);
+		int sector = ((b.get(pos + 3) & 0xFF) << 16) | ((b.get(pos + 4) & 0xFF) << 8) | (b.get(pos + 5) & 0xFF);
+
+		if (length <= 0 || sector <= 0)
+		{
+			logger.debug("invalid length or sector {}/{}", length, sector);
+			return null;
+		}
+
+		return new IndexEntry(indexFile, id, sector, length);
+	}
+}
@@ -24,33 +24,105 @@
  */
 package net.runelite.cache.item;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.Value;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.cache.definitions.ModelDefinition;
 import net.runelite.cache.definitions.providers.ItemProvider;
 import net.runelite.cache.definitions.providers.ModelProvider;
 import net.runelite.cache.definitions.providers.SpriteProvider;
 import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.models.FaceNormal;
 import net.runelite.cache.models.VertexNormal;
 
 public class ItemSpriteFactory
 {
+	/**
+	 * Number of decoded models kept between sprites
+	 */
+	private static final int MODEL_CACHE_SIZE = 1024;
+
+	@Value
+	public static class SpriteRequest
+	{
+		int itemId;
+		int quantity;
+		int border;
+		int shadowColor;
+		boolean noted;
+	}
+
+	private final ItemProvider itemProvider;
+	private final ModelProvider modelProvider;
+	private final RSTextureProvider rsTextureProvider;
+
+	private final Cache<Integer, ModelDefinition> models = CacheBuilder.newBuilder()
+		.maximumSize(MODEL_CACHE_SIZE)
+		.build();
+
+	/**
+	 * Idle rasterizers. Each sprite takes one for the duration of its
+	 * render, so a rasterizer is only ever used by one thread at a time.
+	 */
+	private final Queue<Graphics3D> rasterizers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Create a factory which renders many sprites, possibly concurrently.
+	 * Decoded models and textures are shared between the sprites, so the
+	 * providers must not change them.
+	 */
+	public ItemSpriteFactory(ItemProvider itemProvider, ModelProvider modelProvider,
+		SpriteProvider spriteProvider, TextureProvider textureProvider)
+	{
+		this.itemProvider = itemProvider;
+		this.modelProvider = modelProvider;
+		this.rsTextureProvider = new RSTextureProvider(textureProvider, spriteProvider);
+	}
+
 	public static final BufferedImage createSprite(ItemProvider itemProvider, ModelProvider modelProvider,
 												SpriteProvider spriteProvider, TextureProvider textureProvider,
 												int itemId, int quantity, int border, int shadowColor,
 												boolean noted) throws IOException
 	{
-		Sprite spritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-				itemId, quantity, border, shadowColor, noted);
+		ItemSpriteFactory factory = new ItemSpriteFactory(itemProvider, modelProvider, spriteProvider, textureProvider);
+		return factory.createSprite(itemId, quantity, border, shadowColor, noted);
+	}
+
+	/**
+	 * Render the sprite of an item. This may be called from several
+	 * threads at once.
+	 *
+	 * @return the sprite, or null if the item has no model
+	 * @throws IOException
+	 */
+	public BufferedImage createSprite(int itemId, int quantity, int border, int shadowColor, boolean noted) throws IOException
+	{
+		Sprite spritePixels = createSpritePixels(itemId, quantity, border, shadowColor, noted);
 		return spritePixels == null ? null : spritePixels.toBufferedImage();
 	}
 
-	private static final Sprite createSpritePixels(ItemProvider itemProvider, ModelProvider modelProvider,
-														SpriteProvider spriteProvider, TextureProvider textureProvider,
-														int itemId, int quantity, int border, int shadowColor,
-														boolean noted) throws IOException
+	/**
+	 * Render the sprites of many items on the pool of the given loader
+	 *
+	 * @param parallelLoader loader whose pool renders the sprites
+	 * @param requests sprites to render
+	 * @return the sprites in the order of the requests, null for items without a model
+	 * @throws IOException
+	 */
+	public List<BufferedImage> createSprites(ParallelLoader parallelLoader, List<SpriteRequest> requests) throws IOException
+	{
+		return parallelLoader.map(requests, request -> createSprite(request.getItemId(), request.getQuantity(),
+			request.getBorder(), request.getShadowColor(), request.isNoted()));
+	}
+
+	private Sprite createSpritePixels(int itemId, int quantity, int border, int shadowColor, boolean noted) throws IOException
 	{
 		ItemDefinition item = itemProvider.provide(itemId);
 
@@ -74,10 +146,12 @@ public class ItemSpriteFactory
 
 		if (item.notedTemplate != -1)
 		{
+			// the provider's definitions are shared, so note a copy
+			item = item.copy();
 			item.updateNote(itemProvider.provide(item.notedTemplate), itemProvider.provide(item.notedID));
 		}
 
-		Model itemModel = getModel(modelProvider, item);
+		Model itemModel = getModel(item);
 		if (itemModel == null)
 		{
 			return null;
@@ -86,8 +160,7 @@ public class ItemSpriteFactory
 		Sprite auxSpritePixels = null;
 		if (item.notedTemplate != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-					item.notedID, 10, 1, 0, true);
+			auxSpritePixels = createSpritePixels(item.notedID, 10, 1, 0, true);
 			if (auxSpritePixels == null)
 			{
 				return null;
@@ -95,8 +168,7 @@ public class ItemSpriteFactory
 		}
 		else if (item.boughtTemplateId != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-					item.boughtId, quantity, border, shadowColor, false);
+			auxSpritePixels = createSpritePixels(item.boughtId, quantity, border, shadowColor, false);
 			if (auxSpritePixels == null)
 			{
 				return null;
@@ -104,19 +176,34 @@ public class ItemSpriteFactory
 		}
 		else if (item.placeholderTemplateId != -1)
 		{
-			auxSpritePixels = createSpritePixels(itemProvider, modelProvider, spriteProvider, textureProvider,
-					item.placeholderId, quantity, 0, 0, false);
+			auxSpritePixels = createSpritePixels(item.placeholderId, quantity, 0, 0, false);
 			if (auxSpritePixels == null)
 			{
 				return null;
 			}
 		}
 
-		RSTextureProvider rsTextureProvider = new RSTextureProvider(textureProvider, spriteProvider);
+		Graphics3D graphics = rasterizers.poll();
+		if (graphics == null)
+		{
+			graphics = new Graphics3D(rsTextureProvider);
+			graphics.setBrightness(0.6d);
+		}
+
+		try
+		{
+			return render(graphics, item, itemModel, auxSpritePixels, border, shadowColor, noted);
+		}
+		finally
+		{
+			rasterizers.offer(graphics);
+		}
+	}
 
+	private static Sprite render(Graphics3D graphics, ItemDefinition item, Model itemModel, Sprite auxSpritePixels,
+		int border, int shadowColor, boolean noted)
+	{
 		Sprite spritePixels = new Sprite(36, 32);
-		Graphics3D graphics = new Graphics3D(rsTextureProvider);
-		graphics.setBrightness(0.6d);
 		graphics.setRasterBuffer(spritePixels.pixels, 36, 32);
 		graphics.reset();
 		graphics.setRasterClipping();
@@ -183,10 +270,10 @@ public class ItemSpriteFactory
 		return spritePixels;
 	}
 
-	private static Model getModel(ModelProvider modelProvider, ItemDefinition item) throws IOException
+	private Model getModel(ItemDefinition item) throws IOException
 	{
 		Model itemModel;
-		ModelDefinition inventoryModel = modelProvider.provide(item.inventoryModel);
+		ModelDefinition inventoryModel = loadModel(item.inventoryModel);
 		if (inventoryModel == null)
 		{
 			return null;
@@ -218,6 +305,28 @@ public class ItemSpriteFactory
 		return itemModel;
 	}
 
+	/**
+	 * Get a copy of a model, which the item may then resize and recolor
+	 */
+	private ModelDefinition loadModel(int modelId) throws IOException
+	{
+		ModelDefinition model = models.getIfPresent(modelId);
+		if (model == null)
+		{
+			model = modelProvider.provide(modelId);
+			if (model == null)
+			{
+				return null;
+			}
+
+			// computed once here, and shared by the copies which are not resized
+			model.computeNormals();
+			models.put(modelId, model);
+		}
+
+		return model.copy();
+	}
+
 	private static Model light(ModelDefinition def, int ambient, int contrast, int x, int y, int z)
 	{
 		def.computeNormals();
@@ -64,7 +64,12 @@ public class RSTextureProvider
 		}
 	}
 
-	public int[] load(int var1)
+	/**
+	 * Load the pixels of a texture, building them the first time. This is
+	 * synchronized as building the pixels changes the texture and its
+	 * sprites, and a provider may be shared by several renderers.
+	 */
+	public synchronized int[] load(int var1)
 	{
 		TextureDefinition var2 = this.textures[var1];
 		if (var2 != null)
@@ -25,8 +25,10 @@
 package net.runelite.cache.region;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
@@ -35,6 +37,7 @@ import net.runelite.cache.definitions.loaders.LocationsLoader;
 import net.runelite.cache.definitions.loaders.MapLoader;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.util.XteaKeyManager;
@@ -75,6 +78,42 @@ public class RegionLoader
 		}
 	}
 
+	/**
+	 * Load all regions, reading and decoding them in parallel
+	 */
+	public void loadRegions(ParallelLoader parallelLoader) throws IOException
+	{
+		List<Integer> ids = new ArrayList<>(MAX_REGION);
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			ids.add(i);
+		}
+
+		List<Region> loaded = parallelLoader.map(ids, this::loadRegionFromArchive);
+		for (Region region : loaded)
+		{
+			if (region != null)
+			{
+				regions.put(region.getRegionID(), region);
+			}
+		}
+	}
+
+	/**
+	 * Load only the given regions
+	 */
+	public void loadRegions(Collection<Integer> ids) throws IOException
+	{
+		for (int i : ids)
+		{
+			Region region = this.loadRegionFromArchive(i);
+			if (region != null)
+			{
+				regions.put(i, region);
+			}
+		}
+	}
+
 	public Region loadRegionFromArchive(int i) throws IOException
 	{
 		int x = i >> 8;
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * A memory mapped file holding the decompressed contents of the files of
+ * an archive, or of every archive of an index, by id. It records the crc
+ * and revision of what it was built from, so that it can be checked
+ * against the reference table of a store before it is used.
+ * <p>
+ * The file is a header, a table of id, offset and length sorted by id,
+ * and then the contents. The table is checked when the snapshot is
+ * opened, and a lookup binary searches it within the mapping, so no
+ * contents are read before they are asked for.
+ */
+public class DefinitionSnapshot
+{
+	private static final int MAGIC = 0x524C4453; // RLDS
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 28;
+	private static final int ENTRY_SIZE = 12;
+
+	/**
+	 * The snapshot holds one entry for each archive of the index
+	 */
+	public static final int WHOLE_INDEX = -1;
+
+	private final ByteBuffer buffer;
+	private final int indexId;
+	private final int archiveId;
+	private final int crc;
+	private final int revision;
+	private final int count;
+
+	private DefinitionSnapshot(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+		{
+			throw new IOException("not a definition snapshot");
+		}
+
+		int version = buffer.getInt(4);
+		if (version != VERSION)
+		{
+			throw new IOException("snapshot version " + version + " is not " + VERSION);
+		}
+
+		this.buffer = buffer;
+		this.indexId = buffer.getInt(8);
+		this.archiveId = buffer.getInt(12);
+		this.crc = buffer.getInt(16);
+		this.revision = buffer.getInt(20);
+		this.count = buffer.getInt(24);
+
+		if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > buffer.limit())
+		{
+			throw new IOException("truncated snapshot");
+		}
+
+		checkEntries();
+	}
+
+	/**
+	 * Check that the ids of the table are sorted, and that every entry is
+	 * within the contents, so a damaged file is rebuilt rather than read
+	 * out of bounds
+	 */
+	private void checkEntries() throws IOException
+	{
+		long dataStart = HEADER_SIZE + (long) count * ENTRY_SIZE;
+		long previousId = Long.MIN_VALUE;
+		for (int i = 0; i < count; ++i)
+		{
+			int pos = HEADER_SIZE + i * ENTRY_SIZE;
+			int id = buffer.getInt(pos);
+			int offset = buffer.getInt(pos + 4);
+			int length = buffer.getInt(pos + 8);
+
+			if (id <= previousId)
+			{
+				throw new IOException("snapshot entries are not sorted at entry " + i);
+			}
+
+			if (offset < dataStart || length < 0 || (long) offset + length > buffer.limit())
+			{
+				throw new IOException("snapshot entry " + id + " is out of bounds");
+			}
+
+			previousId = id;
+		}
+	}
+
+	public static DefinitionSnapshot open(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new DefinitionSnapshot(buffer);
+		}
+	}
+
+	/**
+	 * Write a snapshot. The file is written next to its destination and
+	 * then moved into place, so a reader never sees a partial snapshot.
+	 */
+	public static void write(File file, int indexId, int archiveId, int crc, int revision, SortedMap<Integer, byte[]> entries) throws IOException
+	{
+		Path target = file.toPath();
+		Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), file.getName(), ".tmp");
+
+		try
+		{
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+			{
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(indexId);
+				out.writeInt(archiveId);
+				out.writeInt(crc);
+				out.writeInt(revision);
+				out.writeInt(entries.size());
+
+				long offset = HEADER_SIZE + (long) entries.size() * ENTRY_SIZE;
+				for (Map.Entry<Integer, byte[]> entry : entries.entrySet())
+				{
+					int length = entry.getValue().length;
+					if (offset + length > Integer.MAX_VALUE)
+					{
+						throw new IOException("snapshot too large");
+					}
+
+					out.writeInt(entry.getKey());
+					out.writeInt((int) offset);
+					out.writeInt(length);
+					offset += length;
+				}
+
+				for (byte[] contents : entries.values())
+				{
+					out.write(contents);
+				}
+			}
+
+			try
+			{
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex)
+			{
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Whether this snapshot was built from the given archive, or index if
+	 * archiveId is {@link #WHOLE_INDEX}, at the given crc and revision
+	 */
+	public boolean matches(int indexId, int archiveId, int crc, int revision)
+	{
+		return this.indexId == indexId && this.archiveId == archiveId
+			&& this.crc == crc && this.revision == revision;
+	}
+
+	public int getIndexId()
+	{
+		return indexId;
+	}
+
+	public int getArchiveId()
+	{
+		return archiveId;
+	}
+
+	public int getCrc()
+	{
+		return crc;
+	}
+
+	public int getRevision()
+	{
+		return revision;
+	}
+
+	public int size()
+	{
+		return count;
+	}
+
+	public int[] getIds()
+	{
+		int[] ids = new int[count];
+		for (int i = 0; i < count; ++i)
+		{
+			ids[i] = buffer.getInt(HEADER_SIZE + i * ENTRY_SIZE);
+		}
+		return ids;
+	}
+
+	/**
+	 * Get the contents of an entry
+	 *
+	 * @param id file id, or archive id if the snapshot is of a whole index
+	 * @return the contents, or null if there is no entry with this id
+	 */
+	public byte[] get(int id)
+	{
+		int lo = 0, hi = count - 1;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			int pos = HEADER_SIZE + mid * ENTRY_SIZE;
+			int midId = buffer.getInt(pos);
+
+			if (midId < id)
+			{
+				lo = mid + 1;
+			}
+			else if (midId > id)
+			{
+				hi = mid - 1;
+			}
+			else
+			{
+				int offset = buffer.getInt(pos + 4);
+				int length = buffer.getInt(pos + 8);
+
+				// a duplicate keeps the position of the shared buffer untouched
+				ByteBuffer slice = buffer.duplicate();
+				slice.position(offset);
+
+				byte[] contents = new byte[length];
+				slice.get(contents);
+				return contents;
+			}
+		}
+
+		return null;
+	}
+}
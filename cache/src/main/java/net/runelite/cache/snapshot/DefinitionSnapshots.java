@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.snapshot;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A directory of {@link DefinitionSnapshot}s of a store. A snapshot is
+ * checked against the reference table of the store when it is asked for,
+ * and rebuilt from the store if the archive or index has changed since.
+ */
+public class DefinitionSnapshots
+{
+	private static final Logger logger = LoggerFactory.getLogger(DefinitionSnapshots.class);
+
+	private final Store store;
+	private final File directory;
+
+	public DefinitionSnapshots(Store store, File directory)
+	{
+		this.store = store;
+		this.directory = directory;
+	}
+
+	/**
+	 * Get a snapshot of the files of an archive, keyed by the crc and
+	 * revision of the archive in the reference table of its index
+	 */
+	public DefinitionSnapshot getArchive(IndexType indexType, int archiveId) throws IOException
+	{
+		Index index = store.getIndex(indexType);
+		Archive archive = index.getArchive(archiveId);
+		if (archive == null)
+		{
+			throw new FileNotFoundException("no archive " + archiveId + " in index " + indexType);
+		}
+
+		File file = new File(directory, index.getId() + "-" + archiveId + ".snapshot");
+		DefinitionSnapshot snapshot = open(file);
+		if (snapshot != null && snapshot.matches(index.getId(), archiveId, archive.getCrc(), archive.getRevision()))
+		{
+			return snapshot;
+		}
+
+		logger.info("Building snapshot of archive {} of index {}", archiveId, indexType);
+
+		byte[] archiveData = store.getStorage().loadArchive(archive);
+		if (archiveData == null)
+		{
+			throw new IOException("archive " + archiveId + " of index " + indexType + " is missing");
+		}
+
+		ArchiveFiles files = archive.getFiles(archiveData);
+
+		SortedMap<Integer, byte[]> entries = new TreeMap<>();
+		for (FSFile f : files.getFiles())
+		{
+			entries.put(f.getFileId(), f.getContents());
+		}
+
+		return write(file, index.getId(), archiveId, archive.getCrc(), archive.getRevision(), entries);
+	}
+
+	/**
+	 * Get a snapshot of the decompressed contents of every archive of an
+	 * index, keyed by the crc and revision of the index
+	 */
+	public DefinitionSnapshot getIndex(IndexType indexType) throws IOException
+	{
+		Index index = store.getIndex(indexType);
+
+		File file = new File(directory, index.getId() + ".snapshot");
+		DefinitionSnapshot snapshot = open(file);
+		if (snapshot != null && snapshot.matches(index.getId(), DefinitionSnapshot.WHOLE_INDEX, index.getCrc(), index.getRevision()))
+		{
+			return snapshot;
+		}
+
+		logger.info("Building snapshot of index {}", indexType);
+
+		Storage storage = store.getStorage();
+		SortedMap<Integer, byte[]> entries = new TreeMap<>();
+		for (Archive archive : index.getArchives())
+		{
+			byte[] contents = archive.decompress(storage.loadArchive(archive));
+			if (contents != null)
+			{
+				entries.put(archive.getArchiveId(), contents);
+			}
+		}
+
+		return write(file, index.getId(), DefinitionSnapshot.WHOLE_INDEX, index.getCrc(), index.getRevision(), entries);
+	}
+
+	private static DefinitionSnapshot open(File file)
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		try
+		{
+			return DefinitionSnapshot.open(file);
+		}
+		catch (IOException ex)
+		{
+			logger.warn("Unable to open snapshot {}, rebuilding it", file, ex);
+			return null;
+		}
+	}
+
+	private DefinitionSnapshot write(File file, int indexId, int archiveId, int crc, int revision, SortedMap<Integer, byte[]> entries) throws IOException
+	{
+		Files.createDirectories(directory.toPath());
+		DefinitionSnapshot.write(file, indexId, archiveId, crc, revision, entries);
+		return DefinitionSnapshot.open(file);
+	}
+}
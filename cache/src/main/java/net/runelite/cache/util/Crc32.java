@@ -36,6 +36,11 @@ public class Crc32
 		crc32.update(data, offset, length);
 	}
 
+	public void reset()
+	{
+		crc32.reset();
+	}
+
 	public int getHash()
 	{
 		return (int) crc32.getValue();
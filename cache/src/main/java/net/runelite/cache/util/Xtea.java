@@ -85,4 +85,47 @@ public class Xtea
 		out.writeBytes(buf);
 		return out.array();
 	}
+
+	/**
+	 * Decrypt data in place. Trailing bytes which do not make up a whole
+	 * block are left as is.
+	 *
+	 * @param data data to decrypt
+	 * @param offset offset of the encrypted data
+	 * @param len length of the encrypted data
+	 */
+	public void decrypt(byte[] data, int offset, int len)
+	{
+		int numBlocks = len / 8;
+		for (int block = 0, pos = offset; block < numBlocks; ++block, pos += 8)
+		{
+			int v0 = readInt(data, pos);
+			int v1 = readInt(data, pos + 4);
+			int sum = GOLDEN_RATIO * ROUNDS;
+			for (int i = 0; i < ROUNDS; ++i)
+			{
+				v1 -= (((v0 << 4) ^ (v0 >>> 5)) + v0) ^ (sum + key[(sum >>> 11) & 3]);
+				sum -= GOLDEN_RATIO;
+				v0 -= (((v1 << 4) ^ (v1 >>> 5)) + v1) ^ (sum + key[sum & 3]);
+			}
+			writeInt(data, pos, v0);
+			writeInt(data, pos + 4, v1);
+		}
+	}
+
+	private static int readInt(byte[] data, int pos)
+	{
+		return ((data[pos] & 0xFF) << 24)
+			| ((data[pos + 1] & 0xFF) << 16)
+			| ((data[pos + 2] & 0xFF) << 8)
+			| (data[pos + 3] & 0xFF);
+	}
+
+	private static void writeInt(byte[] data, int pos, int value)
+	{
+		data[pos] = (byte) (value >> 24);
+		data[pos + 1] = (byte) (value >> 16);
+		data[pos + 2] = (byte) (value >> 8);
+		data[pos + 3] = (byte) value;
+	}
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import static net.runelite.cache.StoreFixtures.saveArchive;
+import net.runelite.cache.diff.CacheDiff;
+import net.runelite.cache.diff.CacheManifest;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.NpcDefinition;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.definitions.savers.ItemSaver;
+import net.runelite.cache.definitions.savers.NpcSaver;
+import net.runelite.cache.definitions.savers.ObjectSaver;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.io.OutputStream;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the exports of a set of ids, which are used to re-export what a
+ * {@link net.runelite.cache.diff.CacheDiff} found to have changed
+ */
+public class IncrementalExportTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testItems() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			ItemSaver saver = new ItemSaver();
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.ITEM.getId()),
+				saver.save(new ItemDefinition(0)), saver.save(new ItemDefinition(1)));
+
+			ItemManager items = new ItemManager(store);
+			items.load();
+
+			File out = folder.newFolder();
+			touch(out, "3.json");
+			items.export(out, Arrays.asList(1, 3));
+
+			assertArrayEquals(new String[]{"1.json"}, out.list());
+		}
+	}
+
+	@Test
+	public void testNpcs() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			NpcSaver saver = new NpcSaver();
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.NPC.getId()),
+				saver.save(new NpcDefinition(0)), saver.save(new NpcDefinition(1)));
+
+			NpcManager npcs = new NpcManager(store);
+			npcs.load();
+
+			File out = folder.newFolder();
+			touch(out, "3.json");
+			npcs.dump(out, Arrays.asList(1, 3));
+
+			assertArrayEquals(new String[]{"1.json"}, out.list());
+		}
+	}
+
+	@Test
+	public void testObjects() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			ObjectSaver saver = new ObjectSaver();
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.OBJECT.getId()),
+				saver.save(object(0)), saver.save(object(1)));
+
+			ObjectManager objects = new ObjectManager(store);
+			objects.load();
+
+			File out = folder.newFolder();
+			touch(out, "3.json");
+			objects.dump(out, Arrays.asList(1, 3));
+
+			assertArrayEquals(new String[]{"1.json"}, out.list());
+		}
+	}
+
+	@Test
+	public void testSprites() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			Index index = store.addIndex(IndexType.SPRITES.getNumber());
+			saveArchive(store, index.addArchive(5), sprite(2));
+			saveArchive(store, index.addArchive(6), sprite(1));
+
+			SpriteManager sprites = new SpriteManager(store);
+			sprites.load();
+
+			File out = folder.newFolder();
+			// a frame the sprite no longer has, and a sprite which was removed
+			touch(out, "5-7.png");
+			touch(out, "9-0.png");
+			sprites.export(out, Arrays.asList(5, 9));
+
+			String[] files = out.list();
+			Arrays.sort(files);
+			assertArrayEquals(new String[]{"5-0.png", "5-1.png"}, files);
+		}
+	}
+
+	@Test
+	public void testNothingToExport() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.ITEM.getId()), new ItemSaver().save(new ItemDefinition(0)));
+
+			ItemManager items = new ItemManager(store);
+			items.load();
+
+			File out = new File(folder.getRoot(), "items");
+			items.export(out, Collections.emptyList());
+
+			assertTrue(out.isDirectory());
+			assertArrayEquals(new String[0], out.list());
+		}
+	}
+
+	@Test
+	public void testDumpItemsSinceManifest() throws IOException
+	{
+		try (Store from = new Store(folder.newFolder());
+			Store to = new Store(folder.newFolder()))
+		{
+			ItemSaver saver = new ItemSaver();
+			saveArchive(from, from.addIndex(IndexType.CONFIGS.getNumber()).addArchive(ConfigType.ITEM.getId()),
+				saver.save(item(0, "Coins")), saver.save(item(1, "Bones")), saver.save(item(2, "Ashes")));
+
+			saveArchive(to, to.addIndex(IndexType.CONFIGS.getNumber()).addArchive(ConfigType.ITEM.getId()),
+				saver.save(item(0, "Coins")), saver.save(item(1, "Big bones")));
+
+			CacheManifest manifest = Cache.createManifest(from);
+			File manifestFile = folder.newFile();
+			manifest.save(manifestFile);
+
+			File out = folder.newFolder();
+			touch(out, "0.json");
+			touch(out, "1.json");
+			touch(out, "2.json");
+			Cache.dumpItems(to, CacheDiff.diff(CacheManifest.load(manifestFile), Cache.createManifest(to)), out);
+
+			// only the changed item is exported again, and the removed item is deleted
+			assertEquals(0, new File(out, "0.json").length());
+			assertTrue(new String(Files.readAllBytes(new File(out, "1.json").toPath())).contains("Big bones"));
+			assertFalse(new File(out, "2.json").exists());
+		}
+	}
+
+	private static ItemDefinition item(int id, String name)
+	{
+		ItemDefinition def = new ItemDefinition(id);
+		def.name = name;
+		return def;
+	}
+
+	private static ObjectDefinition object(int id)
+	{
+		ObjectDefinition def = new ObjectDefinition();
+		def.setId(id);
+		return def;
+	}
+
+	/**
+	 * Encode a sprite with the given number of 1x1 frames
+	 */
+	private static byte[] sprite(int frames)
+	{
+		OutputStream out = new OutputStream();
+		for (int i = 0; i < frames; ++i)
+		{
+			out.writeByte(0); // flags
+			out.writeByte(1); // palette index
+		}
+		out.write24BitInt(0xFF0000);
+
+		out.writeShort(1); // max width
+		out.writeShort(1); // max height
+		out.writeByte(1); // palette length - 1
+		for (int i = 0; i < frames * 2; ++i)
+		{
+			out.writeShort(0); // offsets
+		}
+		for (int i = 0; i < frames * 2; ++i)
+		{
+			out.writeShort(1); // width and height
+		}
+		out.writeShort(frames);
+		return out.flip();
+	}
+
+	private static void touch(File dir, String name) throws IOException
+	{
+		assertTrue(new File(dir, name).createNewFile());
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static net.runelite.cache.StoreFixtures.saveArchive;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.savers.ItemSaver;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.snapshot.DefinitionSnapshot;
+import net.runelite.cache.snapshot.DefinitionSnapshots;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LazyDefinitionsTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testParsesLazily() throws IOException
+	{
+		SortedMap<Integer, byte[]> entries = new TreeMap<>();
+		entries.put(1, "one".getBytes());
+		entries.put(2, "two".getBytes());
+		entries.put(5, "five".getBytes());
+
+		File file = folder.newFile();
+		DefinitionSnapshot.write(file, 2, 10, 0, 0, entries);
+
+		List<Integer> parsed = new ArrayList<>();
+		Map<Integer, String> definitions = new ConcurrentHashMap<>();
+		LazyDefinitions<String> lazy = new LazyDefinitions<>(definitions, (id, contents) ->
+		{
+			parsed.add(id);
+			return new String(contents);
+		});
+		lazy.setSnapshot(DefinitionSnapshot.open(file));
+
+		assertEquals(0, definitions.size());
+
+		assertEquals("two", lazy.get(2));
+		assertEquals("two", lazy.get(2));
+		assertNull(lazy.get(3));
+		assertEquals(List.of(2), parsed);
+
+		lazy.parseAll();
+		assertEquals(List.of(2, 1, 5), parsed);
+		assertEquals(3, definitions.size());
+
+		lazy.parseAll();
+		assertEquals("five", lazy.get(5));
+		assertEquals(3, parsed.size());
+	}
+
+	@Test
+	public void testSameAsLoad() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			ItemSaver saver = new ItemSaver();
+			byte[][] items = new byte[3][];
+			for (int i = 0; i < items.length; ++i)
+			{
+				ItemDefinition def = new ItemDefinition(i);
+				def.name = "item " + i;
+				def.cost = i * 100;
+				def.stackable = i % 2;
+				items[i] = saver.save(def);
+			}
+
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.ITEM.getId()), items);
+
+			ItemManager loaded = new ItemManager(store);
+			loaded.load();
+
+			ItemManager snapshot = new ItemManager(store);
+			snapshot.load(new DefinitionSnapshots(store, folder.newFolder()));
+
+			for (int i = 0; i < items.length; ++i)
+			{
+				assertEquals(loaded.getItem(i), snapshot.getItem(i));
+			}
+			assertNull(snapshot.getItem(items.length));
+			assertEquals(loaded.getItems().size(), snapshot.getItems().size());
+		}
+	}
+
+	@Test
+	public void testBoundedParsesOnce()
+	{
+		AtomicInteger loads = new AtomicInteger();
+		LazyDefinitions<String> lazy = new LazyDefinitions<>(16, id ->
+		{
+			loads.incrementAndGet();
+			return id < 10 ? ("def" + id).getBytes() : null;
+		}, (id, contents) -> new String(contents));
+
+		assertEquals("def1", lazy.get(1));
+		assertEquals("def1", lazy.get(1));
+		assertNull(lazy.get(20));
+		assertNull(lazy.get(20));
+
+		assertEquals(2, loads.get());
+		assertEquals(2, lazy.getStats().hitCount());
+		assertEquals(2, lazy.getStats().missCount());
+	}
+
+	@Test
+	public void testBounded()
+	{
+		LazyDefinitions<Integer> lazy = new LazyDefinitions<>(8, id -> new byte[0], (id, contents) -> id);
+
+		for (int i = 0; i < 100; ++i)
+		{
+			lazy.get(i);
+		}
+
+		assertTrue(lazy.size() <= 8);
+		assertTrue(lazy.getStats().evictionCount() >= 92);
+	}
+
+	@Test(expected = UncheckedIOException.class)
+	public void testBoundedException()
+	{
+		LazyDefinitions<Integer> lazy = new LazyDefinitions<>(8, id ->
+		{
+			throw new IOException();
+		}, (id, contents) -> id);
+		lazy.get(1);
+	}
+
+	@Test
+	public void testIndexArchiveLoader() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Index index = store.addIndex(IndexType.MODELS.getNumber());
+			for (int i = 0; i < 4; ++i)
+			{
+				saveArchive(store, index.addArchive(i), "model" + i);
+			}
+
+			LazyDefinitions<String> lazy = new LazyDefinitions<>(2, new IndexArchiveLoader(store, IndexType.MODELS),
+				(id, contents) -> new String(contents));
+
+			assertEquals("model2", lazy.get(2));
+			assertEquals("model3", lazy.get(3));
+			assertNull(lazy.get(7));
+		}
+	}
+
+	@Test
+	public void testArchiveFileLoader() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.ITEM.getId()), "zero", "one", "two");
+
+			LazyDefinitions<String> lazy = new LazyDefinitions<>(2, new ArchiveFileLoader(store, IndexType.CONFIGS, ConfigType.ITEM.getId()),
+				(id, contents) -> new String(contents));
+
+			assertEquals("zero", lazy.get(0));
+			assertEquals("two", lazy.get(2));
+			assertEquals("one", lazy.get(1));
+			assertNull(lazy.get(3));
+			assertNull(lazy.get(-1));
+		}
+	}
+
+	@Test
+	public void testArchiveFileLoaderMissingArchive() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			saveArchive(store, index.addArchive(ConfigType.ITEM.getId()), "item");
+			// in the reference table, but not on disk
+			index.addArchive(ConfigType.NPC.getId()).setFileData(new FileData[]{new FileData()});
+
+			ArchiveFileLoader files = new ArchiveFileLoader(store, IndexType.CONFIGS, ConfigType.NPC.getId());
+			try
+			{
+				files.get(0);
+				fail();
+			}
+			catch (IOException ex)
+			{
+				// expected
+			}
+
+			// the failure is not remembered
+			saveArchive(store, index.getArchive(ConfigType.NPC.getId()), "npc");
+			assertEquals("npc", new String(files.get(0)));
+		}
+	}
+}
@@ -27,10 +27,16 @@ package net.runelite.cache;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.imageio.ImageIO;
+import net.runelite.cache.fs.ParallelLoader;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -45,6 +51,48 @@ public class MapImageDumperTest
 	@Rule
 	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
 
+	@Test
+	public void testTilesMatchMap() throws IOException
+	{
+		// the 3x3 regions around Lumbridge
+		List<Integer> regionIds = new ArrayList<>();
+		for (int x = 49; x <= 51; ++x)
+		{
+			for (int y = 49; y <= 51; ++y)
+			{
+				regionIds.add(x << 8 | y);
+			}
+		}
+
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.setLabelRegions(true);
+			dumper.setOutlineRegions(true);
+			dumper.load(regionIds);
+
+			BufferedImage map = dumper.drawMap(0);
+			// half a region, so regions are split between tiles
+			int tileSize = 128;
+			assertEquals(6 * tileSize, map.getWidth());
+			assertEquals(6 * tileSize, map.getHeight());
+
+			for (int tileX = 0; tileX < 6; ++tileX)
+			{
+				for (int tileY = 0; tileY < 6; ++tileY)
+				{
+					BufferedImage tile = dumper.drawTile(0, tileX, tileY, tileSize);
+					assertNotNull(tile);
+					assertArrayEquals("tile " + tileX + "," + tileY,
+						map.getRGB(tileX * tileSize, tileY * tileSize, tileSize, tileSize, null, 0, tileSize),
+						tile.getRGB(0, 0, tileSize, tileSize, null, 0, tileSize));
+				}
+			}
+		}
+	}
+
 	@Test
 	@Ignore
 	public void dumpMap() throws IOException
@@ -97,4 +145,27 @@ public class MapImageDumperTest
 			}
 		}
 	}
+
+	@Test
+	@Ignore
+	public void dumpTiles() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base);
+			ParallelLoader parallelLoader = new ParallelLoader(store))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.load(parallelLoader);
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				int tiles = dumper.drawTiles(parallelLoader, outDir, i, 256, 4);
+				logger.info("Wrote {} tiles for plane {} to {}", tiles, i, outDir);
+			}
+		}
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache;
+
+import java.io.IOException;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+
+public class StoreFixtures
+{
+	/**
+	 * Save an archive of files with ids 0 to contents.length - 1, using the
+	 * compression of the archive
+	 */
+	public static void saveArchive(Store store, Archive archive, byte[]... contents) throws IOException
+	{
+		saveEncryptedArchive(store, archive, null, contents);
+	}
+
+	public static void saveArchive(Store store, Archive archive, String... contents) throws IOException
+	{
+		saveEncryptedArchive(store, archive, null, contents);
+	}
+
+	public static void saveEncryptedArchive(Store store, Archive archive, int[] keys, String... contents) throws IOException
+	{
+		byte[][] bytes = new byte[contents.length][];
+		for (int i = 0; i < contents.length; ++i)
+		{
+			bytes[i] = contents[i].getBytes();
+		}
+		saveEncryptedArchive(store, archive, keys, bytes);
+	}
+
+	public static void saveEncryptedArchive(Store store, Archive archive, int[] keys, byte[]... contents) throws IOException
+	{
+		FileData[] fileData = new FileData[contents.length];
+		ArchiveFiles files = new ArchiveFiles();
+		for (int i = 0; i < contents.length; ++i)
+		{
+			fileData[i] = new FileData();
+			fileData[i].setId(i);
+
+			FSFile file = new FSFile(i);
+			file.setContents(contents[i]);
+			files.addFile(file);
+		}
+		archive.setFileData(fileData);
+
+		Container container = new Container(archive.getCompression(), -1);
+		container.compress(files.saveContents(), keys);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.diff;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import net.runelite.cache.IndexType;
+import static net.runelite.cache.StoreFixtures.saveArchive;
+import static net.runelite.cache.StoreFixtures.saveEncryptedArchive;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.util.Crc32;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheDiffTest
+{
+	private static final int[] KEYS = {1, 2, 3, 4};
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testDiff() throws IOException
+	{
+		try (Store from = new Store(folder.newFolder());
+			Store to = new Store(folder.newFolder()))
+		{
+			Index sprites1 = from.addIndex(IndexType.SPRITES.getNumber());
+			addArchive(sprites1, 1, 100, 0);
+			addArchive(sprites1, 2, 200, 0, 0);
+			addArchive(sprites1, 3, 300, 0);
+
+			Index sprites2 = to.addIndex(IndexType.SPRITES.getNumber());
+			addArchive(sprites2, 1, 100, 0);
+			addArchive(sprites2, 2, 201, 0, 0, 1);
+			addArchive(sprites2, 4, 400, 0);
+
+			CacheDiff diff = CacheDiff.diff(from, to);
+
+			assertEquals(3, diff.getArchives().size());
+			assertEquals(ChangeType.CHANGED, diff.getArchive(IndexType.SPRITES, 2).getType());
+			assertEquals(ChangeType.REMOVED, diff.getArchive(IndexType.SPRITES, 3).getType());
+			assertEquals(ChangeType.ADDED, diff.getArchive(IndexType.SPRITES, 4).getType());
+			assertNull(diff.getArchive(IndexType.SPRITES, 1));
+			assertEquals(new HashSet<>(Arrays.asList(2, 3, 4)), diff.getAffectedArchives(IndexType.SPRITES));
+
+			ArchiveDiff changed = diff.getArchive(IndexType.SPRITES, 2);
+			assertEquals(Collections.singleton(1), changed.getAddedFiles());
+			assertTrue(changed.getRemovedFiles().isEmpty());
+			// without file hashes every file of a changed archive is affected
+			assertNull(changed.getChangedFiles());
+			assertEquals(new HashSet<>(Arrays.asList(0, 1)), changed.getAffectedFiles());
+		}
+	}
+
+	@Test
+	public void testUnchangedIndexIsSkipped() throws IOException
+	{
+		try (Store from = new Store(folder.newFolder());
+			Store to = new Store(folder.newFolder()))
+		{
+			Index index1 = from.addIndex(IndexType.CONFIGS.getNumber());
+			index1.setCrc(42);
+			addArchive(index1, 10, 100, 0);
+
+			Index index2 = to.addIndex(IndexType.CONFIGS.getNumber());
+			index2.setCrc(42);
+			addArchive(index2, 10, 100, 0);
+
+			assertTrue(CacheDiff.diff(from, to).isEmpty());
+		}
+	}
+
+	@Test
+	public void testFileHashes() throws IOException
+	{
+		CacheManifest from = manifest(new int[]{1, 2, 3}, new int[]{11, 22, 33});
+		CacheManifest to = manifest(new int[]{1, 2, 4}, new int[]{11, 99, 44});
+
+		ArchiveDiff diff = CacheDiff.diff(from, to).getArchive(IndexType.CONFIGS, 10);
+
+		assertEquals(Collections.singleton(2), diff.getChangedFiles());
+		assertEquals(Collections.singleton(4), diff.getAddedFiles());
+		assertEquals(Collections.singleton(3), diff.getRemovedFiles());
+		assertEquals(new HashSet<>(Arrays.asList(2, 3, 4)), diff.getAffectedFiles());
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException
+	{
+		CacheManifest manifest = manifest(new int[]{1, 2, 3}, new int[]{11, 22, 33});
+
+		File file = folder.newFile();
+		manifest.save(file);
+		CacheManifest loaded = CacheManifest.load(file);
+
+		assertEquals(manifest.getIndexes(), loaded.getIndexes());
+		assertTrue(CacheDiff.diff(manifest, loaded).isEmpty());
+	}
+
+	@Test
+	public void testHashFiles() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder());
+			ParallelLoader loader = new ParallelLoader(store, 2))
+		{
+			Index index = store.addIndex(IndexType.CONFIGS.getNumber());
+			Archive plain = index.addArchive(10);
+			plain.setCompression(CompressionType.GZ);
+			saveArchive(store, plain, "one", "two");
+			Archive encrypted = index.addArchive(11);
+			encrypted.setCompression(CompressionType.GZ);
+			saveEncryptedArchive(store, encrypted, KEYS, "secret");
+			// in the reference table, but not on disk
+			addArchive(index, 12, 0, 0, 0);
+
+			CacheManifest manifest = CacheManifest.create(store);
+			manifest.hashFiles(loader, IndexType.CONFIGS);
+
+			IndexManifest im = manifest.findIndex(IndexType.CONFIGS.getNumber());
+			assertArrayEquals(new int[]{crc("one"), crc("two")}, im.findArchive(10).getFileCrcs());
+			// encrypted, and there are no keys to read it
+			assertNull(im.findArchive(11).getFileCrcs());
+			assertNull(im.findArchive(12).getFileCrcs());
+
+			// hashing an index which isn't in the store does nothing
+			manifest.hashFiles(loader, IndexType.SPRITES);
+		}
+	}
+
+	private static int crc(String contents)
+	{
+		byte[] b = contents.getBytes();
+		Crc32 crc = new Crc32();
+		crc.update(b, 0, b.length);
+		return crc.getHash();
+	}
+
+	private static void addArchive(Index index, int id, int crc, int revision, int... files)
+	{
+		Archive archive = index.addArchive(id);
+		archive.setCrc(crc);
+		archive.setRevision(revision);
+
+		FileData[] fileData = new FileData[files.length];
+		for (int i = 0; i < files.length; ++i)
+		{
+			fileData[i] = new FileData();
+			fileData[i].setId(files[i]);
+		}
+		archive.setFileData(fileData);
+	}
+
+	private static CacheManifest manifest(int[] files, int[] crcs)
+	{
+		ArchiveManifest archive = new ArchiveManifest();
+		archive.setId(10);
+		archive.setCrc(Arrays.hashCode(crcs));
+		archive.setFiles(files);
+		archive.setFileCrcs(crcs);
+
+		IndexManifest index = new IndexManifest();
+		index.setId(IndexType.CONFIGS.getNumber());
+		index.getArchives().add(archive);
+
+		CacheManifest manifest = new CacheManifest();
+		manifest.getIndexes().add(index);
+		return manifest;
+	}
+}
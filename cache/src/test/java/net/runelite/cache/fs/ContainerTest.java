@@ -25,9 +25,14 @@
 package net.runelite.cache.fs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Random;
+import static net.runelite.cache.fs.jagex.CompressionType.BZ2;
 import static net.runelite.cache.fs.jagex.CompressionType.GZ;
+import static net.runelite.cache.fs.jagex.CompressionType.NONE;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 
 public class ContainerTest
@@ -52,4 +57,80 @@ public class ContainerTest
 		assertArrayEquals(data, container.data);
 	}
 
+	@Test
+	public void testDecompressIntoBuffer() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		Random random = new Random(42L);
+		byte[] data = new byte[1024];
+		random.nextBytes(data);
+
+		try (DecompressionContext context = new DecompressionContext())
+		{
+			for (int compression : new int[]{NONE, BZ2, GZ})
+			{
+				Container container = new Container(compression, 42);
+				container.compress(data, keys);
+
+				ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 8);
+				buffer.position(8);
+				assertEquals(data.length, context.decompress(container.data, keys, buffer));
+				assertEquals(compression, context.getCompression());
+				assertEquals(42, context.getRevision());
+
+				byte[] out = new byte[data.length];
+				buffer.position(8);
+				buffer.get(out);
+				assertArrayEquals(data, out);
+			}
+		}
+	}
+
+	@Test
+	public void testWrongKeys() throws IOException
+	{
+		Random random = new Random(42L);
+		byte[] data = new byte[1024];
+		random.nextBytes(data);
+
+		for (int compression : new int[]{BZ2, GZ})
+		{
+			Container container = new Container(compression, -1);
+			container.compress(data, new int[]{4, 8, 15, 16});
+
+			for (int i = 0; i < 100; ++i)
+			{
+				int[] keys = new int[]
+				{
+					random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()
+				};
+
+				try
+				{
+					Container.decompress(container.data, keys);
+					fail("decompressed with the wrong keys");
+				}
+				catch (IOException ex)
+				{
+					// expected
+				}
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptLength() throws IOException
+	{
+		Container container = new Container(GZ, -1);
+		container.compress(new byte[1024], null);
+
+		// decompressed length follows the compression type and compressed length
+		byte[] compressedData = container.data;
+		compressedData[5] = 0x7f;
+
+		Container.decompress(compressedData, null);
+	}
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.index.FileData;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelLoaderTest
+{
+	private static final int NUMBER_OF_ARCHIVES = 256;
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testLoadArchives() throws IOException
+	{
+		try (Store store = new Store(folder.getRoot()))
+		{
+			Index index = store.addIndex(0);
+			for (int i = 0; i < NUMBER_OF_ARCHIVES; ++i)
+			{
+				Archive archive = index.addArchive(i);
+				FileData[] fileData = new FileData[1];
+				fileData[0] = new FileData();
+				archive.setFileData(fileData);
+
+				Container container = new Container(archive.getCompression(), -1);
+				container.compress(("archive" + i).getBytes(), null);
+				store.getStorage().saveArchive(archive, container.data);
+			}
+
+			AtomicInteger progress = new AtomicInteger();
+			try (ParallelLoader loader = new ParallelLoader(store, 4))
+			{
+				loader.setProgressListener((completed, total) ->
+				{
+					Assert.assertEquals(NUMBER_OF_ARCHIVES, total);
+					progress.incrementAndGet();
+				});
+
+				List<byte[]> data = loader.decompressArchives(index.getArchives());
+				Assert.assertEquals(NUMBER_OF_ARCHIVES, data.size());
+				for (int i = 0; i < NUMBER_OF_ARCHIVES; ++i)
+				{
+					Assert.assertEquals("archive" + i, new String(data.get(i)));
+				}
+			}
+
+			Assert.assertEquals(NUMBER_OF_ARCHIVES, progress.get());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testException() throws IOException
+	{
+		List<Integer> inputs = new ArrayList<>();
+		for (int i = 0; i < 100; ++i)
+		{
+			inputs.add(i);
+		}
+
+		try (Store store = new Store(folder.getRoot());
+			ParallelLoader loader = new ParallelLoader(store, 2))
+		{
+			loader.map(inputs, i ->
+			{
+				if (i == 50)
+				{
+					throw new IOException();
+				}
+				return i;
+			});
+		}
+	}
+}
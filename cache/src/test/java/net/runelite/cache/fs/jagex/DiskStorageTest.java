@@ -99,4 +99,52 @@ public class DiskStorageTest
 		}
 	}
 
+	@Test
+	public void testMemoryMapped() throws Exception
+	{
+		File file = folder.newFolder();
+		DiskStorage storage = new DiskStorage(file, true);
+		assertTrue(storage.isMemoryMapped());
+
+		try (Store store = new Store(storage))
+		{
+			Index index = store.addIndex(0);
+
+			for (int i = 0; i < 8; ++i)
+			{
+				Archive archive = index.addArchive(i);
+				FileData[] fileData = new FileData[1];
+				fileData[0] = new FileData();
+				archive.setFileData(fileData);
+
+				// larger than a sector so the read follows the chain
+				byte[] data = new byte[1024 + i];
+				data[i] = (byte) i;
+				Container container = new Container(archive.getCompression(), -1);
+				container.compress(data, null);
+				storage.saveArchive(archive, container.data);
+
+				// the file has grown since the last read, which must be visible through the mapping
+				byte[] compressedData = storage.loadArchive(archive);
+				assertArrayEquals(data, archive.decompress(compressedData));
+			}
+
+			store.save();
+		}
+
+		storage = new DiskStorage(file, true);
+		try (Store store = new Store(storage))
+		{
+			store.load();
+			Index index = store.findIndex(0);
+			assertEquals(8, index.getArchives().size());
+
+			for (Archive archive : index.getArchives())
+			{
+				byte[] data = archive.decompress(storage.loadArchive(archive));
+				assertEquals(1024 + archive.getArchiveId(), data.length);
+				assertEquals((byte) archive.getArchiveId(), data[archive.getArchiveId()]);
+			}
+		}
+	}
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.item;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.ItemManager;
+import net.runelite.cache.SpriteManager;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.TextureManager;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.ParallelLoader;
+import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ItemSpriteFactoryTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(ItemSpriteFactoryTest.class);
+
+	private static final int ITEMS = 24;
+	private static final int NOTED = 100;
+	private static final int NOTE_TEMPLATE = 1000;
+	private static final short CUBE_COLOR = 22416;
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testParallelMatchesSerial() throws IOException
+	{
+		List<ItemSpriteFactory.SpriteRequest> requests = new ArrayList<>();
+		for (int i = 0; i < ITEMS; ++i)
+		{
+			for (int repeat = 0; repeat < 2; ++repeat)
+			{
+				requests.add(new ItemSpriteFactory.SpriteRequest(i, 1, i % 3, i % 2 == 0 ? 0x302020 : 0, false));
+				requests.add(new ItemSpriteFactory.SpriteRequest(NOTED + i, 1, 1, 0x302020, false));
+			}
+		}
+
+		ModelProvider modelProvider = modelId -> modelId < 4 ? cube(modelId, 40 + modelId * 10) : null;
+		TextureProvider textureProvider = () -> new TextureDefinition[0];
+
+		ItemSpriteFactory serialFactory = new ItemSpriteFactory(items()::get, modelProvider, (spriteId, frameId) -> null, textureProvider);
+		List<BufferedImage> serial = new ArrayList<>();
+		for (ItemSpriteFactory.SpriteRequest request : requests)
+		{
+			serial.add(serialFactory.createSprite(request.getItemId(), request.getQuantity(), request.getBorder(),
+				request.getShadowColor(), request.isNoted()));
+		}
+
+		List<BufferedImage> parallel;
+		try (Store store = new Store(folder.newFolder());
+			ParallelLoader parallelLoader = new ParallelLoader(store, 4))
+		{
+			ItemSpriteFactory parallelFactory = new ItemSpriteFactory(items()::get, modelProvider, (spriteId, frameId) -> null, textureProvider);
+			parallel = parallelFactory.createSprites(parallelLoader, requests);
+		}
+
+		assertEquals(serial.size(), parallel.size());
+		boolean drawn = false;
+		for (int i = 0; i < serial.size(); ++i)
+		{
+			int[] expected = pixels(serial.get(i));
+			assertArrayEquals("sprite " + i + " of item " + requests.get(i).getItemId(), expected, pixels(parallel.get(i)));
+
+			for (int pixel : expected)
+			{
+				drawn |= pixel != 0;
+			}
+		}
+		assertTrue(drawn);
+	}
+
+	@Test
+	public void testNotedItemNotModified() throws IOException
+	{
+		Map<Integer, ItemDefinition> items = items();
+		ItemDefinition noted = items.get(NOTED);
+
+		ModelProvider modelProvider = modelId -> modelId < 4 ? cube(modelId, 40 + modelId * 10) : null;
+		ItemSpriteFactory factory = new ItemSpriteFactory(items::get, modelProvider, (spriteId, frameId) -> null, () -> new TextureDefinition[0]);
+		assertNotNull(factory.createSprite(noted.id, 1, 1, 0x302020, false));
+
+		assertEquals(0, noted.inventoryModel);
+		assertEquals(0, noted.stackable);
+		assertEquals("null", noted.name);
+	}
+
+	/**
+	 * Items with one of a few models, and a noted version of each. Noted
+	 * items are rendered from a copy updated from their template.
+	 */
+	private static Map<Integer, ItemDefinition> items()
+	{
+		Map<Integer, ItemDefinition> items = new HashMap<>();
+
+		ItemDefinition template = new ItemDefinition(NOTE_TEMPLATE);
+		template.inventoryModel = 3;
+		template.zoom2d = 1200;
+		items.put(template.id, template);
+
+		for (int i = 0; i < ITEMS; ++i)
+		{
+			ItemDefinition item = new ItemDefinition(i);
+			item.inventoryModel = i % 3;
+			item.zoom2d = 900 + i * 20;
+			item.xan2d = i * 97 % 2048;
+			item.yan2d = i * 53 % 2048;
+			item.colorFind = new short[]{CUBE_COLOR};
+			item.colorReplace = new short[]{(short) (i * 1000)};
+			items.put(item.id, item);
+
+			ItemDefinition noted = new ItemDefinition(NOTED + i);
+			noted.notedTemplate = NOTE_TEMPLATE;
+			noted.notedID = i;
+			items.put(noted.id, noted);
+		}
+		return items;
+	}
+
+	private static int[] pixels(BufferedImage image)
+	{
+		assertNotNull(image);
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	/**
+	 * A cube with a different color on each side
+	 */
+	private static ModelDefinition cube(int id, int size)
+	{
+		ModelDefinition model = new ModelDefinition();
+		model.id = id;
+		model.vertexCount = 8;
+		model.vertexPositionsX = new int[8];
+		model.vertexPositionsY = new int[8];
+		model.vertexPositionsZ = new int[8];
+		for (int i = 0; i < 8; ++i)
+		{
+			model.vertexPositionsX[i] = (i & 1) == 0 ? -size : size;
+			model.vertexPositionsY[i] = (i & 2) == 0 ? -size : size;
+			model.vertexPositionsZ[i] = (i & 4) == 0 ? -size : size;
+		}
+
+		int[][] sides = {
+			{0, 2, 3, 1}, {4, 5, 7, 6},
+			{0, 1, 5, 4}, {2, 6, 7, 3},
+			{0, 4, 6, 2}, {1, 3, 7, 5},
+		};
+		model.faceCount = sides.length * 2;
+		model.faceVertexIndices1 = new int[model.faceCount];
+		model.faceVertexIndices2 = new int[model.faceCount];
+		model.faceVertexIndices3 = new int[model.faceCount];
+		model.faceColors = new short[model.faceCount];
+		for (int i = 0; i < sides.length; ++i)
+		{
+			int[] side = sides[i];
+			for (int half = 0; half < 2; ++half)
+			{
+				int face = i * 2 + half;
+				model.faceVertexIndices1[face] = side[0];
+				model.faceVertexIndices2[face] = side[1 + half];
+				model.faceVertexIndices3[face] = side[2 + half];
+				model.faceColors[face] = i == 0 ? CUBE_COLOR : (short) (i * 9000);
+			}
+		}
+		return model;
+	}
+
+	@Test
+	@Ignore
+	public void dumpSprites() throws IOException
+	{
+		File outDir = folder.newFolder();
+
+		try (Store store = new Store(StoreLocation.LOCATION);
+			ParallelLoader parallelLoader = new ParallelLoader(store))
+		{
+			store.load();
+
+			ItemManager itemManager = new ItemManager(store);
+			itemManager.load(parallelLoader);
+
+			SpriteManager spriteManager = new SpriteManager(store);
+			spriteManager.load();
+
+			TextureManager textureManager = new TextureManager(store);
+			textureManager.load();
+
+			Index models = store.getIndex(IndexType.MODELS);
+			ModelProvider modelProvider = modelId ->
+			{
+				Archive archive = models.getArchive(modelId);
+				if (archive == null)
+				{
+					return null;
+				}
+
+				byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+				return new ModelLoader().load(modelId, data);
+			};
+
+			List<ItemSpriteFactory.SpriteRequest> requests = new ArrayList<>();
+			for (ItemDefinition item : itemManager.getItems())
+			{
+				requests.add(new ItemSpriteFactory.SpriteRequest(item.id, 1, 1, 0x302020, false));
+			}
+
+			ItemSpriteFactory factory = new ItemSpriteFactory(itemManager, modelProvider, spriteManager, textureManager);
+
+			long start = System.nanoTime();
+			List<BufferedImage> sprites = factory.createSprites(parallelLoader, requests);
+			logger.info("Rendered {} sprites in {}ms", sprites.size(), (System.nanoTime() - start) / 1_000_000L);
+
+			for (int i = 0; i < sprites.size(); ++i)
+			{
+				BufferedImage sprite = sprites.get(i);
+				if (sprite != null)
+				{
+					ImageIO.write(sprite, "png", new File(outDir, requests.get(i).getItemId() + ".png"));
+				}
+			}
+		}
+
+		logger.info("Dumped sprites to {}", outDir);
+	}
+}
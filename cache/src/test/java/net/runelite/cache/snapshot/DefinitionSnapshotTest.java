@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import net.runelite.cache.IndexType;
+import static net.runelite.cache.StoreFixtures.saveArchive;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DefinitionSnapshotTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testWriteAndOpen() throws IOException
+	{
+		SortedMap<Integer, byte[]> entries = new TreeMap<>();
+		entries.put(7, new byte[]{7, 7});
+		entries.put(1, new byte[]{1});
+		entries.put(3, new byte[0]);
+
+		File file = folder.newFile();
+		DefinitionSnapshot.write(file, 2, 10, 1234, 5, entries);
+		DefinitionSnapshot snapshot = DefinitionSnapshot.open(file);
+
+		assertEquals(3, snapshot.size());
+		assertArrayEquals(new int[]{1, 3, 7}, snapshot.getIds());
+		assertArrayEquals(new byte[]{1}, snapshot.get(1));
+		assertArrayEquals(new byte[0], snapshot.get(3));
+		assertArrayEquals(new byte[]{7, 7}, snapshot.get(7));
+		assertNull(snapshot.get(2));
+		assertNull(snapshot.get(8));
+
+		assertTrue(snapshot.matches(2, 10, 1234, 5));
+		assertFalse(snapshot.matches(2, 10, 1234, 6));
+		assertFalse(snapshot.matches(2, 10, 4321, 5));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotASnapshot() throws IOException
+	{
+		File file = folder.newFile();
+		Files.write(file.toPath(), new byte[64]);
+		DefinitionSnapshot.open(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void testEntryOutOfBounds() throws IOException
+	{
+		SortedMap<Integer, byte[]> entries = new TreeMap<>();
+		entries.put(1, new byte[]{1, 2, 3});
+
+		File file = folder.newFile();
+		DefinitionSnapshot.write(file, 2, 10, 1234, 5, entries);
+
+		// make the length of the entry run past the end of the file
+		byte[] data = Files.readAllBytes(file.toPath());
+		data[39] = 4;
+		Files.write(file.toPath(), data);
+
+		DefinitionSnapshot.open(file);
+	}
+
+	@Test
+	public void testRebuiltWhenDamaged() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			Index index = store.addIndex(IndexType.SPRITES.getNumber());
+			index.setCrc(1);
+			saveArchive(store, index.addArchive(0), "zero");
+
+			File directory = folder.newFolder();
+			DefinitionSnapshots snapshots = new DefinitionSnapshots(store, directory);
+			assertEquals("zero", new String(snapshots.getIndex(IndexType.SPRITES).get(0)));
+
+			// point the entry past the end of the file, keeping the crc and revision
+			File file = new File(directory, IndexType.SPRITES.getNumber() + ".snapshot");
+			byte[] data = Files.readAllBytes(file.toPath());
+			data[35] = 100;
+			Files.write(file.toPath(), data);
+
+			assertEquals("zero", new String(snapshots.getIndex(IndexType.SPRITES).get(0)));
+		}
+	}
+
+	@Test
+	public void testRebuiltWhenIndexChanges() throws IOException
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			Index index = store.addIndex(IndexType.SPRITES.getNumber());
+			index.setCrc(1);
+			saveArchive(store, index.addArchive(0), "zero");
+			Archive one = index.addArchive(1);
+			saveArchive(store, one, "one");
+
+			DefinitionSnapshots snapshots = new DefinitionSnapshots(store, folder.newFolder());
+			DefinitionSnapshot snapshot = snapshots.getIndex(IndexType.SPRITES);
+			assertEquals("zero", new String(snapshot.get(0)));
+			assertEquals("one", new String(snapshot.get(1)));
+
+			// the index crc is unchanged, so the existing snapshot is used
+			saveArchive(store, one, "changed");
+			assertEquals("one", new String(snapshots.getIndex(IndexType.SPRITES).get(1)));
+
+			index.setCrc(2);
+			assertEquals("changed", new String(snapshots.getIndex(IndexType.SPRITES).get(1)));
+		}
+	}
+}
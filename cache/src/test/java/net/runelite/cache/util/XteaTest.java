@@ -52,5 +52,8 @@ public class XteaTest
 		byte[] decData = xtea.decrypt(encData, encData.length);
 
 		assertArrayEquals(data, decData);
+
+		xtea.decrypt(encData, 0, encData.length);
+		assertArrayEquals(data, encData);
 	}
 }
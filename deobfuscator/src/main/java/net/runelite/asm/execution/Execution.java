@@ -26,14 +26,16 @@ package net.runelite.asm.execution;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
 import net.runelite.asm.Field;
@@ -49,18 +51,19 @@ public class Execution
 	private static final Logger logger = LoggerFactory.getLogger(Execution.class);
 
 	private final ClassGroup group;
-	public List<Frame> frames = new ArrayList<>(), framesOther = new ArrayList<>();
-	public Set<Instruction> executed = new HashSet<>(); // executed instructions
+	public List<Frame> frames = new ArrayList<>();
+	// frames of other methods, grouped by method in the order the first frame of each method was added
+	private final Map<Method, ArrayDeque<Frame>> framesOther = new LinkedHashMap<>();
+	public Set<Instruction> executed = Collections.newSetFromMap(new IdentityHashMap<>()); // executed instructions
 	private Multimap<WeakInstructionContext, Method> stepInvokes = HashMultimap.create();
-	private Set<Method> invokes = new HashSet<>();
+	private Set<Method> invokes = Collections.newSetFromMap(new IdentityHashMap<>());
 	public boolean paused;
 	public boolean step = false;
 	public boolean noInvoke = false;
 	private List<ExecutionVisitor> visitors = new ArrayList<>();
 	private List<FrameVisitor> frameVisitors = new ArrayList<>();
 	private List<MethodContextVisitor> methodContextVisitors = new ArrayList<>();
-	private final Map<Object, Integer> order = new HashMap<>(); // field,method -> order encountered
-	private final Map<Object, Integer> accesses = new HashMap<>();
+	private final Map<Object, OrderCounter> order = new IdentityHashMap<>(); // field,method -> order encountered
 	public boolean staticStep; // whether to step through static methods
 	public boolean noExceptions;
 
@@ -165,10 +168,37 @@ public class Execution
 		}
 		else
 		{
-			framesOther.add(frame);
+			addOtherFrame(frame);
 		}
 	}
 
+	/**
+	 * Add a frame of a method other than the one being executed
+	 */
+	void addOtherFrame(Frame frame)
+	{
+		framesOther.computeIfAbsent(frame.getMethod(), m -> new ArrayDeque<>()).add(frame);
+	}
+
+	/**
+	 * Remove the frames of the method of the oldest frame added by
+	 * {@link #addOtherFrame(Frame)}, in the order they were added
+	 *
+	 * @return the frames, or null if there are none
+	 */
+	Collection<Frame> nextOtherFrames()
+	{
+		Iterator<ArrayDeque<Frame>> it = framesOther.values().iterator();
+		if (!it.hasNext())
+		{
+			return null;
+		}
+
+		ArrayDeque<Frame> next = it.next();
+		it.remove();
+		return next;
+	}
+
 	public Frame invoke(InstructionContext from, Method to)
 	{
 		if (step) // step executor
@@ -248,17 +278,14 @@ public class Execution
 
 				accept(frame.getMethodCtx());
 
-				if (framesOther.isEmpty())
+				// move all frames of the method of the oldest pending frame
+				Collection<Frame> next = nextOtherFrames();
+				if (next == null)
 				{
 					break;
 				}
 
-				Frame begin = framesOther.remove(0);
-				frames.add(begin);
-
-				List<Frame> toMove = framesOther.stream().filter(f -> f.getMethod() == begin.getMethod()).collect(Collectors.toList());
-				frames.addAll(toMove);
-				framesOther.removeAll(toMove);
+				frames.addAll(next);
 			}
 		}
 
@@ -326,32 +353,41 @@ public class Execution
 			return; // no sense keeping track of this
 		}
 
-		Integer i;
-		i = order.get(m);
 		int next = frame.getNextOrder();
-		if (i == null || next < i)
+		OrderCounter counter = order.get(m);
+		if (counter == null)
 		{
-			order.put(m, next);
+			counter = new OrderCounter(next);
+			order.put(m, counter);
 		}
-
-		i = accesses.get(m);
-		if (i == null)
-		{
-			accesses.put(m, 1);
-		}
-		else
+		else if (next < counter.order)
 		{
-			accesses.put(m, i + 1);
+			counter.order = next;
 		}
+
+		++counter.accesses;
 	}
 
 	public Integer getOrder(Object m)
 	{
-		return order.get(m);
+		OrderCounter counter = order.get(m);
+		return counter != null ? counter.order : null;
 	}
 
 	public Integer getAccesses(Object m)
 	{
-		return accesses.get(m);
+		OrderCounter counter = order.get(m);
+		return counter != null ? counter.accesses : null;
+	}
+
+	private static class OrderCounter
+	{
+		private int order;
+		private int accesses;
+
+		private OrderCounter(int order)
+		{
+			this.order = order;
+		}
 	}
 }
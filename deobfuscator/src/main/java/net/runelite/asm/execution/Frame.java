@@ -52,6 +52,7 @@ public class Frame
 	private final Method method;
 	private boolean executing = true;
 	private Instruction cur; // current instruction
+	private int curIdx = -1; // index of cur in the method's instructions, if known
 	private final Multimap<Instruction, Exception> exceptions;
 	private Stack stack;
 	private Variables variables;
@@ -167,6 +168,7 @@ public class Frame
 		this.method = other.method;
 		this.executing = other.executing;
 		this.cur = other.cur;
+		this.curIdx = other.curIdx;
 		this.exceptions = other.exceptions;
 		this.stack = new Stack(other.stack);
 		this.variables = new Variables(other.variables);
@@ -338,9 +340,17 @@ public class Frame
 		Instructions ins = method.getCode().getInstructions();
 		List<Instruction> instructions = ins.getInstructions();
 
-		int idx = instructions.indexOf(cur);
-		assert idx != -1;
+		// cur is usually the instruction after the last one stepped over,
+		// only look it up after a jump or if the instructions have changed
+		int idx = curIdx;
+		if (idx < 0 || idx >= instructions.size() || instructions.get(idx) != cur)
+		{
+			idx = instructions.indexOf(cur);
+			assert idx != -1;
+		}
+
 		cur = instructions.get(idx + 1);
+		curIdx = idx + 1;
 	}
 
 	private InstructionContext lastInstruction()
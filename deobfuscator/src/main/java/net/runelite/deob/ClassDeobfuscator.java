@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package net.runelite.deob;
+
+import net.runelite.asm.ClassFile;
+import net.runelite.asm.ClassGroup;
+
+/**
+ * A deobfuscator which transforms each class on its own. {@link #run(ClassFile)}
+ * may be called concurrently for different classes, so it must not modify
+ * anything outside of the class it is given, and any state kept across
+ * classes must be thread safe.
+ */
+public interface ClassDeobfuscator extends Deobfuscator
+{
+	void run(ClassFile cf);
+
+	/**
+	 * Called once all classes have been processed, from the thread which
+	 * started the pass.
+	 */
+	default void finish()
+	{
+	}
+
+	@Override
+	default void run(ClassGroup group)
+	{
+		for (ClassFile cf : group.getClasses())
+		{
+			run(cf);
+		}
+
+		finish();
+	}
+
+	@Override
+	default PassScope getScope()
+	{
+		return PassScope.CLASS;
+	}
+}
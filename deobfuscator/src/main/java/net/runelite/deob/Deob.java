@@ -65,6 +65,13 @@ public class Deob
 	public static final int OBFUSCATED_NAME_MAX_LEN = 3;
 	private static final boolean CHECK_EXEC = false;
 
+	/**
+	 * Number of threads used for method and class passes, set with -Ddeob.threads
+	 */
+	private static final int THREADS = Integer.getInteger("deob.threads", Runtime.getRuntime().availableProcessors());
+
+	private static final PassRunner runner = new PassRunner(THREADS);
+
 	public static void main(String[] args) throws IOException
 	{
 		if (args == null || args.length < 2)
@@ -80,9 +87,7 @@ public class Deob
 		ClassGroup group = JarUtil.loadJar(new File(args[0]));
 
 		// remove except RuntimeException
-		run(group, new RuntimeExceptions());
-
-		run(group, new ControlFlowDeobfuscator());
+		run(group, new RuntimeExceptions(), new ControlFlowDeobfuscator());
 
 		run(group, new RenameUnique());
 
@@ -186,13 +191,9 @@ public class Deob
 		mod.annotateEncryption();
 	}
 
-	private static void run(ClassGroup group, Deobfuscator deob)
+	private static void run(ClassGroup group, Deobfuscator... deobs)
 	{
-		Stopwatch stopwatch = Stopwatch.createStarted();
-		deob.run(group);
-		stopwatch.stop();
-
-		logger.info("{} took {}", deob.getClass().getSimpleName(), stopwatch);
+		runner.run(group, deobs);
 
 		// check code is still correct
 		if (CHECK_EXEC)
@@ -25,9 +25,34 @@
 
 package net.runelite.deob;
 
+import java.util.EnumSet;
+import java.util.Set;
 import net.runelite.asm.ClassGroup;
 
 public interface Deobfuscator
 {
 	void run(ClassGroup group);
+
+	default PassScope getScope()
+	{
+		return PassScope.PROGRAM;
+	}
+
+	/**
+	 * Parts of the class group this pass depends on. Passes which don't
+	 * declare this are assumed to read everything.
+	 */
+	default Set<PassResource> getReads()
+	{
+		return EnumSet.allOf(PassResource.class);
+	}
+
+	/**
+	 * Parts of the class group this pass modifies. Passes which don't
+	 * declare this are assumed to write everything.
+	 */
+	default Set<PassResource> getWrites()
+	{
+		return EnumSet.allOf(PassResource.class);
+	}
 }
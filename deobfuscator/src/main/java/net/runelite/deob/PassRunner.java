@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package net.runelite.deob;
+
+import com.google.common.base.Stopwatch;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import net.runelite.asm.ClassFile;
+import net.runelite.asm.ClassGroup;
+import net.runelite.asm.Method;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs deobfuscator passes, using a fork join pool for passes which
+ * transform methods or classes independently of each other.
+ * <p>
+ * Consecutive passes of the same {@link PassScope} are run in a single
+ * traversal when none of them reads or writes a {@link PassResource} which
+ * another one writes. Otherwise each pass is run over every method or class
+ * before the next one starts, so the result is the same as running the passes
+ * one after another on a single thread.
+ */
+public class PassRunner
+{
+	private static final Logger logger = LoggerFactory.getLogger(PassRunner.class);
+
+	private static final int MB = 1024 * 1024;
+
+	/**
+	 * Number of methods or classes processed by a task before it stops
+	 * splitting its range
+	 */
+	private static final int SPLIT_THRESHOLD = 32;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * @param parallelism number of threads to run method and class passes on,
+	 *                    or 1 to run everything on the calling thread
+	 */
+	public PassRunner(int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+
+		this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+	}
+
+	public void run(ClassGroup group, Deobfuscator... passes)
+	{
+		for (List<Deobfuscator> stage : schedule(Arrays.asList(passes)))
+		{
+			if (stage.get(0).getScope() == PassScope.PROGRAM)
+			{
+				runProgram(group, stage.get(0));
+			}
+			else
+			{
+				runStage(group, stage);
+			}
+		}
+	}
+
+	/**
+	 * Split passes into stages. Each stage is either a single whole program
+	 * pass, or a run of method or class passes which can share a traversal.
+	 */
+	static List<List<Deobfuscator>> schedule(List<Deobfuscator> passes)
+	{
+		List<List<Deobfuscator>> stages = new ArrayList<>();
+		List<Deobfuscator> current = null;
+
+		for (Deobfuscator pass : passes)
+		{
+			PassScope scope = pass.getScope();
+			if ((scope == PassScope.METHOD && !(pass instanceof MethodDeobfuscator))
+				|| (scope == PassScope.CLASS && !(pass instanceof ClassDeobfuscator)))
+			{
+				throw new IllegalArgumentException(pass.getClass().getSimpleName() + " has scope " + scope
+					+ " but does not implement the matching deobfuscator interface");
+			}
+
+			if (current == null || !canJoin(current, pass))
+			{
+				current = new ArrayList<>();
+				stages.add(current);
+			}
+
+			current.add(pass);
+		}
+
+		return stages;
+	}
+
+	private static boolean canJoin(List<Deobfuscator> stage, Deobfuscator pass)
+	{
+		PassScope scope = pass.getScope();
+		if (scope == PassScope.PROGRAM || stage.get(0).getScope() != scope)
+		{
+			return false;
+		}
+
+		for (Deobfuscator other : stage)
+		{
+			if (!Collections.disjoint(other.getWrites(), pass.getReads())
+				|| !Collections.disjoint(other.getWrites(), pass.getWrites())
+				|| !Collections.disjoint(other.getReads(), pass.getWrites()))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void runProgram(ClassGroup group, Deobfuscator pass)
+	{
+		long allocated = allocatedBytes();
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		pass.run(group);
+		stopwatch.stop();
+		allocated = allocatedBytes() - allocated;
+
+		logger.info("{} took {}, allocated {} MB, heap used {} MB",
+			pass.getClass().getSimpleName(), stopwatch, allocated / MB, heapUsed() / MB);
+	}
+
+	private void runStage(ClassGroup group, List<Deobfuscator> stage)
+	{
+		PassScope scope = stage.get(0).getScope();
+
+		List<Object> units = new ArrayList<>();
+		for (ClassFile cf : group.getClasses())
+		{
+			if (scope == PassScope.CLASS)
+			{
+				units.add(cf);
+			}
+			else
+			{
+				units.addAll(cf.getMethods());
+			}
+		}
+
+		Deobfuscator[] passes = stage.toArray(new Deobfuscator[0]);
+		LongAdder[] nanos = new LongAdder[passes.length];
+		LongAdder[] allocated = new LongAdder[passes.length];
+		for (int i = 0; i < passes.length; ++i)
+		{
+			nanos[i] = new LongAdder();
+			allocated[i] = new LongAdder();
+		}
+
+		StageTask task = new StageTask(units, 0, units.size(), passes, nanos, allocated);
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		if (pool != null)
+		{
+			pool.invoke(task);
+		}
+		else
+		{
+			task.invoke();
+		}
+		stopwatch.stop();
+
+		if (passes.length > 1)
+		{
+			logger.info("Ran {} passes over {} {}s in {}", passes.length, units.size(), scope.name().toLowerCase(), stopwatch);
+		}
+
+		for (int i = 0; i < passes.length; ++i)
+		{
+			Deobfuscator pass = passes[i];
+			if (pass instanceof MethodDeobfuscator)
+			{
+				((MethodDeobfuscator) pass).finish();
+			}
+			else
+			{
+				((ClassDeobfuscator) pass).finish();
+			}
+
+			logger.info("{} took {} ({} ms over {} {}s), allocated {} MB, heap used {} MB",
+				pass.getClass().getSimpleName(), stopwatch, nanos[i].sum() / 1_000_000L, units.size(),
+				scope.name().toLowerCase(), allocated[i].sum() / MB, heapUsed() / MB);
+		}
+	}
+
+	private static long heapUsed()
+	{
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static long allocatedBytes()
+	{
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+			{
+				return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return 0L;
+	}
+
+	private static class StageTask extends RecursiveAction
+	{
+		private final List<Object> units;
+		private final int start;
+		private final int end;
+		private final Deobfuscator[] passes;
+		private final LongAdder[] nanos;
+		private final LongAdder[] allocated;
+
+		private StageTask(List<Object> units, int start, int end, Deobfuscator[] passes, LongAdder[] nanos, LongAdder[] allocated)
+		{
+			this.units = units;
+			this.start = start;
+			this.end = end;
+			this.passes = passes;
+			this.nanos = nanos;
+			this.allocated = allocated;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start > SPLIT_THRESHOLD && getPool() != null)
+			{
+				int mid = (start + end) >>> 1;
+				invokeAll(new StageTask(units, start, mid, passes, nanos, allocated),
+					new StageTask(units, mid, end, passes, nanos, allocated));
+				return;
+			}
+
+			for (int i = 0; i < passes.length; ++i)
+			{
+				long startAllocated = allocatedBytes();
+				long startTime = System.nanoTime();
+
+				for (int u = start; u < end; ++u)
+				{
+					run(passes[i], units.get(u));
+				}
+
+				nanos[i].add(System.nanoTime() - startTime);
+				allocated[i].add(allocatedBytes() - startAllocated);
+			}
+		}
+
+		private static void run(Deobfuscator pass, Object unit)
+		{
+			if (pass instanceof MethodDeobfuscator)
+			{
+				((MethodDeobfuscator) pass).run((Method) unit);
+			}
+			else
+			{
+				((ClassDeobfuscator) pass).run((ClassFile) unit);
+			}
+		}
+	}
+}
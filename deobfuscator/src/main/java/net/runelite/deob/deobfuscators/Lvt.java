@@ -24,13 +24,15 @@
  */
 package net.runelite.deob.deobfuscators;
 
-import net.runelite.asm.ClassFile;
-import net.runelite.asm.ClassGroup;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.runelite.asm.Method;
 import net.runelite.asm.attributes.Code;
 import net.runelite.asm.attributes.code.Instruction;
 import net.runelite.asm.attributes.code.instruction.types.LVTInstruction;
-import net.runelite.deob.Deobfuscator;
+import net.runelite.deob.MethodDeobfuscator;
+import net.runelite.deob.PassResource;
 import net.runelite.deob.deobfuscators.lvt.Mappings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +44,14 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Adam
  */
-public class Lvt implements Deobfuscator
+public class Lvt implements MethodDeobfuscator
 {
 	private static final Logger logger = LoggerFactory.getLogger(Lvt.class);
 
-	private int count = 0;
+	private final AtomicInteger count = new AtomicInteger();
 
-	private void process(Method method)
+	@Override
+	public void run(Method method)
 	{
 		Code code = method.getCode();
 		if (code == null)
@@ -78,22 +81,26 @@ public class Lvt implements Deobfuscator
 			Instruction newIns = lv.setVariableIndex(newIdx);
 			assert ins == newIns;
 
-			++count;
+			count.incrementAndGet();
 		}
 	}
 
 	@Override
-	public void run(ClassGroup group)
+	public void finish()
 	{
-		for (ClassFile cf : group.getClasses())
-		{
-			for (Method m : cf.getMethods())
-			{
-				process(m);
-			}
-		}
+		logger.info("Remapped {} lvt indexes", count.get());
+	}
 
-		logger.info("Remapped {} lvt indexes", count);
+	@Override
+	public Set<PassResource> getReads()
+	{
+		return EnumSet.of(PassResource.CODE);
+	}
+
+	@Override
+	public Set<PassResource> getWrites()
+	{
+		return EnumSet.of(PassResource.CODE);
 	}
 
 }
@@ -26,56 +26,68 @@
 package net.runelite.deob.deobfuscators;
 
 import java.util.ArrayList;
-import net.runelite.asm.ClassFile;
-import net.runelite.asm.ClassGroup;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.runelite.asm.Method;
 import net.runelite.asm.attributes.Code;
-import net.runelite.deob.Deobfuscator;
+import net.runelite.deob.MethodDeobfuscator;
+import net.runelite.deob.PassResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class RuntimeExceptions implements Deobfuscator
+public class RuntimeExceptions implements MethodDeobfuscator
 {
 	private static final Logger logger = LoggerFactory.getLogger(RuntimeExceptions.class);
-	
+
+	private final AtomicInteger count = new AtomicInteger();
+	private volatile boolean foundInit;
+
 	@Override
-	public void run(ClassGroup group)
+	public void run(Method m)
 	{
-		boolean foundInit = false;
+		Code c = m.getCode();
+		if (c == null)
+			return;
 
-		int i = 0;
-		for (ClassFile cf : group.getClasses())
+		// Keep one handler in the client so the deobfuscator
+		// keeps the client error handling related methods
+		if (m.getClassFile().getName().equals("client") && m.getName().equals("init"))
 		{
-			for (Method m : cf.getMethods())
-			{
-				Code c = m.getCode();
-				if (c == null)
-					continue;
+			foundInit = true;
+			return;
+		}
 
-				// Keep one handler in the client so the deobfuscator
-				// keeps the client error handling related methods
-				if (cf.getName().equals("client") && m.getName().equals("init"))
-				{
-					foundInit = true;
-					continue;
-				}
-				
-				for (net.runelite.asm.attributes.code.Exception e : new ArrayList<>(c.getExceptions().getExceptions()))
-				{
-					if (e.getCatchType() != null && e.getCatchType().getName().equals("java/lang/RuntimeException"))
-					{
-						c.getExceptions().remove(e);
-						++i;
-					}
-				}
+		for (net.runelite.asm.attributes.code.Exception e : new ArrayList<>(c.getExceptions().getExceptions()))
+		{
+			if (e.getCatchType() != null && e.getCatchType().getName().equals("java/lang/RuntimeException"))
+			{
+				c.getExceptions().remove(e);
+				count.incrementAndGet();
 			}
 		}
+	}
 
+	@Override
+	public void finish()
+	{
 		if (!foundInit)
 		{
 			throw new IllegalStateException("client.init(...) method seems to be missing!");
 		}
 
-		logger.info("Remove {} exception handlers", i);
+		logger.info("Remove {} exception handlers", count.get());
+	}
+
+	@Override
+	public Set<PassResource> getReads()
+	{
+		return EnumSet.of(PassResource.NAMES, PassResource.EXCEPTIONS);
+	}
+
+	@Override
+	public Set<PassResource> getWrites()
+	{
+		return EnumSet.of(PassResource.EXCEPTIONS);
 	}
 }
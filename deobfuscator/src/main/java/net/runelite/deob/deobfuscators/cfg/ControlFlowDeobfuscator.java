@@ -24,48 +24,60 @@
  */
 package net.runelite.deob.deobfuscators.cfg;
 
+import java.util.EnumSet;
 import java.util.List;
-import net.runelite.asm.ClassFile;
-import net.runelite.asm.ClassGroup;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.runelite.asm.Method;
 import net.runelite.asm.attributes.Code;
 import net.runelite.asm.attributes.code.Instruction;
 import net.runelite.asm.attributes.code.Instructions;
 import net.runelite.asm.attributes.code.Label;
 import net.runelite.asm.attributes.code.instructions.Goto;
-import net.runelite.deob.Deobfuscator;
+import net.runelite.deob.MethodDeobfuscator;
+import net.runelite.deob.PassResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ControlFlowDeobfuscator implements Deobfuscator
+public class ControlFlowDeobfuscator implements MethodDeobfuscator
 {
 	private static final Logger logger = LoggerFactory.getLogger(ControlFlowDeobfuscator.class);
 
-	private int insertedJump;
-	private int placedBlocks;
-	private int removedJumps;
+	private final AtomicInteger insertedJump = new AtomicInteger();
+	private final AtomicInteger placedBlocks = new AtomicInteger();
+	private final AtomicInteger removedJumps = new AtomicInteger();
 
 	@Override
-	public void run(ClassGroup group)
+	public void run(Method m)
 	{
-		for (ClassFile cf : group.getClasses())
-		{
-			for (Method m : cf.getMethods())
-			{
-				Code code = m.getCode();
-
-				if (code == null || !code.getExceptions().getExceptions().isEmpty())
-				{
-					continue;
-				}
+		Code code = m.getCode();
 
-				run(code);
-				runJumpLabel(code);
-			}
+		if (code == null || !code.getExceptions().getExceptions().isEmpty())
+		{
+			return;
 		}
 
+		run(code);
+		runJumpLabel(code);
+	}
+
+	@Override
+	public void finish()
+	{
 		logger.info("Inserted {} jumps, reordered {} blocks, and removed {} jumps. jump delta {}",
-			insertedJump, placedBlocks, removedJumps, insertedJump - removedJumps);
+			insertedJump.get(), placedBlocks.get(), removedJumps.get(), insertedJump.get() - removedJumps.get());
+	}
+
+	@Override
+	public Set<PassResource> getReads()
+	{
+		return EnumSet.of(PassResource.CODE, PassResource.EXCEPTIONS);
+	}
+
+	@Override
+	public Set<PassResource> getWrites()
+	{
+		return EnumSet.of(PassResource.CODE);
 	}
 
 	private void run(Code code)
@@ -84,7 +96,7 @@ public class ControlFlowDeobfuscator implements Deobfuscator
 		final List<Block> sorted = graph.topologicalSort();
 		for (Block b : sorted)
 		{
-			++placedBlocks;
+			placedBlocks.incrementAndGet();
 			for (Instruction i : b.getInstructions())
 			{
 				ins.addInstruction(i);
@@ -103,7 +115,7 @@ public class ControlFlowDeobfuscator implements Deobfuscator
 						next.getInstructions().add(0, maybeLabel);
 					}
 					ins.addInstruction(new Goto(ins, (Label) maybeLabel));
-					++insertedJump;
+					insertedJump.incrementAndGet();
 				}
 			}
 		}
@@ -135,7 +147,7 @@ public class ControlFlowDeobfuscator implements Deobfuscator
 			}
 
 			ins.remove(i1); // remove jump
-			++removedJumps;
+			removedJumps.incrementAndGet();
 
 			// i now points to i2, so next loop we go to next instruction
 		}
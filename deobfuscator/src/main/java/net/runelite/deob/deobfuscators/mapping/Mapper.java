@@ -24,9 +24,8 @@
  */
 package net.runelite.deob.deobfuscators.mapping;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
@@ -38,13 +37,32 @@ public class Mapper
 {
 	private static final Logger logger = LoggerFactory.getLogger(Mapper.class);
 
+	private static final int THREADS = Integer.getInteger("deob.threads", Runtime.getRuntime().availableProcessors());
+
 	private final ClassGroup source, target;
+	private final ForkJoinPool pool;
+	private final boolean prefilter;
+	private ParallelMethodMapper methodMapper;
 	private ParallelExecutorMapping mapping;
 
 	public Mapper(ClassGroup source, ClassGroup target)
+	{
+		this(source, target, null, false);
+	}
+
+	/**
+	 * @param pool      pool to execute method pairs on, or null to use a pool of
+	 *                  {@code deob.threads} threads for the duration of {@link #run()}
+	 * @param prefilter whether to skip executing method pairs whose code is obviously
+	 *                  different. This is a heuristic, and may map methods differently
+	 *                  than executing every pair.
+	 */
+	public Mapper(ClassGroup source, ClassGroup target, ForkJoinPool pool, boolean prefilter)
 	{
 		this.source = source;
 		this.target = target;
+		this.pool = pool;
+		this.prefilter = prefilter;
 	}
 
 	public ParallelExecutorMapping getMapping()
@@ -53,6 +71,24 @@ public class Mapper
 	}
 
 	public void run()
+	{
+		ForkJoinPool pool = this.pool != null ? this.pool : new ForkJoinPool(THREADS);
+		try
+		{
+			methodMapper = new ParallelMethodMapper(pool, prefilter);
+			mapAll();
+		}
+		finally
+		{
+			methodMapper = null;
+			if (pool != this.pool)
+			{
+				pool.shutdown();
+			}
+		}
+	}
+
+	private void mapAll()
 	{
 		ParallelExecutorMapping finalm = new ParallelExecutorMapping(source, target);
 
@@ -80,25 +116,13 @@ public class Mapper
 		MethodSignatureMapper msm = new MethodSignatureMapper();
 		msm.map(source, target);
 
-		List<ParallelExecutorMapping> pmes = new ArrayList<>();
+		List<ParallelExecutorMapping> pmes = methodMapper.map(msm.getMap());
 
-		for (Method m : msm.getMap().keySet())
+		for (ParallelExecutorMapping mapping : pmes)
 		{
-			Collection<Method> methods = msm.getMap().get(m);
-
-			ExecutionMapper em = new ExecutionMapper(m, methods);
-
-			ParallelExecutorMapping mapping = em.run();
-			if (mapping == null)
-			{
-				continue;
-			}
-
 			mapping.map(null, mapping.m1, mapping.m2).wasExecuted = true;
 
 			logger.debug("map methods mapped {} -> {}", mapping.m1, mapping.m2);
-
-			pmes.add(mapping);
 		}
 
 		ParallelExecutorMapping finalm = new ParallelExecutorMapping(source, target);
@@ -115,27 +139,15 @@ public class Mapper
 		StaticMethodSignatureMapper smsm = new StaticMethodSignatureMapper();
 		smsm.map(source, target);
 
-		List<ParallelExecutorMapping> pmes = new ArrayList<>();
+		List<ParallelExecutorMapping> pmes = methodMapper.map(smsm.getMap());
 
-		for (Method m : smsm.getMap().keySet())
+		for (ParallelExecutorMapping mapping : pmes)
 		{
-			Collection<Method> methods = smsm.getMap().get(m);
-
-			ExecutionMapper em = new ExecutionMapper(m, methods);
-
-			ParallelExecutorMapping mapping = em.run();
-			if (mapping == null)
-			{
-				continue;
-			}
-
 			Mapping map = mapping.map(null, mapping.m1, mapping.m2);
 			map.wasExecuted = true;
 			map.setWeight(mapping.same);
 
 			logger.debug("map static methods mapped {} -> {}", mapping.m1, mapping.m2);
-
-			pmes.add(mapping);
 		}
 
 		ParallelExecutorMapping finalm = new ParallelExecutorMapping(source, target);
@@ -268,6 +268,34 @@ public class MappingExecutorUtil
 		return true;
 	}
 
+	/**
+	 * Get a key which is the same for two signatures exactly when
+	 * {@link #isMaybeEqual(Signature, Signature)} is true for them
+	 */
+	public static String getMaybeEqualKey(Signature s)
+	{
+		StringBuilder sb = new StringBuilder("(");
+		for (int i = 0; i < s.size(); ++i)
+		{
+			appendMaybeEqualKey(sb, s.getTypeOfArg(i));
+		}
+		sb.append(')');
+		appendMaybeEqualKey(sb, s.getReturnValue());
+		return sb.toString();
+	}
+
+	private static void appendMaybeEqualKey(StringBuilder sb, Type t)
+	{
+		while (t.getDimensions() > 0)
+		{
+			sb.append('[');
+			t = t.getSubtype();
+		}
+
+		// all object types are maybe equal to each other
+		sb.append(t.isPrimitive() ? t.toString() : "L");
+	}
+
 	public static boolean isMaybeEqual(ClassFile cf1, ClassFile cf2)
 	{
 		if (cf1 == null && cf2 == null)
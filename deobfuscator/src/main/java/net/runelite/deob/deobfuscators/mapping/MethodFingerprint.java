@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package net.runelite.deob.deobfuscators.mapping;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import net.runelite.asm.Method;
+import net.runelite.asm.attributes.Code;
+import net.runelite.asm.attributes.code.Instruction;
+import net.runelite.asm.attributes.code.InstructionType;
+import net.runelite.asm.attributes.code.Label;
+import net.runelite.asm.attributes.code.instructions.LDC;
+
+/**
+ * A cheap summary of a method's code, used to skip executing method pairs
+ * which obviously don't match.
+ */
+class MethodFingerprint
+{
+	/**
+	 * Minimum overlap of the opcode histograms of two methods for them to be
+	 * considered for mapping. Multipliers and opaque predicates change between
+	 * revisions, but not anywhere close to this much.
+	 */
+	private static final double MIN_SIMILARITY = 0.25;
+
+	private static final int TYPES = InstructionType.values().length;
+
+	private final int[] histogram = new int[TYPES];
+	private final int size;
+	private final Set<String> strings;
+
+	MethodFingerprint(Method method)
+	{
+		Code code = method.getCode();
+		Set<String> strings = new HashSet<>();
+		int size = 0;
+
+		if (code != null)
+		{
+			for (Instruction i : code.getInstructions())
+			{
+				if (i instanceof Label || i.getType() == null)
+				{
+					continue;
+				}
+
+				++histogram[i.getType().ordinal()];
+				++size;
+
+				if (i instanceof LDC && ((LDC) i).getConstant() instanceof String)
+				{
+					strings.add((String) ((LDC) i).getConstant());
+				}
+			}
+		}
+
+		this.size = size;
+		this.strings = strings.isEmpty() ? Collections.emptySet() : strings;
+	}
+
+	/**
+	 * Check if the two methods could possibly map to each other
+	 */
+	boolean mayMatch(MethodFingerprint other)
+	{
+		if (!strings.isEmpty() && !other.strings.isEmpty() && Collections.disjoint(strings, other.strings))
+		{
+			return false;
+		}
+
+		return similarity(other) >= MIN_SIMILARITY;
+	}
+
+	/**
+	 * The weighted jaccard index of the opcode histograms, between 0 and 1
+	 */
+	double similarity(MethodFingerprint other)
+	{
+		if (size == 0 && other.size == 0)
+		{
+			return 1;
+		}
+
+		int min = 0, max = 0;
+		for (int i = 0; i < TYPES; ++i)
+		{
+			int a = histogram[i], b = other.histogram[i];
+			min += Math.min(a, b);
+			max += Math.max(a, b);
+		}
+
+		return (double) min / max;
+	}
+}
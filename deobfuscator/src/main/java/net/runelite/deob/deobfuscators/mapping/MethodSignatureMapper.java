@@ -25,6 +25,7 @@
 
 package net.runelite.deob.deobfuscators.mapping;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
@@ -33,7 +34,6 @@ import java.util.stream.Collectors;
 import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
 import net.runelite.asm.Method;
-import net.runelite.asm.signature.Signature;
 
 public class MethodSignatureMapper
 {
@@ -49,19 +49,22 @@ public class MethodSignatureMapper
 		return methods;
 	}
 
-	private List<Method> getMethodsOfSignature(ClassGroup group, ClassFile cf, Signature sig)
-	{
-		return getMethods(group).stream()
-			.filter(m -> MappingExecutorUtil.isMaybeEqual(cf, m.getClassFile()))
-			.filter(m -> MappingExecutorUtil.isMaybeEqual(m.getDescriptor(), sig))
-			.collect(Collectors.toList());
-	}
-
 	public void map(ClassGroup group1, ClassGroup group2)
 	{
+		// bucket the candidates by signature so each method only looks at
+		// the methods it might map to
+		Multimap<String, Method> bySignature = ArrayListMultimap.create();
+		for (Method m : getMethods(group2))
+		{
+			bySignature.put(MappingExecutorUtil.getMaybeEqualKey(m.getDescriptor()), m);
+		}
+
 		for (Method m : getMethods(group1))
 		{
-			map.putAll(m, getMethodsOfSignature(group2, m.getClassFile(), m.getDescriptor()));
+			ClassFile cf = m.getClassFile();
+			map.putAll(m, bySignature.get(MappingExecutorUtil.getMaybeEqualKey(m.getDescriptor())).stream()
+				.filter(other -> MappingExecutorUtil.isMaybeEqual(cf, other.getClassFile()))
+				.collect(Collectors.toList()));
 		}
 	}
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package net.runelite.deob.deobfuscators.mapping;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.asm.Method;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs {@link ExecutionMapper}s for many methods at once. Each method and its
+ * candidates are executed on a fork join pool, each pair with its own
+ * {@link net.runelite.asm.execution.Execution}s. Results are returned in
+ * the iteration order of the candidate map, so merging them gives the same
+ * mapping as running the mappers one after another.
+ */
+class ParallelMethodMapper
+{
+	private static final Logger logger = LoggerFactory.getLogger(ParallelMethodMapper.class);
+
+	private final ForkJoinPool pool;
+	private final boolean prefilter;
+	private final Map<Method, MethodFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+	ParallelMethodMapper(ForkJoinPool pool, boolean prefilter)
+	{
+		this.pool = pool;
+		this.prefilter = prefilter;
+	}
+
+	/**
+	 * Map each key of {@code candidates} to the best of its candidates
+	 *
+	 * @return the mapping of each method which has a single best candidate, in key order
+	 */
+	List<ParallelExecutorMapping> map(Multimap<Method, Method> candidates)
+	{
+		AtomicInteger pairs = new AtomicInteger(), pruned = new AtomicInteger();
+
+		List<Callable<ParallelExecutorMapping>> tasks = new ArrayList<>();
+		for (Method m : candidates.keySet())
+		{
+			Collection<Method> methods = candidates.get(m);
+			tasks.add(() ->
+			{
+				Collection<Method> possible = filter(m, methods);
+				pairs.addAndGet(methods.size());
+				pruned.addAndGet(methods.size() - possible.size());
+				return new ExecutionMapper(m, possible).run();
+			});
+		}
+
+		List<ParallelExecutorMapping> mappings = new ArrayList<>();
+		for (Future<ParallelExecutorMapping> future : pool.invokeAll(tasks))
+		{
+			ParallelExecutorMapping mapping = get(future);
+			if (mapping != null)
+			{
+				mappings.add(mapping);
+			}
+		}
+
+		logger.debug("Executed {} of {} method pairs for {} methods", pairs.get() - pruned.get(), pairs.get(), tasks.size());
+
+		return mappings;
+	}
+
+	private static ParallelExecutorMapping get(Future<ParallelExecutorMapping> future)
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new RuntimeException(ex.getCause());
+		}
+	}
+
+	private Collection<Method> filter(Method m, Collection<Method> methods)
+	{
+		if (!prefilter)
+		{
+			return methods;
+		}
+
+		MethodFingerprint fingerprint = fingerprint(m);
+		List<Method> possible = new ArrayList<>(methods.size());
+		for (Method other : methods)
+		{
+			if (fingerprint.mayMatch(fingerprint(other)))
+			{
+				possible.add(other);
+			}
+		}
+		return possible;
+	}
+
+	private MethodFingerprint fingerprint(Method m)
+	{
+		return fingerprints.computeIfAbsent(m, MethodFingerprint::new);
+	}
+}
@@ -24,15 +24,14 @@
  */
 package net.runelite.deob.deobfuscators.mapping;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
 import net.runelite.asm.Method;
-import net.runelite.asm.signature.Signature;
 
 public class StaticMethodSignatureMapper
 {
@@ -65,18 +64,19 @@ public class StaticMethodSignatureMapper
 		return methods;
 	}
 
-	private List<Method> getStaticMethodsOfSignature(ClassGroup group, Signature sig)
-	{
-		return getStaticMethods(group).stream().filter(
-			m -> MappingExecutorUtil.isMaybeEqual(m.getDescriptor(), sig)
-		).collect(Collectors.toList());
-	}
-
 	public void map(ClassGroup group1, ClassGroup group2)
 	{
+		// bucket the candidates by signature so each method only looks at
+		// the methods it might map to
+		Multimap<String, Method> bySignature = ArrayListMultimap.create();
+		for (Method m : getStaticMethods(group2))
+		{
+			bySignature.put(MappingExecutorUtil.getMaybeEqualKey(m.getDescriptor()), m);
+		}
+
 		for (Method m : getStaticMethods(group1))
 		{
-			map.putAll(m, getStaticMethodsOfSignature(group2, m.getDescriptor()));
+			map.putAll(m, bySignature.get(MappingExecutorUtil.getMaybeEqualKey(m.getDescriptor())));
 		}
 	}
 
@@ -24,16 +24,27 @@
  */
 package net.runelite.deob.util;
 
+import com.google.common.base.Throwables;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
 import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
 import net.runelite.asm.objectwebasm.NonloadingClassWriter;
@@ -49,9 +60,16 @@ public class JarUtil
 {
 	private static final Logger logger = LoggerFactory.getLogger(JarUtil.class);
 
+	/**
+	 * Maximum number of classes being written ahead of the jar output stream,
+	 * per thread. This bounds how many serialized classes are held in memory
+	 * at once.
+	 */
+	private static final int WRITE_AHEAD = 4;
+
 	public static ClassGroup loadJar(File jarfile) throws IOException
 	{
-		ClassGroup group = new ClassGroup();
+		List<byte[]> classes = new ArrayList<>();
 
 		try (JarFile jar = new JarFile(jarfile))
 		{
@@ -64,20 +82,14 @@ public class JarUtil
 					continue;
 				}
 
-				InputStream is = jar.getInputStream(entry);
-
-				ClassReader reader = new ClassReader(is);
-				ClassFileVisitor cv = new ClassFileVisitor();
-
-				reader.accept(cv, ClassReader.SKIP_FRAMES);
-
-				group.addClass(cv.getClassFile());
+				try (InputStream is = jar.getInputStream(entry))
+				{
+					classes.add(is.readAllBytes());
+				}
 			}
 		}
 
-		group.initialize();
-
-		return group;
+		return loadGroup(classes);
 	}
 
 	public static ClassFile loadClass(byte[] bytes)
@@ -90,7 +102,7 @@ public class JarUtil
 
 	public static ClassGroup loadClasses(Collection<File> files) throws IOException
 	{
-		final ClassGroup group = new ClassGroup();
+		List<byte[]> classes = new ArrayList<>();
 
 		for (File file : files)
 		{
@@ -99,15 +111,25 @@ public class JarUtil
 				continue;
 			}
 
-			try (InputStream is = new FileInputStream(file))
-			{
-				ClassReader reader = new ClassReader(is);
-				ClassFileVisitor cv = new ClassFileVisitor();
+			classes.add(Files.readAllBytes(file.toPath()));
+		}
 
-				reader.accept(cv, ClassReader.SKIP_FRAMES);
+		return loadGroup(classes);
+	}
 
-				group.addClass(cv.getClassFile());
-			}
+	/**
+	 * Parse classes in parallel, and add them to a new group in the given order
+	 */
+	private static ClassGroup loadGroup(List<byte[]> classes)
+	{
+		List<ClassFile> parsed = classes.parallelStream()
+			.map(JarUtil::loadClass)
+			.collect(Collectors.toList());
+
+		ClassGroup group = new ClassGroup();
+		for (ClassFile cf : parsed)
+		{
+			group.addClass(cf);
 		}
 
 		group.initialize();
@@ -115,22 +137,63 @@ public class JarUtil
 		return group;
 	}
 
+	/**
+	 * Write the group to a jar. Classes are serialized in parallel, and each
+	 * class is written to the jar in group order as soon as it and the
+	 * classes before it are done.
+	 */
 	public static void saveJar(ClassGroup group, File jarfile) throws IOException
 	{
-		try (JarOutputStream jout = new JarOutputStream(new FileOutputStream(jarfile)))
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		int window = Math.max(1, pool.getParallelism() * WRITE_AHEAD);
+
+		Deque<Future<byte[]>> pending = new ArrayDeque<>(window);
+		List<ClassFile> classes = group.getClasses();
+		int next = 0, written = 0;
+
+		try (JarOutputStream jout = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(jarfile))))
 		{
-			for (ClassFile cf : group.getClasses())
+			while (written < classes.size())
 			{
+				while (next < classes.size() && pending.size() < window)
+				{
+					ClassFile cf = classes.get(next++);
+					pending.add(CompletableFuture.supplyAsync(() -> writeClass(group, cf), pool));
+				}
+
+				ClassFile cf = classes.get(written++);
+				byte[] data = get(pending.remove());
+
 				JarEntry entry = new JarEntry(cf.getName() + ".class");
 				entry.setTime(-1);
 				jout.putNextEntry(entry);
-
-				byte[] data = writeClass(group, cf);
-
 				jout.write(data);
 				jout.closeEntry();
 			}
 		}
+		finally
+		{
+			// don't leave classes being written in the background if the output failed
+			pending.forEach(f -> f.cancel(false));
+		}
+	}
+
+	private static byte[] get(Future<byte[]> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException(ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwables.throwIfUnchecked(ex.getCause());
+			throw new IOException(ex.getCause());
+		}
 	}
 
 	public static byte[] writeClass(ClassGroup group, ClassFile cf)
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.asm.execution;
+
+import com.google.common.base.Stopwatch;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.asm.ClassGroup;
+import net.runelite.deob.DeobTestProperties;
+import net.runelite.deob.util.JarUtil;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times full executions of the vanilla gamepack, in the modes used by the
+ * deobfuscators
+ */
+public class ExecutionBenchmarkTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionBenchmarkTest.class);
+
+	private static final int WARMUP = 2;
+	private static final int ITERATIONS = 5;
+
+	@Rule
+	public DeobTestProperties properties = new DeobTestProperties();
+
+	@Test
+	@Ignore
+	public void benchmark() throws Exception
+	{
+		ClassGroup group = JarUtil.loadJar(new File(properties.getVanillaClient()));
+
+		benchmark(group, false);
+		benchmark(group, true);
+	}
+
+	private void benchmark(ClassGroup group, boolean staticStep)
+	{
+		for (int i = 0; i < WARMUP; ++i)
+		{
+			execute(group, staticStep);
+		}
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		long peakHeap = 0;
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			peakHeap = Math.max(peakHeap, execute(group, staticStep));
+		}
+		stopwatch.stop();
+
+		logger.info("staticStep={}: {} executions in {}, peak heap used {} MB",
+			staticStep, ITERATIONS, stopwatch, peakHeap / (1024 * 1024));
+	}
+
+	/**
+	 * @return peak heap used during the execution, as the sum of the peak
+	 * usage of each heap pool. The pools may peak at different times, so
+	 * this is an upper bound.
+	 */
+	private static long execute(ClassGroup group, boolean staticStep)
+	{
+		List<MemoryPoolMXBean> pools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+		{
+			if (pool.getType() == MemoryType.HEAP && pool.isValid())
+			{
+				pool.resetPeakUsage();
+				pools.add(pool);
+			}
+		}
+
+		Execution e = new Execution(group);
+		e.staticStep = staticStep;
+		e.populateInitialMethods();
+		e.run();
+
+		long peak = 0;
+		for (MemoryPoolMXBean pool : pools)
+		{
+			peak += pool.getPeakUsage().getUsed();
+		}
+		return peak;
+	}
+}
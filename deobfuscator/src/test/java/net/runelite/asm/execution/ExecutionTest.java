@@ -25,9 +25,17 @@
 package net.runelite.asm.execution;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import net.runelite.asm.ClassFile;
 import net.runelite.asm.ClassGroup;
+import net.runelite.asm.Field;
+import net.runelite.asm.Method;
 import net.runelite.deob.DeobTestProperties;
 import net.runelite.deob.util.JarUtil;
+import static org.junit.Assert.assertEquals;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -44,4 +52,118 @@ public class ExecutionTest
 		e.populateInitialMethods();
 		e.run();
 	}
+
+	@Test
+	public void testStaticStepOrderIsStable() throws Exception
+	{
+		ClassGroup group = JarUtil.loadJar(new File(properties.getVanillaClient()));
+
+		Execution e1 = new Execution(group);
+		e1.staticStep = true;
+		e1.populateInitialMethods();
+		e1.run();
+
+		Execution e2 = new Execution(group);
+		e2.staticStep = true;
+		e2.populateInitialMethods();
+		e2.run();
+
+		assertEquals(e1.executed, e2.executed);
+
+		for (ClassFile cf : group.getClasses())
+		{
+			for (Method m : cf.getMethods())
+			{
+				assertEquals(e1.getOrder(m), e2.getOrder(m));
+				assertEquals(e1.getAccesses(m), e2.getAccesses(m));
+			}
+
+			for (Field f : cf.getFields())
+			{
+				assertEquals(e1.getOrder(f), e2.getOrder(f));
+				assertEquals(e1.getAccesses(f), e2.getAccesses(f));
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesListScheduling() throws Exception
+	{
+		ClassGroup group = JarUtil.loadJar(new File(properties.getVanillaClient()));
+
+		for (boolean staticStep : new boolean[]{false, true})
+		{
+			Execution e1 = new Execution(group);
+			Execution e2 = new ListSchedulingExecution(group);
+			List<Method> frames1 = run(e1, staticStep);
+			List<Method> frames2 = run(e2, staticStep);
+
+			assertEquals(frames2, frames1);
+			assertEquals(e2.executed, e1.executed);
+
+			for (ClassFile cf : group.getClasses())
+			{
+				for (Method m : cf.getMethods())
+				{
+					assertEquals(e2.getOrder(m), e1.getOrder(m));
+					assertEquals(e2.getAccesses(m), e1.getAccesses(m));
+				}
+
+				for (Field f : cf.getFields())
+				{
+					assertEquals(e2.getOrder(f), e1.getOrder(f));
+					assertEquals(e2.getAccesses(f), e1.getAccesses(f));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run an execution, and return the methods of the frames in the order they were executed
+	 */
+	private static List<Method> run(Execution e, boolean staticStep)
+	{
+		List<Method> frames = new ArrayList<>();
+		e.staticStep = staticStep;
+		e.addFrameVisitor(f -> frames.add(f.getMethod()));
+		e.populateInitialMethods();
+		e.run();
+		return frames;
+	}
+
+	/**
+	 * Execution with the pending frames of other methods kept in one list,
+	 * which is filtered for the frames of the next method. This is how
+	 * frames were scheduled before they were grouped by method.
+	 */
+	private static class ListSchedulingExecution extends Execution
+	{
+		private final List<Frame> framesOther = new ArrayList<>();
+
+		ListSchedulingExecution(ClassGroup group)
+		{
+			super(group);
+		}
+
+		@Override
+		void addOtherFrame(Frame frame)
+		{
+			framesOther.add(frame);
+		}
+
+		@Override
+		Collection<Frame> nextOtherFrames()
+		{
+			if (framesOther.isEmpty())
+			{
+				return null;
+			}
+
+			Frame begin = framesOther.remove(0);
+			List<Frame> toMove = framesOther.stream().filter(f -> f.getMethod() == begin.getMethod()).collect(Collectors.toList());
+			framesOther.removeAll(toMove);
+			toMove.add(0, begin);
+			return toMove;
+		}
+	}
 }
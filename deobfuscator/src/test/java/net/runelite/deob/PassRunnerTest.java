@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.deob;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.asm.ClassFile;
+import net.runelite.asm.ClassGroup;
+import net.runelite.asm.Method;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PassRunnerTest
+{
+	@Test
+	public void testScheduleFusesIndependentPasses()
+	{
+		Deobfuscator a = new TestMethodPass(EnumSet.of(PassResource.NAMES), EnumSet.of(PassResource.EXCEPTIONS));
+		Deobfuscator b = new TestMethodPass(EnumSet.of(PassResource.CODE), EnumSet.of(PassResource.CODE));
+		Deobfuscator c = new TestMethodPass(EnumSet.of(PassResource.CODE, PassResource.EXCEPTIONS), EnumSet.of(PassResource.CODE));
+
+		List<List<Deobfuscator>> stages = PassRunner.schedule(Arrays.asList(a, b, c));
+
+		// c reads what both a and b write
+		assertEquals(Arrays.asList(Arrays.asList(a, b), Arrays.asList(c)), stages);
+	}
+
+	@Test
+	public void testScheduleSeparatesScopes()
+	{
+		Deobfuscator method = new TestMethodPass(EnumSet.of(PassResource.CODE), EnumSet.of(PassResource.CODE));
+		Deobfuscator program = group -> {};
+		Deobfuscator method2 = new TestMethodPass(EnumSet.of(PassResource.NAMES), EnumSet.of(PassResource.EXCEPTIONS));
+
+		List<List<Deobfuscator>> stages = PassRunner.schedule(Arrays.asList(method, program, method2));
+
+		assertEquals(3, stages.size());
+	}
+
+	@Test
+	public void testRunVisitsEveryMethodOnce()
+	{
+		ClassGroup group = new ClassGroup();
+		int methods = 0;
+		for (int i = 0; i < 20; ++i)
+		{
+			ClassFile cf = new ClassFile(group);
+			cf.setName("class" + i);
+			cf.setSuperName("java/lang/Object");
+			group.addClass(cf);
+
+			for (int j = 0; j < 10; ++j)
+			{
+				cf.addMethod(new Method(cf, "method" + j, new net.runelite.asm.signature.Signature("()V")));
+				++methods;
+			}
+		}
+
+		TestMethodPass pass = new TestMethodPass(EnumSet.of(PassResource.CODE), EnumSet.of(PassResource.CODE));
+		new PassRunner(4).run(group, pass);
+
+		assertEquals(methods, pass.visited.size());
+		assertTrue(pass.visited.values().stream().allMatch(count -> count == 1));
+		assertTrue(pass.finished);
+	}
+
+	private static class TestMethodPass implements MethodDeobfuscator
+	{
+		private final Set<PassResource> reads;
+		private final Set<PassResource> writes;
+		private final ConcurrentHashMap<Method, Integer> visited = new ConcurrentHashMap<>();
+		private boolean finished;
+
+		private TestMethodPass(Set<PassResource> reads, Set<PassResource> writes)
+		{
+			this.reads = reads;
+			this.writes = writes;
+		}
+
+		@Override
+		public void run(Method method)
+		{
+			visited.merge(method, 1, Integer::sum);
+		}
+
+		@Override
+		public void finish()
+		{
+			finished = true;
+		}
+
+		@Override
+		public Set<PassResource> getReads()
+		{
+			return reads;
+		}
+
+		@Override
+		public Set<PassResource> getWrites()
+		{
+			return writes;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.deob.deobfuscators.mapping;
+
+import net.runelite.asm.signature.Signature;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class MappingExecutorUtilTest
+{
+	private static final String[] SIGNATURES = {
+		"()V",
+		"()I",
+		"(I)V",
+		"(J)V",
+		"(La;)V",
+		"(Lb;)V",
+		"(Ljava/lang/String;)V",
+		"([La;)V",
+		"([I)V",
+		"([[I)V",
+		"(ILa;B)La;",
+		"(ILb;B)Lc;",
+		"(ILb;Z)Lc;",
+		"(La;)[La;",
+	};
+
+	@Test
+	public void testMaybeEqualKey()
+	{
+		for (String s1 : SIGNATURES)
+		{
+			for (String s2 : SIGNATURES)
+			{
+				Signature sig1 = new Signature(s1), sig2 = new Signature(s2);
+
+				assertEquals(s1 + " " + s2,
+					MappingExecutorUtil.isMaybeEqual(sig1, sig2),
+					MappingExecutorUtil.getMaybeEqualKey(sig1).equals(MappingExecutorUtil.getMaybeEqualKey(sig2)));
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.deob.deobfuscators.mapping;
+
+import net.runelite.asm.ClassFile;
+import net.runelite.asm.ClassGroup;
+import net.runelite.asm.Method;
+import net.runelite.asm.attributes.Code;
+import net.runelite.asm.attributes.code.InstructionType;
+import net.runelite.asm.attributes.code.Instructions;
+import net.runelite.asm.attributes.code.instructions.IAdd;
+import net.runelite.asm.attributes.code.instructions.LDC;
+import net.runelite.asm.attributes.code.instructions.Pop;
+import net.runelite.asm.attributes.code.instructions.Return;
+import net.runelite.asm.attributes.code.instructions.VReturn;
+import net.runelite.asm.signature.Signature;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class MethodFingerprintTest
+{
+	private final ClassGroup group = new ClassGroup();
+	private final ClassFile cf = new ClassFile(group);
+
+	@Test
+	public void testSameCodeMatches()
+	{
+		Method m1 = sum("m1", 1, 2);
+		Method m2 = sum("m2", 3, 4);
+
+		assertTrue(new MethodFingerprint(m1).mayMatch(new MethodFingerprint(m2)));
+	}
+
+	@Test
+	public void testDifferentCodeDoesNotMatch()
+	{
+		Method m1 = sum("m1", 1, 2);
+
+		Method m2 = method("m2", "()V");
+		Instructions ins = m2.getCode().getInstructions();
+		for (int i = 0; i < 8; ++i)
+		{
+			ins.addInstruction(new LDC(ins, "s" + i));
+			ins.addInstruction(new Pop(ins));
+		}
+		ins.addInstruction(new VReturn(ins));
+
+		assertFalse(new MethodFingerprint(m1).mayMatch(new MethodFingerprint(m2)));
+	}
+
+	@Test
+	public void testDisjointStringsDoNotMatch()
+	{
+		Method m1 = string("m1", "hello");
+		Method m2 = string("m2", "world");
+		Method m3 = string("m3", "hello");
+
+		assertFalse(new MethodFingerprint(m1).mayMatch(new MethodFingerprint(m2)));
+		assertTrue(new MethodFingerprint(m1).mayMatch(new MethodFingerprint(m3)));
+	}
+
+	private Method method(String name, String signature)
+	{
+		Method method = new Method(cf, name, new Signature(signature));
+		method.setStatic(true);
+		cf.addMethod(method);
+		method.setCode(new Code(method));
+		return method;
+	}
+
+	private Method sum(String name, int a, int b)
+	{
+		Method method = method(name, "()I");
+		Instructions ins = method.getCode().getInstructions();
+		ins.addInstruction(new LDC(ins, a));
+		ins.addInstruction(new LDC(ins, b));
+		ins.addInstruction(new IAdd(ins));
+		ins.addInstruction(new Return(ins, InstructionType.IRETURN));
+		return method;
+	}
+
+	private Method string(String name, String value)
+	{
+		Method method = method(name, "()V");
+		Instructions ins = method.getCode().getInstructions();
+		ins.addInstruction(new LDC(ins, value));
+		ins.addInstruction(new Pop(ins));
+		ins.addInstruction(new VReturn(ins));
+		return method;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.deob.util;
+
+import com.google.common.base.Stopwatch;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import net.runelite.asm.ClassGroup;
+import net.runelite.deob.DeobTestProperties;
+import net.runelite.deob.TemporyFolderLocation;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times loading and saving the vanilla gamepack
+ */
+public class JarUtilBenchmarkTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(JarUtilBenchmarkTest.class);
+
+	private static final int WARMUP = 3;
+	private static final int ITERATIONS = 10;
+
+	@Rule
+	public DeobTestProperties properties = new DeobTestProperties();
+
+	@Rule
+	public TemporaryFolder folder = TemporyFolderLocation.getTemporaryFolder();
+
+	@Test
+	@Ignore
+	public void benchmark() throws Exception
+	{
+		File vanilla = new File(properties.getVanillaClient());
+		File out = folder.newFile();
+
+		ClassGroup group = null;
+		for (int i = 0; i < WARMUP; ++i)
+		{
+			group = JarUtil.loadJar(vanilla);
+			JarUtil.saveJar(group, out);
+		}
+
+		Stopwatch load = Stopwatch.createUnstarted(), save = Stopwatch.createUnstarted();
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			load.start();
+			group = JarUtil.loadJar(vanilla);
+			load.stop();
+
+			save.start();
+			JarUtil.saveJar(group, out);
+			save.stop();
+		}
+
+		logger.info("load {} ms, save {} ms per iteration",
+			load.elapsed(TimeUnit.MILLISECONDS) / ITERATIONS, save.elapsed(TimeUnit.MILLISECONDS) / ITERATIONS);
+	}
+}
@@ -94,7 +94,7 @@ public class HiscoreClient
 		}
 	}
 
-	private CompletableFuture<HiscoreResult> lookupAsync(String username, HttpUrl hiscoreUrl)
+	public CompletableFuture<HiscoreResult> lookupAsync(String username, HttpUrl hiscoreUrl)
 	{
 		CompletableFuture<HiscoreResult> future = new CompletableFuture<>();
 
@@ -113,6 +113,10 @@ public class HiscoreClient
 				{
 					future.complete(processResponse(username, response));
 				}
+				catch (IOException | RuntimeException ex)
+				{
+					future.completeExceptionally(ex);
+				}
 				finally
 				{
 					response.close();
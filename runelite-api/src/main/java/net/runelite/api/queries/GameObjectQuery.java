@@ -25,10 +25,9 @@
 package net.runelite.api.queries;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import net.runelite.api.Client;
 import net.runelite.api.GameObject;
 import net.runelite.api.LocatableQueryResults;
@@ -39,24 +38,40 @@ public class GameObjectQuery extends TileObjectQuery<GameObject, GameObjectQuery
 	@Override
 	public LocatableQueryResults<GameObject> result(Client client)
 	{
-		return new LocatableQueryResults<>(getGameObjects(client).stream()
-			.filter(Objects::nonNull)
-			.filter(predicate)
-			.distinct()
-			.collect(Collectors.toList()));
-	}
+		SceneIndex index = getSceneIndex();
+		if (index != null)
+		{
+			return result(client, index);
+		}
 
-	private Collection<GameObject> getGameObjects(Client client)
-	{
-		Collection<GameObject> objects = new ArrayList<>();
+		// Objects larger than a tile are on every tile they cover
+		Map<GameObject, Boolean> seen = new IdentityHashMap<>();
+		List<GameObject> objects = new ArrayList<>();
 		for (Tile tile : getTiles(client))
 		{
 			GameObject[] gameObjects = tile.getGameObjects();
-			if (gameObjects != null)
+			if (gameObjects == null)
+			{
+				continue;
+			}
+
+			for (GameObject gameObject : gameObjects)
 			{
-				objects.addAll(Arrays.asList(gameObjects));
+				if (gameObject != null && seen.put(gameObject, Boolean.TRUE) == null && predicate.test(gameObject))
+				{
+					objects.add(gameObject);
+				}
 			}
 		}
-		return objects;
+		return new LocatableQueryResults<>(objects);
+	}
+
+	/**
+	 * Resolve the query against the scene index, which only looks at the objects
+	 * with the queried ids or near the queried location
+	 */
+	public LocatableQueryResults<GameObject> result(Client client, SceneIndex index)
+	{
+		return result(client, index.getGameObjects(), client.getPlane());
 	}
 }
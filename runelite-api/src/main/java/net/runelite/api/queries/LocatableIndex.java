@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.queries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import net.runelite.api.Locatable;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * An index of {@link Locatable}s by id, and for objects which don't move, by the
+ * 8x8 chunk they are in. It lets queries for ids or nearby objects look only at
+ * the matching objects instead of everything in the scene.
+ * <p>
+ * The index is maintained by the client from spawn and despawn events and must
+ * only be used from the client thread.
+ *
+ * @param <T> the indexed type
+ */
+public class LocatableIndex<T extends Locatable>
+{
+	private static final int CHUNK_SHIFT = 3;
+	private static final long ANY_CHUNK = -1L;
+
+	private final boolean spatial;
+	private final Map<Integer, Map<Long, List<T>>> byId = new HashMap<>();
+	private final Map<Long, List<T>> byChunk = new HashMap<>();
+	private final Map<T, Entry> entries = new IdentityHashMap<>();
+
+	/**
+	 * @param spatial whether objects are also bucketed by location, which is only
+	 *                valid for objects which don't move
+	 */
+	public LocatableIndex(boolean spatial)
+	{
+		this.spatial = spatial;
+	}
+
+	/**
+	 * Add an object to the index, or move it if its id has changed
+	 */
+	public void add(int id, T object)
+	{
+		remove(object);
+
+		final long chunk;
+		if (spatial)
+		{
+			final WorldPoint location = object.getWorldLocation();
+			chunk = chunkKey(location.getPlane(), location.getX() >> CHUNK_SHIFT, location.getY() >> CHUNK_SHIFT);
+			byChunk.computeIfAbsent(chunk, k -> new ArrayList<>()).add(object);
+		}
+		else
+		{
+			chunk = ANY_CHUNK;
+		}
+
+		byId.computeIfAbsent(id, k -> new HashMap<>()).computeIfAbsent(chunk, k -> new ArrayList<>()).add(object);
+		entries.put(object, new Entry(id, chunk));
+	}
+
+	public void remove(T object)
+	{
+		final Entry entry = entries.remove(object);
+		if (entry == null)
+		{
+			return;
+		}
+
+		final Map<Long, List<T>> chunks = byId.get(entry.id);
+		removeFrom(chunks, entry.chunk, object);
+		if (chunks.isEmpty())
+		{
+			byId.remove(entry.id);
+		}
+
+		if (spatial)
+		{
+			removeFrom(byChunk, entry.chunk, object);
+		}
+	}
+
+	public void clear()
+	{
+		byId.clear();
+		byChunk.clear();
+		entries.clear();
+	}
+
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Collect the indexed objects which match a query. Only the candidates selected by the
+	 * ids and location are tested against the predicate, which must itself check both.
+	 *
+	 * @param ids       the ids to look up, or null for any id
+	 * @param plane     the plane the objects must be on, or -1 for any plane. Ignored if the index isn't spatial.
+	 * @param center    the center of the area to look in, or null for anywhere. Ignored if the index isn't spatial.
+	 * @param radius    the distance from the center in tiles, along either axis, an object may be at
+	 * @param predicate the query predicate
+	 * @param out       the list to add the matching objects to
+	 */
+	public void collect(@Nullable int[] ids, int plane, @Nullable WorldPoint center, int radius, Predicate<? super T> predicate, List<T> out)
+	{
+		if (!spatial)
+		{
+			plane = -1;
+			center = null;
+		}
+		else if (center != null)
+		{
+			plane = center.getPlane();
+		}
+
+		if (ids == null)
+		{
+			if (center != null)
+			{
+				collectArea(byChunk, plane, center, radius, predicate, out);
+			}
+			else
+			{
+				for (Map.Entry<T, Entry> entry : entries.entrySet())
+				{
+					final T object = entry.getKey();
+					if ((plane == -1 || entry.getValue().plane() == plane) && predicate.test(object))
+					{
+						out.add(object);
+					}
+				}
+			}
+			return;
+		}
+
+		for (int i = 0; i < ids.length; ++i)
+		{
+			if (isDuplicate(ids, i))
+			{
+				continue;
+			}
+
+			final Map<Long, List<T>> chunks = byId.get(ids[i]);
+			if (chunks == null)
+			{
+				continue;
+			}
+
+			if (center != null)
+			{
+				collectArea(chunks, plane, center, radius, predicate, out);
+				continue;
+			}
+
+			for (Map.Entry<Long, List<T>> entry : chunks.entrySet())
+			{
+				if (plane == -1 || planeOf(entry.getKey()) == plane)
+				{
+					collect(entry.getValue(), predicate, out);
+				}
+			}
+		}
+	}
+
+	private void collectArea(Map<Long, List<T>> chunks, int plane, WorldPoint center, int radius, Predicate<? super T> predicate, List<T> out)
+	{
+		final int minX = (center.getX() - radius) >> CHUNK_SHIFT;
+		final int maxX = (center.getX() + radius) >> CHUNK_SHIFT;
+		final int minY = (center.getY() - radius) >> CHUNK_SHIFT;
+		final int maxY = (center.getY() + radius) >> CHUNK_SHIFT;
+
+		if ((long) (maxX - minX + 1) * (maxY - minY + 1) <= chunks.size())
+		{
+			for (int x = minX; x <= maxX; ++x)
+			{
+				for (int y = minY; y <= maxY; ++y)
+				{
+					final List<T> objects = chunks.get(chunkKey(plane, x, y));
+					if (objects != null)
+					{
+						collect(objects, predicate, out);
+					}
+				}
+			}
+			return;
+		}
+
+		// fewer occupied chunks than chunks in the area
+		for (Map.Entry<Long, List<T>> entry : chunks.entrySet())
+		{
+			final long key = entry.getKey();
+			final int x = chunkX(key);
+			final int y = chunkY(key);
+			if (planeOf(key) == plane && x >= minX && x <= maxX && y >= minY && y <= maxY)
+			{
+				collect(entry.getValue(), predicate, out);
+			}
+		}
+	}
+
+	private static <T> void collect(List<T> objects, Predicate<? super T> predicate, List<T> out)
+	{
+		for (int i = 0; i < objects.size(); ++i)
+		{
+			final T object = objects.get(i);
+			if (predicate.test(object))
+			{
+				out.add(object);
+			}
+		}
+	}
+
+	private static <T> void removeFrom(Map<Long, List<T>> chunks, long chunk, T object)
+	{
+		final List<T> objects = chunks.get(chunk);
+		if (objects == null)
+		{
+			return;
+		}
+
+		for (int i = 0; i < objects.size(); ++i)
+		{
+			if (objects.get(i) == object)
+			{
+				objects.remove(i);
+				break;
+			}
+		}
+
+		if (objects.isEmpty())
+		{
+			chunks.remove(chunk);
+		}
+	}
+
+	private static boolean isDuplicate(int[] ids, int index)
+	{
+		for (int i = 0; i < index; ++i)
+		{
+			if (ids[i] == ids[index])
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long chunkKey(int plane, int x, int y)
+	{
+		return ((long) plane << 48) | ((long) (x & 0xFFFFFF) << 24) | (y & 0xFFFFFF);
+	}
+
+	private static int planeOf(long key)
+	{
+		return (int) (key >>> 48);
+	}
+
+	private static int chunkX(long key)
+	{
+		return (int) (key >>> 24) & 0xFFFFFF;
+	}
+
+	private static int chunkY(long key)
+	{
+		return (int) key & 0xFFFFFF;
+	}
+
+	private static class Entry
+	{
+		private final int id;
+		private final long chunk;
+
+		private Entry(int id, long chunk)
+		{
+			this.id = id;
+			this.chunk = chunk;
+		}
+
+		private int plane()
+		{
+			return chunk == ANY_CHUNK ? -1 : planeOf(chunk);
+		}
+	}
+}
@@ -25,19 +25,57 @@
 package net.runelite.api.queries;
 
 import static java.lang.Math.abs;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
 import net.runelite.api.Locatable;
 import net.runelite.api.LocatableQueryResults;
+import net.runelite.api.Perspective;
 import net.runelite.api.Query;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 
 public abstract class LocatableQuery<EntityType extends Locatable, QueryType> extends Query<EntityType, QueryType, LocatableQueryResults<EntityType>>
 {
+	/**
+	 * Local locations are the center of an object, which can be a few tiles
+	 * away from its world location for large objects
+	 */
+	private static final int LOCAL_SEARCH_MARGIN = 8;
+
+	private static volatile SceneIndex sceneIndex;
+
+	// Constraints of the predicate which narrow down the objects to look at.
+	// The predicate still tests them, these only select the candidates.
+	private int[] searchIds;
+	private WorldPoint searchCenter;
+	private int searchRadius;
+	private LocalPoint localSearchCenter;
+	private int localSearchRadius;
+
+	/**
+	 * Set the index which queries are resolved against instead of scanning
+	 * the scene, or null to scan the scene
+	 */
+	public static void setSceneIndex(@Nullable SceneIndex index)
+	{
+		sceneIndex = index;
+	}
+
+	@Nullable
+	protected static SceneIndex getSceneIndex()
+	{
+		return sceneIndex;
+	}
+
 	@SuppressWarnings("unchecked")
 	public QueryType atWorldLocation(WorldPoint location)
 	{
 		predicate = and(object -> object.getWorldLocation().equals(location));
+		searchNear(location, 0);
 		return (QueryType) this;
 	}
 
@@ -45,6 +83,7 @@ public abstract class LocatableQuery<EntityType extends Locatable, QueryType> ex
 	public QueryType atLocalLocation(LocalPoint location)
 	{
 		predicate = and(object -> object.getLocalLocation().equals(location));
+		searchNearLocal(location, 0);
 		return (QueryType) this;
 	}
 
@@ -52,6 +91,7 @@ public abstract class LocatableQuery<EntityType extends Locatable, QueryType> ex
 	public QueryType isWithinDistance(LocalPoint to, int distance)
 	{
 		predicate = and(a -> a.getLocalLocation().distanceTo(to) <= distance);
+		searchNearLocal(to, distance);
 		return (QueryType) this;
 	}
 
@@ -59,6 +99,7 @@ public abstract class LocatableQuery<EntityType extends Locatable, QueryType> ex
 	public QueryType isWithinDistance(WorldPoint to, int distance)
 	{
 		predicate = and(a -> a.getWorldLocation().distanceTo(to) <= distance);
+		searchNear(to, distance);
 		return (QueryType) this;
 	}
 
@@ -71,6 +112,7 @@ public abstract class LocatableQuery<EntityType extends Locatable, QueryType> ex
 			return abs(localLocation.getX() - from.getX()) < area
 					&& abs(localLocation.getY() - from.getY()) < area;
 		});
+		searchNearLocal(from, area);
 		return (QueryType) this;
 	}
 
@@ -80,4 +122,79 @@ public abstract class LocatableQuery<EntityType extends Locatable, QueryType> ex
 		predicate = and(other);
 		return (QueryType) this;
 	}
+
+	/**
+	 * Look up only objects with one of the ids. Each call narrows the query further,
+	 * so the smallest set of ids is enough to find every match.
+	 */
+	protected void searchIds(int[] ids)
+	{
+		if (searchIds == null || ids.length < searchIds.length)
+		{
+			searchIds = ids.clone();
+		}
+	}
+
+	protected void searchIds(Collection<Integer> ids)
+	{
+		if (searchIds == null || ids.size() < searchIds.length)
+		{
+			searchIds = ids.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	private void searchNear(WorldPoint center, int radius)
+	{
+		if (searchCenter == null || radius < searchRadius)
+		{
+			searchCenter = center;
+			searchRadius = radius;
+		}
+	}
+
+	private void searchNearLocal(LocalPoint center, int distance)
+	{
+		if (localSearchCenter == null || distance < localSearchRadius)
+		{
+			localSearchCenter = center;
+			localSearchRadius = distance;
+		}
+	}
+
+	/**
+	 * The center of the area the matches must be in, or null if the query isn't limited to an area
+	 */
+	protected WorldPoint getSearchCenter(Client client)
+	{
+		if (searchCenter != null || localSearchCenter == null)
+		{
+			return searchCenter;
+		}
+		return WorldPoint.fromLocal(client, localSearchCenter);
+	}
+
+	/**
+	 * The distance from {@link #getSearchCenter(Client)} along either axis, in tiles, the matches must be within
+	 */
+	protected int getSearchRadius()
+	{
+		if (searchCenter != null)
+		{
+			return searchRadius;
+		}
+		return localSearchRadius / Perspective.LOCAL_TILE_SIZE + 1 + LOCAL_SEARCH_MARGIN;
+	}
+
+	/**
+	 * Resolve the query against an index, looking only at the objects with the
+	 * queried ids or near the queried location
+	 *
+	 * @param plane the plane the objects must be on, or -1 for any
+	 */
+	protected LocatableQueryResults<EntityType> result(Client client, LocatableIndex<EntityType> index, int plane)
+	{
+		final List<EntityType> matches = new ArrayList<>();
+		index.collect(searchIds, plane, getSearchCenter(client), getSearchRadius(), predicate, matches);
+		return new LocatableQueryResults<>(matches);
+	}
 }
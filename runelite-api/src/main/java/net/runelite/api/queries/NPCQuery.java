@@ -35,14 +35,30 @@ public class NPCQuery extends ActorQuery<NPC, NPCQuery>
 	@Override
 	public LocatableQueryResults<NPC> result(Client client)
 	{
+		SceneIndex index = getSceneIndex();
+		if (index != null)
+		{
+			return result(client, index);
+		}
+
 		return new LocatableQueryResults<>(client.getNpcs().stream()
 			.filter(predicate)
 			.collect(Collectors.toList()));
 	}
 
+	/**
+	 * Resolve the query against the scene index, which only looks at the NPCs
+	 * with the queried ids when there are any
+	 */
+	public LocatableQueryResults<NPC> result(Client client, SceneIndex index)
+	{
+		return result(client, index.getNpcs(), -1);
+	}
+
 	@SuppressWarnings("unchecked")
 	public NPCQuery idEquals(int... ids)
 	{
+		searchIds(ids);
 		predicate = and(object ->
 		{
 			for (int id : ids)
@@ -60,6 +76,7 @@ public class NPCQuery extends ActorQuery<NPC, NPCQuery>
 	@SuppressWarnings("unchecked")
 	public NPCQuery idEquals(Collection<Integer> ids)
 	{
+		searchIds(ids);
 		predicate = and((object) -> ids.contains(object.getId()));
 		return this;
 	}
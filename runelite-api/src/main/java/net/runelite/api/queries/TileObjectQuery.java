@@ -33,6 +33,8 @@ import net.runelite.api.Constants;
 import net.runelite.api.Scene;
 import net.runelite.api.Tile;
 import net.runelite.api.TileObject;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
 
 public abstract class TileObjectQuery<EntityType extends TileObject, QueryType> extends LocatableQuery<EntityType, QueryType>
 {
@@ -42,9 +44,26 @@ public abstract class TileObjectQuery<EntityType extends TileObject, QueryType>
 		Scene scene = client.getScene();
 		Tile[][][] tiles = scene.getTiles();
 		int z = client.getPlane();
-		for (int x = 0; x < Constants.SCENE_SIZE; ++x)
+
+		// Only look at the tiles around the queried location, if there is one
+		int minX = 0;
+		int minY = 0;
+		int maxX = Constants.SCENE_SIZE - 1;
+		int maxY = Constants.SCENE_SIZE - 1;
+		WorldPoint center = getSearchCenter(client);
+		LocalPoint localCenter = center == null ? null : LocalPoint.fromWorld(client, center);
+		if (localCenter != null)
+		{
+			int radius = getSearchRadius();
+			minX = Math.max(minX, localCenter.getSceneX() - radius);
+			minY = Math.max(minY, localCenter.getSceneY() - radius);
+			maxX = Math.min(maxX, localCenter.getSceneX() + radius);
+			maxY = Math.min(maxY, localCenter.getSceneY() + radius);
+		}
+
+		for (int x = minX; x <= maxX; ++x)
 		{
-			for (int y = 0; y < Constants.SCENE_SIZE; ++y)
+			for (int y = minY; y <= maxY; ++y)
 			{
 				Tile tile = tiles[z][x][y];
 				if (tile == null)
@@ -60,6 +79,7 @@ public abstract class TileObjectQuery<EntityType extends TileObject, QueryType>
 	@SuppressWarnings("unchecked")
 	public QueryType idEquals(int... ids)
 	{
+		searchIds(ids);
 		predicate = and(object ->
 		{
 			for (int id : ids)
@@ -78,6 +98,7 @@ public abstract class TileObjectQuery<EntityType extends TileObject, QueryType>
 	@SuppressWarnings("unchecked")
 	public QueryType idEquals(Collection<Integer> ids)
 	{
+		searchIds(ids);
 		predicate = and((object) -> ids.contains(object.getId()));
 		return (QueryType) this;
 	}
@@ -24,8 +24,8 @@
  */
 package net.runelite.api.queries;
 
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 import net.runelite.api.Client;
 import net.runelite.api.LocatableQueryResults;
 import net.runelite.api.Tile;
@@ -35,11 +35,18 @@ public class TileQuery extends TileObjectQuery<Tile, TileQuery>
 	@Override
 	public LocatableQueryResults<Tile> result(Client client)
 	{
-		return new LocatableQueryResults<>(getTiles(client).stream()
-			.filter(Objects::nonNull)
-			.filter(predicate)
-			.distinct()
-			.collect(Collectors.toList()));
+		// getTiles only returns each non-null tile once
+		List<Tile> tiles = getTiles(client);
+		List<Tile> matches = new ArrayList<>();
+		for (int i = 0; i < tiles.size(); ++i)
+		{
+			Tile tile = tiles.get(i);
+			if (predicate.test(tile))
+			{
+				matches.add(tile);
+			}
+		}
+		return new LocatableQueryResults<>(matches);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.queries;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.Locatable;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LocatableIndexTest
+{
+	private static class Thing implements Locatable
+	{
+		private final WorldPoint location;
+
+		private Thing(int x, int y, int plane)
+		{
+			this.location = new WorldPoint(x, y, plane);
+		}
+
+		@Override
+		public WorldPoint getWorldLocation()
+		{
+			return location;
+		}
+
+		@Override
+		public LocalPoint getLocalLocation()
+		{
+			return null;
+		}
+	}
+
+	@Test
+	public void testIdLookup()
+	{
+		LocatableIndex<Thing> index = new LocatableIndex<>(true);
+		Thing a = new Thing(3200, 3200, 0);
+		Thing b = new Thing(3300, 3300, 0);
+		Thing c = new Thing(3200, 3200, 1);
+		index.add(1, a);
+		index.add(1, b);
+		index.add(2, c);
+
+		List<Thing> out = new ArrayList<>();
+		index.collect(new int[]{1, 1}, -1, null, 0, t -> true, out);
+		assertEquals(2, out.size());
+
+		out.clear();
+		index.collect(new int[]{1, 2}, 1, null, 0, t -> true, out);
+		assertEquals(List.of(c), out);
+
+		index.remove(a);
+		out.clear();
+		index.collect(new int[]{1}, -1, null, 0, t -> true, out);
+		assertEquals(List.of(b), out);
+	}
+
+	@Test
+	public void testAreaLookup()
+	{
+		LocatableIndex<Thing> index = new LocatableIndex<>(true);
+		Thing near = new Thing(3205, 3199, 0);
+		Thing far = new Thing(3240, 3200, 0);
+		Thing otherPlane = new Thing(3200, 3200, 2);
+		index.add(1, near);
+		index.add(2, far);
+		index.add(1, otherPlane);
+
+		WorldPoint center = new WorldPoint(3200, 3200, 0);
+		List<Thing> out = new ArrayList<>();
+		index.collect(null, -1, center, 10, t -> t.getWorldLocation().distanceTo(center) <= 10, out);
+		assertEquals(List.of(near), out);
+
+		// candidates from neighbouring chunks are still filtered by the predicate
+		out.clear();
+		index.collect(new int[]{1, 2}, -1, center, 10, t -> true, out);
+		assertTrue(out.contains(near));
+		assertTrue(!out.contains(far) && !out.contains(otherPlane));
+	}
+
+	@Test
+	public void testReAdd()
+	{
+		LocatableIndex<Thing> index = new LocatableIndex<>(false);
+		Thing npc = new Thing(3200, 3200, 0);
+		index.add(1, npc);
+		index.add(2, npc);
+		assertEquals(1, index.size());
+
+		List<Thing> out = new ArrayList<>();
+		index.collect(new int[]{1}, -1, null, 0, t -> true, out);
+		assertEquals(0, out.size());
+		index.collect(new int[]{2}, -1, null, 0, t -> true, out);
+		assertEquals(List.of(npc), out);
+	}
+}
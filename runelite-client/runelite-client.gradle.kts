@@ -80,6 +80,7 @@ dependencies {
     runtimeOnly(project(":runescape-api"))
 
     testAnnotationProcessor(group = "org.projectlombok", name = "lombok", version = "1.18.12")
+    testAnnotationProcessor(group = "org.openjdk.jmh", name = "jmh-generator-annprocess", version = "1.25.2")
 
     testCompileOnly(group = "org.projectlombok", name = "lombok", version = "1.18.12")
 
@@ -87,6 +88,7 @@ dependencies {
     testImplementation(group = "com.google.inject.extensions", name = "guice-testlib", version = "4.2.3")
     testImplementation(group = "org.hamcrest", name = "hamcrest-library", version = "2.2")
     testImplementation(group = "junit", name = "junit", version = "4.13")
+    testImplementation(group = "org.openjdk.jmh", name = "jmh-core", version = "1.25.2")
     testImplementation(group = "org.mockito", name = "mockito-core", version = "3.5.10")
     testImplementation(group = "org.mockito", name = "mockito-inline", version = "3.5.10")
     testImplementation(group = "com.squareup.okhttp3", name = "mockwebserver", version = "4.8.1")
@@ -85,6 +85,7 @@ import net.runelite.client.game.FriendChatManager;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.LootManager;
 import net.runelite.client.game.PlayerManager;
+import net.runelite.client.game.SceneIndexManager;
 import net.runelite.client.game.WorldService;
 import net.runelite.client.game.XpDropManager;
 import net.runelite.client.game.chatbox.ChatboxPanelManager;
@@ -216,6 +217,9 @@ public class RuneLite
 	@Inject
 	private Provider<ChatboxPanelManager> chatboxPanelManager;
 
+	@Inject
+	private Provider<SceneIndexManager> sceneIndexManager;
+
 	@Inject
 	private Groups groups;
 
@@ -251,6 +255,7 @@ public class RuneLite
 		parser.accepts("safe-mode", "Disables external plugins and the GPU plugin");
 		parser.accepts("no-splash", "Do not show the splash screen");
 		parser.accepts("insecure-skip-tls-verification", "Disables TLS verification");
+		parser.accepts("direct-eventbus", "Dispatch events to subscribers directly instead of through RxJava");
 
 		final ArgumentAcceptingOptionSpec<String> proxyInfo = parser
 			.accepts("proxy")
@@ -428,6 +433,7 @@ public class RuneLite
 			okHttpClient,
 			clientLoader,
 			options.has("safe-mode"),
+			options.has("direct-eventbus"),
 			configFile));
 
 		injector.getInstance(RuneLite.class).start();
@@ -521,6 +527,7 @@ public class RuneLite
 			xpDropManager.get();
 			playerManager.get();
 			chatboxPanelManager.get();
+			sceneIndexManager.get();
 			partyService.get();
 			infoBoxOverlay.get();
 
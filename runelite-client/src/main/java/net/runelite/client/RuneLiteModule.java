@@ -42,6 +42,7 @@ import javax.inject.Singleton;
 import lombok.AllArgsConstructor;
 import net.runelite.api.Client;
 import net.runelite.api.hooks.Callbacks;
+import net.runelite.api.queries.SceneIndex;
 import net.runelite.client.account.SessionManager;
 import net.runelite.client.callback.Hooks;
 import net.runelite.client.chat.ChatMessageManager;
@@ -50,8 +51,10 @@ import net.runelite.client.config.ConfigManager;
 import net.runelite.client.config.LauncherConfig;
 import net.runelite.client.config.OpenOSRSConfig;
 import net.runelite.client.config.RuneLiteConfig;
+import net.runelite.client.eventbus.DirectEventBus;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.SceneIndexManager;
 import net.runelite.client.menus.MenuManager;
 import net.runelite.client.plugins.PluginManager;
 import net.runelite.client.task.Scheduler;
@@ -69,6 +72,7 @@ public class RuneLiteModule extends AbstractModule
 	private final OkHttpClient okHttpClient;
 	private final Supplier<Applet> clientLoader;
 	private final boolean safeMode;
+	private final boolean directEventBus;
 	private final File config;
 
 	@Override
@@ -85,9 +89,10 @@ public class RuneLiteModule extends AbstractModule
 		bind(SessionManager.class);
 
 		bind(Callbacks.class).to(Hooks.class);
+		bind(SceneIndex.class).to(SceneIndexManager.class);
 
 		bind(EventBus.class)
-			.toInstance(new EventBus());
+			.toInstance(directEventBus ? new DirectEventBus() : new EventBus());
 
 		bind(EventBus.class)
 			.annotatedWith(Names.named("Deferred EventBus"))
@@ -27,39 +27,148 @@ package net.runelite.client.callback;
 import com.google.inject.Inject;
 import io.reactivex.rxjava3.plugins.RxJavaPlugins;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.client.profiler.HotPathProfiler;
 import org.jetbrains.annotations.NotNull;
 
 @Singleton
 @Slf4j
 public class ClientThread implements Executor
 {
-	private final ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	/**
+	 * Lanes of the invoke queue, drained in declaration order
+	 */
+	public enum Priority
+	{
+		/**
+		 * Always drained completely each cycle, regardless of the budget
+		 */
+		INPUT,
+		GAME_STATE,
+		/**
+		 * Bulk work such as item image loading, which only gets the budget
+		 * left over by the other lanes. Bounded, tasks submitted while it is
+		 * full are rejected and have to be submitted again later.
+		 */
+		BACKGROUND
+	}
+
+	private static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+	private static final int BACKGROUND_CAPACITY = 4096;
+	/**
+	 * Maximum number of cycles a task which keeps returning false is delayed
+	 */
+	private static final int MAX_BACKOFF = 8;
+
+	private static final class Task
+	{
+		private final BooleanSupplier supplier;
+		private final long sequence;
+		private final long enqueued = System.nanoTime();
+		private int retries;
+		private long runAt;
+
+		private Task(BooleanSupplier supplier, long sequence)
+		{
+			this.supplier = supplier;
+			this.sequence = sequence;
+		}
+	}
+
+	private static final class Lane
+	{
+		private final ConcurrentLinkedQueue<Task> queue = new ConcurrentLinkedQueue<>();
+		// tasks backing off after returning false, in the order they were first queued. Client thread only.
+		private final TreeMap<Long, Task> deferred = new TreeMap<>();
+		// queued and deferred tasks
+		private final AtomicInteger depth = new AtomicInteger();
+		// profiler section for time spent waiting in this lane. Client thread only.
+		private HotPathProfiler.Section waitSection;
+
+		private void add(Task task)
+		{
+			depth.incrementAndGet();
+			queue.add(task);
+		}
+
+		private void defer(Task task)
+		{
+			depth.incrementAndGet();
+			deferred.put(task.sequence, task);
+		}
+	}
+
+	private final Lane[] lanes = new Lane[Priority.values().length];
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong sequence = new AtomicLong();
+	private long cycle;
+
+	/**
+	 * Time per cycle spent running {@link Priority#GAME_STATE} and
+	 * {@link Priority#BACKGROUND} tasks before the rest is carried over to
+	 * the next cycle
+	 */
+	@Getter
+	@Setter
+	private volatile long budgetNanos = DEFAULT_BUDGET_NANOS;
+
+	/**
+	 * Time spent draining the queue on the last cycle
+	 */
+	@Getter
+	private volatile long lastDrainNanos;
 
 	@Inject
 	@Nullable
 	private Client client;
 
+	@Inject
+	@Nullable
+	private HotPathProfiler profiler;
+
+	// Client thread only
+	private HotPathProfiler.Section drainSection;
+
 	@Inject
 	private ClientThread()
 	{
+		for (int i = 0; i < lanes.length; ++i)
+		{
+			lanes[i] = new Lane();
+		}
+
 		RxJavaPlugins.setSingleSchedulerHandler(old -> Schedulers.from(this));
 	}
 
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
+		invoke(r, Priority.GAME_STATE);
+	}
+
+	/**
+	 * @return false if r had to be queued and was rejected because the background lane is full
+	 */
+	public boolean invoke(Runnable r, Priority priority)
+	{
+		return invoke(() ->
 		{
 			r.run();
 			return true;
-		});
+		}, priority);
 	}
 
 	/**
@@ -67,17 +176,31 @@ public class ClientThread implements Executor
 	 * If r returns false, r will be ran again, at a later point
 	 */
 	public void invoke(BooleanSupplier r)
+	{
+		invoke(r, Priority.GAME_STATE);
+	}
+
+	/**
+	 * Will run r on the game thread, at a unspecified point in the future.
+	 * If r returns false, r will be ran again, at a later point, backing
+	 * off exponentially while it keeps returning false
+	 *
+	 * @return false if r had to be queued and was rejected because the background lane is full
+	 */
+	public boolean invoke(BooleanSupplier r, Priority priority)
 	{
 		if (client.isClientThread())
 		{
 			if (!r.getAsBoolean())
 			{
-				invokes.add(r);
+				Task task = new Task(r, sequence.getAndIncrement());
+				backoff(task);
+				return enqueue(task, priority);
 			}
-			return;
+			return true;
 		}
 
-		invokeLater(r);
+		return invokeLater(r, priority);
 	}
 
 	/**
@@ -86,29 +209,172 @@ public class ClientThread implements Executor
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
+		invokeLater(r, Priority.GAME_STATE);
+	}
+
+	/**
+	 * @return false if r was rejected because the background lane is full
+	 */
+	public boolean invokeLater(Runnable r, Priority priority)
+	{
+		return invokeLater(() ->
 		{
 			r.run();
 			return true;
-		});
+		}, priority);
 	}
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		invokeLater(r, Priority.GAME_STATE);
+	}
+
+	/**
+	 * @return false if r was rejected because the background lane is full
+	 */
+	public boolean invokeLater(BooleanSupplier r, Priority priority)
+	{
+		return enqueue(new Task(r, sequence.getAndIncrement()), priority);
+	}
+
+	/**
+	 * @return number of tasks waiting in the given lane
+	 */
+	public int getQueueDepth(Priority priority)
+	{
+		return lanes[priority.ordinal()].depth.get();
+	}
+
+	/**
+	 * @return number of background tasks rejected because the lane was full
+	 */
+	public long getRejectedCount()
+	{
+		return rejected.get();
+	}
+
+	private boolean enqueue(Task task, Priority priority)
+	{
+		Lane lane = lanes[priority.ordinal()];
+		if (priority == Priority.BACKGROUND && lane.depth.get() >= BACKGROUND_CAPACITY)
+		{
+			if (rejected.getAndIncrement() % BACKGROUND_CAPACITY == 0)
+			{
+				log.warn("Background invoke queue is full, rejecting task {}", task.supplier);
+			}
+			return false;
+		}
+
+		if (task.runAt > cycle)
+		{
+			// only the client thread backs off tasks
+			lane.defer(task);
+		}
+		else
+		{
+			lane.add(task);
+		}
+		return true;
+	}
+
+	private void backoff(Task task)
+	{
+		task.runAt = cycle + Math.min(1 << Math.min(task.retries, 30), MAX_BACKOFF);
+		++task.retries;
 	}
 
 	void invoke()
 	{
 		assert client.isClientThread();
-		Iterator<BooleanSupplier> ir = invokes.iterator();
-		for (; ir.hasNext(); )
+
+		final long start = System.nanoTime();
+		final long deadline = start + budgetNanos;
+		++cycle;
+
+		for (Priority priority : Priority.values())
+		{
+			drain(priority, priority == Priority.INPUT ? Long.MAX_VALUE : deadline);
+		}
+
+		final long end = System.nanoTime();
+		lastDrainNanos = end - start;
+
+		if (profiler != null && profiler.isEnabled())
 		{
-			BooleanSupplier r = ir.next();
+			if (drainSection == null)
+			{
+				drainSection = profiler.section(HotPathProfiler.Kind.CLIENT_THREAD, "Drain");
+			}
+			drainSection.record(lastDrainNanos, 0);
+		}
+	}
+
+	private void drain(Priority priority, long deadline)
+	{
+		final Lane lane = lanes[priority.ordinal()];
+		final boolean profile = profiler != null && profiler.isEnabled();
+		if (profile && lane.waitSection == null)
+		{
+			lane.waitSection = profiler.section(HotPathProfiler.Kind.CLIENT_THREAD, priority.name() + " wait");
+		}
+		final HotPathProfiler.Section waitSection = profile ? lane.waitSection : null;
+
+		// deferred tasks which are due this cycle, in the order they were first queued
+		final ArrayDeque<Task> due = new ArrayDeque<>();
+		for (Iterator<Task> it = lane.deferred.values().iterator(); it.hasNext(); )
+		{
+			Task task = it.next();
+			if (task.runAt <= cycle)
+			{
+				it.remove();
+				due.add(task);
+			}
+		}
+
+		// only run the tasks which are queued now, tasks queued while draining run next cycle
+		int count = lane.depth.get() - lane.deferred.size() - due.size();
+		boolean ran = false;
+		while (!due.isEmpty() || count > 0)
+		{
+			// always run at least one task per lane to avoid starving the lower priorities
+			if (ran && System.nanoTime() >= deadline)
+			{
+				break;
+			}
+
+			// run whichever was queued first, so a task keeps its place while it is retried
+			Task queued = count > 0 ? lane.queue.peek() : null;
+			if (queued == null)
+			{
+				count = 0;
+			}
+
+			Task task;
+			if (queued != null && (due.isEmpty() || queued.sequence < due.peek().sequence))
+			{
+				task = lane.queue.poll();
+				--count;
+			}
+			else if (!due.isEmpty())
+			{
+				task = due.poll();
+			}
+			else
+			{
+				break;
+			}
+			lane.depth.decrementAndGet();
+
+			if (waitSection != null && task.retries == 0)
+			{
+				waitSection.record(System.nanoTime() - task.enqueued, 0);
+			}
+
+			ran = true;
 			boolean remove = true;
 			try
 			{
-				remove = r.getAsBoolean();
+				remove = task.supplier.getAsBoolean();
 			}
 			catch (ThreadDeath d)
 			{
@@ -118,11 +384,18 @@ public class ClientThread implements Executor
 			{
 				log.warn("Exception in invoke", e);
 			}
-			if (remove)
+			if (!remove)
 			{
-				ir.remove();
+				backoff(task);
+				lane.defer(task);
 			}
 		}
+
+		// out of budget, the rest of the due tasks run first next cycle
+		for (Task task : due)
+		{
+			lane.deferred.put(task.sequence, task);
+		}
 	}
 
 	@Override
@@ -35,7 +35,6 @@ import java.awt.RenderingHints;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
-import java.awt.image.BufferedImage;
 import java.awt.image.VolatileImage;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -70,6 +69,8 @@ import net.runelite.client.input.MouseManager;
 import net.runelite.client.task.Scheduler;
 import net.runelite.client.ui.ClientUI;
 import net.runelite.client.ui.DrawManager;
+import net.runelite.client.ui.FrameBuffer;
+import net.runelite.client.ui.FrameBufferPool;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.OverlayRenderer;
@@ -98,6 +99,9 @@ public class Hooks implements Callbacks
 	private static final BeforeRender BEFORE_RENDER = BeforeRender.INSTANCE;
 	private static final DrawFinished drawFinishedEvent = new DrawFinished();
 
+	// subscribers may retain a mirrored frame while the next ones are drawn
+	private final FrameBufferPool mirrorFrames = new FrameBufferPool(3);
+
 	private int mouseX = 0;
 	private int mouseY = 0;
 	private final Image cursor = ImageUtil.getResourceStreamFromClass(Hooks.class, "cursor.png");
@@ -407,9 +411,33 @@ public class Hooks implements Callbacks
 
 		if (client.isMirrored())
 		{
-			drawFinishedEvent.image = copy(finalImage);
-			drawFinishedEvent.image.getGraphics().drawImage(cursor, mouseX, mouseY, null);
-			eventBus.post(DrawFinished.class, drawFinishedEvent);
+			final FrameBuffer frame = mirrorFrames.lease(finalImage.getWidth(null), finalImage.getHeight(null));
+			if (frame != null)
+			{
+				if (finalImage == image)
+				{
+					frame.copyFrom(mainBufferProvider.getPixels());
+				}
+				else
+				{
+					frame.copyFrom(finalImage);
+				}
+				frame.getGraphics().drawImage(cursor, mouseX, mouseY, null);
+
+				drawFinishedEvent.image = frame.getImage();
+				drawFinishedEvent.frame = frame;
+				try
+				{
+					eventBus.post(DrawFinished.class, drawFinishedEvent);
+				}
+				finally
+				{
+					drawFinishedEvent.image = null;
+					drawFinishedEvent.frame = null;
+					// subscribers which kept the frame hold their own reference
+					frame.release();
+				}
+			}
 		}
 
 		try
@@ -424,23 +452,16 @@ public class Hooks implements Callbacks
 		// Draw the image onto the game canvas
 		graphics.drawImage(finalImage, 0, 0, client.getCanvas());
 
-		// finalImage is backed by the client buffer which will change soon. make a copy
-		// so that callbacks can safely use it later from threads.
-		drawManager.processDrawComplete(() -> copy(finalImage));
-	}
-
-	/**
-	 * Copy an image
-	 */
-	private static Image copy(Image src)
-	{
-		final int width = src.getWidth(null);
-		final int height = src.getHeight(null);
-		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-		Graphics graphics = image.getGraphics();
-		graphics.drawImage(src, 0, 0, width, height, null);
-		graphics.dispose();
-		return image;
+		// finalImage is backed by the client buffer which will change soon. the draw manager
+		// copies it into a pooled frame buffer so that callbacks can safely use it later from threads.
+		if (finalImage == image)
+		{
+			drawManager.processDrawComplete(mainBufferProvider.getPixels(), mainBufferProvider.getWidth(), mainBufferProvider.getHeight());
+		}
+		else
+		{
+			drawManager.processDrawComplete(finalImage);
+		}
 	}
 
 	@Override
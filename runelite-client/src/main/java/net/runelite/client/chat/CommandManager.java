@@ -131,7 +131,7 @@ public class CommandManager
 				}
 				resumed = true;
 
-				clientThread.invoke(() -> sendChatboxInput(chatType, typedText));
+				clientThread.invoke(() -> sendChatboxInput(chatType, typedText), ClientThread.Priority.INPUT);
 			}
 		};
 
@@ -167,7 +167,7 @@ public class CommandManager
 				}
 				resumed = true;
 
-				clientThread.invoke(() -> sendPrivmsg(target, message));
+				clientThread.invoke(() -> sendPrivmsg(target, message), ClientThread.Priority.INPUT);
 			}
 		};
 
@@ -24,40 +24,115 @@
  */
 package net.runelite.client.config;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class ConfigInvocationHandler implements InvocationHandler
 {
-	// Special object to represent null values in the cache
-	private static final Object NULL = new Object();
+	// Special object to represent a value which has not been loaded yet
+	private static final Object UNLOADED = new Object();
 
 	private final ConfigManager manager;
-	private final Cache<Method, Object> cache = CacheBuilder.newBuilder()
-		.maximumSize(256)
-		.build();
+	// The getters of every registered config interface, resolved when the proxy is created
+	private final Map<Method, Item> items = new ConcurrentHashMap<>();
+	// The items for each group.key, so a change only reloads those
+	private final Map<String, Set<Item>> keyItems = new ConcurrentHashMap<>();
+	// The items for each group, a default may depend on other keys in its group
+	private final Map<String, Set<Item>> groupItems = new ConcurrentHashMap<>();
+
+	/**
+	 * A config getter, with everything needed to read it resolved up front. The
+	 * value is updated in place when its key changes, so reading it is a field load.
+	 */
+	private static final class Item
+	{
+		private final Method method;
+		private final String group;
+		private final String key;
+		private final Object proxy;
+		private final MethodHandle defaultMethod;
+
+		private volatile Object value = UNLOADED;
+		private volatile boolean fromDefault;
+
+		private Item(Method method, String group, String key, Object proxy, MethodHandle defaultMethod)
+		{
+			this.method = method;
+			this.group = group;
+			this.key = key;
+			this.proxy = proxy;
+			this.defaultMethod = defaultMethod;
+		}
+	}
 
 	ConfigInvocationHandler(ConfigManager manager)
 	{
 		this.manager = manager;
 	}
 
+	/**
+	 * Resolves the getters of a config interface, which is done once per interface
+	 */
+	void register(Class<?> iface, Object proxy)
+	{
+		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
+		if (group == null)
+		{
+			return;
+		}
+
+		for (Method method : iface.getMethods())
+		{
+			ConfigItem configItem = method.getAnnotation(ConfigItem.class);
+			if (configItem == null || method.getParameterCount() != 0 || method.getReturnType() == void.class
+				|| items.containsKey(method))
+			{
+				continue;
+			}
+
+			MethodHandle defaultMethod = null;
+			if (method.isDefault())
+			{
+				try
+				{
+					Class<?> declaringClass = method.getDeclaringClass();
+					defaultMethod = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+						.unreflectSpecial(method, declaringClass);
+				}
+				catch (IllegalAccessException e)
+				{
+					log.warn("Unable to access default method {}", method, e);
+					continue;
+				}
+			}
+
+			Item item = new Item(method, group.value(), configItem.keyName(), proxy, defaultMethod);
+			if (items.putIfAbsent(method, item) == null)
+			{
+				keyItems.computeIfAbsent(item.group + "." + item.key, k -> ConcurrentHashMap.newKeySet()).add(item);
+				groupItems.computeIfAbsent(item.group, k -> ConcurrentHashMap.newKeySet()).add(item);
+			}
+		}
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		// Use cached configuration value if available
 		if (args == null)
 		{
-			Object cachedValue = cache.getIfPresent(method);
-			if (cachedValue != null)
+			Item item = items.get(method);
+			if (item != null)
 			{
-				return cachedValue == NULL ? null : cachedValue;
+				Object value = item.value;
+				return value != UNLOADED ? value : load(item);
 			}
 		}
 
@@ -80,89 +155,141 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		if (args == null)
 		{
-			log.trace("cache miss (size: {}, group: {}, key: {})", cache.size(), group.value(), item.keyName());
+			// Getter of a proxy which was not created by ConfigManager.getConfig
+			register(iface, proxy);
+			Item registered = items.get(method);
+			return registered != null ? load(registered) : null;
+		}
 
-			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
+		// Setting a configuration value
 
-			if (value == null)
-			{
-				if (method.isDefault())
-				{
-					Object defaultValue = callDefaultMethod(proxy, method, null);
-					cache.put(method, defaultValue == null ? NULL : defaultValue);
-					return defaultValue;
-				}
+		if (args.length != 1)
+		{
+			throw new RuntimeException("Invalid number of arguents to configuration method");
+		}
 
-				cache.put(method, NULL);
-				return null;
-			}
+		Object newValue = args[0];
 
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
+		Class<?> type = method.getParameterTypes()[0];
+		Object oldValue = manager.getConfiguration(group.value(), item.keyName(), type);
 
-			try
-			{
-				Object objectValue = ConfigManager.stringToObject(value, returnType);
-				cache.put(method, objectValue == null ? NULL : objectValue);
-				return objectValue;
-			}
-			catch (Exception e)
-			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					Object defaultValue = callDefaultMethod(proxy, method, null);
+		if (Objects.equals(oldValue, newValue))
+		{
+			// nothing to do
+			return null;
+		}
 
-					manager.setConfiguration(group.value(), item.keyName(), defaultValue);
+		if (method.isDefault())
+		{
+			Object defaultValue = callDefaultMethod(proxy, method, args);
 
-					return defaultValue;
-				}
+			if (Objects.equals(newValue, defaultValue))
+			{
+				// Just unset if it goes back to the default
+				manager.unsetConfiguration(group.value(), item.keyName());
 				return null;
 			}
 		}
+
+		if (newValue == null)
+		{
+			manager.unsetConfiguration(group.value(), item.keyName());
+		}
 		else
 		{
-			// Setting a configuration value
-
-			if (args.length != 1)
-			{
-				throw new RuntimeException("Invalid number of arguents to configuration method");
-			}
+			String newValueStr = ConfigManager.objectToString(newValue);
+			manager.setConfiguration(group.value(), item.keyName(), newValueStr);
+		}
+		return null;
+	}
 
-			Object newValue = args[0];
+	/**
+	 * Reads the current value of an item from the config manager and stores it in the item.
+	 * A value which can't be parsed is replaced with the default, which is written back
+	 * after the item's lock is released: writing it reloads the other items of the group,
+	 * each under its own lock.
+	 */
+	private Object load(Item item) throws Throwable
+	{
+		Object defaultValue;
+		synchronized (item)
+		{
+			log.trace("loading {}.{}", item.group, item.key);
 
-			Class<?> type = method.getParameterTypes()[0];
-			Object oldValue = manager.getConfiguration(group.value(), item.keyName(), type);
+			ConfigStore.Value value = manager.getConfigurationValue(item.group, item.key);
+			Object objectValue;
+			boolean fromDefault = false;
+			boolean invalid = false;
 
-			if (Objects.equals(oldValue, newValue))
+			if (value == null)
 			{
-				// nothing to do
-				return null;
+				objectValue = item.defaultMethod != null ? item.defaultMethod.invoke(item.proxy) : null;
+				fromDefault = true;
 			}
-
-			if (method.isDefault())
+			else
 			{
-				Object defaultValue = callDefaultMethod(proxy, method, args);
-
-				if (Objects.equals(newValue, defaultValue))
+				try
+				{
+					// Parsed once per value, later loads reuse the parsed object
+					objectValue = value.parse(item.method.getReturnType());
+				}
+				catch (Exception e)
 				{
-					// Just unset if it goes back to the default
-					manager.unsetConfiguration(group.value(), item.keyName());
-					return null;
+					log.warn("Unable to unmarshal {}.{} ", item.group, item.key, e);
+					if (item.defaultMethod == null)
+					{
+						return null;
+					}
+
+					objectValue = item.defaultMethod.invoke(item.proxy);
+					invalid = true;
 				}
 			}
 
-			if (newValue == null)
+			if (!invalid)
 			{
-				manager.unsetConfiguration(group.value(), item.keyName());
+				item.fromDefault = fromDefault;
+				item.value = objectValue;
+				return objectValue;
 			}
-			else
+
+			defaultValue = objectValue;
+		}
+
+		// this reloads the item with the default
+		manager.setConfiguration(item.group, item.key, defaultValue);
+		return defaultValue;
+	}
+
+	/**
+	 * Reloads an item which has been loaded. The load takes the item's lock, so a
+	 * load which read the old value before the change is waited for and then
+	 * replaced, instead of being skipped and publishing the old value. The lock
+	 * is not held around the load, which may write a default back.
+	 *
+	 * @param onlyDefault only reload the item if its value is the default
+	 */
+	private void reload(Item item, boolean onlyDefault)
+	{
+		synchronized (item)
+		{
+			if (item.value == UNLOADED || (onlyDefault && !item.fromDefault))
 			{
-				String newValueStr = ConfigManager.objectToString(newValue);
-				manager.setConfiguration(group.value(), item.keyName(), newValueStr);
+				return;
+			}
+		}
+
+		try
+		{
+			load(item);
+		}
+		catch (Throwable e)
+		{
+			log.warn("Unable to reload {}.{}", item.group, item.key, e);
+			synchronized (item)
+			{
+				item.value = UNLOADED;
 			}
-			return null;
 		}
 	}
 
@@ -178,6 +305,39 @@ class ConfigInvocationHandler implements InvocationHandler
 	void invalidate()
 	{
 		log.trace("cache invalidate");
-		cache.invalidateAll();
+		for (Item item : items.values())
+		{
+			// wait for loads in progress, which would otherwise publish their value after this
+			synchronized (item)
+			{
+				item.value = UNLOADED;
+			}
+		}
+	}
+
+	/**
+	 * Updates the values of the items which read the given key in place
+	 */
+	void invalidate(String group, String key)
+	{
+		log.trace("cache update {}.{}", group, key);
+
+		Set<Item> changed = keyItems.get(group + "." + key);
+		if (changed != null)
+		{
+			for (Item item : changed)
+			{
+				reload(item, false);
+			}
+		}
+
+		Set<Item> inGroup = groupItems.get(group);
+		if (inGroup != null)
+		{
+			for (Item item : inGroup)
+			{
+				reload(item, true);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
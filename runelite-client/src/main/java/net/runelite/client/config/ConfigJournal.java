@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only log of the configuration changes made since the settings
+ * file was last written in full.
+ * <p>
+ * Each record is one line, {@code S<tab>key<tab>value} for a set or
+ * {@code U<tab>key} for an unset, with backslash, tab and line breaks escaped.
+ * A record is only replayed once its line is complete, so a write cut short
+ * by a crash loses that record and nothing else.
+ * <p>
+ * When the settings file is rewritten, the journal is first moved aside with
+ * {@link #rotate()} and only deleted by {@link #commit()} once the new settings
+ * file is in place. {@link #recover(boolean)} sorts out a rewrite which was cut
+ * short, so records already in the settings file are never replayed over it.
+ */
+@Slf4j
+class ConfigJournal
+{
+	private static final char SET = 'S';
+	private static final char UNSET = 'U';
+
+	private final File file;
+	private final File rotated;
+	private int records;
+
+	ConfigJournal(File file)
+	{
+		this.file = file;
+		this.rotated = new File(file.getParentFile(), file.getName() + ".old");
+	}
+
+	/**
+	 * @return the number of records in the journal
+	 */
+	int size()
+	{
+		return records;
+	}
+
+	/**
+	 * Applies the journal to store, in the order the changes were made
+	 */
+	void replay(ConfigStore store) throws IOException
+	{
+		records = 0;
+
+		if (!file.exists())
+		{
+			return;
+		}
+
+		final String journal = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+		int start = 0;
+		for (int end; (end = journal.indexOf('\n', start)) != -1; start = end + 1)
+		{
+			final String line = journal.substring(start, end);
+			final String[] fields = line.split("\t", -1);
+
+			if (fields.length == 3 && line.charAt(0) == SET && fields[0].length() == 1)
+			{
+				store.put(unescape(fields[1]), unescape(fields[2]));
+			}
+			else if (fields.length == 2 && line.charAt(0) == UNSET && fields[0].length() == 1)
+			{
+				store.remove(unescape(fields[1]));
+			}
+			else
+			{
+				log.debug("Skipping malformed config journal record: {}", line);
+				continue;
+			}
+
+			++records;
+		}
+
+		if (start < journal.length())
+		{
+			log.debug("Discarding incomplete config journal record");
+		}
+	}
+
+	/**
+	 * Appends changes to the journal
+	 *
+	 * @param changes the new value of each key, null if it was unset
+	 */
+	void append(Map<String, String> changes) throws IOException
+	{
+		if (changes.isEmpty())
+		{
+			return;
+		}
+
+		file.getParentFile().mkdirs();
+
+		final StringBuilder sb = new StringBuilder();
+		changes.forEach((key, value) ->
+		{
+			if (value == null)
+			{
+				sb.append(UNSET).append('\t').append(escape(key));
+			}
+			else
+			{
+				sb.append(SET).append('\t').append(escape(key)).append('\t').append(escape(value));
+			}
+			sb.append('\n');
+		});
+
+		try (FileOutputStream out = new FileOutputStream(file, true))
+		{
+			final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			writer.write(sb.toString());
+			writer.flush();
+			out.getChannel().force(false);
+		}
+
+		records += changes.size();
+	}
+
+	/**
+	 * Moves the journal aside before the settings file is rewritten. Changes
+	 * appended after this start a new journal.
+	 */
+	void rotate() throws IOException
+	{
+		if (file.exists())
+		{
+			move(file, rotated);
+		}
+		records = 0;
+	}
+
+	/**
+	 * Deletes the rotated journal, once the new settings file with its changes is in place
+	 */
+	void commit() throws IOException
+	{
+		Files.deleteIfExists(rotated.toPath());
+	}
+
+	/**
+	 * Finishes or undoes a rewrite of the settings file which was cut short
+	 *
+	 * @param settingsReplaced whether the new settings file was put in place
+	 */
+	void recover(boolean settingsReplaced) throws IOException
+	{
+		if (!rotated.exists())
+		{
+			return;
+		}
+
+		if (settingsReplaced)
+		{
+			log.debug("Discarding config journal which is already in the settings file");
+			commit();
+			return;
+		}
+
+		log.debug("Restoring config journal of an unfinished settings file rewrite");
+		if (file.exists())
+		{
+			// changes made after the rotation go after the rotated ones
+			Files.write(rotated.toPath(), Files.readAllBytes(file.toPath()), StandardOpenOption.APPEND);
+		}
+		move(rotated, file);
+	}
+
+	private static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String escape(String str)
+	{
+		final StringBuilder sb = new StringBuilder(str.length());
+		for (int i = 0; i < str.length(); i++)
+		{
+			final char c = str.charAt(i);
+			switch (c)
+			{
+				case '\\':
+					sb.append("\\\\");
+					break;
+				case '\t':
+					sb.append("\\t");
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				default:
+					sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String unescape(String str)
+	{
+		if (str.indexOf('\\') == -1)
+		{
+			return str;
+		}
+
+		final StringBuilder sb = new StringBuilder(str.length());
+		for (int i = 0; i < str.length(); i++)
+		{
+			final char c = str.charAt(i);
+			if (c != '\\' || i + 1 == str.length())
+			{
+				sb.append(c);
+				continue;
+			}
+
+			final char next = str.charAt(++i);
+			switch (next)
+			{
+				case 't':
+					sb.append('\t');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				default:
+					sb.append(next);
+			}
+		}
+		return sb.toString();
+	}
+}
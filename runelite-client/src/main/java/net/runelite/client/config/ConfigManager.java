@@ -51,6 +51,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -85,11 +86,14 @@ public class ConfigManager
 {
 	private static final String STANDARD_SETTINGS_FILE_NAME = "settings.properties";
 	private static final File STANDARD_SETTINGS_FILE = new File(RuneLite.RUNELITE_DIR, STANDARD_SETTINGS_FILE_NAME);
+	// Journaled changes are folded into the settings file once there are this many
+	private static final int MAX_JOURNAL_RECORDS = 1000;
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
-	private final Properties properties = new Properties();
-	private final Map<String, String> pendingChanges = new HashMap<>();
+	private final ConfigStore properties = new ConfigStore();
+	private final Map<String, String> pendingChanges = new LinkedHashMap<>();
 	private final Map<String, Consumer<? super Plugin>> consumers = new HashMap<>();
 	private final File settingsFileInput;
+	private final ConfigJournal journal;
 	private final Groups groups;
 	private final EventBus eventBus;
 
@@ -101,10 +105,12 @@ public class ConfigManager
 		EventBus eventBus)
 	{
 		this.settingsFileInput = config;
+		this.journal = new ConfigJournal(journalFile(config));
 		this.groups = groups;
 		this.eventBus = eventBus;
 
-		scheduledExecutorService.scheduleWithFixedDelay(this::sendConfig, 30, 30, TimeUnit.SECONDS);
+		// Only the changes are written here, so this can run far more often than a full save
+		scheduledExecutorService.scheduleWithFixedDelay(this::sendConfig, 5, 5, TimeUnit.SECONDS);
 		eventBus.subscribe(ClientShutdown.class, this, ev -> ev.waitFor(shutdown()));
 
 		groups.getMessageObjectSubject()
@@ -379,10 +385,12 @@ public class ConfigManager
 
 	private synchronized void syncPropertiesFromFile(File propertiesFile)
 	{
-		final Properties properties = new Properties();
+		final ConfigStore properties = new ConfigStore();
 		try (FileInputStream in = new FileInputStream(propertiesFile))
 		{
-			properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			final Properties settings = new Properties();
+			settings.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			settings.forEach((key, value) -> properties.put(String.valueOf(key), String.valueOf(value)));
 		}
 		catch (Exception e)
 		{
@@ -390,10 +398,21 @@ public class ConfigManager
 			return;
 		}
 
-		@SuppressWarnings("unchecked") final Map<String, String> copy = (Map) Map.copyOf(this.properties);
+		try
+		{
+			// The settings file is only rewritten now and then, the latest changes are in its journal
+			new ConfigJournal(journalFile(propertiesFile)).replay(properties);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to replay config journal of {}", propertiesFile, ex);
+		}
+
+		final Map<String, String> synced = properties.toMap();
+		final Map<String, String> copy = this.properties.toMap();
 		copy.forEach((groupAndKey, value) ->
 		{
-			if (!properties.containsKey(groupAndKey))
+			if (!synced.containsKey(groupAndKey))
 			{
 				final String[] split = groupAndKey.split("\\.", 2);
 				if (split.length != 2)
@@ -407,9 +426,8 @@ public class ConfigManager
 			}
 		});
 
-		properties.forEach((objGroupAndKey, objValue) ->
+		synced.forEach((groupAndKey, value) ->
 		{
-			final String groupAndKey = String.valueOf(objGroupAndKey);
 			final String[] split = groupAndKey.split("\\.", 2);
 			if (split.length != 2)
 			{
@@ -418,7 +436,6 @@ public class ConfigManager
 
 			final String groupName = split[0];
 			final String key = split[1];
-			final String value = String.valueOf(objValue);
 			setConfiguration(groupName, key, value);
 		});
 	}
@@ -434,9 +451,21 @@ public class ConfigManager
 		properties.clear();
 		consumers.clear();
 
+		synchronized (pendingChanges)
+		{
+			pendingChanges.clear();
+		}
+
+		synchronized (journal)
+		{
+			recoverSettingsFile();
+		}
+
 		try (FileInputStream in = new FileInputStream(settingsFileInput))
 		{
-			properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			final Properties settings = new Properties();
+			settings.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+			settings.forEach((key, value) -> properties.put(String.valueOf(key), String.valueOf(value)));
 		}
 		catch (FileNotFoundException ex)
 		{
@@ -448,9 +477,30 @@ public class ConfigManager
 			log.warn("Unable to load settings", ex);
 		}
 
+		synchronized (journal)
+		{
+			try
+			{
+				// Changes made after the settings file was last written in full
+				journal.replay(properties);
+				if (journal.size() > 0)
+				{
+					log.debug("Replayed {} journaled config changes", journal.size());
+					compact();
+				}
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to replay config journal", ex);
+			}
+		}
+
+		// values read while loading are stale
+		handler.invalidate();
+
 		try
 		{
-			@SuppressWarnings("unchecked") Map<String, String> copy = (Map) Map.copyOf(properties);
+			Map<String, String> copy = properties.toMap();
 			copy.forEach((groupAndKey, value) ->
 			{
 				final String[] split = groupAndKey.split("\\.", 2);
@@ -479,19 +529,32 @@ public class ConfigManager
 		}
 	}
 
-	private void saveToFile() throws IOException
+	/**
+	 * Writes the whole configuration next to the settings file, to be put in place with {@link #replaceSettingsFile(File)}
+	 */
+	private File writeSettingsFile() throws IOException
 	{
 		settingsFileInput.getParentFile().mkdirs();
 
-		File tempFile = new File(RuneLite.RUNELITE_DIR, RuneLite.DEFAULT_CONFIG_FILE.getName() + ".tmp");
+		File tempFile = tempSettingsFile();
+
+		final Properties settings = new Properties();
+		settings.putAll(properties.toMap());
 
 		try (FileOutputStream out = new FileOutputStream(tempFile))
 		{
 			out.getChannel().lock();
-			properties.store(new OutputStreamWriter(out, StandardCharsets.UTF_8), "RuneLite configuration");
+			settings.store(new OutputStreamWriter(out, StandardCharsets.UTF_8), "RuneLite configuration");
+			// the journal is moved aside once this is written, so it must be on disk first
+			out.getChannel().force(true);
 			// FileOutputStream.close() closes the associated channel, which frees the lock
 		}
 
+		return tempFile;
+	}
+
+	private void replaceSettingsFile(File tempFile) throws IOException
+	{
 		try
 		{
 			Files.move(tempFile.toPath(), settingsFileInput.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
@@ -511,20 +574,30 @@ public class ConfigManager
 			throw new RuntimeException("Non-public configuration classes can't have default methods invoked");
 		}
 
-		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]
+		T proxy = (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]
 			{
 				clazz
 			}, handler);
+		handler.register(clazz, proxy);
+		return proxy;
 	}
 
 	public List<String> getConfigurationKeys(String prefix)
 	{
-		return properties.keySet().stream().filter(v -> ((String) v).startsWith(prefix)).map(String.class::cast).collect(Collectors.toList());
+		return properties.keys().stream().filter(v -> v.startsWith(prefix)).collect(Collectors.toList());
 	}
 
 	public String getConfiguration(String groupName, String key)
 	{
-		return properties.getProperty(groupName + "." + key);
+		return properties.get(groupName + "." + key);
+	}
+
+	/**
+	 * Gets the stored value, which caches the result of parsing it
+	 */
+	ConfigStore.Value getConfigurationValue(String groupName, String key)
+	{
+		return properties.getValue(groupName + "." + key);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -563,7 +636,7 @@ public class ConfigManager
 
 	public void setConfiguration(String groupName, String key, String value, String origin)
 	{
-		String oldValue = (String) properties.setProperty(groupName + "." + key, value);
+		String oldValue = properties.put(groupName + "." + key, value);
 
 		if (Objects.equals(oldValue, value))
 		{
@@ -571,7 +644,7 @@ public class ConfigManager
 		}
 
 		log.debug("Setting configuration value for {}.{} to {}", groupName, key, value);
-		handler.invalidate();
+		handler.invalidate(groupName, key);
 
 		synchronized (pendingChanges)
 		{
@@ -601,7 +674,7 @@ public class ConfigManager
 
 	public void unsetConfiguration(String groupName, String key, String origin)
 	{
-		String oldValue = (String) properties.remove(groupName + "." + key);
+		String oldValue = properties.remove(groupName + "." + key);
 
 		if (oldValue == null)
 		{
@@ -609,7 +682,7 @@ public class ConfigManager
 		}
 
 		log.debug("Unsetting configuration value for {}.{}", groupName, key);
-		handler.invalidate();
+		handler.invalidate(groupName, key);
 
 		synchronized (pendingChanges)
 		{
@@ -788,28 +861,93 @@ public class ConfigManager
 		setDefaultConfiguration(proxy, override);
 	}
 
+	/**
+	 * Appends the changes made since the last call to the journal, and
+	 * rewrites the settings file once the journal has grown large
+	 */
 	public void sendConfig()
 	{
-		boolean changed;
+		final Map<String, String> changes;
 		synchronized (pendingChanges)
 		{
-			changed = !pendingChanges.isEmpty();
+			if (pendingChanges.isEmpty())
+			{
+				return;
+			}
+
+			changes = new LinkedHashMap<>(pendingChanges);
 			pendingChanges.clear();
 		}
 
-		if (changed)
+		synchronized (journal)
 		{
 			try
 			{
-				saveToFile();
+				journal.append(changes);
+
+				if (journal.size() >= MAX_JOURNAL_RECORDS)
+				{
+					compact();
+				}
 			}
 			catch (IOException ex)
 			{
-				log.warn("unable to save configuration file", ex);
+				log.warn("unable to save configuration changes", ex);
+
+				// Write everything out instead, so the changes are not lost
+				try
+				{
+					compact();
+				}
+				catch (IOException ex2)
+				{
+					log.warn("unable to save configuration file", ex2);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Writes the whole configuration to the settings file, and empties the journal.
+	 * A crash at any point leaves either the old settings file and its journal, or
+	 * the new settings file without it, see {@link #recoverSettingsFile()}.
+	 */
+	private void compact() throws IOException
+	{
+		assert Thread.holdsLock(journal);
+
+		final File tempFile = writeSettingsFile();
+		journal.rotate();
+		replaceSettingsFile(tempFile);
+		journal.commit();
+	}
+
+	/**
+	 * Finishes or undoes a {@link #compact()} which was cut short
+	 */
+	private void recoverSettingsFile()
+	{
+		assert Thread.holdsLock(journal);
+
+		final File tempFile = tempSettingsFile();
+		try
+		{
+			// the new settings file is only moved into place after the journal is rotated,
+			// so while it is still there the old settings file needs the rotated journal
+			journal.recover(!tempFile.exists());
+			Files.deleteIfExists(tempFile.toPath());
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to recover config journal", ex);
+		}
+	}
+
+	private File tempSettingsFile()
+	{
+		return new File(settingsFileInput.getParentFile(), settingsFileInput.getName() + ".tmp");
+	}
+
 	private void syncLastModified()
 	{
 		File newestFile;
@@ -837,7 +975,7 @@ public class ConfigManager
 				for (File settings : settingsFiles)
 				{
 					if (!settings.getName().equals(STANDARD_SETTINGS_FILE_NAME) ||
-						settings.lastModified() < newestFile.lastModified())
+						lastModified(settings) < lastModified(newestFile))
 					{
 						continue;
 					}
@@ -850,6 +988,19 @@ public class ConfigManager
 		syncPropertiesFromFile(newestFile);
 	}
 
+	/**
+	 * @return when a settings file was last changed, including the changes only in its journal
+	 */
+	private static long lastModified(File settingsFile)
+	{
+		return Math.max(settingsFile.lastModified(), journalFile(settingsFile).lastModified());
+	}
+
+	private static File journalFile(File settingsFile)
+	{
+		return new File(settingsFile.getParentFile(), settingsFile.getName() + ".journal");
+	}
+
 	private void broadcast(ConfigChanged configChanged)
 	{
 		groups.sendConfig(null, configChanged);
@@ -900,6 +1051,14 @@ public class ConfigManager
 		try
 		{
 			this.sendConfig();
+
+			synchronized (journal)
+			{
+				if (journal.size() > 0)
+				{
+					compact();
+				}
+			}
 			fut.complete(null);
 		}
 		catch (Exception ex)
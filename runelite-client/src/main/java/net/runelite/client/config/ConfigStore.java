@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+
+/**
+ * The configuration values of a profile, keyed by group.key.
+ * <p>
+ * Each value keeps the object it was last parsed into along with the type it
+ * was parsed as, so a value read through a config proxy is parsed once rather
+ * than on every read. Setting a key replaces its value, and with it the parsed
+ * object.
+ */
+final class ConfigStore
+{
+	private final Map<String, Value> values = new ConcurrentHashMap<>();
+
+	@Nullable
+	String get(String key)
+	{
+		final Value value = values.get(key);
+		return value == null ? null : value.raw;
+	}
+
+	@Nullable
+	Value getValue(String key)
+	{
+		return values.get(key);
+	}
+
+	/**
+	 * @return the previous value, or null if the key was not set
+	 */
+	@Nullable
+	String put(String key, String value)
+	{
+		Objects.requireNonNull(value, "value");
+		final Value old = values.put(key, new Value(value));
+		return old == null ? null : old.raw;
+	}
+
+	/**
+	 * @return the previous value, or null if the key was not set
+	 */
+	@Nullable
+	String remove(String key)
+	{
+		final Value old = values.remove(key);
+		return old == null ? null : old.raw;
+	}
+
+	Set<String> keys()
+	{
+		return values.keySet();
+	}
+
+	void clear()
+	{
+		values.clear();
+	}
+
+	/**
+	 * @return a copy of the raw values
+	 */
+	Map<String, String> toMap()
+	{
+		final Map<String, String> map = new HashMap<>(values.size());
+		values.forEach((key, value) -> map.put(key, value.raw));
+		return map;
+	}
+
+	static final class Value
+	{
+		private final String raw;
+		private volatile Parsed parsed;
+
+		private Value(String raw)
+		{
+			this.raw = raw;
+		}
+
+		String getRaw()
+		{
+			return raw;
+		}
+
+		/**
+		 * Parses the value as type, reusing the last result if it was parsed as the same type
+		 */
+		Object parse(Class<?> type)
+		{
+			final Parsed p = parsed;
+			if (p != null && p.type == type)
+			{
+				return p.object;
+			}
+
+			final Object object = ConfigManager.stringToObject(raw, type);
+			parsed = new Parsed(type, object);
+			return object;
+		}
+	}
+
+	@AllArgsConstructor
+	private static final class Parsed
+	{
+		private final Class<?> type;
+		private final Object object;
+	}
+}
@@ -48,6 +48,17 @@ public class AccessorGenerator
 		return builder.build();
 	}
 
+	/**
+	 * Create a lambda invoking the given event handler method on ref, which
+	 * avoids the overhead of reflective invocation on each event.
+	 */
+	public static <EVENT extends Event> Consumer<EVENT> createConsumer(Lookup caller, Object ref, Method method) throws Throwable
+	{
+		final Class<?> refClass = ref.getClass();
+		caller = getPrivateAccess(refClass, caller).in(refClass);
+		return getConsumerFor(caller, ref, method);
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <EVENT extends Event> Consumer<EVENT> getConsumerFor(Lookup caller, Object ref, Method method) throws Throwable
 	{
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import io.reactivex.rxjava3.functions.Consumer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.events.Event;
+
+/**
+ * An {@link EventBus} which invokes synchronous subscribers directly from
+ * {@link #post(Class, Event)}, without going through an Rx pipeline.
+ * <p>
+ * Subscribers are kept in a copy-on-write array per event class, so posting
+ * an event is a map lookup and a loop over the array. Subscribers with an
+ * {@link EventScheduler} are handed to the Rx based {@link EventBus}, which
+ * keeps their scheduling semantics.
+ * <p>
+ * Posts of an event class are serialized like the serialized relays of the
+ * Rx bus: an event posted while another event of the same class is being
+ * dispatched, for example by one of its subscribers, is queued. The
+ * thread dispatching the current event dispatches the queued events once
+ * the current event has reached every subscriber.
+ */
+@Slf4j
+@Singleton
+public class DirectEventBus extends EventBus
+{
+	private static final DirectSubscriber[] EMPTY = new DirectSubscriber[0];
+
+	private final Map<Class<?>, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+	private final Map<Object, List<DirectSubscriber>> lifecycles = new HashMap<>();
+	private final Map<Object, Object> subscriptionList = new HashMap<>();
+	private final Map<Class<?>, AtomicInteger> scheduledSubscribers = new ConcurrentHashMap<>();
+	private final Map<Object, List<Class<?>>> scheduledLifecycles = new HashMap<>();
+
+	@Override
+	public <T extends Event> void subscribe(Class<T> eventClass, @NonNull Object lifecycle, @NonNull Consumer<T> action, int takeUntil, @Nullable EventScheduler subscribe, @Nullable EventScheduler observe)
+	{
+		assert Event.class.isAssignableFrom(eventClass) : "Parameters of methods annotated with @Subscribe should implement net.runelite.api.events.Event";
+
+		if (isScheduled(subscribe) || isScheduled(observe))
+		{
+			synchronized (this)
+			{
+				super.subscribe(eventClass, lifecycle, action, takeUntil, subscribe, observe);
+				scheduledSubscribers.computeIfAbsent(eventClass, k -> new AtomicInteger()).incrementAndGet();
+				scheduledLifecycles.computeIfAbsent(lifecycle, k -> new ArrayList<>()).add(eventClass);
+			}
+			return;
+		}
+
+		synchronized (this)
+		{
+			if (subscriptionList.containsKey(lifecycle) && eventClass.equals(subscriptionList.get(lifecycle)))
+			{
+				return;
+			}
+
+			DirectSubscriber subscriber = new DirectSubscriber(eventClass, lifecycle, instrument(eventClass, action), takeUntil);
+
+			Dispatcher dispatcher = dispatchers.computeIfAbsent(eventClass, k -> new Dispatcher(eventClass));
+			DirectSubscriber[] current = dispatcher.subscribers;
+			DirectSubscriber[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = subscriber;
+			dispatcher.subscribers = updated;
+
+			lifecycles.computeIfAbsent(lifecycle, k -> new ArrayList<>()).add(subscriber);
+			subscriptionList.put(lifecycle, eventClass);
+		}
+	}
+
+	@Override
+	public void unregister(@NonNull Object lifecycle)
+	{
+		synchronized (this)
+		{
+			List<Class<?>> scheduled = scheduledLifecycles.remove(lifecycle);
+			if (scheduled != null)
+			{
+				for (Class<?> eventClass : scheduled)
+				{
+					scheduledSubscribers.get(eventClass).decrementAndGet();
+				}
+			}
+
+			subscriptionList.remove(lifecycle);
+
+			List<DirectSubscriber> removed = lifecycles.remove(lifecycle);
+			if (removed != null)
+			{
+				for (DirectSubscriber subscriber : removed)
+				{
+					subscriber.disposed = true;
+
+					// the dispatcher is kept, it may be dispatching or have queued events
+					Dispatcher dispatcher = dispatchers.get(subscriber.eventClass);
+					dispatcher.subscribers = Arrays.stream(dispatcher.subscribers)
+						.filter(s -> s != subscriber)
+						.toArray(DirectSubscriber[]::new);
+				}
+			}
+		}
+
+		super.unregister(lifecycle);
+	}
+
+	@Override
+	public <T extends Event> void post(Class<? extends T> eventClass, @NonNull T event)
+	{
+		Objects.requireNonNull(event, "event == null");
+
+		Dispatcher dispatcher = dispatchers.get(eventClass);
+		if (dispatcher != null)
+		{
+			dispatcher.post(event);
+		}
+		else
+		{
+			postScheduled(eventClass, event);
+		}
+	}
+
+	private void postScheduled(Class<? extends Event> eventClass, Event event)
+	{
+		AtomicInteger scheduled = scheduledSubscribers.get(eventClass);
+		if (scheduled != null && scheduled.get() > 0)
+		{
+			super.post(eventClass, event);
+		}
+	}
+
+	private static boolean isScheduled(@Nullable EventScheduler scheduler)
+	{
+		return scheduler != null && scheduler.get() != null;
+	}
+
+	/**
+	 * The subscribers of an event class, and the events queued while one
+	 * is being dispatched to them
+	 */
+	private class Dispatcher
+	{
+		private final Class<? extends Event> eventClass;
+		private volatile DirectSubscriber[] subscribers = EMPTY;
+		private final ArrayDeque<Event> queue = new ArrayDeque<>();
+		private boolean emitting;
+
+		private Dispatcher(Class<? extends Event> eventClass)
+		{
+			this.eventClass = eventClass;
+		}
+
+		private void post(Event event)
+		{
+			synchronized (this)
+			{
+				if (emitting)
+				{
+					queue.add(event);
+					return;
+				}
+				emitting = true;
+			}
+
+			for (;;)
+			{
+				for (DirectSubscriber subscriber : subscribers)
+				{
+					subscriber.accept(event);
+				}
+
+				postScheduled(eventClass, event);
+
+				synchronized (this)
+				{
+					event = queue.poll();
+					if (event == null)
+					{
+						emitting = false;
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	private class DirectSubscriber
+	{
+		private final Class<?> eventClass;
+		private final Object lifecycle;
+		private final Consumer<Object> action;
+		private final AtomicInteger remaining;
+		private volatile boolean disposed;
+
+		@SuppressWarnings("unchecked")
+		private DirectSubscriber(Class<?> eventClass, Object lifecycle, Consumer<?> action, int takeUntil)
+		{
+			this.eventClass = eventClass;
+			this.lifecycle = lifecycle;
+			this.action = (Consumer<Object>) action;
+			this.remaining = takeUntil > 0 ? new AtomicInteger(takeUntil) : null;
+		}
+
+		private void accept(Object event)
+		{
+			if (disposed)
+			{
+				return;
+			}
+
+			if (remaining != null && remaining.getAndDecrement() <= 0)
+			{
+				return;
+			}
+
+			try
+			{
+				action.accept(event);
+			}
+			catch (Throwable ex)
+			{
+				// an error terminates the subscription, the same as in the Rx pipeline
+				log.error("Exception in eventbus", ex);
+				unregister(lifecycle);
+				return;
+			}
+
+			if (remaining != null && remaining.get() <= 0)
+			{
+				unregister(lifecycle);
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.events.Event;
 import net.runelite.client.config.OpenOSRSConfig;
+import net.runelite.client.profiler.HotPathProfiler;
 
 @Slf4j
 @Singleton
@@ -29,6 +30,9 @@ public class EventBus implements EventBusInterface
 	@Inject
 	private OpenOSRSConfig openOSRSConfig;
 
+	@Inject
+	private HotPathProfiler profiler;
+
 	@NonNull
 	private <T extends Event> Relay<Object> getSubject(Class<T> eventClass)
 	{
@@ -60,6 +64,11 @@ public class EventBus implements EventBusInterface
 		return observable -> scheduler == null ? observable : subscribe ? observable.subscribeOn(scheduler) : observable.observeOn(scheduler);
 	}
 
+	protected <T extends Event> Consumer<T> instrument(Class<T> eventClass, Consumer<T> action)
+	{
+		return profiler != null ? profiler.instrument(eventClass, action) : action;
+	}
+
 	@Override
 	public <T extends Event> void subscribe(Class<T> eventClass, @NonNull Object lifecycle, @NonNull Consumer<T> action)
 	{
@@ -90,7 +99,7 @@ public class EventBus implements EventBusInterface
 			.doFinally(() -> unregister(lifecycle))
 			.compose(applyScheduler(subscribe, true))
 			.compose(applyScheduler(observe, false))
-			.subscribe(action, error ->
+			.subscribe(instrument(eventClass, action), error ->
 				log.error("Exception in eventbus", error));
 
 		getCompositeDisposable(lifecycle).add(disposable);
@@ -24,10 +24,25 @@
  */
 package net.runelite.client.events;
 
-import net.runelite.api.events.Event;
 import java.awt.Image;
+import net.runelite.api.events.Event;
+import net.runelite.client.ui.FrameBuffer;
 
+/**
+ * Posted with the finished frame, including the mouse cursor, while the client is mirrored.
+ * <p>
+ * The image is backed by a pooled {@link FrameBuffer} which is reused for a later frame
+ * once it is released, and the fields are cleared when dispatch returns. A subscriber
+ * which uses the frame afterwards, for example on another thread, must call
+ * {@link FrameBuffer#retain()} on {@link #frame} before returning and
+ * {@link FrameBuffer#release()} once it is done, or copy the image.
+ */
 public class DrawFinished implements Event
 {
 	public Image image;
-}
\ No newline at end of file
+
+	/**
+	 * The frame buffer backing {@link #image}
+	 */
+	public FrameBuffer frame;
+}
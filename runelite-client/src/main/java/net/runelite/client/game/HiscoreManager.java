@@ -24,45 +24,25 @@
  */
 package net.runelite.client.game;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Throwables;
 import java.io.IOException;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
-import okhttp3.OkHttpClient;
 
 @Singleton
 public class HiscoreManager
 {
-	@AllArgsConstructor
-	@Data
-	static class HiscoreKey
-	{
-		String username;
-		HiscoreEndpoint type;
-	}
-
-	static final HiscoreResult EMPTY = new HiscoreResult();
-	static final HiscoreResult NONE = new HiscoreResult();
-
-	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache;
-	private final HiscoreClient hiscoreClient;
+	private final HiscoreService hiscoreService;
 
 	@Inject
-	public HiscoreManager(ScheduledExecutorService executor, OkHttpClient okHttpClient)
+	public HiscoreManager(HiscoreService hiscoreService)
 	{
-		hiscoreClient = new HiscoreClient(okHttpClient);
-		hiscoreCache = CacheBuilder.newBuilder()
-			.maximumSize(128L)
-			.expireAfterWrite(1, TimeUnit.HOURS)
-			.build(new HiscoreLoader(executor, hiscoreClient));
+		this.hiscoreService = hiscoreService;
 	}
 
 	/**
@@ -75,22 +55,20 @@ public class HiscoreManager
 	 */
 	public HiscoreResult lookup(String username, HiscoreEndpoint endpoint) throws IOException
 	{
-		HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
-		HiscoreResult hiscoreResult = hiscoreCache.getIfPresent(hiscoreKey);
-		if (hiscoreResult != null && hiscoreResult != EMPTY)
+		try
 		{
-			return hiscoreResult == NONE ? null : hiscoreResult;
+			return hiscoreService.lookup(username, endpoint, HiscoreService.Priority.NORMAL).get();
 		}
-
-		hiscoreResult = hiscoreClient.lookup(username, endpoint);
-		if (hiscoreResult == null)
+		catch (InterruptedException ex)
 		{
-			hiscoreCache.put(hiscoreKey, NONE);
-			return null;
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted looking up hiscore");
+		}
+		catch (ExecutionException ex)
+		{
+			Throwables.throwIfInstanceOf(ex.getCause(), IOException.class);
+			throw new IOException(ex.getCause());
 		}
-
-		hiscoreCache.put(hiscoreKey, hiscoreResult);
-		return hiscoreResult;
 	}
 
 	/**
@@ -102,14 +80,11 @@ public class HiscoreManager
 	 */
 	public HiscoreResult lookupAsync(String username, HiscoreEndpoint endpoint)
 	{
-		HiscoreKey hiscoreKey = new HiscoreKey(username, endpoint);
-		HiscoreResult hiscoreResult = hiscoreCache.getIfPresent(hiscoreKey);
-		if (hiscoreResult != null && hiscoreResult != EMPTY)
+		CompletableFuture<HiscoreResult> future = hiscoreService.lookup(username, endpoint, HiscoreService.Priority.NORMAL);
+		if (future.isDone() && !future.isCompletedExceptionally())
 		{
-			return hiscoreResult == NONE ? null : hiscoreResult;
+			return future.join();
 		}
-
-		hiscoreCache.refresh(hiscoreKey);
 		return null;
 	}
 }
@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.util.Text;
+import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.events.ClientShutdown;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.hiscore.HiscoreClient;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+/**
+ * Looks up hiscores for the whole client.
+ * <p>
+ * Concurrent lookups of the same player and endpoint share one request.
+ * Requests are sent highest {@link Priority} first, no faster than a token
+ * bucket allows, and failed requests are retried with jittered exponential
+ * backoff. Results, including players who are not on the hiscores, are
+ * cached for an hour and the cache is saved to disk across sessions.
+ */
+@Singleton
+@Slf4j
+public class HiscoreService
+{
+	public enum Priority
+	{
+		LOW,
+		NORMAL,
+		HIGH
+	}
+
+	private static final File CACHE_FILE = new File(RuneLite.CACHE_DIR, "hiscores.json");
+	private static final long CACHE_TTL = TimeUnit.HOURS.toMillis(1);
+	private static final int MAX_CACHED = 1024;
+	private static final long SAVE_INTERVAL = 5;
+
+	private static final int MAX_IN_FLIGHT = 2;
+	private static final int MAX_ATTEMPTS = 6;
+	private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(1);
+
+	private static final int BURST = 5;
+	private static final long TOKEN_INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+
+	private static final Type CACHE_TYPE = new TypeToken<List<CacheEntry>>()
+	{
+	}.getType();
+
+	private final HiscoreClient hiscoreClient;
+	private final ScheduledExecutorService executor;
+	private final Function<HiscoreEndpoint, HttpUrl> urls;
+	private final File cacheFile;
+	private final TokenBucket limiter;
+	private final long baseBackoff;
+
+	private final Cache<HiscoreKey, CachedResult> cache = CacheBuilder.newBuilder()
+		.maximumSize(MAX_CACHED)
+		.expireAfterWrite(CACHE_TTL, TimeUnit.MILLISECONDS)
+		.build();
+
+	// Guarded by this
+	private final Map<HiscoreKey, PendingLookup> pending = new HashMap<>();
+	private final PriorityQueue<PendingLookup> queue = new PriorityQueue<>(Comparator
+		.comparing((PendingLookup l) -> l.priority).reversed()
+		.thenComparingLong(l -> l.sequence));
+	private long sequence;
+	private int inFlight;
+	private boolean drainScheduled;
+
+	private volatile boolean dirty;
+
+	@Inject
+	HiscoreService(OkHttpClient okHttpClient, ScheduledExecutorService executor, EventBus eventBus)
+	{
+		this(okHttpClient, executor, HiscoreEndpoint::getHiscoreURL, CACHE_FILE,
+			new TokenBucket(BURST, TOKEN_INTERVAL), TimeUnit.SECONDS.toMillis(1));
+
+		executor.execute(this::load);
+		executor.scheduleWithFixedDelay(this::save, SAVE_INTERVAL, SAVE_INTERVAL, TimeUnit.MINUTES);
+		eventBus.subscribe(ClientShutdown.class, this, ev -> ev.waitFor(saveAsync()));
+	}
+
+	@VisibleForTesting
+	HiscoreService(OkHttpClient okHttpClient, ScheduledExecutorService executor, Function<HiscoreEndpoint, HttpUrl> urls,
+		File cacheFile, TokenBucket limiter, long baseBackoff)
+	{
+		this.hiscoreClient = new HiscoreClient(okHttpClient);
+		this.executor = executor;
+		this.urls = urls;
+		this.cacheFile = cacheFile;
+		this.limiter = limiter;
+		this.baseBackoff = baseBackoff;
+	}
+
+	/**
+	 * Looks up a players hiscore, joining a lookup of the same player which
+	 * is already queued or running.
+	 *
+	 * @param username Players username
+	 * @param endpoint Hiscore endpoint
+	 * @param priority Lookups with a higher priority are sent first
+	 * @return a future completed with the result, with null if the player is not on the
+	 * hiscores, or exceptionally once every retry has failed
+	 */
+	public CompletableFuture<HiscoreResult> lookup(String username, HiscoreEndpoint endpoint, Priority priority)
+	{
+		final HiscoreKey key = new HiscoreKey(Text.standardize(username), endpoint);
+
+		final CachedResult cached = getCachedEntry(key);
+		if (cached != null)
+		{
+			return CompletableFuture.completedFuture(cached.result);
+		}
+
+		synchronized (this)
+		{
+			PendingLookup lookup = pending.get(key);
+			if (lookup == null)
+			{
+				lookup = new PendingLookup(key, username, priority, sequence++);
+				pending.put(key, lookup);
+				queue.add(lookup);
+			}
+			else if (priority.compareTo(lookup.priority) > 0)
+			{
+				// Reorder the queue if it is still waiting there, otherwise it is used for retries
+				final boolean queued = queue.remove(lookup);
+				lookup.priority = priority;
+				if (queued)
+				{
+					queue.add(lookup);
+				}
+			}
+
+			drain();
+
+			// Copied so one caller cancelling does not cancel everyone else's lookup
+			return lookup.future.copy();
+		}
+	}
+
+	/**
+	 * @return the cached result, or null if there is none or the player is not on the hiscores
+	 */
+	@Nullable
+	public HiscoreResult getCached(String username, HiscoreEndpoint endpoint)
+	{
+		final CachedResult cached = getCachedEntry(new HiscoreKey(Text.standardize(username), endpoint));
+		return cached == null ? null : cached.result;
+	}
+
+	private CachedResult getCachedEntry(HiscoreKey key)
+	{
+		final CachedResult cached = cache.getIfPresent(key);
+		if (cached != null && System.currentTimeMillis() - cached.fetched > CACHE_TTL)
+		{
+			// Loaded from disk, so the cache's own expiry started counting too late
+			cache.invalidate(key);
+			return null;
+		}
+		return cached;
+	}
+
+	private void drain()
+	{
+		assert Thread.holdsLock(this);
+
+		while (inFlight < MAX_IN_FLIGHT && !queue.isEmpty())
+		{
+			final long wait = limiter.tryAcquire();
+			if (wait > 0)
+			{
+				if (!drainScheduled)
+				{
+					drainScheduled = true;
+					executor.schedule(this::scheduledDrain, wait, TimeUnit.NANOSECONDS);
+				}
+				return;
+			}
+
+			final PendingLookup lookup = queue.poll();
+			inFlight++;
+
+			log.debug("Submitting hiscore lookup for {} type {}", lookup.username, lookup.key.endpoint);
+			try
+			{
+				hiscoreClient.lookupAsync(lookup.username, urls.apply(lookup.key.endpoint))
+					.whenComplete((result, ex) -> complete(lookup, result, ex));
+			}
+			catch (RuntimeException ex)
+			{
+				// Never started, so complete won't be called to release the slot
+				inFlight--;
+				pending.remove(lookup.key);
+				log.warn("Unable to look up hiscore for {}", lookup.username, ex);
+				// Completed outside of the lock, as dependents run synchronously
+				executor.execute(() -> lookup.future.completeExceptionally(ex));
+			}
+		}
+	}
+
+	private synchronized void scheduledDrain()
+	{
+		drainScheduled = false;
+		drain();
+	}
+
+	private void complete(PendingLookup lookup, HiscoreResult result, Throwable ex)
+	{
+		if (ex == null)
+		{
+			cache.put(lookup.key, new CachedResult(result, System.currentTimeMillis()));
+			dirty = true;
+		}
+
+		final boolean retry = ex != null && ++lookup.attempts < MAX_ATTEMPTS;
+
+		synchronized (this)
+		{
+			inFlight--;
+			if (!retry)
+			{
+				pending.remove(lookup.key);
+			}
+			drain();
+		}
+
+		if (retry)
+		{
+			final long delay = backoff(lookup.attempts);
+			log.debug("Hiscore lookup for {} failed, retrying in {}ms", lookup.username, delay, ex);
+			executor.schedule(() -> requeue(lookup), delay, TimeUnit.MILLISECONDS);
+		}
+		else if (ex != null)
+		{
+			log.warn("Unable to look up hiscore for {}", lookup.username, ex);
+			lookup.future.completeExceptionally(ex);
+		}
+		else
+		{
+			lookup.future.complete(result);
+		}
+	}
+
+	private synchronized void requeue(PendingLookup lookup)
+	{
+		queue.add(lookup);
+		drain();
+	}
+
+	/**
+	 * Exponential backoff with equal jitter, so players which failed together
+	 * are not all retried at the same moment
+	 */
+	private long backoff(int attempt)
+	{
+		final long delay = Math.min(MAX_BACKOFF, baseBackoff << (attempt - 1));
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	@VisibleForTesting
+	void load()
+	{
+		if (!cacheFile.exists())
+		{
+			return;
+		}
+
+		final List<CacheEntry> entries;
+		try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8))
+		{
+			entries = RuneLiteAPI.GSON.fromJson(reader, CACHE_TYPE);
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			log.warn("Unable to load hiscore cache", ex);
+			return;
+		}
+
+		if (entries == null)
+		{
+			return;
+		}
+
+		final long now = System.currentTimeMillis();
+		for (CacheEntry entry : entries)
+		{
+			if (entry.endpoint == null || entry.username == null || now - entry.fetched > CACHE_TTL)
+			{
+				continue;
+			}
+
+			cache.asMap().putIfAbsent(new HiscoreKey(entry.username, entry.endpoint), new CachedResult(entry.result, entry.fetched));
+		}
+
+		log.debug("Loaded {} cached hiscores", cache.size());
+	}
+
+	@VisibleForTesting
+	void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+		dirty = false;
+
+		final long now = System.currentTimeMillis();
+		final List<CacheEntry> entries = new ArrayList<>();
+		cache.asMap().forEach((key, cached) ->
+		{
+			if (now - cached.fetched <= CACHE_TTL)
+			{
+				entries.add(new CacheEntry(key.username, key.endpoint, cached.fetched, cached.result));
+			}
+		});
+
+		try
+		{
+			final File tmp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+			cacheFile.getParentFile().mkdirs();
+
+			try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+			{
+				RuneLiteAPI.GSON.toJson(entries, CACHE_TYPE, writer);
+			}
+
+			Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			// Written again on the next save, the flag is cleared before the snapshot so
+			// results which arrive while writing are not marked as saved
+			dirty = true;
+			log.warn("Unable to save hiscore cache", ex);
+		}
+	}
+
+	private Future<?> saveAsync()
+	{
+		return executor.submit(this::save);
+	}
+
+	@Value
+	private static class HiscoreKey
+	{
+		String username;
+		HiscoreEndpoint endpoint;
+	}
+
+	@AllArgsConstructor
+	private static class CachedResult
+	{
+		// null if the player is not on the hiscores
+		private final HiscoreResult result;
+		private final long fetched;
+	}
+
+	@AllArgsConstructor
+	private static class CacheEntry
+	{
+		private final String username;
+		private final HiscoreEndpoint endpoint;
+		private final long fetched;
+		private final HiscoreResult result;
+	}
+
+	private static class PendingLookup
+	{
+		private final HiscoreKey key;
+		private final String username;
+		private final long sequence;
+		private final CompletableFuture<HiscoreResult> future = new CompletableFuture<>();
+		private Priority priority;
+		private int attempts;
+
+		private PendingLookup(HiscoreKey key, String username, Priority priority, long sequence)
+		{
+			this.key = key;
+			this.username = username;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+	}
+}
@@ -28,6 +28,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
@@ -36,8 +37,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -452,7 +455,7 @@ public class ItemManager
 	private AsyncBufferedImage loadImage(int itemId, int quantity, boolean stackable)
 	{
 		AsyncBufferedImage img = new AsyncBufferedImage(Constants.ITEM_SPRITE_WIDTH, Constants.ITEM_SPRITE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
-		clientThread.invoke(() ->
+		BooleanSupplier load = () ->
 		{
 			if (client.getGameState().ordinal() < GameState.LOGIN_SCREEN.ordinal())
 			{
@@ -467,7 +470,13 @@ public class ItemManager
 			sprite.toBufferedImage(img);
 			img.loaded();
 			return true;
-		});
+		};
+
+		if (!clientThread.invoke(load, ClientThread.Priority.BACKGROUND))
+		{
+			// not cached, so the image is requested again the next time it is drawn
+			throw new RejectedExecutionException("background lane is full");
+		}
 		return img;
 	}
 
@@ -507,6 +516,15 @@ public class ItemManager
 		{
 			return null;
 		}
+		catch (UncheckedExecutionException ex)
+		{
+			if (ex.getCause() instanceof RejectedExecutionException)
+			{
+				// too many images are loading, this one stays blank until it is asked for again
+				return new AsyncBufferedImage(Constants.ITEM_SPRITE_WIDTH, Constants.ITEM_SPRITE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+			}
+			throw ex;
+		}
 	}
 
 	/**
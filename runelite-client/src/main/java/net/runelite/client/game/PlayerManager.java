@@ -1,6 +1,5 @@
 package net.runelite.client.game;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -10,8 +9,6 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -31,25 +28,21 @@ import net.runelite.api.kit.KitType;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.events.AttackStyleChanged;
 import net.runelite.client.util.PvPUtil;
-import net.runelite.http.api.hiscore.HiscoreClient;
-import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.item.ItemEquipmentStats;
 import net.runelite.http.api.item.ItemStats;
-import okhttp3.OkHttpClient;
 
 @Singleton
 @Slf4j
 @SuppressWarnings("unused")
 public class PlayerManager
 {
-	private final HiscoreClient hiscoreClient;
+	private final HiscoreService hiscoreService;
 	private final Client client;
 	private final ItemManager itemManager;
 	private final EventBus eventBus;
 	private final FriendChatManager friendChatManager;
 	private final Map<String, PlayerContainer> playerMap = new ConcurrentHashMap<>();
-	private final Map<String, HiscoreResult> resultCache = new ConcurrentHashMap<>();
-	private final ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
 
 	@Inject
 	PlayerManager(
@@ -57,14 +50,14 @@ public class PlayerManager
 		final EventBus eventBus,
 		final ItemManager itemManager,
 		final FriendChatManager friendChatManager,
-		final OkHttpClient okHttpClient
+		final HiscoreService hiscoreService
 	)
 	{
 		this.client = client;
 		this.itemManager = itemManager;
 		this.eventBus = eventBus;
 		this.friendChatManager = friendChatManager;
-		this.hiscoreClient = new HiscoreClient(okHttpClient);
+		this.hiscoreService = hiscoreService;
 
 		eventBus.subscribe(PlayerDespawned.class, this, this::onPlayerDespawned);
 		eventBus.subscribe(AnimationChanged.class, this, this::onAnimationChanged);
@@ -121,7 +114,7 @@ public class PlayerManager
 	}
 
 	/**
-	 * This will keep submitting an http request until it successfully updates.
+	 * Looks up the players hiscores, players who are attacking you are looked up first.
 	 *
 	 * @param name The player name you wish to update.
 	 */
@@ -138,7 +131,7 @@ public class PlayerManager
 	}
 
 	/**
-	 * This will keep submitting an http request until it successfully updates.
+	 * Looks up the players hiscores, players who are attacking you are looked up first.
 	 *
 	 * @param requestedPlayer The player object you wish to update.
 	 */
@@ -156,58 +149,40 @@ public class PlayerManager
 			return;
 		}
 
-		if (resultCache.containsKey(player.getName()))
-		{
-			player.setSkills(resultCache.get(player.getName()));
-			player.setPrayerLevel(player.getSkills().getPrayer().getLevel());
-			player.setHpLevel(player.getSkills().getHitpoints().getLevel());
-			return;
-		}
-
 		if (player.isHiscoresRequested() && !player.isHttpRetry())
 		{
+			if (player.isAttacking())
+			{
+				// the lookup may have been queued before they started attacking, move it to the front
+				hiscoreService.lookup(player.getName(), HiscoreEndpoint.NORMAL, HiscoreService.Priority.HIGH);
+			}
 			return;
 		}
 
 		player.setHiscoresRequested(true);
 
-		executorService.submit(() ->
+		final HiscoreService.Priority priority = player.isAttacking() ? HiscoreService.Priority.HIGH : HiscoreService.Priority.LOW;
+		hiscoreService.lookup(player.getName(), HiscoreEndpoint.NORMAL, priority).whenComplete((result, ex) ->
 		{
-			int timeout = 0;
-			HiscoreResult result;
-			do
+			if (ex != null)
 			{
-				try
-				{
-					result = hiscoreClient.lookup(player.getName());
-				}
-				catch (IOException ex)
-				{
-					if (timeout == 10)
-					{
-						log.error("HiScore Lookup timed out on: {}", player.getName());
-						player.setHttpRetry(true);
-						return;
-					}
-					result = null;
-					timeout++;
-					try
-					{
-						Thread.sleep(1000);
-					}
-					catch (InterruptedException ignored)
-					{
-					}
-				}
+				log.error("HiScore Lookup failed on: {}", player.getName());
+				player.setHttpRetry(true);
+				return;
+			}
+
+			player.setHttpRetry(false);
+			player.setHiscoresRequested(false);
+
+			if (result == null)
+			{
+				// not on the hiscores
+				return;
 			}
-			while (result == null);
 
-			resultCache.put(player.getName(), result);
 			player.setSkills(result);
 			player.setPrayerLevel(player.getSkills().getPrayer().getLevel());
 			player.setHpLevel(player.getSkills().getHitpoints().getLevel());
-			player.setHttpRetry(false);
-			player.setHiscoresRequested(false);
 		});
 	}
 
@@ -242,13 +217,13 @@ public class PlayerManager
 
 		assert player.getPlayer() == actor;
 
+		player.setAttacking(true);
+		player.setTimer(8);
+
 		if (player.getSkills() == null)
 		{
 			updateStats(player.getPlayer());
 		}
-
-		player.setAttacking(true);
-		player.setTimer(8);
 	}
 
 	private void update(PlayerContainer player)
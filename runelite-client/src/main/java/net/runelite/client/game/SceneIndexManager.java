@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.events.GameObjectChanged;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.NpcDefinitionChanged;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.queries.LocatableIndex;
+import net.runelite.api.queries.LocatableQuery;
+import net.runelite.api.queries.SceneIndex;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+
+/**
+ * Keeps the {@link SceneIndex} up to date from spawn and despawn events, so
+ * queries can find objects without scanning the whole scene.
+ */
+@Singleton
+public class SceneIndexManager implements SceneIndex
+{
+	private final Client client;
+
+	@Getter
+	private final LocatableIndex<GameObject> gameObjects = new LocatableIndex<>(true);
+
+	@Getter
+	private final LocatableIndex<NPC> npcs = new LocatableIndex<>(false);
+
+	@Inject
+	private SceneIndexManager(final Client client, final ClientThread clientThread, final EventBus eventBus)
+	{
+		this.client = client;
+
+		eventBus.subscribe(GameObjectSpawned.class, this, this::onGameObjectSpawned);
+		eventBus.subscribe(GameObjectChanged.class, this, this::onGameObjectChanged);
+		eventBus.subscribe(GameObjectDespawned.class, this, this::onGameObjectDespawned);
+		eventBus.subscribe(NpcSpawned.class, this, this::onNpcSpawned);
+		eventBus.subscribe(NpcDespawned.class, this, this::onNpcDespawned);
+		eventBus.subscribe(NpcDefinitionChanged.class, this, this::onNpcDefinitionChanged);
+		eventBus.subscribe(GameStateChanged.class, this, this::onGameStateChanged);
+
+		// the index may be created after the scene was loaded, queries only use it once it is built
+		clientThread.invokeLater(() ->
+		{
+			rebuild();
+			LocatableQuery.setSceneIndex(this);
+		});
+	}
+
+	private void onGameObjectSpawned(GameObjectSpawned event)
+	{
+		final GameObject gameObject = event.getGameObject();
+		gameObjects.add(gameObject.getId(), gameObject);
+	}
+
+	private void onGameObjectChanged(GameObjectChanged event)
+	{
+		// the tile's object is replaced without a despawn and spawn
+		gameObjects.remove(event.getPrevious());
+
+		final GameObject gameObject = event.getGameObject();
+		gameObjects.add(gameObject.getId(), gameObject);
+	}
+
+	private void onGameObjectDespawned(GameObjectDespawned event)
+	{
+		gameObjects.remove(event.getGameObject());
+	}
+
+	private void onNpcSpawned(NpcSpawned event)
+	{
+		final NPC npc = event.getNpc();
+		npcs.add(npc.getId(), npc);
+	}
+
+	private void onNpcDespawned(NpcDespawned event)
+	{
+		npcs.remove(event.getNpc());
+	}
+
+	private void onNpcDefinitionChanged(NpcDefinitionChanged event)
+	{
+		final NPC npc = event.getNpc();
+		npcs.add(npc.getId(), npc);
+	}
+
+	private void onGameStateChanged(GameStateChanged event)
+	{
+		switch (event.getGameState())
+		{
+			case LOADING:
+				// objects are spawned again once the new scene is loaded
+				gameObjects.clear();
+				break;
+			case LOGIN_SCREEN:
+			case HOPPING:
+				gameObjects.clear();
+				npcs.clear();
+				break;
+		}
+	}
+
+	private void rebuild()
+	{
+		gameObjects.clear();
+		npcs.clear();
+
+		if (client.getGameState() != GameState.LOGGED_IN)
+		{
+			return;
+		}
+
+		final Scene scene = client.getScene();
+		for (Tile[][] plane : scene.getTiles())
+		{
+			for (Tile[] column : plane)
+			{
+				for (Tile tile : column)
+				{
+					if (tile == null || tile.getGameObjects() == null)
+					{
+						continue;
+					}
+
+					for (GameObject gameObject : tile.getGameObjects())
+					{
+						// objects larger than a tile are on each tile they cover, add only adds them once
+						if (gameObject != null)
+						{
+							gameObjects.add(gameObject.getId(), gameObject);
+						}
+					}
+				}
+			}
+		}
+
+		for (NPC npc : client.getNpcs())
+		{
+			npcs.add(npc.getId(), npc);
+		}
+	}
+}
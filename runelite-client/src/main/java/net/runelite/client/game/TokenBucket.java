@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket rate limiter. It holds up to capacity tokens and gains one
+ * every interval, a caller which finds it empty is told how long to wait.
+ */
+final class TokenBucket
+{
+	private final double capacity;
+	private final long nanosPerToken;
+	private final LongSupplier clock;
+
+	private double tokens;
+	private long lastRefill;
+
+	TokenBucket(int capacity, long nanosPerToken)
+	{
+		this(capacity, nanosPerToken, System::nanoTime);
+	}
+
+	TokenBucket(int capacity, long nanosPerToken, LongSupplier clock)
+	{
+		this.capacity = capacity;
+		this.nanosPerToken = nanosPerToken;
+		this.clock = clock;
+		this.tokens = capacity;
+		this.lastRefill = clock.getAsLong();
+	}
+
+	/**
+	 * Takes a token if one is available
+	 *
+	 * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+	 */
+	synchronized long tryAcquire()
+	{
+		final long now = clock.getAsLong();
+		tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / nanosPerToken);
+		lastRefill = now;
+
+		if (tokens >= 1)
+		{
+			tokens -= 1;
+			return 0;
+		}
+
+		return (long) Math.ceil((1 - tokens) * nanosPerToken);
+	}
+}
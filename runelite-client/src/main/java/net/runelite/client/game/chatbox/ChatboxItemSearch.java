@@ -93,7 +93,7 @@ public class ChatboxItemSearch extends ChatboxTextInput
 			{
 				filterResults();
 				update();
-			}));
+			}, ClientThread.Priority.INPUT));
 	}
 
 	@Override
@@ -213,7 +213,7 @@ public class ChatboxItemSearch extends ChatboxTextInput
 					{
 						index = 0;
 					}
-					clientThread.invokeLater(this::update);
+					clientThread.invokeLater(this::update, ClientThread.Priority.INPUT);
 				}
 				break;
 			case KeyEvent.VK_LEFT:
@@ -225,7 +225,7 @@ public class ChatboxItemSearch extends ChatboxTextInput
 					{
 						index = results.size() - 1;
 					}
-					clientThread.invokeLater(this::update);
+					clientThread.invokeLater(this::update, ClientThread.Priority.INPUT);
 				}
 				break;
 			case KeyEvent.VK_UP:
@@ -246,7 +246,7 @@ public class ChatboxItemSearch extends ChatboxTextInput
 						index = Ints.constrainToRange(index, 0, results.size() - 1);
 					}
 
-					clientThread.invokeLater(this::update);
+					clientThread.invokeLater(this::update, ClientThread.Priority.INPUT);
 				}
 				break;
 			case KeyEvent.VK_DOWN:
@@ -267,7 +267,7 @@ public class ChatboxItemSearch extends ChatboxTextInput
 						index = Ints.constrainToRange(index, 0, results.size() - 1);
 					}
 
-					clientThread.invokeLater(this::update);
+					clientThread.invokeLater(this::update, ClientThread.Priority.INPUT);
 				}
 				break;
 			default:
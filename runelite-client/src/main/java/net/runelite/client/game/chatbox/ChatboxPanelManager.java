@@ -86,7 +86,7 @@ public class ChatboxPanelManager
 
 	public void close()
 	{
-		clientThread.invokeLater(this::unsafeCloseInput);
+		clientThread.invokeLater(this::unsafeCloseInput, ClientThread.Priority.INPUT);
 	}
 
 	private void unsafeCloseInput()
@@ -138,7 +138,7 @@ public class ChatboxPanelManager
 
 	public void openInput(ChatboxInput input)
 	{
-		clientThread.invokeLater(() -> unsafeOpenInput(input));
+		clientThread.invokeLater(() -> unsafeOpenInput(input), ClientThread.Priority.INPUT);
 	}
 
 	public ChatboxTextMenuInput openTextMenuInput(String title)
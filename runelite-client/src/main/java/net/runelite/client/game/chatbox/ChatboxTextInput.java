@@ -140,7 +140,7 @@ public class ChatboxTextInput extends ChatboxInput implements KeyListener, Mouse
 		this.lines = lines;
 		if (built)
 		{
-			clientThread.invoke(this::update);
+			clientThread.invoke(this::update, ClientThread.Priority.INPUT);
 		}
 		return this;
 	}
@@ -150,7 +150,7 @@ public class ChatboxTextInput extends ChatboxInput implements KeyListener, Mouse
 		this.prompt = prompt;
 		if (built)
 		{
-			clientThread.invoke(this::update);
+			clientThread.invoke(this::update, ClientThread.Priority.INPUT);
 		}
 		return this;
 	}
@@ -207,7 +207,7 @@ public class ChatboxTextInput extends ChatboxInput implements KeyListener, Mouse
 
 		if (built)
 		{
-			clientThread.invoke(this::update);
+			clientThread.invoke(this::update, ClientThread.Priority.INPUT);
 		}
 
 		return this;
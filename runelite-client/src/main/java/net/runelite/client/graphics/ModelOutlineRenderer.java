@@ -30,9 +30,8 @@ import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import net.runelite.api.Client;
 import net.runelite.api.DecorativeObject;
 import net.runelite.api.GameObject;
@@ -52,22 +51,30 @@ import net.runelite.client.task.Schedule;
 @Singleton
 public class ModelOutlineRenderer
 {
+	/**
+	 * Threads rasterizing the outlines of a frame. Kept small and separate from the
+	 * common pool, so the frame doesn't wait on unrelated parallel work and the
+	 * rasterizer doesn't take every core away from the rest of the client.
+	 */
+	private static final int RASTERIZER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
 	/*
-	 * This class doesn't really "need" static variables, but they are
-	 * static for performance reasons. Arrays are kept outside methods
-	 * to avoid frequent big allocations. Arrays should mostly be seen
-	 * as ArrayLists. The size of them is increased whenever they need
-	 * to become bigger.
+	 * Arrays are kept outside methods to avoid frequent big allocations.
+	 * The size of them is increased whenever they need to become bigger.
 	 */
 
 	private final Client client;
+	private final OutlineRasterizer rasterizer = new OutlineRasterizer(new ForkJoinPool(RASTERIZER_THREADS, pool ->
+	{
+		final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("Outline rasterizer-" + thread.getPoolIndex());
+		thread.setDaemon(true);
+		return thread;
+	}, null, false));
 
 	private boolean isReset;
 	private boolean usedSinceLastCheck;
-
-	// Dimensions of the underlying image
-	private int imageWidth;
-	private int imageHeight;
+	private boolean batching;
 
 	// Boundaries for the current rasterization
 	private int clipX1;
@@ -75,28 +82,11 @@ public class ModelOutlineRenderer
 	private int clipX2;
 	private int clipY2;
 
-	// Pixel points that would be rendered to
-	private int[] visited;
-	private int currentVisitedNumber = 0;
-
 	// Transformed vertex positions
 	private int[] projectedVerticesX;
 	private int[] projectedVerticesY;
 	private boolean[] projectedVerticesRenderable;
 
-	// An array of pixel points to raster onto the image. These are checked against
-	// clip boundaries and the visited array to prevent drawing on top of the model
-	// and outside the scene area. They are grouped per distance to the closest pixel
-	// drawn on the model.
-	private int[][] outlinePixels;
-	private int[] outlinePixelsLengths; // outlinePixelsLength[i] is the used length of outlinePixels[i]
-	private int outlineArrayWidth;
-
-	// A list of pixel distances ordered from shortest to longest distance for
-	// each outline width. These are calculated once upon first usage and then
-	// stored here to prevent reevaluation.
-	private List<List<PixelDistanceAlpha>> precomputedDistancePriorities;
-
 	@Inject
 	private ModelOutlineRenderer(Client client)
 	{
@@ -121,13 +111,10 @@ public class ModelOutlineRenderer
 	 */
 	private void reset()
 	{
-		visited = new int[0];
 		projectedVerticesX = new int[0];
 		projectedVerticesY = new int[0];
 		projectedVerticesRenderable = new boolean[0];
-		outlinePixels = new int[0][];
-		outlinePixelsLengths = new int[0];
-		precomputedDistancePriorities = new ArrayList<>(0);
+		rasterizer.reset();
 		isReset = true;
 	}
 
@@ -150,463 +137,58 @@ public class ModelOutlineRenderer
 	}
 
 	/**
-	 * Determine if a triangle goes counter clockwise
-	 *
-	 * @return Returns true if the triangle goes counter clockwise and should be culled, otherwise false
-	 */
-	private static boolean cullFace(int x1, int y1, int x2, int y2, int x3, int y3)
-	{
-		return
-			(y2 - y1) * (x3 - x2) -
-				(x2 - x1) * (y3 - y2) < 0;
-	}
-
-	/**
-	 * Gets the list of pixel distances ordered by distance from closest pixel for a specific outline width.
-	 *
-	 * @param outlineWidth The outline width
-	 * @return Returns the list of pixel distances
-	 */
-	private List<PixelDistanceAlpha> getPriorityList(int outlineWidth)
-	{
-		while (precomputedDistancePriorities.size() <= outlineWidth)
-		{
-			precomputedDistancePriorities.add(null);
-		}
-
-		// Grab the cached outline width if we have one
-		if (precomputedDistancePriorities.get(outlineWidth) != null)
-		{
-			return precomputedDistancePriorities.get(outlineWidth);
-		}
-
-		List<PixelDistanceAlpha> ps = new ArrayList<>();
-		for (int x = 0; x <= outlineWidth; x++)
-		{
-			for (int y = 0; y <= outlineWidth; y++)
-			{
-				if (x == 0 && y == 0)
-				{
-					continue;
-				}
-
-				double dist = Math.sqrt(x * x + y * y);
-				if (dist > outlineWidth)
-				{
-					continue;
-				}
-
-				int outerAlpha = outlineWidth == 1 ? 255 // For preventing division by 0
-					: (int) (255 * (dist - 1) / (outlineWidth - 1));
-				ps.add(new PixelDistanceAlpha(outerAlpha, x + y * outlineArrayWidth));
-			}
-		}
-		ps.sort(Comparator.comparingDouble(PixelDistanceAlpha::getOuterAlpha));
-		precomputedDistancePriorities.set(outlineWidth, ps);
-
-		return ps;
-	}
-
-	/**
-	 * Checks that the size of outlinePixels is big enough to hold a specific
-	 * amount of elements. This is used to reduce the amount of if checks needed
-	 * when adding elements to outlinePixels.
-	 *
-	 * @param distArrayPos          The position in the array
-	 * @param additionalMinimumSize The additional minimum size required
-	 */
-	private void ensureMinimumOutlineQueueSize(int distArrayPos, int additionalMinimumSize)
-	{
-		int minimumSize = outlinePixelsLengths[distArrayPos] + additionalMinimumSize;
-		while (outlinePixels[distArrayPos].length < minimumSize)
-		{
-			int[] newArr = new int[nextPowerOfTwo(minimumSize)];
-			System.arraycopy(outlinePixels[distArrayPos], 0, newArr, 0,
-				outlinePixels[distArrayPos].length);
-			outlinePixels[distArrayPos] = newArr;
-		}
-	}
-
-	/**
-	 * Resets the visited flag for a specific amount of pixels
-	 *
-	 * @param pixelAmount The amount of pixels to reset
-	 */
-	private void resetVisited(int pixelAmount)
-	{
-		// The visited array is essentially a boolean array, but by
-		// making it an int array and checking if visited[i] == currentVisitedNumber
-		// and changing currentVisitedNumber for every new outline, we can essentially
-		// reset the whole array without having to iterate over every element
-
-		if (visited.length < pixelAmount)
-		{
-			visited = new int[nextPowerOfTwo(pixelAmount)];
-			currentVisitedNumber = 0;
-		}
-
-		currentVisitedNumber++;
-	}
-
-	/**
-	 * Resets the pixels that are queued for outlining
-	 *
-	 * @param outlineWidth The width of the outline to reset pixels for
+	 * Start collecting outlines instead of drawing them immediately. All outlines
+	 * requested until {@link #finishBatch()} are drawn together in a single pass,
+	 * which is considerably cheaper than drawing them one by one. Outlines are
+	 * still drawn in the order they were requested.
+	 * <p>
+	 * The overlay renderer batches the outlines of each overlay, so they are drawn
+	 * once that overlay has rendered and before the next overlay.
 	 */
-	private void resetOutline(int outlineWidth)
+	public void startBatch()
 	{
-		outlineArrayWidth = outlineWidth + 2;
-
-		int arraySizes = outlineArrayWidth * outlineArrayWidth;
-		if (outlinePixels.length < arraySizes)
+		if (!batching)
 		{
-			outlinePixels = new int[arraySizes][];
-			outlinePixelsLengths = new int[arraySizes];
-			for (int i = 0; i < arraySizes; i++)
-			{
-				outlinePixels[i] = new int[4];
-			}
-		}
-		else
-		{
-			for (int i = 0; i < arraySizes; i++)
-			{
-				outlinePixelsLengths[i] = 0;
-			}
+			batching = true;
+			begin();
 		}
 	}
 
 	/**
-	 * Simulates a horizontal line rasterization and adds the pixels to the left
-	 * and to the right to the outline queue if they are within the clip area.
-	 *
-	 * @param pixelPos The pixel position in the line where x == 0
-	 * @param x1       The starting x position
-	 * @param x2       The ending x position
+	 * Draw every outline requested since {@link #startBatch()}
 	 */
-	private void simulateHorizontalLineRasterizationForOutline(int pixelPos, int x1, int x2)
+	public void finishBatch()
 	{
-		if (x2 > clipX2)
+		if (batching)
 		{
-			x2 = clipX2;
-		}
-		if (x1 < clipX1)
-		{
-			x1 = clipX1;
-		}
-		if (x1 >= x2)
-		{
-			return;
-		}
-
-		// Queue the pixel positions to the left and to the right of the line
-		ensureMinimumOutlineQueueSize(1, 2);
-		if (x2 < clipX2)
-		{
-			outlinePixels[1][outlinePixelsLengths[1]++] = pixelPos + x2;
-		}
-		if (x1 > clipX1)
-		{
-			outlinePixels[1][outlinePixelsLengths[1]++] = pixelPos + x1 - 1;
-		}
-
-		// Divide by 4 to account for loop unrolling
-		int xDist = x2 - x1 >> 2;
-		pixelPos += x1;
-
-		// This loop could run over 100m times per second without loop unrolling in some cases,
-		// so unrolling it can give a noticeable performance boost.
-		while (xDist-- > 0)
-		{
-			visited[pixelPos++] = currentVisitedNumber;
-			visited[pixelPos++] = currentVisitedNumber;
-			visited[pixelPos++] = currentVisitedNumber;
-			visited[pixelPos++] = currentVisitedNumber;
-		}
-
-		// Draw up to 3 more pixels if there were any left
-		xDist = (x2 - x1) & 3;
-		while (xDist-- > 0)
-		{
-			visited[pixelPos++] = currentVisitedNumber;
+			batching = false;
+			flush();
 		}
 	}
 
-	/**
-	 * Queues the pixel positions above and below two horizontal lines, excluding those
-	 * where the x positions of the lines intersect.
-	 *
-	 * @param pixelPos The pixel position at x == 0 of the second line
-	 * @param x1       The starting x position of the first line
-	 * @param x2       The ending x position of the first line
-	 * @param x3       The starting x position of the second line
-	 * @param x4       The ending x position of the second line
-	 */
-	private void outlineAroundHorizontalLine(int pixelPos, int x1, int x2, int x3, int x4)
+	private void begin()
 	{
-		if (x1 < clipX1)
-		{
-			x1 = clipX1;
-		}
-		if (x2 < clipX1)
-		{
-			x2 = clipX1;
-		}
-		if (x3 < clipX1)
-		{
-			x3 = clipX1;
-		}
-		if (x4 < clipX1)
-		{
-			x4 = clipX1;
-		}
-
-		if (x1 > clipX2)
-		{
-			x1 = clipX2;
-		}
-		if (x2 > clipX2)
-		{
-			x2 = clipX2;
-		}
-		if (x3 > clipX2)
-		{
-			x3 = clipX2;
-		}
-		if (x4 > clipX2)
-		{
-			x4 = clipX2;
-		}
+		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
+		BufferedImage image = (BufferedImage) bufferProvider.getImage();
 
-		if (x1 < x3)
-		{
-			ensureMinimumOutlineQueueSize(outlineArrayWidth, x3 - x1);
-			for (int x = x1; x < x3; x++)
-			{
-				outlinePixels[outlineArrayWidth][outlinePixelsLengths[outlineArrayWidth]++] = pixelPos - imageWidth + x;
-			}
-		}
-		else
-		{
-			ensureMinimumOutlineQueueSize(outlineArrayWidth, x1 - x3);
-			for (int x = x3; x < x1; x++)
-			{
-				outlinePixels[outlineArrayWidth][outlinePixelsLengths[outlineArrayWidth]++] = pixelPos + x;
-			}
-		}
+		clipX1 = client.getViewportXOffset();
+		clipY1 = client.getViewportYOffset();
+		clipX2 = client.getViewportWidth() + clipX1;
+		clipY2 = client.getViewportHeight() + clipY1;
 
-		if (x2 < x4)
-		{
-			ensureMinimumOutlineQueueSize(outlineArrayWidth, x4 - x2);
-			for (int x = x2; x < x4; x++)
-			{
-				outlinePixels[outlineArrayWidth][outlinePixelsLengths[outlineArrayWidth]++] = pixelPos + x;
-			}
-		}
-		else
-		{
-			ensureMinimumOutlineQueueSize(outlineArrayWidth, x2 - x4);
-			for (int x = x4; x < x2; x++)
-			{
-				outlinePixels[outlineArrayWidth][outlinePixelsLengths[outlineArrayWidth]++] = pixelPos - imageWidth + x;
-			}
-		}
+		rasterizer.begin(image.getWidth(), image.getHeight(), clipX1, clipY1, clipX2, clipY2);
 	}
 
-	/**
-	 * Simulates rasterization of a triangle and adds every pixel outside the triangle
-	 * to the outline queue.
-	 *
-	 * @param x1 The x position of the first vertex in the triangle
-	 * @param y1 The y position of the first vertex in the triangle
-	 * @param x2 The x position of the second vertex in the triangle
-	 * @param y2 The y position of the second vertex in the triangle
-	 * @param x3 The x position of the third vertex in the triangle
-	 * @param y3 The y position of the third vertex in the triangle
-	 */
-	private void simulateTriangleRasterizationForOutline(int x1, int y1, int x2, int y2, int x3, int y3)
+	private void flush()
 	{
-		// Swap vertices so y1 <= y2 <= y3 using bubble sort
-		if (y1 > y2)
-		{
-			int yp = y1;
-			int xp = x1;
-			y1 = y2;
-			y2 = yp;
-			x1 = x2;
-			x2 = xp;
-		}
-		if (y2 > y3)
-		{
-			int yp = y2;
-			int xp = x2;
-			y2 = y3;
-			y3 = yp;
-			x2 = x3;
-			x3 = xp;
-		}
-		if (y1 > y2)
-		{
-			int yp = y1;
-			int xp = x1;
-			y1 = y2;
-			y2 = yp;
-			x1 = x2;
-			x2 = xp;
-		}
-
-		if (y1 > clipY2)
-		{
-			// All points are outside clip boundaries
-			return;
-		}
-
-		int slope1 = 0;
-		if (y1 != y2)
-		{
-			slope1 = (x2 - x1 << 14) / (y2 - y1);
-		}
-
-		int slope2 = 0;
-		if (y3 != y2)
-		{
-			slope2 = (x3 - x2 << 14) / (y3 - y2);
-		}
-
-		int slope3 = 0;
-		if (y1 != y3)
-		{
-			slope3 = (x1 - x3 << 14) / (y1 - y3);
-		}
-
-		if (y2 > clipY2)
-		{
-			y2 = clipY2;
-		}
-		if (y3 > clipY2)
-		{
-			y3 = clipY2;
-		}
-		if (y1 == y3 || y3 < 0)
+		if (rasterizer.size() == 0)
 		{
 			return;
 		}
 
-		x1 <<= 14;
-		x2 <<= 14;
-		x3 = x1;
-
-		if (y1 < 0)
-		{
-			x3 -= y1 * slope3;
-			x1 -= y1 * slope1;
-			y1 = 0;
-		}
-		if (y2 < 0)
-		{
-			x2 -= slope2 * y2;
-			y2 = 0;
-		}
-
-		int pixelPos = y1 * imageWidth;
-		int currX1;
-		int currX2;
-		if (y1 != y2 && slope3 < slope1 || y1 == y2 && slope3 > slope2)
-		{
-			int height1 = y2 - y1;
-			int height2 = y3 - y2;
-
-			int prevX1;
-			int prevX2;
-			if (height1 <= 0)
-			{
-				prevX1 = x3 >> 14;
-				prevX2 = x2 >> 14;
-			}
-			else
-			{
-				prevX1 = x3 >> 14;
-				prevX2 = x1 >> 14;
-			}
-
-			outlineAroundHorizontalLine(pixelPos, prevX1, prevX2, prevX2, prevX2);
-
-			while (height1-- > 0)
-			{
-				currX1 = x3 >> 14;
-				currX2 = x1 >> 14;
-				outlineAroundHorizontalLine(pixelPos, currX1, currX2, prevX1, prevX2);
-				simulateHorizontalLineRasterizationForOutline(pixelPos, currX1, currX2);
-				x3 += slope3;
-				x1 += slope1;
-				pixelPos += imageWidth;
-				prevX1 = currX1;
-				prevX2 = currX2;
-			}
-
-			while (height2-- > 0)
-			{
-				currX1 = x3 >> 14;
-				currX2 = x2 >> 14;
-				outlineAroundHorizontalLine(pixelPos, currX1, currX2, prevX1, prevX2);
-				simulateHorizontalLineRasterizationForOutline(pixelPos, currX1, currX2);
-				x3 += slope3;
-				x2 += slope2;
-				pixelPos += imageWidth;
-				prevX1 = currX1;
-				prevX2 = currX2;
-			}
-
-			outlineAroundHorizontalLine(pixelPos, prevX1, prevX1, prevX1, prevX2);
-		}
-		else
-		{
-			int height1 = y2 - y1;
-			int height2 = y3 - y2;
-
-			int prevX1;
-			int prevX2;
-			if (height1 <= 0)
-			{
-				prevX1 = x2 >> 14;
-				prevX2 = x3 >> 14;
-			}
-			else
-			{
-				prevX1 = x1 >> 14;
-				prevX2 = x3 >> 14;
-			}
-
-			outlineAroundHorizontalLine(pixelPos, prevX1, prevX2, prevX2, prevX2);
-
-			while (height1-- > 0)
-			{
-				currX1 = x1 >> 14;
-				currX2 = x3 >> 14;
-				outlineAroundHorizontalLine(pixelPos, currX1, currX2, prevX1, prevX2);
-				simulateHorizontalLineRasterizationForOutline(pixelPos, currX1, currX2);
-				x1 += slope1;
-				x3 += slope3;
-				pixelPos += imageWidth;
-				prevX1 = currX1;
-				prevX2 = currX2;
-			}
-
-			while (height2-- > 0)
-			{
-				currX1 = x2 >> 14;
-				currX2 = x3 >> 14;
-				outlineAroundHorizontalLine(pixelPos, currX1, currX2, prevX1, prevX2);
-				simulateHorizontalLineRasterizationForOutline(pixelPos, currX1, currX2);
-				x3 += slope3;
-				x2 += slope2;
-				pixelPos += imageWidth;
-				prevX1 = currX1;
-				prevX2 = currX2;
-			}
-
-			outlineAroundHorizontalLine(pixelPos, prevX1, prevX1, prevX1, prevX2);
-		}
+		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
+		BufferedImage image = (BufferedImage) bufferProvider.getImage();
+		rasterizer.render(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
 	}
 
 	/**
@@ -698,186 +280,7 @@ public class ModelOutlineRenderer
 	}
 
 	/**
-	 * Simulate rendering of the model and puts every pixel of the wireframe of
-	 * the non-culled and non-transparent faces into the outline pixel queue.
-	 */
-	private void simulateModelRasterizationForOutline(Model model)
-	{
-		final int triangleCount = model.getTrianglesCount();
-		final int[] indices1 = model.getTrianglesX();
-		final int[] indices2 = model.getTrianglesY();
-		final int[] indices3 = model.getTrianglesZ();
-		final byte[] triangleTransparencies = model.getTriangleTransparencies();
-
-		for (int i = 0; i < triangleCount; i++)
-		{
-			if (projectedVerticesRenderable[indices1[i]] &&
-				projectedVerticesRenderable[indices2[i]] &&
-				projectedVerticesRenderable[indices3[i]] &&
-				// 254 and 255 counts as fully transparent
-				(triangleTransparencies == null || (triangleTransparencies[i] & 255) < 254))
-			{
-				final int index1 = indices1[i];
-				final int index2 = indices2[i];
-				final int index3 = indices3[i];
-				final int v1x = projectedVerticesX[index1];
-				final int v1y = projectedVerticesY[index1];
-				final int v2x = projectedVerticesX[index2];
-				final int v2y = projectedVerticesY[index2];
-				final int v3x = projectedVerticesX[index3];
-				final int v3y = projectedVerticesY[index3];
-
-				if (!cullFace(v1x, v1y, v2x, v2y, v3x, v3y))
-				{
-					simulateTriangleRasterizationForOutline(
-						v1x, v1y, v2x, v2y, v3x, v3y);
-				}
-			}
-		}
-	}
-
-	/**
-	 * Draws an outline of the pixels in the outline queue to an image
-	 *
-	 * @param image        The image to draw the outline to
-	 * @param outlineWidth The width of the outline
-	 * @param innerColor   The color of the pixels of the outline closest to the model
-	 * @param outerColor   The color of the pixels of the outline furthest away from the model
-	 */
-	private void renderOutline(BufferedImage image, int outlineWidth, Color innerColor, Color outerColor)
-	{
-		int[] imageData = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-		List<PixelDistanceAlpha> ps = getPriorityList(outlineWidth);
-
-		for (PixelDistanceAlpha p : ps)
-		{
-			int color;
-			int alpha;
-			if (outlineWidth == 1)
-			{
-				color =
-					((innerColor.getRed() + outerColor.getRed()) << 15) |
-						((innerColor.getGreen() + outerColor.getGreen() << 7)) |
-						((innerColor.getBlue() + outerColor.getBlue() >> 1));
-				alpha = (innerColor.getAlpha() + outerColor.getAlpha()) >> 1;
-			}
-			else
-			{
-				int outerAlpha = p.getOuterAlpha();
-				int innerAlpha = 255 - outerAlpha;
-				int innerAlphaFraction = (innerAlpha * innerColor.getAlpha()) / 255;
-				int outerAlphaFraction = (outerAlpha * outerColor.getAlpha()) / 255;
-				alpha = innerAlphaFraction + outerAlphaFraction;
-				if (alpha != 0)
-				{
-					color =
-						((innerColor.getRed() * innerAlphaFraction +
-							outerColor.getRed() * outerAlphaFraction) / alpha << 16) |
-							((innerColor.getGreen() * innerAlphaFraction +
-								outerColor.getGreen() * outerAlphaFraction) / alpha << 8) |
-							((innerColor.getBlue() * innerAlphaFraction +
-								outerColor.getBlue() * outerAlphaFraction) / alpha);
-				}
-				else
-				{
-					color = 0;
-				}
-			}
-
-			final int distArrayPos = p.getDistArrayPos();
-			final int nextDistArrayPosY = distArrayPos + outlineArrayWidth;
-			final int nextDistArrayPosX = distArrayPos + 1;
-			ensureMinimumOutlineQueueSize(nextDistArrayPosX, outlinePixelsLengths[distArrayPos] * 2);
-			ensureMinimumOutlineQueueSize(nextDistArrayPosY, outlinePixelsLengths[distArrayPos] * 2);
-
-			// The following 3 branches do the same thing, but when the requirements are simple,
-			// there are less checks needed which can give a performance boost.
-			if (alpha == 255)
-			{
-				if (outlineWidth == 1)
-				{
-					for (int i2 = 0; i2 < outlinePixelsLengths[distArrayPos]; i2++)
-					{
-						int pixelPos = outlinePixels[distArrayPos][i2];
-						int x = pixelPos % imageWidth;
-						int y = pixelPos / imageWidth;
-						if (x < clipX1 || x >= clipX2 ||
-							y < clipY1 || y >= clipY2 ||
-							visited[pixelPos] == currentVisitedNumber)
-						{
-							continue;
-						}
-
-						imageData[pixelPos] = color;
-					}
-				}
-				else
-				{
-					for (int i2 = 0; i2 < outlinePixelsLengths[distArrayPos]; i2++)
-					{
-						int pixelPos = outlinePixels[distArrayPos][i2];
-						int x = pixelPos % imageWidth;
-						int y = pixelPos / imageWidth;
-						if (x < clipX1 || x >= clipX2 ||
-							y < clipY1 || y >= clipY2 ||
-							visited[pixelPos] == currentVisitedNumber)
-						{
-							continue;
-						}
-						visited[pixelPos] = currentVisitedNumber;
-
-						imageData[pixelPos] = color;
-
-						if (pixelPos % imageWidth != 0)
-						{
-							outlinePixels[nextDistArrayPosX][outlinePixelsLengths[nextDistArrayPosX]++] = pixelPos - 1;
-						}
-						if ((pixelPos + 1) % imageWidth != 0)
-						{
-							outlinePixels[nextDistArrayPosX][outlinePixelsLengths[nextDistArrayPosX]++] = pixelPos + 1;
-						}
-						outlinePixels[nextDistArrayPosY][outlinePixelsLengths[nextDistArrayPosY]++] = pixelPos - imageWidth;
-						outlinePixels[nextDistArrayPosY][outlinePixelsLengths[nextDistArrayPosY]++] = pixelPos + imageWidth;
-					}
-				}
-			}
-			else
-			{
-				for (int i2 = 0; i2 < outlinePixelsLengths[distArrayPos]; i2++)
-				{
-					int pixelPos = outlinePixels[distArrayPos][i2];
-					int x = pixelPos % imageWidth;
-					int y = pixelPos / imageWidth;
-					if (x < clipX1 || x >= clipX2 ||
-						y < clipY1 || y >= clipY2 ||
-						visited[pixelPos] == currentVisitedNumber)
-					{
-						continue;
-					}
-					visited[pixelPos] = currentVisitedNumber;
-
-					imageData[pixelPos] =
-						((((color & 0xFF0000) * alpha + (imageData[pixelPos] & 0xFF0000) * (255 - alpha)) / 255) & 0xFF0000) +
-							((((color & 0xFF00) * alpha + (imageData[pixelPos] & 0xFF00) * (255 - alpha)) / 255) & 0xFF00) +
-							((((color & 0xFF) * alpha + (imageData[pixelPos] & 0xFF) * (255 - alpha)) / 255) & 0xFF);
-
-					if (pixelPos % imageWidth != 0)
-					{
-						outlinePixels[nextDistArrayPosX][outlinePixelsLengths[nextDistArrayPosX]++] = pixelPos - 1;
-					}
-					if ((pixelPos + 1) % imageWidth != 0)
-					{
-						outlinePixels[nextDistArrayPosX][outlinePixelsLengths[nextDistArrayPosX]++] = pixelPos + 1;
-					}
-					outlinePixels[nextDistArrayPosY][outlinePixelsLengths[nextDistArrayPosY]++] = pixelPos - imageWidth;
-					outlinePixels[nextDistArrayPosY][outlinePixelsLengths[nextDistArrayPosY]++] = pixelPos + imageWidth;
-				}
-			}
-		}
-	}
-
-	/**
-	 * Draws an outline around a model to an image
+	 * Draws an outline around a model to an image, or queues it if a batch is in progress
 	 *
 	 * @param localX       The local x position of the model
 	 * @param localY       The local y position of the model
@@ -897,31 +300,25 @@ public class ModelOutlineRenderer
 		isReset = false;
 		usedSinceLastCheck = true;
 
-		MainBufferProvider bufferProvider = (MainBufferProvider) client.getBufferProvider();
-		BufferedImage image = (BufferedImage) bufferProvider.getImage();
-
-		clipX1 = client.getViewportXOffset();
-		clipY1 = client.getViewportYOffset();
-		clipX2 = client.getViewportWidth() + clipX1;
-		clipY2 = client.getViewportHeight() + clipY1;
-		imageWidth = image.getWidth();
-		imageHeight = image.getHeight();
-		final int pixelAmount = imageWidth * imageHeight;
-
-		resetVisited(pixelAmount);
-		resetOutline(outlineWidth);
+		if (!batching)
+		{
+			begin();
+		}
 
-		if (!projectVertices(model,
+		if (projectVertices(model,
 			localX, localY, localZ, orientation))
 		{
-			// No vertex of the model is visible on the screen, so we can
+			// If no vertex of the model is visible on the screen, we can
 			// assume there are no parts of the model to outline.
-			return;
+			rasterizer.add(projectedVerticesX, projectedVerticesY, projectedVerticesRenderable,
+				model.getTrianglesCount(), model.getTrianglesX(), model.getTrianglesY(), model.getTrianglesZ(),
+				model.getTriangleTransparencies(), outlineWidth, innerColor, outerColor);
 		}
 
-		simulateModelRasterizationForOutline(model);
-
-		renderOutline(image, outlineWidth, innerColor, outerColor);
+		if (!batching)
+		{
+			flush();
+		}
 	}
 
 	public void drawOutline(NPC npc, int outlineWidth, Color color)
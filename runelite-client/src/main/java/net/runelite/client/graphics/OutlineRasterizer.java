@@ -0,0 +1,670 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.graphics;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rasterizes outlines around projected models into an RGB pixel buffer.
+ * <p>
+ * Outlines are queued with {@link #add} and drawn together by {@link #render(int[])}.
+ * For every queued model the filled faces are rasterized into a mask covering the
+ * model's bounds grown by the outline width, and a separable distance transform
+ * (a vertical pass per column followed by a horizontal pass per row) gives the
+ * distance of each pixel to the model. The horizontal pass is done while
+ * compositing, which is split into horizontal bands of the viewport that are
+ * processed on a fork-join pool. Within a band the models are drawn in the order
+ * they were added, so the result does not depend on the scheduling.
+ */
+class OutlineRasterizer
+{
+	/**
+	 * Rows of the viewport composited by a single task
+	 */
+	private static final int BAND_HEIGHT = 32;
+
+	/**
+	 * Below this many mask pixels, everything is done on the calling thread
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private final ForkJoinPool pool;
+
+	private int imageWidth;
+	private int imageHeight;
+	private int clipX1;
+	private int clipY1;
+	private int clipX2;
+	private int clipY2;
+
+	// Queued outlines. Items are reused between frames to keep their arrays.
+	private final List<Item> items = new ArrayList<>();
+	private int itemCount;
+
+	// Distance to the closest model pixel along the column, for every item's region
+	private int[] mask = new int[0];
+
+	OutlineRasterizer(ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Release the memory held for rendering
+	 */
+	void reset()
+	{
+		items.clear();
+		itemCount = 0;
+		mask = new int[0];
+	}
+
+	/**
+	 * Start queueing outlines for an image
+	 *
+	 * @param imageWidth  the width of the image
+	 * @param imageHeight the height of the image
+	 * @param clipX1      the left edge of the area outlines may be drawn to
+	 * @param clipY1      the top edge of the area outlines may be drawn to
+	 * @param clipX2      the right edge (exclusive) of the area outlines may be drawn to
+	 * @param clipY2      the bottom edge (exclusive) of the area outlines may be drawn to
+	 */
+	void begin(int imageWidth, int imageHeight, int clipX1, int clipY1, int clipX2, int clipY2)
+	{
+		this.imageWidth = imageWidth;
+		this.imageHeight = imageHeight;
+		this.clipX1 = Math.max(0, clipX1);
+		this.clipY1 = Math.max(0, clipY1);
+		this.clipX2 = Math.min(imageWidth, clipX2);
+		this.clipY2 = Math.min(imageHeight, clipY2);
+		itemCount = 0;
+	}
+
+	/**
+	 * @return the number of outlines queued since {@link #begin}
+	 */
+	int size()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * Queue an outline around the visible faces of a projected model. The arrays
+	 * are only read during this call.
+	 *
+	 * @param projectedX     projected x position of each vertex
+	 * @param projectedY     projected y position of each vertex
+	 * @param renderable     whether each vertex is in front of the camera
+	 * @param triangleCount  the number of triangles of the model
+	 * @param indices1       the first vertex of each triangle
+	 * @param indices2       the second vertex of each triangle
+	 * @param indices3       the third vertex of each triangle
+	 * @param transparencies the transparency of each triangle, or null
+	 * @param outlineWidth   the width of the outline
+	 * @param innerColor     the color of the outline closest to the model
+	 * @param outerColor     the color of the outline furthest away from the model
+	 */
+	void add(int[] projectedX, int[] projectedY, boolean[] renderable,
+		int triangleCount, int[] indices1, int[] indices2, int[] indices3, byte[] transparencies,
+		int outlineWidth, Color innerColor, Color outerColor)
+	{
+		if (outlineWidth <= 0)
+		{
+			return;
+		}
+
+		if (itemCount == items.size())
+		{
+			items.add(new Item());
+		}
+		final Item item = items.get(itemCount);
+
+		if (item.triangles.length < triangleCount * 6)
+		{
+			item.triangles = new int[nextPowerOfTwo(triangleCount * 6)];
+		}
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		int count = 0;
+		final int[] triangles = item.triangles;
+
+		for (int i = 0; i < triangleCount; i++)
+		{
+			final int index1 = indices1[i];
+			final int index2 = indices2[i];
+			final int index3 = indices3[i];
+
+			if (!renderable[index1] || !renderable[index2] || !renderable[index3]
+				// 254 and 255 counts as fully transparent
+				|| (transparencies != null && (transparencies[i] & 255) >= 254))
+			{
+				continue;
+			}
+
+			final int x1 = projectedX[index1];
+			final int y1 = projectedY[index1];
+			final int x2 = projectedX[index2];
+			final int y2 = projectedY[index2];
+			final int x3 = projectedX[index3];
+			final int y3 = projectedY[index3];
+
+			if (cullFace(x1, y1, x2, y2, x3, y3))
+			{
+				continue;
+			}
+
+			minX = Math.min(minX, Math.min(x1, Math.min(x2, x3)));
+			maxX = Math.max(maxX, Math.max(x1, Math.max(x2, x3)));
+			minY = Math.min(minY, Math.min(y1, Math.min(y2, y3)));
+			maxY = Math.max(maxY, Math.max(y1, Math.max(y2, y3)));
+
+			final int pos = count++ * 6;
+			triangles[pos] = x1;
+			triangles[pos + 1] = y1;
+			triangles[pos + 2] = x2;
+			triangles[pos + 3] = y2;
+			triangles[pos + 4] = x3;
+			triangles[pos + 5] = y3;
+		}
+
+		// The rasterizer only fills pixels inside the horizontal clip and above the bottom of the clip
+		minX = Math.max(minX, clipX1);
+		maxX = Math.min(maxX, clipX2 - 1);
+		minY = Math.max(minY, 0);
+		maxY = Math.min(maxY, clipY2 - 1);
+		if (count == 0 || minX > maxX || minY > maxY)
+		{
+			return;
+		}
+
+		item.triangleCount = count;
+		item.regionX = Math.max(0, minX - outlineWidth);
+		item.regionY = Math.max(0, minY - outlineWidth);
+		item.regionWidth = Math.min(imageWidth, maxX + outlineWidth + 1) - item.regionX;
+		item.regionHeight = Math.min(imageHeight, maxY + outlineWidth + 1) - item.regionY;
+		item.setColors(outlineWidth, innerColor, outerColor);
+		++itemCount;
+	}
+
+	/**
+	 * Draw every queued outline to the image and clear the queue
+	 *
+	 * @param pixels the RGB pixels of the image
+	 */
+	void render(int[] pixels)
+	{
+		if (itemCount == 0)
+		{
+			return;
+		}
+
+		int area = 0;
+		for (int i = 0; i < itemCount; i++)
+		{
+			final Item item = items.get(i);
+			item.offset = area;
+			area += item.regionWidth * item.regionHeight;
+		}
+
+		if (mask.length < area)
+		{
+			mask = new int[nextPowerOfTwo(area)];
+		}
+
+		final boolean parallel = area >= PARALLEL_THRESHOLD;
+		if (parallel && itemCount > 1)
+		{
+			pool.invoke(new MaskTask(0, itemCount));
+		}
+		else
+		{
+			for (int i = 0; i < itemCount; i++)
+			{
+				buildMask(items.get(i));
+			}
+		}
+
+		if (parallel)
+		{
+			pool.invoke(new CompositeTask(pixels, clipY1, clipY2));
+		}
+		else
+		{
+			composite(pixels, clipY1, clipY2);
+		}
+
+		itemCount = 0;
+	}
+
+	/**
+	 * Rasterize the faces of an item into its region of the mask and run the
+	 * vertical pass of the distance transform over it
+	 */
+	private void buildMask(Item item)
+	{
+		final int[] mask = this.mask;
+		final int regionWidth = item.regionWidth;
+		final int start = item.offset;
+		final int end = start + regionWidth * item.regionHeight;
+		final int cap = item.width + 1;
+
+		Arrays.fill(mask, start, end, cap);
+
+		final int[] triangles = item.triangles;
+		for (int i = 0; i < item.triangleCount; i++)
+		{
+			final int pos = i * 6;
+			fillTriangle(item, triangles[pos], triangles[pos + 1], triangles[pos + 2],
+				triangles[pos + 3], triangles[pos + 4], triangles[pos + 5]);
+		}
+
+		// Distance to the closest model pixel above, then below, capped just past the outline width
+		for (int row = start + regionWidth; row < end; row += regionWidth)
+		{
+			for (int i = row, above = row - regionWidth; i < row + regionWidth; i++, above++)
+			{
+				mask[i] = Math.min(mask[i], mask[above] + 1);
+			}
+		}
+		for (int row = end - 2 * regionWidth; row >= start; row -= regionWidth)
+		{
+			for (int i = row, below = row + regionWidth; i < row + regionWidth; i++, below++)
+			{
+				mask[i] = Math.min(mask[i], mask[below] + 1);
+			}
+		}
+	}
+
+	/**
+	 * Run the horizontal pass of the distance transform for every item on the
+	 * given rows and draw the outline pixels
+	 */
+	private void composite(int[] pixels, int fromY, int toY)
+	{
+		final int[] mask = this.mask;
+
+		for (int i = 0; i < itemCount; i++)
+		{
+			final Item item = items.get(i);
+			final int regionWidth = item.regionWidth;
+			final int width = item.width;
+			final int widthSquared = width * width;
+			final int[] colors = item.colors;
+			final int[] alphas = item.alphas;
+
+			final int y1 = Math.max(fromY, item.regionY);
+			final int y2 = Math.min(toY, item.regionY + item.regionHeight);
+			final int x1 = Math.max(clipX1, item.regionX);
+			final int x2 = Math.min(clipX2, item.regionX + regionWidth);
+
+			for (int y = y1; y < y2; y++)
+			{
+				final int row = item.offset + (y - item.regionY) * regionWidth;
+				int pixelPos = y * imageWidth + x1;
+
+				for (int x = x1; x < x2; x++, pixelPos++)
+				{
+					final int column = x - item.regionX;
+					final int distance = mask[row + column];
+					if (distance == 0)
+					{
+						// part of the model
+						continue;
+					}
+
+					int best = distance * distance;
+					for (int d = 1; d <= width && d * d < best; d++)
+					{
+						final int dd = d * d;
+						if (column >= d)
+						{
+							final int left = mask[row + column - d];
+							best = Math.min(best, left * left + dd);
+						}
+						if (column + d < regionWidth)
+						{
+							final int right = mask[row + column + d];
+							best = Math.min(best, right * right + dd);
+						}
+					}
+
+					if (best > widthSquared)
+					{
+						continue;
+					}
+
+					final int color = colors[best];
+					final int alpha = alphas[best];
+					if (alpha == 255)
+					{
+						pixels[pixelPos] = color;
+					}
+					else if (alpha != 0)
+					{
+						final int pixel = pixels[pixelPos];
+						pixels[pixelPos] =
+							((((color & 0xFF0000) * alpha + (pixel & 0xFF0000) * (255 - alpha)) / 255) & 0xFF0000) +
+								((((color & 0xFF00) * alpha + (pixel & 0xFF00) * (255 - alpha)) / 255) & 0xFF00) +
+								((((color & 0xFF) * alpha + (pixel & 0xFF) * (255 - alpha)) / 255) & 0xFF);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fill the pixels of a triangle in an item's mask. This follows the span
+	 * setup of the software renderer, so the filled pixels match the model
+	 * drawn by the client.
+	 */
+	private void fillTriangle(Item item, int x1, int y1, int x2, int y2, int x3, int y3)
+	{
+		// Swap vertices so y1 <= y2 <= y3 using bubble sort
+		if (y1 > y2)
+		{
+			int yp = y1;
+			int xp = x1;
+			y1 = y2;
+			y2 = yp;
+			x1 = x2;
+			x2 = xp;
+		}
+		if (y2 > y3)
+		{
+			int yp = y2;
+			int xp = x2;
+			y2 = y3;
+			y3 = yp;
+			x2 = x3;
+			x3 = xp;
+		}
+		if (y1 > y2)
+		{
+			int yp = y1;
+			int xp = x1;
+			y1 = y2;
+			y2 = yp;
+			x1 = x2;
+			x2 = xp;
+		}
+
+		if (y1 > clipY2)
+		{
+			// All points are outside clip boundaries
+			return;
+		}
+
+		int slope1 = 0;
+		if (y1 != y2)
+		{
+			slope1 = (x2 - x1 << 14) / (y2 - y1);
+		}
+
+		int slope2 = 0;
+		if (y3 != y2)
+		{
+			slope2 = (x3 - x2 << 14) / (y3 - y2);
+		}
+
+		int slope3 = 0;
+		if (y1 != y3)
+		{
+			slope3 = (x1 - x3 << 14) / (y1 - y3);
+		}
+
+		if (y2 > clipY2)
+		{
+			y2 = clipY2;
+		}
+		if (y3 > clipY2)
+		{
+			y3 = clipY2;
+		}
+		if (y1 == y3 || y3 < 0)
+		{
+			return;
+		}
+
+		x1 <<= 14;
+		x2 <<= 14;
+		x3 = x1;
+
+		if (y1 < 0)
+		{
+			x3 -= y1 * slope3;
+			x1 -= y1 * slope1;
+			y1 = 0;
+		}
+		if (y2 < 0)
+		{
+			x2 -= slope2 * y2;
+			y2 = 0;
+		}
+
+		int y = y1;
+		int height1 = y2 - y1;
+		int height2 = y3 - y2;
+		if (y1 != y2 && slope3 < slope1 || y1 == y2 && slope3 > slope2)
+		{
+			while (height1-- > 0)
+			{
+				fillSpan(item, y++, x3 >> 14, x1 >> 14);
+				x3 += slope3;
+				x1 += slope1;
+			}
+
+			while (height2-- > 0)
+			{
+				fillSpan(item, y++, x3 >> 14, x2 >> 14);
+				x3 += slope3;
+				x2 += slope2;
+			}
+		}
+		else
+		{
+			while (height1-- > 0)
+			{
+				fillSpan(item, y++, x1 >> 14, x3 >> 14);
+				x1 += slope1;
+				x3 += slope3;
+			}
+
+			while (height2-- > 0)
+			{
+				fillSpan(item, y++, x2 >> 14, x3 >> 14);
+				x3 += slope3;
+				x2 += slope2;
+			}
+		}
+	}
+
+	/**
+	 * Mark the pixels from x1 (inclusive) to x2 (exclusive) on a row as part of the model
+	 */
+	private void fillSpan(Item item, int y, int x1, int x2)
+	{
+		final int row = y - item.regionY;
+		if (row < 0 || row >= item.regionHeight)
+		{
+			return;
+		}
+
+		x1 = Math.max(x1, Math.max(clipX1, item.regionX));
+		x2 = Math.min(x2, Math.min(clipX2, item.regionX + item.regionWidth));
+		if (x1 >= x2)
+		{
+			return;
+		}
+
+		final int pos = item.offset + row * item.regionWidth - item.regionX;
+		Arrays.fill(mask, pos + x1, pos + x2, 0);
+	}
+
+	/**
+	 * Determine if a triangle goes counter clockwise
+	 *
+	 * @return Returns true if the triangle goes counter clockwise and should be culled, otherwise false
+	 */
+	private static boolean cullFace(int x1, int y1, int x2, int y2, int x3, int y3)
+	{
+		return
+			(y2 - y1) * (x3 - x2) -
+				(x2 - x1) * (y3 - y2) < 0;
+	}
+
+	private static int nextPowerOfTwo(int value)
+	{
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+	private static class Item
+	{
+		// Projected x and y of the three vertices of each visible face
+		private int[] triangles = new int[0];
+		private int triangleCount;
+
+		// Area of the mask, which is the model bounds grown by the outline width
+		private int regionX;
+		private int regionY;
+		private int regionWidth;
+		private int regionHeight;
+		private int offset;
+
+		// Color and alpha of the outline, indexed by the squared distance to the model
+		private int width;
+		private Color innerColor;
+		private Color outerColor;
+		private int[] colors;
+		private int[] alphas;
+
+		private void setColors(int width, Color innerColor, Color outerColor)
+		{
+			if (colors != null && this.width == width && innerColor.equals(this.innerColor) && outerColor.equals(this.outerColor))
+			{
+				return;
+			}
+
+			this.width = width;
+			this.innerColor = innerColor;
+			this.outerColor = outerColor;
+
+			final int size = width * width + 1;
+			colors = new int[size];
+			alphas = new int[size];
+
+			for (int distanceSquared = 1; distanceSquared < size; distanceSquared++)
+			{
+				if (width == 1)
+				{
+					colors[distanceSquared] =
+						((innerColor.getRed() + outerColor.getRed()) << 15) |
+							((innerColor.getGreen() + outerColor.getGreen() << 7)) |
+							((innerColor.getBlue() + outerColor.getBlue() >> 1));
+					alphas[distanceSquared] = (innerColor.getAlpha() + outerColor.getAlpha()) >> 1;
+					continue;
+				}
+
+				final double distance = Math.sqrt(distanceSquared);
+				final int outerAlpha = (int) (255 * (distance - 1) / (width - 1));
+				final int innerAlpha = 255 - outerAlpha;
+				final int innerAlphaFraction = (innerAlpha * innerColor.getAlpha()) / 255;
+				final int outerAlphaFraction = (outerAlpha * outerColor.getAlpha()) / 255;
+				final int alpha = innerAlphaFraction + outerAlphaFraction;
+
+				alphas[distanceSquared] = alpha;
+				if (alpha != 0)
+				{
+					colors[distanceSquared] =
+						((innerColor.getRed() * innerAlphaFraction +
+							outerColor.getRed() * outerAlphaFraction) / alpha << 16) |
+							((innerColor.getGreen() * innerAlphaFraction +
+								outerColor.getGreen() * outerAlphaFraction) / alpha << 8) |
+							((innerColor.getBlue() * innerAlphaFraction +
+								outerColor.getBlue() * outerAlphaFraction) / alpha);
+				}
+			}
+		}
+	}
+
+	private class MaskTask extends RecursiveAction
+	{
+		private final int from;
+		private final int to;
+
+		private MaskTask(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from == 1)
+			{
+				buildMask(items.get(from));
+				return;
+			}
+
+			final int mid = (from + to) >>> 1;
+			invokeAll(new MaskTask(from, mid), new MaskTask(mid, to));
+		}
+	}
+
+	private class CompositeTask extends RecursiveAction
+	{
+		private final int[] pixels;
+		private final int fromY;
+		private final int toY;
+
+		private CompositeTask(int[] pixels, int fromY, int toY)
+		{
+			this.pixels = pixels;
+			this.fromY = fromY;
+			this.toY = toY;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (toY - fromY <= BAND_HEIGHT)
+			{
+				composite(pixels, fromY, toY);
+				return;
+			}
+
+			final int mid = (fromY + toY) >>> 1;
+			invokeAll(new CompositeTask(pixels, fromY, mid), new CompositeTask(pixels, mid, toY));
+		}
+	}
+}
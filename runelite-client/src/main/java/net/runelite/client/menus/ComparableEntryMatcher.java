@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import joptsimple.internal.Strings;
+import lombok.AllArgsConstructor;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.util.Text;
+
+/**
+ * A compiled set of {@link AbstractComparableEntry} rules, numbered in the
+ * iteration order of the collection they were compiled from.
+ * <p>
+ * Plain {@link BaseComparableEntry} rules are indexed: strict options by a
+ * hash lookup and non-strict options and targets by a {@link SubstringAutomaton},
+ * so an entry only runs the option and target strings through each automaton
+ * once. The opcode and identifier are compared before anything else. Other
+ * rule types fall back to their own {@link AbstractComparableEntry#matches}.
+ * <p>
+ * Rules must not be modified while compiled. This is not thread safe, it is
+ * only used on the client thread.
+ */
+final class ComparableEntryMatcher
+{
+	private static final int[] NONE = new int[0];
+	private static final int MAX_TARGETS = 512;
+
+	private final AbstractComparableEntry[] rules;
+	// Lowercase option of indexed rules, null for rules which use their own matches()
+	private final String[] options;
+	private final int[] unindexed;
+	private final Map<String, int[]> exactOptions = new HashMap<>();
+	private final int[] anyOption;
+	private final SubstringAutomaton optionAutomaton;
+	private final int[][] optionPatternRules;
+	private final SubstringAutomaton targetAutomaton;
+	private final int[] targetPatterns;
+
+	private final BitSet optionHits = new BitSet();
+	private final Map<String, Target> targets = new HashMap<>();
+
+	ComparableEntryMatcher(Collection<? extends AbstractComparableEntry> rules)
+	{
+		this.rules = rules.toArray(new AbstractComparableEntry[0]);
+		this.options = new String[this.rules.length];
+		this.targetPatterns = new int[this.rules.length];
+
+		final List<Integer> unindexed = new ArrayList<>();
+		final List<Integer> anyOption = new ArrayList<>();
+		final Map<String, List<Integer>> exactOptions = new HashMap<>();
+		final Map<String, List<Integer>> containedOptions = new LinkedHashMap<>();
+		final Map<String, Integer> containedTargets = new LinkedHashMap<>();
+
+		for (int i = 0; i < this.rules.length; i++)
+		{
+			final AbstractComparableEntry rule = this.rules[i];
+			targetPatterns[i] = -1;
+
+			// Subclasses may override matches(), so only the exact class is safe to index
+			if (rule.getClass() != BaseComparableEntry.class || rule.option == null)
+			{
+				unindexed.add(i);
+				continue;
+			}
+
+			final String option = rule.option.toLowerCase();
+			options[i] = option;
+
+			if (rule.strictOption)
+			{
+				exactOptions.computeIfAbsent(option, k -> new ArrayList<>()).add(i);
+			}
+			else if (option.isEmpty())
+			{
+				anyOption.add(i);
+			}
+			else
+			{
+				containedOptions.computeIfAbsent(option, k -> new ArrayList<>()).add(i);
+			}
+
+			if (!rule.strictTarget && !Strings.isNullOrEmpty(rule.target))
+			{
+				targetPatterns[i] = containedTargets.computeIfAbsent(rule.target, k -> containedTargets.size());
+			}
+		}
+
+		this.unindexed = toArray(unindexed);
+		this.anyOption = toArray(anyOption);
+		exactOptions.forEach((option, indexes) -> this.exactOptions.put(option, toArray(indexes)));
+
+		this.optionPatternRules = new int[containedOptions.size()][];
+		int pattern = 0;
+		for (List<Integer> indexes : containedOptions.values())
+		{
+			optionPatternRules[pattern++] = toArray(indexes);
+		}
+
+		this.optionAutomaton = containedOptions.isEmpty() ? null : new SubstringAutomaton(new ArrayList<>(containedOptions.keySet()));
+		this.targetAutomaton = containedTargets.isEmpty() ? null : new SubstringAutomaton(new ArrayList<>(containedTargets.keySet()));
+	}
+
+	int size()
+	{
+		return rules.length;
+	}
+
+	AbstractComparableEntry getRule(int index)
+	{
+		return rules[index];
+	}
+
+	/**
+	 * Finds the first rule which matches the entry
+	 *
+	 * @return the index of the rule, or -1 if none match
+	 */
+	int first(MenuEntry entry)
+	{
+		int best = Integer.MAX_VALUE;
+
+		for (int i : unindexed)
+		{
+			if (rules[i].matches(entry))
+			{
+				best = i;
+				break;
+			}
+		}
+
+		final String option = entry.getOption();
+		if (option != null)
+		{
+			final String opt = option.toLowerCase();
+
+			best = first(exactOptions.getOrDefault(opt, NONE), entry, best);
+			best = first(anyOption, entry, best);
+
+			if (optionAutomaton != null)
+			{
+				optionHits.clear();
+				optionAutomaton.search(opt, optionHits);
+				for (int p = optionHits.nextSetBit(0); p >= 0; p = optionHits.nextSetBit(p + 1))
+				{
+					best = first(optionPatternRules[p], entry, best);
+				}
+			}
+		}
+
+		return best == Integer.MAX_VALUE ? -1 : best;
+	}
+
+	/**
+	 * Sets the index of every rule which matches the entry in matches
+	 */
+	void matchAll(MenuEntry entry, BitSet matches)
+	{
+		for (int i : unindexed)
+		{
+			if (rules[i].matches(entry))
+			{
+				matches.set(i);
+			}
+		}
+
+		final String option = entry.getOption();
+		if (option == null)
+		{
+			return;
+		}
+
+		final String opt = option.toLowerCase();
+
+		matchAll(exactOptions.getOrDefault(opt, NONE), entry, matches);
+		matchAll(anyOption, entry, matches);
+
+		if (optionAutomaton != null)
+		{
+			optionHits.clear();
+			optionAutomaton.search(opt, optionHits);
+			for (int p = optionHits.nextSetBit(0); p >= 0; p = optionHits.nextSetBit(p + 1))
+			{
+				matchAll(optionPatternRules[p], entry, matches);
+			}
+		}
+	}
+
+	/**
+	 * Checks a single rule, the same as {@link AbstractComparableEntry#matches}
+	 * but sharing the standardized target with the other rules
+	 */
+	boolean matches(MenuEntry entry, int index)
+	{
+		final String ruleOption = options[index];
+		if (ruleOption == null)
+		{
+			return rules[index].matches(entry);
+		}
+
+		final String option = entry.getOption();
+		if (option == null)
+		{
+			return false;
+		}
+
+		final String opt = option.toLowerCase();
+		if (rules[index].strictOption ? !opt.equals(ruleOption) : !opt.contains(ruleOption))
+		{
+			return false;
+		}
+
+		return check(index, entry);
+	}
+
+	/**
+	 * Checks if any of the rules in indexes matches the entry
+	 */
+	boolean matchesAny(MenuEntry entry, BitSet indexes)
+	{
+		for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1))
+		{
+			if (matches(entry, i))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int first(int[] candidates, MenuEntry entry, int best)
+	{
+		for (int i : candidates)
+		{
+			if (i >= best)
+			{
+				break;
+			}
+
+			if (check(i, entry))
+			{
+				return i;
+			}
+		}
+		return best;
+	}
+
+	private void matchAll(int[] candidates, MenuEntry entry, BitSet matches)
+	{
+		for (int i : candidates)
+		{
+			if (check(i, entry))
+			{
+				matches.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Checks everything but the option of an indexed rule
+	 */
+	private boolean check(int index, MenuEntry entry)
+	{
+		final AbstractComparableEntry rule = rules[index];
+
+		if (rule.type != -1 && rule.type != entry.getOpcode()
+			|| rule.id != -1 && rule.id != entry.getIdentifier())
+		{
+			return false;
+		}
+
+		if (!rule.strictTarget && Strings.isNullOrEmpty(rule.target))
+		{
+			return true;
+		}
+
+		final Target target = getTarget(entry.getTarget());
+		if (target == null)
+		{
+			return false;
+		}
+
+		return rule.strictTarget
+			? target.standardized.equals(rule.target)
+			: target.hits.get(targetPatterns[index]);
+	}
+
+	private Target getTarget(String target)
+	{
+		if (target == null)
+		{
+			return null;
+		}
+
+		Target t = targets.get(target);
+		if (t == null)
+		{
+			if (targets.size() >= MAX_TARGETS)
+			{
+				targets.clear();
+			}
+
+			final String standardized = Text.standardize(target, true);
+			final BitSet hits = new BitSet();
+			if (targetAutomaton != null && standardized != null)
+			{
+				targetAutomaton.search(standardized, hits);
+			}
+
+			t = new Target(standardized, hits);
+			targets.put(target, t);
+		}
+		return t;
+	}
+
+	private static int[] toArray(List<Integer> list)
+	{
+		return list.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	@AllArgsConstructor
+	private static class Target
+	{
+		private final String standardized;
+		private final BitSet hits;
+	}
+}
@@ -29,7 +29,9 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -89,6 +91,13 @@ public class MenuManager
 	private final Set<AbstractComparableEntry> hiddenEntries = new HashSet<>();
 	private final Map<AbstractComparableEntry, AbstractComparableEntry> swaps = new HashMap<>();
 
+	// Compiled from the rules above on first use, and dropped whenever those change
+	private ComparableEntryMatcher priorityMatcher;
+	private ComparableEntryMatcher hiddenMatcher;
+	private ComparableEntryMatcher swapFromMatcher;
+	private ComparableEntryMatcher swapToMatcher;
+	private final BitSet swapMatches = new BitSet();
+
 	private MenuEntry leftClickEntry = null;
 
 	private int playerAttackIdx = -1;
@@ -163,42 +172,38 @@ public class MenuManager
 
 		boolean shouldDeprioritize = false;
 
-		prioritizer:
+		final ComparableEntryMatcher priorities = getPriorityMatcher();
+		compileSwaps();
+
 		for (MenuEntry entry : oldEntries)
 		{
-			for (AbstractComparableEntry p : priorityEntries)
+			// Create list of priority entries, and remove from menus
+			final int p = priorities.first(entry);
+			if (p != -1)
 			{
-				// Create list of priority entries, and remove from menus
-				if (p.matches(entry))
+				// Other entries need to be deprioritized if their types are lower than 1000
+				if (entry.getOpcode() >= 1000 && !shouldDeprioritize)
 				{
-					// Other entries need to be deprioritized if their types are lower than 1000
-					if (entry.getOpcode() >= 1000 && !shouldDeprioritize)
-					{
-						shouldDeprioritize = true;
-					}
-					currentPriorityEntries.put(entry, p);
-					newEntries.remove(entry);
-					continue prioritizer;
+					shouldDeprioritize = true;
 				}
+				currentPriorityEntries.put(entry, priorities.getRule(p));
+				newEntries.remove(entry);
+				continue;
 			}
 
 			if (newEntries.size() > 0)
 			{
+				swapMatches.clear();
+				swapFromMatcher.matchAll(entry, swapMatches);
+
 				// Swap first matching entry to top
-				for (AbstractComparableEntry src : swaps.keySet())
+				for (int src = swapMatches.nextSetBit(0); src >= 0; src = swapMatches.nextSetBit(src + 1))
 				{
-					if (!src.matches(entry))
-					{
-						continue;
-					}
-
 					MenuEntry swapFrom = null;
 
-					AbstractComparableEntry from = swaps.get(src);
-
 					for (MenuEntry e : newEntries)
 					{
-						if (from.matches(e))
+						if (swapToMatcher.matches(e, src))
 						{
 							swapFrom = e;
 							break;
@@ -256,13 +261,10 @@ public class MenuManager
 			return;
 		}
 
-		for (AbstractComparableEntry e : hiddenEntries)
+		if (!hiddenEntries.isEmpty() && getHiddenMatcher().first(event) != -1)
 		{
-			if (e.matches(event))
-			{
-				client.setMenuOptionCount(client.getMenuOptionCount() - 1);
-				return;
-			}
+			client.setMenuOptionCount(client.getMenuOptionCount() - 1);
+			return;
 		}
 
 		int widgetId = event.getParam1();
@@ -545,6 +547,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target);
 
 		priorityEntries.add(entry);
+		priorityMatcher = null;
 
 		return entry;
 	}
@@ -557,6 +560,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target);
 
 		priorityEntries.remove(entry);
+		priorityMatcher = null;
 	}
 
 
@@ -571,6 +575,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, "", false);
 
 		priorityEntries.add(entry);
+		priorityMatcher = null;
 
 		return entry;
 	}
@@ -583,6 +588,7 @@ public class MenuManager
 			newBaseComparableEntry(option, "", -1, -1, false, strictOption);
 
 		priorityEntries.add(entry);
+		priorityMatcher = null;
 
 		return entry;
 	}
@@ -590,6 +596,7 @@ public class MenuManager
 	public AbstractComparableEntry addPriorityEntry(AbstractComparableEntry entry)
 	{
 		priorityEntries.add(entry);
+		priorityMatcher = null;
 
 		return entry;
 	}
@@ -597,6 +604,7 @@ public class MenuManager
 	public void removePriorityEntry(AbstractComparableEntry entry)
 	{
 		priorityEntries.remove(entry);
+		priorityMatcher = null;
 	}
 
 	public void removePriorityEntry(String option)
@@ -606,6 +614,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, "", false);
 
 		priorityEntries.remove(entry);
+		priorityMatcher = null;
 	}
 
 	public void removePriorityEntry(String option, boolean strictOption)
@@ -616,16 +625,19 @@ public class MenuManager
 			newBaseComparableEntry(option, "", -1, -1, false, strictOption);
 
 		priorityEntries.remove(entry);
+		priorityMatcher = null;
 	}
 
 	public void addPriorityEntries(Collection<AbstractComparableEntry> entries)
 	{
 		priorityEntries.addAll(entries);
+		priorityMatcher = null;
 	}
 
 	public void removePriorityEntries(Collection<AbstractComparableEntry> entries)
 	{
 		priorityEntries.removeAll(entries);
+		priorityMatcher = null;
 	}
 
 	/**
@@ -662,6 +674,7 @@ public class MenuManager
 		}
 
 		swaps.put(swapFrom, swapTo);
+		swapFromMatcher = null;
 	}
 
 
@@ -704,6 +717,7 @@ public class MenuManager
 		}
 
 		swaps.put(swapFrom, swapTo);
+		swapFromMatcher = null;
 	}
 
 	/**
@@ -728,6 +742,7 @@ public class MenuManager
 		}
 
 		swaps.put(swapFrom, swapTo);
+		swapFromMatcher = null;
 	}
 
 	public void removeSwap(String option, String target, int id, int type, String option2, String target2, int id2, int type2)
@@ -742,11 +757,13 @@ public class MenuManager
 		AbstractComparableEntry swapTo = newBaseComparableEntry(option2, target2, id2, type2, false, false);
 
 		swaps.entrySet().removeIf(e -> e.getKey().equals(swapFrom) && e.getValue().equals(swapTo));
+		swapFromMatcher = null;
 	}
 
 	public void removeSwap(AbstractComparableEntry swapFrom, AbstractComparableEntry swapTo)
 	{
 		swaps.entrySet().removeIf(e -> e.getKey().equals(swapFrom) && e.getValue().equals(swapTo));
+		swapFromMatcher = null;
 	}
 
 	/**
@@ -758,8 +775,11 @@ public class MenuManager
 		{
 			final String s = Text.standardize(target);
 			swaps.keySet().removeIf(e -> e.getTarget() != null && e.getTarget().equals(s));
+			swapFromMatcher = null;
 			priorityEntries.removeIf(e -> e.getTarget() != null && e.getTarget().equals(s));
+			priorityMatcher = null;
 			hiddenEntries.removeIf(e -> e.getTarget() != null && e.getTarget().equals(s));
+			hiddenMatcher = null;
 		}
 	}
 
@@ -774,6 +794,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target);
 
 		hiddenEntries.add(entry);
+		hiddenMatcher = null;
 	}
 
 	public void removeHiddenEntry(String option, String target)
@@ -784,6 +805,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target);
 
 		hiddenEntries.removeIf(entry::equals);
+		hiddenMatcher = null;
 	}
 
 	/**
@@ -797,6 +819,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, "", false);
 
 		hiddenEntries.add(entry);
+		hiddenMatcher = null;
 	}
 
 	public void removeHiddenEntry(String option)
@@ -806,6 +829,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, "", false);
 
 		hiddenEntries.removeIf(entry::equals);
+		hiddenMatcher = null;
 	}
 
 	/**
@@ -819,6 +843,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target, -1, -1, strictOption, strictTarget);
 
 		hiddenEntries.add(entry);
+		hiddenMatcher = null;
 	}
 
 	public void removeHiddenEntry(String option, String target, boolean strictOption, boolean strictTarget)
@@ -829,6 +854,7 @@ public class MenuManager
 		AbstractComparableEntry entry = newBaseComparableEntry(option, target, -1, -1, strictOption, strictTarget);
 
 		hiddenEntries.remove(entry);
+		hiddenMatcher = null;
 	}
 
 	/**
@@ -837,16 +863,19 @@ public class MenuManager
 	public void addHiddenEntry(AbstractComparableEntry entry)
 	{
 		hiddenEntries.add(entry);
+		hiddenMatcher = null;
 	}
 
 	public void removeHiddenEntry(AbstractComparableEntry entry)
 	{
 		hiddenEntries.remove(entry);
+		hiddenMatcher = null;
 	}
 
-	// This could use some optimization
 	private void indexPriorityEntries(MenuEntry[] entries, int menuOptionCount)
 	{
+		final ComparableEntryMatcher priorities = getPriorityMatcher();
+
 		// create a array of priority entries so we can sort those
 		final SortMapping[] prios = new SortMapping[entries.length - menuOptionCount];
 
@@ -854,18 +883,15 @@ public class MenuManager
 		for (int i = 0; i < menuOptionCount; i++)
 		{
 			final MenuEntry entry = entries[i];
-			for (AbstractComparableEntry prio : priorityEntries)
+			final int prio = priorities.first(entry);
+			if (prio == -1)
 			{
-				if (!prio.matches(entry))
-				{
-					continue;
-				}
-
-				final SortMapping map = new SortMapping(prio.getPriority(), entry);
-				prios[prioAmt++] = map;
-				entries[i] = null;
-				break;
+				continue;
 			}
+
+			final SortMapping map = new SortMapping(priorities.getRule(prio).getPriority(), entry);
+			prios[prioAmt++] = map;
+			entries[i] = null;
 		}
 
 		if (prioAmt == 0)
@@ -897,17 +923,13 @@ public class MenuManager
 			return;
 		}
 
-		Set<AbstractComparableEntry> values = new HashSet<>();
+		compileSwaps();
 
-		for (Map.Entry<AbstractComparableEntry, AbstractComparableEntry> pair : swaps.entrySet())
-		{
-			if (pair.getKey().matches(first))
-			{
-				values.add(pair.getValue());
-			}
-		}
+		// Indexes of the swaps whose source matches, their targets share the index
+		swapMatches.clear();
+		swapFromMatcher.matchAll(first, swapMatches);
 
-		if (values.isEmpty())
+		if (swapMatches.isEmpty())
 		{
 			return;
 		}
@@ -917,19 +939,57 @@ public class MenuManager
 		for (int i = menuOptionCount - 2; i > 0; i--)
 		{
 			final MenuEntry entry = entries[i];
-			for (AbstractComparableEntry swap : values)
+			if (entry == null || !swapToMatcher.matchesAny(entry, swapMatches))
 			{
-				if (!swap.matches(entry))
-				{
-					continue;
-				}
-
-				entries[i] = first;
-				entries[menuOptionCount - 1] = entry;
-				leftClickEntry = entry;
-				return;
+				continue;
 			}
+
+			entries[i] = first;
+			entries[menuOptionCount - 1] = entry;
+			leftClickEntry = entry;
+			return;
+		}
+	}
+
+	private ComparableEntryMatcher getPriorityMatcher()
+	{
+		if (priorityMatcher == null)
+		{
+			priorityMatcher = new ComparableEntryMatcher(priorityEntries);
+		}
+		return priorityMatcher;
+	}
+
+	private ComparableEntryMatcher getHiddenMatcher()
+	{
+		if (hiddenMatcher == null)
+		{
+			hiddenMatcher = new ComparableEntryMatcher(hiddenEntries);
 		}
+		return hiddenMatcher;
+	}
+
+	/**
+	 * Compiles the sources and targets of the swaps in the same order,
+	 * so a swap has the same index in both matchers
+	 */
+	private void compileSwaps()
+	{
+		if (swapFromMatcher != null)
+		{
+			return;
+		}
+
+		final List<AbstractComparableEntry> from = new ArrayList<>(swaps.size());
+		final List<AbstractComparableEntry> to = new ArrayList<>(swaps.size());
+		for (Map.Entry<AbstractComparableEntry, AbstractComparableEntry> pair : swaps.entrySet())
+		{
+			from.add(pair.getKey());
+			to.add(pair.getValue());
+		}
+
+		swapFromMatcher = new ComparableEntryMatcher(from);
+		swapToMatcher = new ComparableEntryMatcher(to);
 	}
 
 	@AllArgsConstructor
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An Aho-Corasick automaton over a fixed set of patterns. A single pass over
+ * a string reports every pattern which occurs in it as a substring.
+ */
+final class SubstringAutomaton
+{
+	private static final int[] NONE = new int[0];
+
+	private final char[][] keys;
+	private final int[][] next;
+	private final int[] fail;
+	private final int[][] output;
+
+	/**
+	 * @param patterns the patterns to search for, a pattern is reported by its index in this list
+	 */
+	SubstringAutomaton(List<String> patterns)
+	{
+		final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+		final List<List<Integer>> terminals = new ArrayList<>();
+		trie.add(new TreeMap<>());
+		terminals.add(new ArrayList<>());
+
+		for (int i = 0; i < patterns.size(); i++)
+		{
+			final String pattern = patterns.get(i);
+			Preconditions.checkArgument(!pattern.isEmpty(), "empty pattern");
+
+			int node = 0;
+			for (int j = 0; j < pattern.length(); j++)
+			{
+				Integer child = trie.get(node).get(pattern.charAt(j));
+				if (child == null)
+				{
+					child = trie.size();
+					trie.add(new TreeMap<>());
+					terminals.add(new ArrayList<>());
+					trie.get(node).put(pattern.charAt(j), child);
+				}
+				node = child;
+			}
+			terminals.get(node).add(i);
+		}
+
+		final int size = trie.size();
+		keys = new char[size][];
+		next = new int[size][];
+		fail = new int[size];
+		output = new int[size][];
+
+		for (int node = 0; node < size; node++)
+		{
+			final Map<Character, Integer> children = trie.get(node);
+			keys[node] = new char[children.size()];
+			next[node] = new int[children.size()];
+
+			int i = 0;
+			for (Map.Entry<Character, Integer> child : children.entrySet())
+			{
+				keys[node][i] = child.getKey();
+				next[node][i++] = child.getValue();
+			}
+		}
+
+		// Breadth first, so the fail link of a node is finished before its children need it
+		final Deque<Integer> queue = new ArrayDeque<>();
+		output[0] = NONE;
+		for (int child : next[0])
+		{
+			fail[child] = 0;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty())
+		{
+			final int node = queue.poll();
+			output[node] = merge(terminals.get(node), output[fail[node]]);
+
+			for (int i = 0; i < keys[node].length; i++)
+			{
+				final char c = keys[node][i];
+				final int child = next[node][i];
+
+				int state = fail[node];
+				int to;
+				while ((to = step(state, c)) == -1 && state != 0)
+				{
+					state = fail[state];
+				}
+
+				fail[child] = to == -1 ? 0 : to;
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Sets the index of every pattern which occurs in text in hits
+	 */
+	void search(String text, BitSet hits)
+	{
+		int state = 0;
+		for (int i = 0; i < text.length(); i++)
+		{
+			final char c = text.charAt(i);
+
+			int to;
+			while ((to = step(state, c)) == -1 && state != 0)
+			{
+				state = fail[state];
+			}
+			state = to == -1 ? 0 : to;
+
+			for (int pattern : output[state])
+			{
+				hits.set(pattern);
+			}
+		}
+	}
+
+	private int step(int state, char c)
+	{
+		final int idx = Arrays.binarySearch(keys[state], c);
+		return idx < 0 ? -1 : next[state][idx];
+	}
+
+	private static int[] merge(List<Integer> own, int[] inherited)
+	{
+		if (own.isEmpty())
+		{
+			return inherited;
+		}
+
+		final int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+		for (int i = 0; i < own.size(); i++)
+		{
+			merged[inherited.length + i] = own.get(i);
+		}
+		return merged;
+	}
+}
@@ -30,6 +30,7 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.sentry.Sentry;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Set;
 import lombok.AccessLevel;
@@ -37,6 +38,7 @@ import lombok.Getter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.events.Event;
+import net.runelite.client.eventbus.AccessorGenerator;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.EventScheduler;
 import net.runelite.client.eventbus.Subscribe;
@@ -99,9 +101,19 @@ public abstract class Plugin implements Module, ExtensionPoint
 				Sentry.capture("EventHandler " + method.toString()); // Spam Owain's inbox with this :)
 			}
 
-			method.setAccessible(true);
+			Consumer<?> consumer;
+			try
+			{
+				consumer = AccessorGenerator.createConsumer(MethodHandles.lookup(), this, method);
+			}
+			catch (Throwable t)
+			{
+				log.debug("Unable to create consumer lambda for {}, falling back to reflection", method, t);
+				method.setAccessible(true);
+				consumer = event -> method.invoke(this, event);
+			}
 
-			Subscription sub = new Subscription(type.asSubclass(Event.class), event -> method.invoke(this, event), annotation.takeUntil(), annotation.subscribe(), annotation.observe());
+			Subscription sub = new Subscription(type.asSubclass(Event.class), consumer, annotation.takeUntil(), annotation.subscribe(), annotation.observe());
 
 			builder.add(sub);
 		}
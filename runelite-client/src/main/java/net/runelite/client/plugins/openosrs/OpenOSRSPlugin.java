@@ -256,7 +256,7 @@ public class OpenOSRSPlugin extends Plugin
 
 			lastKeyCycle = client.getGameCycle();
 
-			clientThread.invoke(() -> handleKey(keyEvent.getKeyChar()));
+			clientThread.invoke(() -> handleKey(keyEvent.getKeyChar()), ClientThread.Priority.INPUT);
 			keyEvent.consume();
 		}
 
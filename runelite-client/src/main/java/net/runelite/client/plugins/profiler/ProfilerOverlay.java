@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.profiler;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.util.EnumSet;
+import java.util.List;
+import javax.inject.Inject;
+import net.runelite.client.profiler.HotPathProfiler;
+import net.runelite.client.ui.overlay.OverlayInvalidation;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.OverlayPriority;
+import net.runelite.client.ui.overlay.OverlayRenderer;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+import net.runelite.client.ui.overlay.components.table.TableAlignment;
+import net.runelite.client.ui.overlay.components.table.TableComponent;
+
+class ProfilerOverlay extends OverlayPanel
+{
+	private static final int WIDTH = 420;
+
+	private final HotPathProfiler profiler;
+	private final ProfilerConfig config;
+	private final OverlayRenderer overlayRenderer;
+
+	@Inject
+	private ProfilerOverlay(ProfilerPlugin plugin, HotPathProfiler profiler, ProfilerConfig config, OverlayRenderer overlayRenderer)
+	{
+		super(plugin);
+		this.profiler = profiler;
+		this.config = config;
+		this.overlayRenderer = overlayRenderer;
+		setPosition(OverlayPosition.TOP_LEFT);
+		setPriority(OverlayPriority.LOW);
+		// the numbers are unreadable when they change every frame anyway
+		setCached(true);
+		setInvalidateOn(EnumSet.of(OverlayInvalidation.GAME_TICK, OverlayInvalidation.CONFIG_CHANGED));
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		if (!config.showOverlay())
+		{
+			return null;
+		}
+
+		final List<HotPathProfiler.Sample> samples = profiler.snapshot();
+
+		final TableComponent table = new TableComponent();
+		table.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT, TableAlignment.RIGHT, TableAlignment.RIGHT, TableAlignment.RIGHT);
+		table.setColumns("Name", "Count", "p50", "p99", "Alloc");
+		for (HotPathProfiler.Sample sample : samples.subList(0, Math.min(config.overlayRows(), samples.size())))
+		{
+			table.addRow(sample.getName(),
+				Long.toString(sample.getCount()),
+				formatNanos(sample.getP50Nanos()),
+				formatNanos(sample.getP99Nanos()),
+				sample.getAllocatedBytes() / 1024 + "KB");
+		}
+
+		panelComponent.setPreferredSize(new Dimension(WIDTH, 0));
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Hot paths")
+			.build());
+		panelComponent.getChildren().add(table);
+
+		final TableComponent cacheTable = new TableComponent();
+		cacheTable.setColumnAlignments(TableAlignment.LEFT, TableAlignment.RIGHT);
+		cacheTable.setColumns("Layer", "Cache hits");
+		for (OverlayLayer layer : OverlayLayer.values())
+		{
+			cacheTable.addRow(layer.name(), String.format("%.0f%%", overlayRenderer.getCacheHitRate(layer) * 100));
+		}
+		panelComponent.getChildren().add(cacheTable);
+		return super.render(graphics);
+	}
+
+	private static String formatNanos(long nanos)
+	{
+		if (nanos >= 1_000_000L)
+		{
+			return String.format("%.1fms", nanos / 1_000_000d);
+		}
+		return nanos / 1_000L + "us";
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.profiler;
+
+import com.google.inject.Provides;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.plugins.Plugin;
+import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.profiler.HotPathProfiler;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.ui.overlay.OverlayRenderer;
+
+@PluginDescriptor(
+	name = "Profiler",
+	description = "Measure the time spent in event subscribers and overlays",
+	tags = {"performance", "fps", "lag", "developer"},
+	enabledByDefault = false
+)
+public class ProfilerPlugin extends Plugin
+{
+	private static final int LOG_LIMIT = 25;
+
+	@Inject
+	private HotPathProfiler profiler;
+
+	@Inject
+	private ProfilerConfig config;
+
+	@Inject
+	private ProfilerOverlay overlay;
+
+	@Inject
+	private OverlayManager overlayManager;
+
+	@Inject
+	private OverlayRenderer overlayRenderer;
+
+	@Inject
+	private ScheduledExecutorService executor;
+
+	private ScheduledFuture<?> logFuture;
+
+	@Provides
+	ProfilerConfig provideConfig(ConfigManager configManager)
+	{
+		return configManager.getConfig(ProfilerConfig.class);
+	}
+
+	@Override
+	protected void startUp()
+	{
+		profiler.reset();
+		overlayRenderer.resetCacheStats();
+		profiler.setEnabled(true);
+		overlayManager.add(overlay);
+		scheduleLogging();
+	}
+
+	@Override
+	protected void shutDown()
+	{
+		profiler.setEnabled(false);
+		overlayManager.remove(overlay);
+		cancelLogging();
+	}
+
+	@Subscribe
+	private void onConfigChanged(ConfigChanged event)
+	{
+		if (!event.getGroup().equals("profiler"))
+		{
+			return;
+		}
+
+		if (event.getKey().equals("logInterval"))
+		{
+			cancelLogging();
+			scheduleLogging();
+		}
+	}
+
+	private void scheduleLogging()
+	{
+		int interval = config.logInterval();
+		if (interval > 0)
+		{
+			logFuture = executor.scheduleAtFixedRate(() -> profiler.dump(LOG_LIMIT), interval, interval, TimeUnit.SECONDS);
+		}
+	}
+
+	private void cancelLogging()
+	{
+		if (logFuture != null)
+		{
+			logFuture.cancel(false);
+			logFuture = null;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+import io.reactivex.rxjava3.functions.Consumer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.events.Event;
+
+/**
+ * Records invocation counts, latency and allocation of event subscribers
+ * and overlays. Recording is off until enabled, and costs a single volatile
+ * read per invocation while disabled.
+ */
+@Slf4j
+@Singleton
+public class HotPathProfiler
+{
+	public enum Kind
+	{
+		SUBSCRIBER,
+		OVERLAY,
+		CLIENT_THREAD
+	}
+
+	@Value
+	public static class Sample
+	{
+		Kind kind;
+		String name;
+		long count;
+		long totalNanos;
+		long p50Nanos;
+		long p99Nanos;
+		long allocatedBytes;
+	}
+
+	public static class Section
+	{
+		@Getter
+		private final Kind kind;
+		@Getter
+		private final String name;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final LongAdder allocated = new LongAdder();
+
+		private Section(Kind kind, String name)
+		{
+			this.kind = kind;
+			this.name = name;
+		}
+
+		public void record(long nanos, long allocatedBytes)
+		{
+			histogram.record(nanos);
+			if (allocatedBytes > 0)
+			{
+				allocated.add(allocatedBytes);
+			}
+		}
+
+		private Sample sample()
+		{
+			return new Sample(kind, name, histogram.getCount(), histogram.getTotal(),
+				histogram.getPercentile(0.5), histogram.getPercentile(0.99), allocated.sum());
+		}
+
+		private void reset()
+		{
+			histogram.reset();
+			allocated.reset();
+		}
+	}
+
+	private final Map<String, Section> sections = new ConcurrentHashMap<>();
+	private final com.sun.management.ThreadMXBean threadMXBean;
+
+	@Getter
+	private volatile boolean enabled;
+	// whether allocation tracking was already on before the profiler was enabled
+	private boolean allocationTrackingWasEnabled;
+
+	public HotPathProfiler()
+	{
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+		{
+			threadMXBean = (com.sun.management.ThreadMXBean) bean;
+		}
+		else
+		{
+			threadMXBean = null;
+		}
+	}
+
+	/**
+	 * Enable or disable recording. Per thread allocation tracking is only
+	 * switched on while recording, as it slows down every allocation.
+	 */
+	public synchronized void setEnabled(boolean enabled)
+	{
+		if (this.enabled == enabled)
+		{
+			return;
+		}
+
+		if (threadMXBean != null)
+		{
+			if (enabled)
+			{
+				allocationTrackingWasEnabled = threadMXBean.isThreadAllocatedMemoryEnabled();
+				threadMXBean.setThreadAllocatedMemoryEnabled(true);
+			}
+			else if (!allocationTrackingWasEnabled)
+			{
+				threadMXBean.setThreadAllocatedMemoryEnabled(false);
+			}
+		}
+
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Look up a section, creating it if needed. Callers on a hot path should
+	 * keep the returned section rather than looking it up on every invocation.
+	 */
+	public Section section(Kind kind, String name)
+	{
+		return sections.computeIfAbsent(kind.name() + ':' + name, k -> new Section(kind, name));
+	}
+
+	/**
+	 * @return bytes allocated by the current thread so far, or 0 if unsupported or not enabled
+	 */
+	public long allocatedBytes()
+	{
+		if (threadMXBean == null || !enabled)
+		{
+			return 0L;
+		}
+		// -1 if tracking was switched off concurrently
+		return Math.max(0L, threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()));
+	}
+
+	/**
+	 * Wrap an event subscriber so its invocations are recorded while the
+	 * profiler is enabled
+	 */
+	public <T extends Event> Consumer<T> instrument(Class<T> eventClass, Consumer<T> action)
+	{
+		final Section section = section(Kind.SUBSCRIBER, describe(action) + ' ' + eventClass.getSimpleName());
+		return event ->
+		{
+			if (!enabled)
+			{
+				action.accept(event);
+				return;
+			}
+
+			final long allocated = allocatedBytes();
+			final long start = System.nanoTime();
+			try
+			{
+				action.accept(event);
+			}
+			finally
+			{
+				section.record(System.nanoTime() - start, allocatedBytes() - allocated);
+			}
+		};
+	}
+
+	/**
+	 * @return a snapshot of all sections which have recorded invocations, slowest total time first
+	 */
+	public List<Sample> snapshot()
+	{
+		List<Sample> samples = new ArrayList<>(sections.size());
+		for (Section section : sections.values())
+		{
+			Sample sample = section.sample();
+			if (sample.getCount() > 0)
+			{
+				samples.add(sample);
+			}
+		}
+		samples.sort(Comparator.comparingLong(Sample::getTotalNanos).reversed());
+		return samples;
+	}
+
+	public void reset()
+	{
+		sections.values().forEach(Section::reset);
+	}
+
+	/**
+	 * Log the slowest sections
+	 *
+	 * @param limit maximum number of sections to log
+	 */
+	public void dump(int limit)
+	{
+		List<Sample> samples = snapshot();
+		log.info("Hot path profile, {} sections:", samples.size());
+		for (Sample sample : samples.subList(0, Math.min(limit, samples.size())))
+		{
+			log.info("{} {}: count {}, total {}ms, p50 {}us, p99 {}us, allocated {}KB",
+				sample.getKind(), sample.getName(), sample.getCount(), sample.getTotalNanos() / 1_000_000L,
+				sample.getP50Nanos() / 1_000L, sample.getP99Nanos() / 1_000L, sample.getAllocatedBytes() / 1024L);
+		}
+	}
+
+	private static String describe(Object action)
+	{
+		// lambdas are named after the class that declared them
+		String name = action.getClass().getName();
+		int idx = name.indexOf("$$Lambda");
+		if (idx != -1)
+		{
+			name = name.substring(0, idx);
+		}
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+}
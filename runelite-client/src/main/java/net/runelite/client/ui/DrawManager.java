@@ -38,8 +38,15 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DrawManager
 {
+	/**
+	 * Number of frame buffers consumers may hold at once before frames are dropped
+	 */
+	private static final int FRAME_BUFFERS = 3;
+
 	private final List<Runnable> everyFrame = new CopyOnWriteArrayList<>();
+	private final List<Consumer<FrameBuffer>> frameListeners = new CopyOnWriteArrayList<>();
 	private final Queue<Consumer<Image>> nextFrame = new ConcurrentLinkedQueue<>();
+	private final FrameBufferPool framePool = new FrameBufferPool(FRAME_BUFFERS);
 
 	public void registerEveryFrameListener(Runnable everyFrameListener)
 	{
@@ -54,12 +61,122 @@ public class DrawManager
 		everyFrame.remove(everyFrameListener);
 	}
 
+	/**
+	 * Register a listener which is handed a copy of every frame. The listener
+	 * must call {@link FrameBuffer#release()} once it is done with the frame,
+	 * which may be on another thread. Frames are dropped while all buffers are
+	 * still held by listeners.
+	 */
+	public void registerFrameListener(Consumer<FrameBuffer> frameListener)
+	{
+		if (!frameListeners.contains(frameListener))
+		{
+			frameListeners.add(frameListener);
+		}
+	}
+
+	public void unregisterFrameListener(Consumer<FrameBuffer> frameListener)
+	{
+		frameListeners.remove(frameListener);
+	}
+
 	public void requestNextFrameListener(Consumer<Image> nextFrameListener)
 	{
 		nextFrame.add(nextFrameListener);
 	}
 
+	/**
+	 * Whether any listener wants a copy of the current frame. If not, the frame is not copied at all.
+	 */
+	public boolean wantsFrame()
+	{
+		return !frameListeners.isEmpty() || !nextFrame.isEmpty();
+	}
+
+	/**
+	 * The number of frames which were not delivered because every frame buffer was still held.
+	 */
+	public long getDroppedFrames()
+	{
+		return framePool.getDroppedCount();
+	}
+
+	/**
+	 * Complete a frame from the engine's pixel buffer. The pixels only need to
+	 * stay valid for the duration of this call.
+	 */
+	public void processDrawComplete(int[] pixels, int width, int height)
+	{
+		runEveryFrame();
+
+		if (!wantsFrame())
+		{
+			return;
+		}
+
+		FrameBuffer frame = framePool.lease(width, height);
+		if (frame == null)
+		{
+			return;
+		}
+
+		frame.copyFrom(pixels);
+		dispatch(frame);
+	}
+
+	/**
+	 * Complete a frame from an image. The image only needs to stay valid for
+	 * the duration of this call.
+	 */
+	public void processDrawComplete(Image image)
+	{
+		runEveryFrame();
+
+		if (!wantsFrame())
+		{
+			return;
+		}
+
+		FrameBuffer frame = framePool.lease(image.getWidth(null), image.getHeight(null));
+		if (frame == null)
+		{
+			return;
+		}
+
+		frame.copyFrom(image);
+		dispatch(frame);
+	}
+
 	public void processDrawComplete(Supplier<Image> imageSupplier)
+	{
+		runEveryFrame();
+
+		if (!wantsFrame())
+		{
+			return;
+		}
+
+		Image image;
+		try
+		{
+			image = imageSupplier.get();
+		}
+		catch (Exception ex)
+		{
+			log.warn("error getting screenshot", ex);
+			image = null;
+		}
+
+		if (image == null)
+		{
+			nextFrame.clear();
+			return;
+		}
+
+		processDrawComplete(image);
+	}
+
+	private void runEveryFrame()
 	{
 		for (Runnable everyFrameListener : everyFrame)
 		{
@@ -72,38 +189,49 @@ public class DrawManager
 				log.error("Error in draw consumer", e);
 			}
 		}
+	}
 
-		Consumer<Image> nextFrameListener = nextFrame.poll();
-		Image image = null;
-		while (nextFrameListener != null)
+	private void dispatch(FrameBuffer frame)
+	{
+		try
 		{
-			if (image == null)
+			for (Consumer<FrameBuffer> frameListener : frameListeners)
 			{
+				frame.retain();
 				try
 				{
-					image = imageSupplier.get();
+					frameListener.accept(frame);
 				}
-				catch (Exception ex)
+				catch (Exception e)
 				{
-					log.warn("error getting screenshot", ex);
+					log.error("Error in draw consumer", e);
 				}
 			}
 
-			if (image == null)
+			Consumer<Image> nextFrameListener = nextFrame.poll();
+			if (nextFrameListener == null)
 			{
-				nextFrame.clear();
-				break;
+				return;
 			}
 
-			try
-			{
-				nextFrameListener.accept(image);
-			}
-			catch (Exception e)
+			// next frame listeners may hold on to the image indefinitely, so they get their own copy
+			Image image = frame.copy();
+			while (nextFrameListener != null)
 			{
-				log.error("Error in draw consumer", e);
+				try
+				{
+					nextFrameListener.accept(image);
+				}
+				catch (Exception e)
+				{
+					log.error("Error in draw consumer", e);
+				}
+				nextFrameListener = nextFrame.poll();
 			}
-			nextFrameListener = nextFrame.poll();
+		}
+		finally
+		{
+			frame.release();
 		}
 	}
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui;
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+
+/**
+ * A reusable copy of a rendered frame, owned by a {@link FrameBufferPool}.
+ * <p>
+ * A frame buffer is leased with a reference count of one. Every party the
+ * frame is handed to must call {@link #release()} once it no longer needs the
+ * image, after which the buffer returns to the pool and is overwritten by a
+ * later frame. Consumers which want to keep the frame beyond that must copy it.
+ */
+public class FrameBuffer
+{
+	@Getter
+	private final int width;
+	@Getter
+	private final int height;
+
+	/**
+	 * The backing image. Only valid while the frame buffer is retained.
+	 */
+	@Getter
+	private final BufferedImage image;
+
+	private final int[] pixels;
+	private final Graphics graphics;
+	private final AtomicInteger references = new AtomicInteger();
+
+	FrameBuffer(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+		this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		this.graphics = image.getGraphics();
+	}
+
+	/**
+	 * Copy the pixels of an engine buffer into this frame. The source is
+	 * expected to be laid out row by row with the dimensions of this frame.
+	 */
+	public void copyFrom(int[] src)
+	{
+		System.arraycopy(src, 0, pixels, 0, width * height);
+	}
+
+	/**
+	 * Copy an arbitrary image into this frame, used when the frame is not
+	 * backed by an int raster such as a stretched volatile image.
+	 */
+	public void copyFrom(Image src)
+	{
+		graphics.drawImage(src, 0, 0, width, height, null);
+	}
+
+	/**
+	 * A graphics context for drawing on top of the frame, such as the mouse
+	 * cursor. It is owned by the frame buffer and must not be disposed.
+	 */
+	public Graphics getGraphics()
+	{
+		return graphics;
+	}
+
+	/**
+	 * Take an additional reference to this frame, for handing it to another consumer.
+	 */
+	public FrameBuffer retain()
+	{
+		references.incrementAndGet();
+		return this;
+	}
+
+	/**
+	 * Drop a reference to this frame. The frame must not be used afterwards.
+	 */
+	public void release()
+	{
+		int refs = references.decrementAndGet();
+		assert refs >= 0 : "frame buffer released too often";
+	}
+
+	/**
+	 * Copy this frame into a new image, which stays valid after the frame is released.
+	 */
+	public BufferedImage copy()
+	{
+		BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		System.arraycopy(pixels, 0, ((DataBufferInt) copy.getRaster().getDataBuffer()).getData(), 0, width * height);
+		return copy;
+	}
+
+	boolean tryLease()
+	{
+		return references.compareAndSet(0, 1);
+	}
+
+	boolean matches(int width, int height)
+	{
+		return this.width == width && this.height == height;
+	}
+
+	boolean isLeased()
+	{
+		return references.get() > 0;
+	}
+}
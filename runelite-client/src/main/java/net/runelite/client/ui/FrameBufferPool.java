@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed ring of {@link FrameBuffer}s which are reused from frame to frame,
+ * so copying the rendered frame for consumers does not allocate.
+ * <p>
+ * If every buffer in the ring is still leased by a slow consumer, the frame
+ * is dropped rather than growing the pool.
+ */
+public class FrameBufferPool
+{
+	private final FrameBuffer[] ring;
+	private final AtomicLong dropped = new AtomicLong();
+	private int next;
+
+	public FrameBufferPool(int size)
+	{
+		if (size < 1)
+		{
+			throw new IllegalArgumentException("size must be positive");
+		}
+
+		this.ring = new FrameBuffer[size];
+	}
+
+	/**
+	 * Lease a frame buffer of the given dimensions, with a reference count of one.
+	 *
+	 * @return the frame buffer, or null if all buffers are in use and the frame should be dropped
+	 */
+	public synchronized FrameBuffer lease(int width, int height)
+	{
+		for (int i = 0; i < ring.length; ++i)
+		{
+			int idx = (next + i) % ring.length;
+			FrameBuffer buffer = ring[idx];
+
+			if (buffer == null || (!buffer.isLeased() && !buffer.matches(width, height)))
+			{
+				// first use of this slot, or the client was resized
+				buffer = new FrameBuffer(width, height);
+				ring[idx] = buffer;
+			}
+
+			if (buffer.matches(width, height) && buffer.tryLease())
+			{
+				next = (idx + 1) % ring.length;
+				return buffer;
+			}
+		}
+
+		dropped.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * The number of frames dropped because no buffer was free.
+	 */
+	public long getDroppedCount()
+	{
+		return dropped.get();
+	}
+}
@@ -28,8 +28,11 @@ import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.client.plugins.Plugin;
@@ -52,6 +55,19 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	private boolean resizable;
 	private boolean resettable = true;
 
+	/**
+	 * Whether the output of {@link #render(java.awt.Graphics2D)} is drawn once into an image
+	 * which is reused every frame until the overlay is invalidated, either by one of
+	 * the {@link #invalidateOn} events or by {@link #invalidate()}.
+	 * Dynamic and tooltip overlays are never cached.
+	 */
+	private boolean cached;
+	private Set<OverlayInvalidation> invalidateOn = EnumSet.noneOf(OverlayInvalidation.class);
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile boolean dirty = true;
+
 	protected Overlay()
 	{
 		plugin = null;
@@ -75,4 +91,12 @@ public abstract class Overlay implements LayoutableRenderableEntity
 	public void onMouseOver()
 	{
 	}
+
+	/**
+	 * Mark the cached rendering of this overlay as stale, so it is rendered again on the next frame
+	 */
+	public void invalidate()
+	{
+		dirty = true;
+	}
 }
@@ -25,6 +25,7 @@
 package net.runelite.client.ui.overlay;
 
 import com.google.common.primitives.Ints;
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Cursor;
@@ -39,9 +40,12 @@ import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
@@ -53,14 +57,18 @@ import net.runelite.api.MenuEntry;
 import net.runelite.api.events.BeforeRender;
 import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.FocusChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.graphics.ModelOutlineRenderer;
 import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.input.MouseAdapter;
 import net.runelite.client.input.MouseManager;
+import net.runelite.client.profiler.HotPathProfiler;
 import net.runelite.client.ui.ClientUI;
 import net.runelite.client.ui.JagexColors;
 import net.runelite.client.util.ColorUtil;
@@ -85,6 +93,8 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private final OverlayManager overlayManager;
 	private final RuneLiteConfig runeLiteConfig;
 	private final ClientUI clientUI;
+	private final HotPathProfiler profiler;
+	private final ModelOutlineRenderer modelOutlineRenderer;
 
 	// Overlay movement variables
 	private final Point overlayOffset = new Point();
@@ -106,6 +116,12 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private boolean isResizeable;
 	private OverlayBounds snapCorners;
 
+	// Cached overlay rendering, only accessed from the client thread
+	private final Map<Overlay, CachedOverlay> cachedOverlays = new WeakHashMap<>();
+	private final Map<OverlayLayer, CacheStats> cacheStats = new EnumMap<>(OverlayLayer.class);
+	// Profiler section of each overlay, so its name is not looked up every frame
+	private final Map<Overlay, HotPathProfiler.Section> profilerSections = new WeakHashMap<>();
+
 	@Setter
 	private boolean shouldRender = true;
 
@@ -117,9 +133,13 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		final MouseManager mouseManager,
 		final KeyManager keyManager,
 		final EventBus eventbus,
-		final ClientUI clientUI)
+		final ClientUI clientUI,
+		final HotPathProfiler profiler,
+		final ModelOutlineRenderer modelOutlineRenderer)
 	{
 		this.client = client;
+		this.profiler = profiler;
+		this.modelOutlineRenderer = modelOutlineRenderer;
 		this.overlayManager = overlayManager;
 		this.runeLiteConfig = runeLiteConfig;
 		this.clientUI = clientUI;
@@ -129,6 +149,13 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		eventbus.subscribe(FocusChanged.class, this, this::onFocusChanged);
 		eventbus.subscribe(ClientTick.class, this, this::onClientTick);
 		eventbus.subscribe(BeforeRender.class, this, this::onBeforeRender);
+		eventbus.subscribe(GameTick.class, this, this::onGameTick);
+		eventbus.subscribe(ConfigChanged.class, this, this::onConfigChanged);
+
+		for (OverlayLayer layer : OverlayLayer.values())
+		{
+			cacheStats.put(layer, new CacheStats());
+		}
 	}
 
 	private void onFocusChanged(FocusChanged event)
@@ -177,6 +204,53 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		menuEntries = null;
 	}
 
+	private void onGameTick(GameTick event)
+	{
+		invalidateCachedOverlays(OverlayInvalidation.GAME_TICK, false);
+	}
+
+	private void onConfigChanged(ConfigChanged event)
+	{
+		// the runelite group holds the overlay fonts, which affect every overlay
+		invalidateCachedOverlays(OverlayInvalidation.CONFIG_CHANGED, event.getGroup().equals(RuneLiteConfig.GROUP_NAME));
+	}
+
+	private void invalidateCachedOverlays(OverlayInvalidation invalidation, boolean all)
+	{
+		synchronized (overlayManager)
+		{
+			for (Overlay overlay : overlayManager.getOverlays())
+			{
+				if (overlay.isCached() && (all || overlay.getInvalidateOn().contains(invalidation)))
+				{
+					overlay.invalidate();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The fraction of cached overlay renders on a layer which were served from the cache
+	 *
+	 * @return the hit rate, or 0 if no cached overlay has been rendered on the layer
+	 */
+	public double getCacheHitRate(OverlayLayer layer)
+	{
+		final CacheStats stats = cacheStats.get(layer);
+		final long hits = stats.hits;
+		final long total = hits + stats.misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	public void resetCacheStats()
+	{
+		for (CacheStats stats : cacheStats.values())
+		{
+			stats.hits = 0;
+			stats.misses = 0;
+		}
+	}
+
 	public void render(Graphics2D graphics, final OverlayLayer layer)
 	{
 		if (!shouldRender)
@@ -212,6 +286,7 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		if (shouldInvalidateBounds())
 		{
 			snapCorners = buildSnapCorners();
+			invalidateCachedOverlays(null, true);
 		}
 
 		// Create copy of snap corners because overlays will modify them
@@ -695,10 +770,24 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		graphics.translate(point.x, point.y);
 		overlay.getBounds().setLocation(point);
 
+		final boolean profile = profiler.isEnabled();
+		final long allocated = profile ? profiler.allocatedBytes() : 0L;
+		final long start = profile ? System.nanoTime() : 0L;
+
 		final Dimension overlayDimension;
+		// outlines requested by the overlay are drawn together once it is done, so they
+		// stay above its own graphics and below the overlays rendered after it
+		modelOutlineRenderer.startBatch();
 		try
 		{
-			overlayDimension = overlay.render(graphics);
+			if (overlay.isCached() && position != OverlayPosition.DYNAMIC && position != OverlayPosition.TOOLTIP)
+			{
+				overlayDimension = renderCached(overlay, layer, graphics);
+			}
+			else
+			{
+				overlayDimension = overlay.render(graphics);
+			}
 		}
 		catch (Exception ex)
 		{
@@ -711,11 +800,109 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 			overlayManager.remove(overlay);
 			return;
 		}
+		finally
+		{
+			modelOutlineRenderer.finishBatch();
+
+			if (profile)
+			{
+				profilerSections.computeIfAbsent(overlay, o -> profiler.section(HotPathProfiler.Kind.OVERLAY, o.getName()))
+					.record(System.nanoTime() - start, profiler.allocatedBytes() - allocated);
+			}
+		}
 
 		final Dimension dimension = Objects.requireNonNullElse(overlayDimension, new Dimension());
 		overlay.getBounds().setSize(dimension);
 	}
 
+	private Dimension renderCached(Overlay overlay, OverlayLayer layer, Graphics2D graphics)
+	{
+		final CacheStats stats = cacheStats.get(layer);
+		final CachedOverlay cache = cachedOverlays.computeIfAbsent(overlay, k -> new CachedOverlay());
+
+		if (!overlay.isDirty() && cache.image != null && Objects.equals(cache.preferredSize, overlay.getPreferredSize()))
+		{
+			++stats.hits;
+			if (cache.size != null)
+			{
+				graphics.drawImage(cache.image, 0, 0, null);
+			}
+			return cache.size;
+		}
+
+		++stats.misses;
+		cache.preferredSize = overlay.getPreferredSize() == null ? null : new Dimension(overlay.getPreferredSize());
+
+		if (cache.image == null)
+		{
+			// the size of the overlay isn't known until it has rendered once, so draw
+			// it directly this frame and allocate the cache for the next one
+			final Dimension dimension = overlay.render(graphics);
+			cache.allocate(dimension);
+			return dimension;
+		}
+
+		// cleared before rendering so an invalidation during render is not lost
+		overlay.setDirty(false);
+
+		Dimension dimension = renderToCache(overlay, cache, graphics);
+		if (fitsCache(cache, dimension))
+		{
+			cache.size = dimension;
+			if (dimension != null)
+			{
+				graphics.drawImage(cache.image, 0, 0, null);
+			}
+			return dimension;
+		}
+
+		// the overlay grew past the cached image, render it again into a larger one
+		cache.allocate(dimension);
+		dimension = renderToCache(overlay, cache, graphics);
+		if (fitsCache(cache, dimension))
+		{
+			cache.size = dimension;
+			if (dimension != null)
+			{
+				graphics.drawImage(cache.image, 0, 0, null);
+			}
+			return dimension;
+		}
+
+		// still growing, so draw it directly this frame and fill the cache on the next one
+		cache.allocate(dimension);
+		overlay.invalidate();
+		dimension = overlay.render(graphics);
+		cache.size = dimension;
+		return dimension;
+	}
+
+	private static Dimension renderToCache(Overlay overlay, CachedOverlay cache, Graphics2D graphics)
+	{
+		final Graphics2D cacheGraphics = cache.image.createGraphics();
+		try
+		{
+			cacheGraphics.setComposite(AlphaComposite.Clear);
+			cacheGraphics.fillRect(0, 0, cache.image.getWidth(), cache.image.getHeight());
+			cacheGraphics.setComposite(graphics.getComposite());
+			cacheGraphics.setRenderingHints(graphics.getRenderingHints());
+			cacheGraphics.setFont(graphics.getFont());
+			cacheGraphics.setColor(graphics.getColor());
+			cacheGraphics.setStroke(graphics.getStroke());
+
+			return overlay.render(cacheGraphics);
+		}
+		finally
+		{
+			cacheGraphics.dispose();
+		}
+	}
+
+	private static boolean fitsCache(CachedOverlay cache, Dimension dimension)
+	{
+		return dimension == null || (dimension.width <= cache.image.getWidth() && dimension.height <= cache.image.getHeight());
+	}
+
 	private OverlayPosition getCorrectedOverlayPosition(final Overlay overlay)
 	{
 		OverlayPosition overlayPosition = overlay.getPosition();
@@ -874,4 +1061,30 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 
 		return entries;
 	}
+
+	private static class CachedOverlay
+	{
+		private BufferedImage image;
+		private Dimension size;
+		private Dimension preferredSize;
+
+		private void allocate(Dimension dimension)
+		{
+			if (dimension == null || dimension.width <= 0 || dimension.height <= 0)
+			{
+				return;
+			}
+
+			// grow only, so overlays whose height changes with their contents don't reallocate every time
+			final int width = image == null ? dimension.width : Math.max(image.getWidth(), dimension.width);
+			final int height = image == null ? dimension.height : Math.max(image.getHeight(), dimension.height);
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+	}
+
+	private static class CacheStats
+	{
+		private long hits;
+		private long misses;
+	}
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.client.profiler.HotPathProfiler;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	HotPathProfiler profiler;
+
+	@Inject
+	ClientThread clientThread;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		lenient().when(client.isClientThread()).thenReturn(true);
+	}
+
+	@Test
+	public void testLaneOrder()
+	{
+		List<String> ran = new ArrayList<>();
+		clientThread.invokeLater(() -> ran.add("game"));
+		clientThread.invokeLater(() -> ran.add("background"), ClientThread.Priority.BACKGROUND);
+		clientThread.invokeLater(() -> ran.add("input"), ClientThread.Priority.INPUT);
+
+		clientThread.invoke();
+
+		assertEquals(List.of("input", "game", "background"), ran);
+	}
+
+	@Test
+	public void testBudget()
+	{
+		clientThread.setBudgetNanos(0);
+
+		AtomicInteger game = new AtomicInteger();
+		AtomicInteger input = new AtomicInteger();
+		for (int i = 0; i < 3; ++i)
+		{
+			clientThread.invokeLater(game::incrementAndGet);
+			clientThread.invokeLater(input::incrementAndGet, ClientThread.Priority.INPUT);
+		}
+
+		clientThread.invoke();
+		assertEquals(3, input.get());
+		assertEquals(1, game.get());
+		assertEquals(2, clientThread.getQueueDepth(ClientThread.Priority.GAME_STATE));
+
+		clientThread.invoke();
+		clientThread.invoke();
+		assertEquals(3, game.get());
+		assertEquals(0, clientThread.getQueueDepth(ClientThread.Priority.GAME_STATE));
+	}
+
+	@Test
+	public void testRetryKeepsOrder()
+	{
+		clientThread.setBudgetNanos(0);
+
+		List<String> ran = new ArrayList<>();
+		AtomicInteger attempts = new AtomicInteger();
+		clientThread.invokeLater(() ->
+		{
+			ran.add("a");
+			return attempts.incrementAndGet() > 1;
+		});
+		clientThread.invokeLater(() -> ran.add("b"));
+
+		clientThread.invoke();
+		assertEquals(List.of("a"), ran);
+
+		// a is due again and was queued before b
+		clientThread.invoke();
+		assertEquals(List.of("a", "a"), ran);
+
+		clientThread.invoke();
+		assertEquals(List.of("a", "a", "b"), ran);
+		assertEquals(0, clientThread.getQueueDepth(ClientThread.Priority.GAME_STATE));
+	}
+
+	@Test
+	public void testBackoff()
+	{
+		List<Integer> cycles = new ArrayList<>();
+		AtomicInteger cycle = new AtomicInteger();
+		clientThread.invokeLater(() ->
+		{
+			cycles.add(cycle.get());
+			return false;
+		});
+
+		for (int i = 1; i <= 20; ++i)
+		{
+			cycle.set(i);
+			clientThread.invoke();
+		}
+
+		assertEquals(List.of(1, 2, 4, 8, 16), cycles);
+		assertEquals(1, clientThread.getQueueDepth(ClientThread.Priority.GAME_STATE));
+	}
+
+	@Test
+	public void testBackgroundRejectsWhenFull()
+	{
+		clientThread.setBudgetNanos(TimeUnit.SECONDS.toNanos(10));
+
+		AtomicInteger ran = new AtomicInteger();
+		for (int i = 0; i < 4096; ++i)
+		{
+			assertTrue(clientThread.invokeLater(ran::incrementAndGet, ClientThread.Priority.BACKGROUND));
+		}
+
+		assertFalse(clientThread.invokeLater(ran::incrementAndGet, ClientThread.Priority.BACKGROUND));
+		assertEquals(1, clientThread.getRejectedCount());
+		assertEquals(4096, clientThread.getQueueDepth(ClientThread.Priority.BACKGROUND));
+
+		// the other lanes are unbounded
+		assertTrue(clientThread.invokeLater(() -> true, ClientThread.Priority.GAME_STATE));
+
+		clientThread.invoke();
+		assertEquals(4096, ran.get());
+		assertEquals(0, clientThread.getQueueDepth(ClientThread.Priority.BACKGROUND));
+		assertTrue(clientThread.invokeLater(ran::incrementAndGet, ClientThread.Priority.BACKGROUND));
+	}
+
+	@Test
+	public void testBackgroundRetryNotRejected()
+	{
+		clientThread.setBudgetNanos(TimeUnit.SECONDS.toNanos(10));
+
+		// a queued task which is retried was already admitted, so it is never rejected
+		AtomicInteger attempts = new AtomicInteger();
+		assertTrue(clientThread.invokeLater(() -> attempts.incrementAndGet() > 1, ClientThread.Priority.BACKGROUND));
+		for (int i = 1; i < 4096; ++i)
+		{
+			assertTrue(clientThread.invokeLater(() -> true, ClientThread.Priority.BACKGROUND));
+		}
+
+		clientThread.invoke();
+		assertEquals(1, attempts.get());
+		assertEquals(1, clientThread.getQueueDepth(ClientThread.Priority.BACKGROUND));
+		assertEquals(0, clientThread.getRejectedCount());
+	}
+}
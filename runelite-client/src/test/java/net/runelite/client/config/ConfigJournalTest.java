@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.config;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigJournalTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReplay() throws IOException
+	{
+		File file = new File(folder.getRoot(), "settings.properties.journal");
+		ConfigJournal journal = new ConfigJournal(file);
+
+		Map<String, String> changes = new LinkedHashMap<>();
+		changes.put("group.a", "1");
+		changes.put("group.b", "line\none\ttab\\");
+		journal.append(changes);
+
+		changes.clear();
+		changes.put("group.a", null);
+		changes.put("group.c", "");
+		journal.append(changes);
+		assertEquals(4, journal.size());
+
+		ConfigStore store = new ConfigStore();
+		store.put("group.a", "0");
+		store.put("group.d", "kept");
+
+		ConfigJournal replayed = new ConfigJournal(file);
+		replayed.replay(store);
+
+		assertEquals(4, replayed.size());
+		assertNull(store.get("group.a"));
+		assertEquals("line\none\ttab\\", store.get("group.b"));
+		assertEquals("", store.get("group.c"));
+		assertEquals("kept", store.get("group.d"));
+
+		replayed.rotate();
+		assertFalse(file.exists());
+		assertEquals(0, replayed.size());
+		replayed.commit();
+		assertFalse(new File(folder.getRoot(), "settings.properties.journal.old").exists());
+	}
+
+	@Test
+	public void testRecoverUnfinishedRewrite() throws IOException
+	{
+		File file = new File(folder.getRoot(), "settings.properties.journal");
+		ConfigJournal journal = new ConfigJournal(file);
+		journal.append(Map.of("group.a", "1"));
+		journal.rotate();
+		journal.append(Map.of("group.a", "2"));
+
+		// crashed before the new settings file was put in place, so nothing is lost
+		ConfigJournal recovered = new ConfigJournal(file);
+		recovered.recover(false);
+
+		ConfigStore store = new ConfigStore();
+		recovered.replay(store);
+		assertEquals(2, recovered.size());
+		assertEquals("2", store.get("group.a"));
+		assertFalse(new File(folder.getRoot(), "settings.properties.journal.old").exists());
+	}
+
+	@Test
+	public void testRecoverFinishedRewrite() throws IOException
+	{
+		File file = new File(folder.getRoot(), "settings.properties.journal");
+		ConfigJournal journal = new ConfigJournal(file);
+		journal.append(Map.of("group.a", "1"));
+		journal.rotate();
+
+		// crashed after the new settings file was put in place, which already has group.a
+		ConfigJournal recovered = new ConfigJournal(file);
+		recovered.recover(true);
+
+		ConfigStore store = new ConfigStore();
+		store.put("group.a", "3");
+		recovered.replay(store);
+		assertEquals(0, recovered.size());
+		assertEquals("3", store.get("group.a"));
+		assertFalse(new File(folder.getRoot(), "settings.properties.journal.old").exists());
+	}
+
+	@Test
+	public void testIncompleteRecord() throws IOException
+	{
+		File file = new File(folder.getRoot(), "settings.properties.journal");
+		Files.write(file.toPath(), "S\tgroup.a\t1\nS\tgroup.b\t2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
+
+		ConfigStore store = new ConfigStore();
+		ConfigJournal journal = new ConfigJournal(file);
+		journal.replay(store);
+
+		assertEquals(1, journal.size());
+		assertEquals("1", store.get("group.a"));
+		assertNull(store.get("group.b"));
+	}
+
+	@Test
+	public void testParsedOnce()
+	{
+		ConfigStore store = new ConfigStore();
+		store.put("group.a", "1:2");
+
+		ConfigStore.Value value = store.getValue("group.a");
+		Object parsed = value.parse(Point.class);
+		assertEquals(new Point(1, 2), parsed);
+		assertSame(parsed, value.parse(Point.class));
+	}
+}
@@ -114,6 +114,45 @@ public class ConfigManagerTest
 		Assert.assertEquals("new value", conf.key());
 	}
 
+	@Test
+	public void testConfigChange()
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "moo");
+		Assert.assertEquals("moo", conf.key());
+		Assert.assertEquals("moo", manager.getConfig(TestConfig.class).key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+	}
+
+	@Test
+	public void testInvalidValueReplacedWithDefault()
+	{
+		manager.setConfiguration("number", "number", "not a number");
+
+		NumberConfig conf = manager.getConfig(NumberConfig.class);
+		Assert.assertEquals(5, conf.number());
+		Assert.assertEquals("5", manager.getConfiguration("number", "number"));
+		Assert.assertEquals(5, conf.number());
+	}
+
+	@ConfigGroup("number")
+	public interface NumberConfig extends Config
+	{
+		@ConfigItem(
+			keyName = "number",
+			name = "Number",
+			description = "value"
+		)
+		default int number()
+		{
+			return 5;
+		}
+	}
+
 	@Test
 	public void testGetConfigDescriptor()
 	{
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import net.runelite.api.events.GameTick;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class DirectEventBusTest
+{
+	@Test
+	public void testPost()
+	{
+		DirectEventBus eventBus = new DirectEventBus();
+		Object lifecycle = new Object();
+		AtomicInteger count = new AtomicInteger();
+
+		eventBus.subscribe(GameTick.class, lifecycle, e -> count.incrementAndGet());
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		assertEquals(2, count.get());
+
+		eventBus.unregister(lifecycle);
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		assertEquals(2, count.get());
+	}
+
+	@Test
+	public void testTakeUntil()
+	{
+		DirectEventBus eventBus = new DirectEventBus();
+		AtomicInteger count = new AtomicInteger();
+
+		eventBus.subscribe(GameTick.class, new Object(), e -> count.incrementAndGet(), 2);
+		for (int i = 0; i < 5; ++i)
+		{
+			eventBus.post(GameTick.class, GameTick.INSTANCE);
+		}
+		assertEquals(2, count.get());
+	}
+
+	@Test
+	public void testExceptionUnsubscribes()
+	{
+		DirectEventBus eventBus = new DirectEventBus();
+		AtomicInteger count = new AtomicInteger();
+
+		eventBus.subscribe(GameTick.class, new Object(), e ->
+		{
+			count.incrementAndGet();
+			throw new IllegalStateException();
+		});
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void testReentrantPostIsQueued()
+	{
+		DirectEventBus eventBus = new DirectEventBus();
+		List<String> received = new ArrayList<>();
+		AtomicInteger posts = new AtomicInteger();
+
+		eventBus.subscribe(GameTick.class, new Object(), e ->
+		{
+			int post = posts.incrementAndGet();
+			received.add("first " + post);
+			if (post == 1)
+			{
+				eventBus.post(GameTick.class, GameTick.INSTANCE);
+			}
+		});
+		eventBus.subscribe(GameTick.class, new Object(), e -> received.add("second " + posts.get()));
+
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+
+		// the second subscriber sees the first event before the re-posted one is dispatched
+		assertEquals(Arrays.asList("first 1", "second 1", "first 2", "second 2"), received);
+	}
+
+	@Test
+	public void testScheduledSubscriber() throws InterruptedException
+	{
+		DirectEventBus eventBus = new DirectEventBus();
+		Object lifecycle = new Object();
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		AtomicInteger direct = new AtomicInteger();
+
+		eventBus.subscribe(GameTick.class, new Object(), e -> direct.incrementAndGet());
+		eventBus.subscribe(GameTick.class, lifecycle, e ->
+		{
+			thread.set(Thread.currentThread());
+			latch.countDown();
+		}, -1, EventScheduler.DEFAULT, EventScheduler.SINGLE);
+
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertNotSame(Thread.currentThread(), thread.get());
+		assertEquals(1, direct.get());
+
+		eventBus.unregister(lifecycle);
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+		assertEquals(2, direct.get());
+	}
+}
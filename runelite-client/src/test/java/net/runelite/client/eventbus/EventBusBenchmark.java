@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.events.GameTick;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares posting an event to a number of subscribers through the Rx
+ * based {@link EventBus} and the {@link DirectEventBus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+	@Param({"rx", "direct"})
+	public String mode;
+
+	@Param({"1", "20", "50"})
+	public int subscribers;
+
+	private EventBus eventBus;
+	private Object[] listeners;
+
+	public static class Listener
+	{
+		private final Blackhole blackhole;
+
+		Listener(Blackhole blackhole)
+		{
+			this.blackhole = blackhole;
+		}
+
+		@Subscribe
+		private void onGameTick(GameTick tick)
+		{
+			blackhole.consume(tick);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup(Blackhole blackhole)
+	{
+		eventBus = "direct".equals(mode) ? new DirectEventBus() : new EventBus();
+		listeners = new Object[subscribers];
+		for (int i = 0; i < subscribers; ++i)
+		{
+			Listener listener = listeners[i] = new Listener(blackhole);
+			AccessorGenerator.scanSubscribes(MethodHandles.lookup(), listener)
+				.forEach(s -> s.subscribe(eventBus, listener));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (Object listener : listeners)
+		{
+			eventBus.unregister(listener);
+		}
+	}
+
+	@Benchmark
+	public void post()
+	{
+		eventBus.post(GameTick.class, GameTick.INSTANCE);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(EventBusBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.base.Strings;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreSkill;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HiscoreServiceTest
+{
+	private static final String RESPONSE = Strings.repeat("1,99,13034431\n", HiscoreSkill.values().length);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final MockWebServer server = new MockWebServer();
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private File cacheFile;
+
+	@Before
+	public void before() throws IOException
+	{
+		server.start();
+		cacheFile = new File(folder.getRoot(), "hiscores.json");
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		executor.shutdownNow();
+		server.shutdown();
+	}
+
+	@Test
+	public void testCoalesces() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody(RESPONSE).setBodyDelay(100, TimeUnit.MILLISECONDS));
+
+		HiscoreService service = newService();
+		CompletableFuture<HiscoreResult> first = service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW);
+		CompletableFuture<HiscoreResult> second = service.lookup("zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.HIGH);
+
+		assertEquals(99, first.get(5, TimeUnit.SECONDS).getAttack().getLevel());
+		assertSame(first.get(), second.get());
+		assertEquals(1, server.getRequestCount());
+
+		// cached
+		assertSame(first.get(), service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW).get());
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testPriority() throws Exception
+	{
+		for (int i = 0; i < 4; i++)
+		{
+			server.enqueue(new MockResponse().setBody(RESPONSE));
+		}
+
+		// out of tokens, so every lookup is queued until the next one in 100ms
+		TokenBucket limiter = new TokenBucket(1, TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(0, limiter.tryAcquire());
+
+		HiscoreService service = new HiscoreService(new OkHttpClient(), executor, endpoint -> server.url("/"), cacheFile, limiter, 10);
+		service.lookup("first", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW);
+		service.lookup("second", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW);
+		service.lookup("third", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW);
+		service.lookup("attacker", HiscoreEndpoint.NORMAL, HiscoreService.Priority.LOW);
+
+		// started attacking, so it is looked up again with a higher priority
+		CompletableFuture<HiscoreResult> attacker = service.lookup("attacker", HiscoreEndpoint.NORMAL, HiscoreService.Priority.HIGH);
+
+		assertEquals("attacker", takePlayer());
+		assertEquals("first", takePlayer());
+		assertEquals("second", takePlayer());
+		assertEquals("third", takePlayer());
+		assertNotNull(attacker.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testRetries() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(503));
+		server.enqueue(new MockResponse().setResponseCode(503));
+		server.enqueue(new MockResponse().setBody(RESPONSE));
+
+		HiscoreService service = newService();
+		HiscoreResult result = service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS);
+
+		assertNotNull(result);
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void testGivesUp() throws Exception
+	{
+		for (int i = 0; i < 6; i++)
+		{
+			server.enqueue(new MockResponse().setResponseCode(503));
+		}
+
+		newService().lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testNotFound() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(404));
+
+		HiscoreService service = newService();
+		assertNull(service.lookup("Nobody", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS));
+		assertNull(service.lookup("Nobody", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS));
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testPersists() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody(RESPONSE));
+
+		HiscoreService service = newService();
+		service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS);
+		service.save();
+
+		HiscoreService reloaded = newService();
+		reloaded.load();
+		HiscoreResult result = reloaded.getCached("Zezima", HiscoreEndpoint.NORMAL);
+
+		assertNotNull(result);
+		assertEquals(13034431, result.getAttack().getExperience());
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testFailsToStart() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody(RESPONSE));
+
+		HiscoreService service = new HiscoreService(new OkHttpClient(), executor, endpoint ->
+		{
+			if (endpoint == HiscoreEndpoint.IRONMAN)
+			{
+				throw new IllegalStateException();
+			}
+			return server.url("/");
+		}, cacheFile, new TokenBucket(5, TimeUnit.MILLISECONDS.toNanos(10)), 10);
+
+		// more than can be in flight at once, so a leaked slot would stall the normal lookup
+		for (int i = 0; i < 3; i++)
+		{
+			CompletableFuture<HiscoreResult> failed = service.lookup("ironman" + i, HiscoreEndpoint.IRONMAN, HiscoreService.Priority.NORMAL);
+			try
+			{
+				failed.get(5, TimeUnit.SECONDS);
+				fail();
+			}
+			catch (ExecutionException ex)
+			{
+				assertTrue(ex.getCause() instanceof IllegalStateException);
+			}
+		}
+
+		assertNotNull(service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS));
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testSaveRetriesAfterFailure() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody(RESPONSE));
+
+		HiscoreService service = newService();
+		service.lookup("Zezima", HiscoreEndpoint.NORMAL, HiscoreService.Priority.NORMAL).get(5, TimeUnit.SECONDS);
+
+		// a non-empty directory in the way fails the move
+		assertTrue(new File(cacheFile, "blocker").mkdirs());
+		service.save();
+		assertTrue(cacheFile.isDirectory());
+
+		assertTrue(new File(cacheFile, "blocker").delete());
+		assertTrue(cacheFile.delete());
+		service.save();
+
+		HiscoreService reloaded = newService();
+		reloaded.load();
+		assertNotNull(reloaded.getCached("Zezima", HiscoreEndpoint.NORMAL));
+	}
+
+	@Test
+	public void testTokenBucket()
+	{
+		long[] now = {0};
+		TokenBucket bucket = new TokenBucket(2, 100, () -> now[0]);
+
+		assertEquals(0, bucket.tryAcquire());
+		assertEquals(0, bucket.tryAcquire());
+		assertEquals(100, bucket.tryAcquire());
+
+		now[0] = 50;
+		assertEquals(50, bucket.tryAcquire());
+
+		now[0] = 100;
+		assertEquals(0, bucket.tryAcquire());
+	}
+
+	private String takePlayer() throws InterruptedException
+	{
+		RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+		assertNotNull(request);
+		return request.getRequestUrl().queryParameter("player");
+	}
+
+	private HiscoreService newService()
+	{
+		return new HiscoreService(new OkHttpClient(), executor, endpoint -> server.url("/"), cacheFile,
+			new TokenBucket(5, TimeUnit.MILLISECONDS.toNanos(10)), 10);
+	}
+}
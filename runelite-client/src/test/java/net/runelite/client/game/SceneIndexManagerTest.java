@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Tile;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameObjectChanged;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.queries.GameObjectQuery;
+import net.runelite.api.queries.LocatableQuery;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.OpenOSRSConfig;
+import net.runelite.client.eventbus.EventBus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SceneIndexManagerTest
+{
+	private static final WorldPoint LOCATION = new WorldPoint(3200, 3200, 0);
+
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	@Bind
+	ClientThread clientThread;
+
+	@Mock
+	@Bind
+	OpenOSRSConfig openOSRSConfig;
+
+	@Inject
+	EventBus eventBus;
+
+	@Inject
+	SceneIndexManager sceneIndexManager;
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+	}
+
+	@After
+	public void after()
+	{
+		LocatableQuery.setSceneIndex(null);
+	}
+
+	@Test
+	public void testGameObjectChanged()
+	{
+		GameObject previous = gameObject(1);
+		GameObjectSpawned spawned = new GameObjectSpawned();
+		spawned.setGameObject(previous);
+		eventBus.post(GameObjectSpawned.class, spawned);
+
+		GameObject current = gameObject(2);
+		GameObjectChanged changed = new GameObjectChanged();
+		changed.setTile(mock(Tile.class));
+		changed.setPrevious(previous);
+		changed.setGameObject(current);
+		eventBus.post(GameObjectChanged.class, changed);
+
+		assertEquals(1, sceneIndexManager.getGameObjects().size());
+		assertTrue(query(1).isEmpty());
+		assertEquals(List.of(current), query(2));
+
+		List<GameObject> nearby = new ArrayList<>();
+		sceneIndexManager.getGameObjects().collect(null, -1, LOCATION, 1, o -> true, nearby);
+		assertEquals(List.of(current), nearby);
+	}
+
+	@Test
+	public void testQueryUsesIndex()
+	{
+		// queries only use the index once it has been built on the client thread
+		ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+		verify(clientThread).invokeLater(rebuild.capture());
+		rebuild.getValue().run();
+
+		GameObject gameObject = gameObject(1);
+		GameObjectSpawned spawned = new GameObjectSpawned();
+		spawned.setGameObject(gameObject);
+		eventBus.post(GameObjectSpawned.class, spawned);
+
+		// the mocked client has no scene, so this can only be found through the index
+		assertEquals(List.of(gameObject), new GameObjectQuery().idEquals(1).result(client).list);
+		assertTrue(new GameObjectQuery().idEquals(2).result(client).isEmpty());
+	}
+
+	private List<GameObject> query(int id)
+	{
+		List<GameObject> out = new ArrayList<>();
+		sceneIndexManager.getGameObjects().collect(new int[]{id}, -1, null, 0, o -> true, out);
+		return out;
+	}
+
+	private static GameObject gameObject(int id)
+	{
+		GameObject gameObject = mock(GameObject.class);
+		when(gameObject.getId()).thenReturn(id);
+		when(gameObject.getWorldLocation()).thenReturn(LOCATION);
+		return gameObject;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.graphics;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Renders a frame of outlines around grid shaped models, from a small npc
+ * sized model up to a large model covering a good part of a fixed mode viewport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutlineRasterizerBenchmark
+{
+	private static final int WIDTH = 765;
+	private static final int HEIGHT = 503;
+
+	/**
+	 * Quads along each side of the model, the model has 2 * grid * grid triangles
+	 */
+	@Param({"8", "24", "48"})
+	public int grid;
+
+	@Param({"1", "4", "8"})
+	public int outlineWidth;
+
+	@Param({"1", "8"})
+	public int models;
+
+	private OutlineRasterizer rasterizer;
+	private int[] pixels;
+	private int[][] projectedX;
+	private int[][] projectedY;
+	private boolean[] renderable;
+	private int[] indices1;
+	private int[] indices2;
+	private int[] indices3;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		rasterizer = new OutlineRasterizer(ForkJoinPool.commonPool());
+		pixels = new int[WIDTH * HEIGHT];
+
+		final int size = grid * 6; // 48 to 288 pixels across
+		final int vertices = (grid + 1) * (grid + 1);
+		renderable = new boolean[vertices];
+		projectedX = new int[models][vertices];
+		projectedY = new int[models][vertices];
+		for (int m = 0; m < models; ++m)
+		{
+			final int originX = 20 + m * (WIDTH - size - 40) / Math.max(1, models - 1);
+			final int originY = 20 + m * (HEIGHT - size - 40) / Math.max(1, models - 1);
+			for (int y = 0; y <= grid; ++y)
+			{
+				for (int x = 0; x <= grid; ++x)
+				{
+					final int v = y * (grid + 1) + x;
+					projectedX[m][v] = originX + x * size / grid;
+					projectedY[m][v] = originY + y * size / grid;
+					renderable[v] = true;
+				}
+			}
+		}
+
+		final int triangles = 2 * grid * grid;
+		indices1 = new int[triangles];
+		indices2 = new int[triangles];
+		indices3 = new int[triangles];
+		int t = 0;
+		for (int y = 0; y < grid; ++y)
+		{
+			for (int x = 0; x < grid; ++x)
+			{
+				final int topLeft = y * (grid + 1) + x;
+				final int topRight = topLeft + 1;
+				final int bottomLeft = topLeft + grid + 1;
+				final int bottomRight = bottomLeft + 1;
+
+				indices1[t] = topLeft;
+				indices2[t] = bottomRight;
+				indices3[t++] = topRight;
+
+				indices1[t] = topLeft;
+				indices2[t] = bottomLeft;
+				indices3[t++] = bottomRight;
+			}
+		}
+	}
+
+	@Benchmark
+	public int[] renderFrame()
+	{
+		rasterizer.begin(WIDTH, HEIGHT, 4, 4, WIDTH - 4, HEIGHT - 4);
+		for (int m = 0; m < models; ++m)
+		{
+			rasterizer.add(projectedX[m], projectedY[m], renderable, indices1.length,
+				indices1, indices2, indices3, null, outlineWidth, Color.CYAN, Color.BLUE);
+		}
+		rasterizer.render(pixels);
+		return pixels;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(OutlineRasterizerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
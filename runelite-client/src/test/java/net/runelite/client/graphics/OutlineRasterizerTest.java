@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.graphics;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class OutlineRasterizerTest
+{
+	private static final int RED = 0xFF0000;
+
+	/**
+	 * A square of two triangles from (x, y) to (x + size, y + size), wound so neither is culled
+	 */
+	private static void addSquare(OutlineRasterizer rasterizer, int x, int y, int size, int width, Color color)
+	{
+		int[] projectedX = {x, x + size, x + size, x};
+		int[] projectedY = {y, y, y + size, y + size};
+		boolean[] renderable = {true, true, true, true};
+		rasterizer.add(projectedX, projectedY, renderable, 2,
+			new int[]{0, 0}, new int[]{2, 3}, new int[]{1, 2}, null,
+			width, color, color);
+	}
+
+	@Test
+	public void testOutlineDistance()
+	{
+		OutlineRasterizer rasterizer = new OutlineRasterizer(ForkJoinPool.commonPool());
+		int[] pixels = new int[64 * 64];
+
+		rasterizer.begin(64, 64, 0, 0, 64, 64);
+		addSquare(rasterizer, 10, 10, 10, 2, Color.RED);
+		rasterizer.render(pixels);
+
+		assertEquals(0, pixels[15 * 64 + 15]); // inside the model
+		assertEquals(RED, pixels[15 * 64 + 9]); // 1 pixel away
+		assertEquals(RED, pixels[15 * 64 + 8]); // 2 pixels away
+		assertEquals(0, pixels[15 * 64 + 7]); // 3 pixels away
+		assertEquals(RED, pixels[15 * 64 + 21]); // 2 pixels past the right edge at x = 19
+		assertEquals(0, pixels[7 * 64 + 7]); // diagonal, outside the outline width
+	}
+
+	@Test
+	public void testClip()
+	{
+		OutlineRasterizer rasterizer = new OutlineRasterizer(ForkJoinPool.commonPool());
+		int[] pixels = new int[64 * 64];
+
+		rasterizer.begin(64, 64, 10, 0, 64, 64);
+		addSquare(rasterizer, 10, 10, 10, 2, Color.RED);
+		rasterizer.render(pixels);
+
+		assertEquals(0, pixels[15 * 64 + 9]);
+		assertEquals(RED, pixels[9 * 64 + 15]);
+	}
+
+	@Test
+	public void testBatchMatchesSequential()
+	{
+		final int width = 512;
+		final int height = 512;
+		final Color[] colors = {Color.RED, new Color(0, 255, 0, 128), Color.BLUE};
+
+		// Large enough for the batch to be rendered in parallel
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			OutlineRasterizer rasterizer = new OutlineRasterizer(pool);
+			int[] batched = new int[width * height];
+			rasterizer.begin(width, height, 0, 0, width, height);
+			for (int i = 0; i < colors.length; ++i)
+			{
+				addSquare(rasterizer, 50 + i * 60, 50 + i * 40, 200, 4 + i, colors[i]);
+			}
+			rasterizer.render(batched);
+
+			int[] sequential = new int[width * height];
+			for (int i = 0; i < colors.length; ++i)
+			{
+				rasterizer.begin(width, height, 0, 0, width, height);
+				addSquare(rasterizer, 50 + i * 60, 50 + i * 40, 200, 4 + i, colors[i]);
+				rasterizer.render(sequential);
+			}
+
+			assertArrayEquals(sequential, batched);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+}
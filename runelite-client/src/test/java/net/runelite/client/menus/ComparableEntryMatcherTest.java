@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import net.runelite.api.MenuEntry;
+import static net.runelite.client.menus.ComparableEntries.newBaseComparableEntry;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ComparableEntryMatcherTest
+{
+	private static final String[] OPTIONS = {"Attack", "Talk-to", "Pickpocket", "Use", "Bank", "Drop", ""};
+	private static final String[] TARGETS = {"Man", "Banker", "Goblin", "Rune pouch", "Rune", "pouch", ""};
+
+	@Test
+	public void testMatchesLikeEntries()
+	{
+		final Random random = new Random(42);
+		final List<AbstractComparableEntry> rules = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+		{
+			rules.add(newBaseComparableEntry(pick(random, OPTIONS), pick(random, TARGETS),
+				random.nextInt(3) - 1, random.nextInt(3) - 1, random.nextBoolean(), random.nextBoolean()));
+		}
+
+		final ComparableEntryMatcher matcher = new ComparableEntryMatcher(rules);
+		final BitSet matches = new BitSet();
+
+		for (int i = 0; i < 500; i++)
+		{
+			final MenuEntry entry = new MenuEntry(pick(random, OPTIONS), "<col=ffff00>" + pick(random, TARGETS) + "<col=ff00ff>  (level-2)",
+				random.nextInt(2), random.nextInt(2), 0, 0, false);
+
+			int first = -1;
+			final BitSet expected = new BitSet();
+			for (int r = 0; r < rules.size(); r++)
+			{
+				if (rules.get(r).matches(entry))
+				{
+					first = first == -1 ? r : first;
+					expected.set(r);
+				}
+				assertEquals(rules.get(r).matches(entry), matcher.matches(entry, r));
+			}
+
+			matches.clear();
+			matcher.matchAll(entry, matches);
+			assertEquals(expected, matches);
+			assertEquals(first, matcher.first(entry));
+		}
+	}
+
+	@Test
+	public void testUnindexedEntries()
+	{
+		final List<AbstractComparableEntry> rules = new ArrayList<>();
+		rules.add(newBaseComparableEntry("use", "rune pouch"));
+		rules.add(new BankComparableEntry("deposit", "rune pouch", false));
+
+		final ComparableEntryMatcher matcher = new ComparableEntryMatcher(rules);
+		assertEquals(-1, matcher.first(new MenuEntry("Deposit-1", "Rune pouch", 0, 0, 0, 0, false)));
+		assertEquals(0, matcher.first(new MenuEntry("Use", "Rune pouch", 0, 0, 0, 0, false)));
+	}
+
+	private static String pick(Random random, String[] values)
+	{
+		return values[random.nextInt(values.length)];
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.menus;
+
+import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class SubstringAutomatonTest
+{
+	@Test
+	public void testSearch()
+	{
+		SubstringAutomaton automaton = new SubstringAutomaton(ImmutableList.of("he", "she", "his", "hers", "rune"));
+
+		BitSet hits = new BitSet();
+		automaton.search("ushers", hits);
+		assertEquals(bits(0, 1, 3), hits);
+
+		hits.clear();
+		automaton.search("runite bar", hits);
+		assertEquals(bits(), hits);
+
+		hits.clear();
+		automaton.search("rune pouch", hits);
+		assertEquals(bits(4), hits);
+	}
+
+	private static BitSet bits(int... indexes)
+	{
+		BitSet bits = new BitSet();
+		for (int i : indexes)
+		{
+			bits.set(i);
+		}
+		return bits;
+	}
+}
@@ -99,7 +99,7 @@ public class PluginManagerTest
 		executorService = Executors.newSingleThreadScheduledExecutor();
 
 		Injector injector = Guice.createInjector(Modules
-			.override(new RuneLiteModule(okHttpClient, () -> null, false, RuneLite.DEFAULT_CONFIG_FILE))
+			.override(new RuneLiteModule(okHttpClient, () -> null, false, false, RuneLite.DEFAULT_CONFIG_FILE))
 			.with(BoundFieldModule.of(this)));
 
 		RuneLite.setInjector(injector);
@@ -161,7 +161,7 @@ public class PluginManagerTest
 	{
 		List<Module> modules = new ArrayList<>();
 		modules.add(new GraphvizModule());
-		modules.add(new RuneLiteModule(mock(OkHttpClient.class), () -> null, false, RuneLite.DEFAULT_CONFIG_FILE));
+		modules.add(new RuneLiteModule(mock(OkHttpClient.class), () -> null, false, false, RuneLite.DEFAULT_CONFIG_FILE));
 
 		PluginManager pluginManager = new PluginManager(false, null, null, executorService, null, null, null, null);
 		pluginManager.loadCorePlugins();
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class FrameBufferPoolTest
+{
+	@Test
+	public void testLeaseAndRelease()
+	{
+		FrameBufferPool pool = new FrameBufferPool(2);
+
+		FrameBuffer first = pool.lease(4, 3);
+		FrameBuffer second = pool.lease(4, 3);
+		assertNotNull(first);
+		assertNotNull(second);
+		assertNotSame(first, second);
+		assertEquals(4, first.getImage().getWidth());
+		assertEquals(3, first.getImage().getHeight());
+
+		// every buffer is leased, so the frame is dropped
+		assertNull(pool.lease(4, 3));
+		assertEquals(1, pool.getDroppedCount());
+
+		first.release();
+		assertSame(first, pool.lease(4, 3));
+		assertEquals(1, pool.getDroppedCount());
+	}
+
+	@Test
+	public void testRetain()
+	{
+		FrameBufferPool pool = new FrameBufferPool(1);
+
+		FrameBuffer frame = pool.lease(2, 2);
+		assertNotNull(frame);
+		assertSame(frame, frame.retain());
+
+		// still held by the consumer which retained it
+		frame.release();
+		assertNull(pool.lease(2, 2));
+
+		frame.release();
+		assertSame(frame, pool.lease(2, 2));
+	}
+
+	@Test
+	public void testResize()
+	{
+		FrameBufferPool pool = new FrameBufferPool(1);
+
+		FrameBuffer frame = pool.lease(2, 2);
+		assertNotNull(frame);
+		frame.release();
+
+		FrameBuffer resized = pool.lease(3, 1);
+		assertNotNull(resized);
+		assertNotSame(frame, resized);
+		assertEquals(3, resized.getWidth());
+		assertEquals(1, resized.getHeight());
+	}
+
+	@Test
+	public void testCopy()
+	{
+		FrameBufferPool pool = new FrameBufferPool(1);
+
+		FrameBuffer frame = pool.lease(2, 1);
+		assertNotNull(frame);
+		frame.copyFrom(new int[]{0x112233, 0x445566});
+
+		int[] pixels = frame.copy().getRGB(0, 0, 2, 1, null, 0, 2);
+		frame.release();
+
+		// the copy is unaffected by later frames
+		FrameBuffer next = pool.lease(2, 1);
+		assertSame(frame, next);
+		next.copyFrom(new int[]{0, 0});
+		assertArrayEquals(new int[]{0xFF112233, 0xFF445566}, pixels);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize()
+	{
+		new FrameBufferPool(0);
+	}
+}
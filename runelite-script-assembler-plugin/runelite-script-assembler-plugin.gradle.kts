@@ -37,6 +37,8 @@ dependencies {
     implementation(group = "org.slf4j", name = "slf4j-nop", version = "1.7.30")
     implementation(project(":cache"))
     implementation(project(":runelite-api"))
+
+    testImplementation(group = "junit", name = "junit", version = "4.13")
 }
 
 tasks {
@@ -44,12 +46,14 @@ tasks {
         outputs.cacheIf { true }
         val inp = "${project.extra["rootPath"]}/runelite-client/src/main/scripts"
         val out = "${project.extra["rootPath"]}/runelite-client/build/scripts/runelite"
+        val manifest = "${buildDir}/assemble.manifest"
         inputs.dir(inp)
         outputs.dir(out)
+        outputs.file(manifest)
 
         classpath = project.sourceSets.main.get().runtimeClasspath
         main = "net.runelite.script.AssembleMojo"
-        args(listOf(inp, out))
+        args(listOf(inp, out, manifest))
 
         doLast {
             DOS(project.file("$out/index").outputStream().buffered(256)).use {
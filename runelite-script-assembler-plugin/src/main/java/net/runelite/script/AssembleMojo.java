@@ -24,12 +24,27 @@
  */
 package net.runelite.script;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.ScriptDefinition;
 import net.runelite.cache.definitions.savers.ScriptSaver;
@@ -48,31 +63,42 @@ import org.apache.maven.plugins.annotations.Parameter;
 )
 public class AssembleMojo extends AbstractMojo
 {
+	private static final String TOOLCHAIN_KEY = "@toolchain";
+
 	@Parameter(required = true)
 	private File scriptDirectory;
 
 	@Parameter(required = true)
 	private File outputDirectory;
 
-	private AssembleMojo(File scriptDirectory, File outputDirectory)
+	/**
+	 * Records what was assembled by the previous run. This is kept out of outputDirectory,
+	 * which is packaged as is.
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/assemble.manifest")
+	private File manifestFile;
+
+	private AssembleMojo(File scriptDirectory, File outputDirectory, File manifestFile)
 	{
 		this.scriptDirectory = scriptDirectory;
 		this.outputDirectory = outputDirectory;
+		this.manifestFile = manifestFile;
 	}
 
 	private final Log log = getLog();
 
 	public static void main(String[] args) throws Exception
 	{
-		if (args.length < 2)
+		if (args.length < 3)
 		{
-			throw new IllegalArgumentException("Usage: inputfile outputfile");
+			throw new IllegalArgumentException("Usage: inputfile outputfile manifestfile");
 		}
 
 		File scriptDirectory = new File(args[0]);
 		File outputDirectory = new File(args[1]);
+		File manifestFile = new File(args[2]);
 
-		new AssembleMojo(scriptDirectory, outputDirectory).execute();
+		new AssembleMojo(scriptDirectory, outputDirectory, manifestFile).execute();
 	}
 
 	@Override
@@ -81,55 +107,276 @@ public class AssembleMojo extends AbstractMojo
 		RuneLiteInstructions instructions = new RuneLiteInstructions();
 		instructions.init();
 
+		// the instruction table is only read after init, so one assembler is shared by all workers
 		Assembler assembler = new Assembler(instructions);
 		ScriptSaver saver = new ScriptSaver();
 
-		int count = 0;
 		File scriptOut = new File(outputDirectory, Integer.toString(IndexType.CLIENTSCRIPT.getNumber()));
 		scriptOut.mkdirs();
 
-		// Clear the target directory to remove stale entries
+		String toolchain = toolchainHash();
+		Properties manifest = readManifest(manifestFile, toolchain);
+
+		if (manifest.isEmpty())
+		{
+			// Clear the target directory to remove stale entries
+			try
+			{
+				MoreFiles.deleteDirectoryContents(scriptOut.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+			}
+			catch (IOException e)
+			{
+				throw new MojoExecutionException("Could not clear scriptOut: " + scriptOut, e);
+			}
+		}
+
+		Properties updated = new Properties();
+		updated.setProperty(TOOLCHAIN_KEY, toolchain);
+
+		Map<File, String> changed = new LinkedHashMap<>();
+		for (File scriptFile : scriptDirectory.listFiles((dir, name) -> name.endsWith(".rs2asm")))
+		{
+			String hash = sourceHash(scriptFile);
+			String entry = manifest.getProperty(scriptFile.getName());
+			manifest.remove(scriptFile.getName());
+
+			if (entry != null && entry.startsWith(hash + ":")
+				&& new File(scriptOut, entry.substring(hash.length() + 1)).exists())
+			{
+				updated.setProperty(scriptFile.getName(), entry);
+				continue;
+			}
+
+			if (entry != null)
+			{
+				deleteOutput(scriptOut, entry);
+			}
+
+			changed.put(scriptFile, hash);
+		}
+
+		// whatever is left in the old manifest was assembled from scripts which no longer exist
+		manifest.remove(TOOLCHAIN_KEY);
+		for (String entry : manifest.stringPropertyNames())
+		{
+			deleteOutput(scriptOut, manifest.getProperty(entry));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(changed.size(), Runtime.getRuntime().availableProcessors())));
 		try
 		{
-			MoreFiles.deleteDirectoryContents(scriptOut.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+			Map<File, Future<Integer>> results = new LinkedHashMap<>();
+			changed.forEach((scriptFile, hash) ->
+				results.put(scriptFile, executor.submit(() -> assemble(assembler, saver, scriptFile, scriptOut))));
+
+			for (Map.Entry<File, Future<Integer>> result : results.entrySet())
+			{
+				File scriptFile = result.getKey();
+				updated.setProperty(scriptFile.getName(), changed.get(scriptFile) + ":" + result.getValue().get());
+			}
 		}
-		catch (IOException e)
+		catch (InterruptedException ex)
 		{
-			throw new MojoExecutionException("Could not clear scriptOut: " + scriptOut, e);
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("interrupted while assembling scripts", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof MojoExecutionException)
+			{
+				throw (MojoExecutionException) cause;
+			}
+			if (cause instanceof IOException)
+			{
+				throw new MojoFailureException("unable to open file", cause);
+			}
+			throw new MojoExecutionException("unable to assemble scripts", cause);
+		}
+		finally
+		{
+			executor.shutdownNow();
 		}
 
-		for (File scriptFile : scriptDirectory.listFiles((dir, name) -> name.endsWith(".rs2asm")))
+		writeManifest(manifestFile, updated);
+
+		log.info("Assembled " + changed.size() + " scripts, " + (updated.size() - 1 - changed.size()) + " up to date");
+	}
+
+	/**
+	 * Assembles one script into scriptOut, returning its script id
+	 */
+	private int assemble(Assembler assembler, ScriptSaver saver, File scriptFile, File scriptOut) throws IOException, MojoExecutionException
+	{
+		log.debug("Assembling " + scriptFile);
+
+		ScriptDefinition script;
+		try (FileInputStream fin = new FileInputStream(scriptFile))
+		{
+			script = assembler.assemble(fin);
+		}
+		catch (RuntimeException ex)
 		{
-			log.debug("Assembling " + scriptFile);
+			throw new MojoExecutionException("unable to assemble " + scriptFile, ex);
+		}
+
+		byte[] packedScript = saver.save(script);
+
+		File targetFile = new File(scriptOut, Integer.toString(script.getId()));
+		Files.write(packedScript, targetFile);
 
-			try (FileInputStream fin = new FileInputStream(scriptFile))
+		// Copy hash file
+
+		File hashFile = hashFile(scriptFile);
+		if (hashFile.exists())
+		{
+			Files.copy(hashFile, new File(scriptOut, Integer.toString(script.getId()) + ".hash"));
+		}
+		else if (script.getId() < 10000) // Scripts >=10000 are RuneLite scripts, so they shouldn't have a .hash
+		{
+			throw new MojoExecutionException("Unable to find hash file for " + scriptFile);
+		}
+
+		return script.getId();
+	}
+
+	private File hashFile(File scriptFile)
+	{
+		return new File(scriptDirectory, Files.getNameWithoutExtension(scriptFile.getName()) + ".hash");
+	}
+
+	/**
+	 * Hashes a script together with its .hash file, which is copied alongside the assembled script
+	 */
+	private String sourceHash(File scriptFile) throws MojoExecutionException
+	{
+		try
+		{
+			Hasher hasher = Hashing.sha256().newHasher()
+				.putBytes(Files.toByteArray(scriptFile));
+
+			File hashFile = hashFile(scriptFile);
+			if (hashFile.exists())
 			{
-				ScriptDefinition script = assembler.assemble(fin);
-				byte[] packedScript = saver.save(script);
+				hasher.putByte((byte) 0)
+					.putBytes(Files.toByteArray(hashFile));
+			}
 
-				File targetFile = new File(scriptOut, Integer.toString(script.getId()));
-				Files.write(packedScript, targetFile);
+			return hasher.hash().toString();
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("unable to read " + scriptFile, ex);
+		}
+	}
 
-				// Copy hash file
+	/**
+	 * Identifies the assembler build, so scripts are reassembled when the assembler or instruction table change.
+	 * The class files are hashed by content, as the timestamp of a class directory does not change when
+	 * the classes in it are recompiled.
+	 */
+	private static String toolchainHash() throws MojoExecutionException
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (Class<?> clazz : new Class<?>[]{Assembler.class, RuneLiteInstructions.class})
+		{
+			try
+			{
+				CodeSource source = clazz.getProtectionDomain().getCodeSource();
+				File location = source == null ? null : new File(source.getLocation().toURI());
 
-				File hashFile = new File(scriptDirectory, Files.getNameWithoutExtension(scriptFile.getName()) + ".hash");
-				if (hashFile.exists())
+				if (location != null && location.isFile())
 				{
-					Files.copy(hashFile, new File(scriptOut, Integer.toString(script.getId()) + ".hash"));
+					// the whole jar, which includes the classes the assembler is built from
+					hasher.putBytes(Files.toByteArray(location));
+					continue;
 				}
-				else if (script.getId() < 10000) // Scripts >=10000 are RuneLite scripts, so they shouldn't have a .hash
+
+				if (location != null && location.isDirectory())
 				{
-					throw new MojoExecutionException("Unable to find hash file for " + scriptFile);
+					// every class in the package, so helpers of the assembler are included too
+					File packageDir = new File(location, clazz.getPackage().getName().replace('.', File.separatorChar));
+					for (File file : Files.fileTraverser().depthFirstPreOrder(packageDir))
+					{
+						if (file.isFile())
+						{
+							hasher.putString(packageDir.toPath().relativize(file.toPath()).toString(), StandardCharsets.UTF_8)
+								.putBytes(Files.toByteArray(file));
+						}
+					}
+					continue;
 				}
 
-				++count;
+				try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class"))
+				{
+					if (in == null)
+					{
+						throw new MojoExecutionException("unable to find the class file of " + clazz.getName());
+					}
+					hasher.putBytes(ByteStreams.toByteArray(in));
+				}
 			}
-			catch (IOException ex)
+			catch (IOException | URISyntaxException ex)
 			{
-				throw new MojoFailureException("unable to open file", ex);
+				throw new MojoExecutionException("unable to read the class files of " + clazz.getName(), ex);
 			}
 		}
+		return hasher.hash().toString();
+	}
 
-		log.info("Assembled " + count + " scripts");
+	/**
+	 * Reads the manifest of previously assembled scripts, mapping each script file to
+	 * {@code <source hash>:<script id>}. An empty manifest means everything is reassembled.
+	 */
+	private Properties readManifest(File manifestFile, String toolchain)
+	{
+		Properties manifest = new Properties();
+		if (!manifestFile.exists())
+		{
+			return manifest;
+		}
+
+		try (FileInputStream fin = new FileInputStream(manifestFile))
+		{
+			manifest.load(fin);
+		}
+		catch (IOException | IllegalArgumentException ex)
+		{
+			log.warn("Unable to read " + manifestFile + ", reassembling all scripts", ex);
+			return new Properties();
+		}
+
+		if (!toolchain.equals(manifest.getProperty(TOOLCHAIN_KEY)))
+		{
+			log.info("Script assembler changed, reassembling all scripts");
+			return new Properties();
+		}
+
+		return manifest;
+	}
+
+	private static void writeManifest(File manifestFile, Properties manifest) throws MojoExecutionException
+	{
+		File tmp = new File(manifestFile.getPath() + ".tmp");
+		try
+		{
+			Files.createParentDirs(manifestFile);
+			try (FileOutputStream fout = new FileOutputStream(tmp))
+			{
+				manifest.store(fout, null);
+			}
+			Files.move(tmp, manifestFile);
+		}
+		catch (IOException ex)
+		{
+			throw new MojoExecutionException("unable to write " + manifestFile, ex);
+		}
+	}
+
+	private static void deleteOutput(File scriptOut, String entry)
+	{
+		String id = entry.substring(entry.indexOf(':') + 1);
+		new File(scriptOut, id).delete();
+		new File(scriptOut, id + ".hash").delete();
 	}
 }
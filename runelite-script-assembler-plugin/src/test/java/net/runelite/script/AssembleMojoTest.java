@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.script;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AssembleMojoTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File scriptDirectory;
+	private File outputDirectory;
+	private File scriptOut;
+	private File manifestFile;
+
+	@Before
+	public void before() throws IOException
+	{
+		scriptDirectory = folder.newFolder();
+		outputDirectory = folder.newFolder();
+		scriptOut = new File(outputDirectory, "12");
+		manifestFile = new File(folder.newFolder(), "assemble.manifest");
+	}
+
+	@Test
+	public void testSkipUnchanged() throws Exception
+	{
+		script("first", 10001, 1);
+		script("second", 10002, 2);
+		assemble();
+
+		assertTrue(new File(scriptOut, "10001").exists());
+		assertTrue(new File(scriptOut, "10002").exists());
+		assertFalse(new File(outputDirectory, "assemble.manifest").exists());
+		assertTrue(manifestFile.exists());
+
+		age();
+		assemble();
+
+		assertEquals(0, new File(scriptOut, "10001").lastModified());
+		assertEquals(0, new File(scriptOut, "10002").lastModified());
+	}
+
+	@Test
+	public void testChanged() throws Exception
+	{
+		script("first", 10001, 1);
+		script("second", 10002, 2);
+		assemble();
+
+		age();
+		script("first", 10001, 3);
+		assemble();
+
+		assertNotEquals(0, new File(scriptOut, "10001").lastModified());
+		assertEquals(0, new File(scriptOut, "10002").lastModified());
+	}
+
+	@Test
+	public void testChangedId() throws Exception
+	{
+		script("first", 10001, 1);
+		assemble();
+
+		script("first", 10003, 1);
+		assemble();
+
+		assertFalse(new File(scriptOut, "10001").exists());
+		assertTrue(new File(scriptOut, "10003").exists());
+	}
+
+	@Test
+	public void testHashChanged() throws Exception
+	{
+		script("vanilla", 500, 1);
+		hash("vanilla", "AAAA");
+		assemble();
+
+		assertEquals("AAAA", Files.asCharSource(new File(scriptOut, "500.hash"), StandardCharsets.UTF_8).read());
+
+		hash("vanilla", "BBBB");
+		assemble();
+
+		assertEquals("BBBB", Files.asCharSource(new File(scriptOut, "500.hash"), StandardCharsets.UTF_8).read());
+	}
+
+	@Test
+	public void testRemoved() throws Exception
+	{
+		script("vanilla", 500, 1);
+		hash("vanilla", "AAAA");
+		script("second", 10002, 2);
+		assemble();
+
+		new File(scriptDirectory, "vanilla.rs2asm").delete();
+		new File(scriptDirectory, "vanilla.hash").delete();
+		age();
+		assemble();
+
+		assertFalse(new File(scriptOut, "500").exists());
+		assertFalse(new File(scriptOut, "500.hash").exists());
+		assertEquals(0, new File(scriptOut, "10002").lastModified());
+	}
+
+	@Test
+	public void testMissingOutput() throws Exception
+	{
+		script("first", 10001, 1);
+		assemble();
+
+		new File(scriptOut, "10001").delete();
+		assemble();
+
+		assertTrue(new File(scriptOut, "10001").exists());
+	}
+
+	@Test
+	public void testToolchainChanged() throws Exception
+	{
+		script("first", 10001, 1);
+		assemble();
+
+		Properties manifest = new Properties();
+		try (FileInputStream fin = new FileInputStream(manifestFile))
+		{
+			manifest.load(fin);
+		}
+		manifest.setProperty("@toolchain", "stale");
+		try (FileOutputStream fout = new FileOutputStream(manifestFile))
+		{
+			manifest.store(fout, null);
+		}
+
+		File orphan = new File(scriptOut, "10005");
+		Files.write(new byte[1], orphan);
+		age();
+		assemble();
+
+		assertNotEquals(0, new File(scriptOut, "10001").lastModified());
+		assertFalse(orphan.exists());
+	}
+
+	private void assemble() throws Exception
+	{
+		AssembleMojo.main(new String[]{scriptDirectory.getPath(), outputDirectory.getPath(), manifestFile.getPath()});
+	}
+
+	private void script(String name, int id, int value) throws IOException
+	{
+		String script = ".id                 " + id + "\n" +
+			".int_stack_count    0\n" +
+			".string_stack_count 0\n" +
+			".int_var_count      0\n" +
+			".string_var_count   0\n" +
+			"   iconst                 " + value + "\n" +
+			"   return\n";
+		Files.asCharSink(new File(scriptDirectory, name + ".rs2asm"), StandardCharsets.UTF_8).write(script);
+	}
+
+	private void hash(String name, String hash) throws IOException
+	{
+		Files.asCharSink(new File(scriptDirectory, name + ".hash"), StandardCharsets.UTF_8).write(hash);
+	}
+
+	/**
+	 * Resets the timestamps of the assembled scripts, so a rewrite can be told apart
+	 */
+	private void age()
+	{
+		for (File file : scriptOut.listFiles())
+		{
+			file.setLastModified(0);
+		}
+	}
+}
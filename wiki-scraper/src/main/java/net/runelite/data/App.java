@@ -30,6 +30,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import net.runelite.cache.fs.Store;
 import net.runelite.data.dump.MediaWiki;
 import net.runelite.data.dump.wiki.ItemLimitsDumper;
@@ -43,8 +45,19 @@ public class App
 		.disableHtmlEscaping()
 		.create();
 
-	private final static MediaWiki wiki = new MediaWiki("https://oldschool.runescape.wiki");
+	private static final String WIKI_URL = "https://oldschool.runescape.wiki";
+	private static final File DEFAULT_CACHE_DIR = new File(System.getProperty("user.home"), ".runelite" + File.separator + "wiki-cache");
 
+	private static MediaWiki wiki;
+	// wikitext parsing is cpu bound, so it is kept off the http threads
+	private static final ExecutorService parser = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Usage: {@code <npcStats|itemStats|itemLimits> <path> [--cached|--offline] [--cache-dir <dir>]}
+	 * <p>
+	 * Responses are always written to the cache dir. --cached only fetches what is
+	 * not already cached, and --offline replays the cache without touching the network.
+	 */
 	public static void main(String[] args) throws IOException
 	{
 		if (args.length < 2)
@@ -52,17 +65,47 @@ public class App
 			System.exit(-1);
 		}
 
-		switch (args[0])
+		MediaWiki.Mode mode = MediaWiki.Mode.ONLINE;
+		File cacheDir = DEFAULT_CACHE_DIR;
+		for (int i = 2; i < args.length; i++)
+		{
+			switch (args[i])
+			{
+				case "--cached":
+					mode = MediaWiki.Mode.CACHED;
+					break;
+				case "--offline":
+					mode = MediaWiki.Mode.OFFLINE;
+					break;
+				case "--cache-dir":
+					cacheDir = new File(args[++i]);
+					break;
+				default:
+					System.err.println("Unknown option " + args[i]);
+					System.exit(-1);
+			}
+		}
+
+		wiki = new MediaWiki(WIKI_URL, cacheDir, mode);
+
+		try
+		{
+			switch (args[0])
+			{
+				case "npcStats":
+					npcStats(new File(args[1]));
+					break;
+				case "itemStats":
+					itemStats(new File(args[1]));
+					break;
+				case "itemLimits":
+					itemLimits(new File(args[1]));
+					break;
+			}
+		}
+		finally
 		{
-			case "npcStats":
-				npcStats(new File(args[1]));
-				break;
-			case "itemStats":
-				itemStats(new File(args[1]));
-				break;
-			case "itemLimits":
-				itemLimits(new File(args[1]));
-				break;
+			parser.shutdown();
 		}
 	}
 
@@ -80,24 +123,21 @@ public class App
 
 		cacheStore.load();
 
-		// Try to make this go faster (probably not very smart)
-		System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "100");
-
 		return cacheStore;
 	}
 
 	private static void npcStats(File path) throws IOException
 	{
-		NpcStatsDumper.dump(cacheStore(), wiki, path);
+		NpcStatsDumper.dump(cacheStore(), wiki, parser, path);
 	}
 
 	private static void itemStats(File path) throws IOException
 	{
-		ItemStatsDumper.dump(cacheStore(), wiki, path);
+		ItemStatsDumper.dump(cacheStore(), wiki, parser, path);
 	}
 
 	private static void itemLimits(File path) throws IOException
 	{
-		ItemLimitsDumper.dump(cacheStore(), wiki, path);
+		ItemLimitsDumper.dump(cacheStore(), wiki, parser, path);
 	}
 }
\ No newline at end of file
@@ -23,23 +23,83 @@
  */
 package net.runelite.data.dump;
 
-import java.io.UnsupportedEncodingException;
-import java.io.InputStream;
+import com.google.common.base.Strings;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.data.App;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 
+/**
+ * Client for the wiki's Special:Lookup and parse APIs.
+ * <p>
+ * Requests are made asynchronously with a bounded number in flight, and
+ * concurrent requests for the same page share one call. If a cache directory
+ * is given, every successful response is written to a {@link WikiCache},
+ * keyed by the request and recording the revision of the page, which can
+ * later be replayed without touching the network. Failed requests are not
+ * cached, so they are tried again on the next run.
+ * <p>
+ * In {@link Mode#CACHED} mode the latest revision of each page is looked up
+ * first, which is much cheaper than its wikitext, and cached pages of an
+ * older revision are fetched again. Lookups of the page of a game id have no
+ * revision, so once cached they are only refreshed by an {@link Mode#ONLINE} run.
+ */
+@Slf4j
 public class MediaWiki
 {
+	public enum Mode
+	{
+		/**
+		 * Fetch everything from the wiki, refreshing the cache
+		 */
+		ONLINE,
+		/**
+		 * Serve from the cache, fetching what is missing or of an older revision
+		 */
+		CACHED,
+		/**
+		 * Serve only from the cache, never touching the network
+		 */
+		OFFLINE
+	}
+
+	private static final int MAX_CONCURRENT_REQUESTS = 8;
+	private static final int MAX_ATTEMPTS = 4;
+	private static final long RETRY_DELAY_MS = 1000;
+
+	/**
+	 * Revision of pages which do not exist
+	 */
+	private static final long NO_REVISION = -1;
+	/**
+	 * Revision of pages whose revision could not be looked up
+	 */
+	private static final long UNKNOWN_REVISION = Long.MIN_VALUE;
+
+	private static final Page MISSING = new Page(NO_REVISION, "");
+
 	private static final class WikiInnerResponse
 	{
 		Map<String, String> wikitext;
+		long revid;
 	}
 
 	private static final class WikiResponse
@@ -47,20 +107,78 @@ public class MediaWiki
 		WikiInnerResponse parse;
 	}
 
-	private final OkHttpClient client = new OkHttpClient();
-	private final OkHttpClient clientNoRedirect = client.newBuilder()
-		.followRedirects(false)
-		.followSslRedirects(false)
-		.build();
+	@Value
+	private static class Page
+	{
+		long revision;
+		String content;
+	}
+
+	private interface ResponseParser<T>
+	{
+		T parse(Response response) throws IOException;
+	}
+
+	private final OkHttpClient client;
+	private final OkHttpClient clientNoRedirect;
 
 	private final HttpUrl base;
+	private final Mode mode;
+	@Nullable
+	private final WikiCache cache;
+
+	private final Map<String, CompletableFuture<String>> inflight = new ConcurrentHashMap<>();
+	// latest revision of each page, looked up once per run
+	private final Map<String, CompletableFuture<Long>> revisions = new ConcurrentHashMap<>();
+	// keys refreshed during this run, served from the cache from then on
+	private final Set<String> fetched = ConcurrentHashMap.newKeySet();
 
 	public MediaWiki(final String base)
 	{
+		this(base, null, Mode.ONLINE);
+	}
+
+	public MediaWiki(final String base, @Nullable final File cacheDir, final Mode mode)
+	{
+		if (cacheDir == null && mode != Mode.ONLINE)
+		{
+			throw new IllegalArgumentException(mode + " mode requires a cache directory");
+		}
+
 		this.base = HttpUrl.parse(base);
+		this.mode = mode;
+		this.cache = cacheDir == null ? null : new WikiCache(cacheDir);
+
+		final Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(MAX_CONCURRENT_REQUESTS);
+		dispatcher.setMaxRequestsPerHost(MAX_CONCURRENT_REQUESTS);
+
+		// both clients share the dispatcher, and so the concurrency limit
+		this.client = new OkHttpClient.Builder()
+			.dispatcher(dispatcher)
+			.build();
+		this.clientNoRedirect = client.newBuilder()
+			.followRedirects(false)
+			.followSslRedirects(false)
+			.build();
 	}
 
 	public String getSpecialLookupData(final String type, final int id, final int section)
+	{
+		return getSpecialLookupDataAsync(type, id, section).join();
+	}
+
+	public String getPageData(final String page, final int section)
+	{
+		return getPageDataAsync(page, section).join();
+	}
+
+	/**
+	 * Resolves a game id to its wiki page, and fetches the wikitext of that page.
+	 * The returned future never completes exceptionally; it completes with an
+	 * empty string if there is no page or it could not be fetched.
+	 */
+	public CompletableFuture<String> getSpecialLookupDataAsync(final String type, final int id, final int section)
 	{
 		final HttpUrl url = base.newBuilder()
 			.addPathSegment("w")
@@ -69,28 +187,55 @@ public class MediaWiki
 			.addQueryParameter("id", String.valueOf(id))
 			.build();
 
-		final Request request = new Request.Builder()
-			.url(url)
-			.build();
+		final String prefix = base.newBuilder().addPathSegment("w").build().toString() + "/";
 
-		try (final Response response = clientNoRedirect.newCall(request).execute())
+		return load("lookup:" + type + ":" + id, null, clientNoRedirect, url, response ->
 		{
 			if (response.isRedirect())
 			{
-				final String page = response.header("Location")
-					.replace(base.newBuilder().addPathSegment("w").build().toString() + "/", "");
-				return getPageData(page, section);
+				return new Page(NO_REVISION, response.header("Location").replace(prefix, ""));
 			}
-		}
-		catch (Exception e)
+
+			// the id has no page
+			return response.isSuccessful() ? MISSING : null;
+		}).thenCompose(page -> page.isEmpty() ? CompletableFuture.completedFuture("") : getPageDataAsync(page, section));
+	}
+
+	/**
+	 * Fetches the wikitext of a page, or of one section of it if section is not -1.
+	 * The returned future never completes exceptionally; it completes with an
+	 * empty string if the page does not exist or could not be fetched.
+	 */
+	public CompletableFuture<String> getPageDataAsync(String page, final int section)
+	{
+		page = normalize(page);
+
+		final HttpUrl.Builder urlBuilder = parseUrl(page, "wikitext|revid");
+		if (section != -1)
 		{
-			return "";
+			urlBuilder.addQueryParameter("section", String.valueOf(section));
 		}
 
-		return "";
+		return load("parse:" + page + "#" + section, page, client, urlBuilder.build(), response ->
+		{
+			if (!response.isSuccessful())
+			{
+				return null;
+			}
+
+			final WikiResponse wikiResponse = readResponse(response);
+
+			// pages which do not exist give an error object in place of parse
+			if (wikiResponse == null || wikiResponse.parse == null || wikiResponse.parse.wikitext == null)
+			{
+				return MISSING;
+			}
+
+			return new Page(wikiResponse.parse.revid, Strings.nullToEmpty(wikiResponse.parse.wikitext.get("*")));
+		});
 	}
 
-	public String getPageData(String page, int section)
+	private static String normalize(String page)
 	{
 		// decode html encoded page name
 		// ex: Mage%27s book -> Mage's_book
@@ -98,43 +243,197 @@ public class MediaWiki
 		{
 			page = URLDecoder.decode(page, StandardCharsets.UTF_8.name());
 		}
-		catch (UnsupportedEncodingException e)
+		catch (UnsupportedEncodingException | IllegalArgumentException e)
 		{
 			// do nothing, keep page the same
 		}
 
-		final HttpUrl.Builder urlBuilder = base.newBuilder()
+		return page.replaceAll(" ", "_");
+	}
+
+	private HttpUrl.Builder parseUrl(final String page, final String prop)
+	{
+		return base.newBuilder()
 			.addPathSegment("api.php")
 			.addQueryParameter("action", "parse")
 			.addQueryParameter("format", "json")
-			.addQueryParameter("prop", "wikitext")
+			.addQueryParameter("prop", prop)
 			.addQueryParameter("redirects", "true")
-			.addQueryParameter("page", page.replaceAll(" ", "_"));
+			.addQueryParameter("page", page);
+	}
 
-		if (section != -1)
+	private static WikiResponse readResponse(final Response response)
+	{
+		return App.GSON.fromJson(new InputStreamReader(response.body().byteStream(), StandardCharsets.UTF_8), WikiResponse.class);
+	}
+
+	/**
+	 * @param page the page whose revision the response is of, or null if it has no revision
+	 * @param parser parses a response, returning null if it failed and should not be cached
+	 */
+	private CompletableFuture<String> load(final String key, @Nullable final String page, final OkHttpClient client,
+		final HttpUrl url, final ResponseParser<Page> parser)
+	{
+		if (cache == null || (mode == Mode.ONLINE && !fetched.contains(key)))
 		{
-			urlBuilder.addQueryParameter("section", String.valueOf(section));
+			return fetch(key, client, url, parser);
 		}
 
-		final HttpUrl url = urlBuilder.build();
+		final WikiCache.Ref ref = cache.getRef(key);
+		if (ref == null)
+		{
+			return fetchUnlessOffline(key, client, url, parser);
+		}
 
-		final Request request = new Request.Builder()
-			.url(url)
-			.build();
+		if (mode == Mode.CACHED && page != null && !fetched.contains(key))
+		{
+			return getRevisionAsync(page).thenCompose(revision ->
+			{
+				if (revision != UNKNOWN_REVISION && revision != ref.getRevision())
+				{
+					log.debug("Cached {} is of revision {}, the page is at {}", key, ref.getRevision(), revision);
+					return fetch(key, client, url, parser);
+				}
+				return loadCached(key, ref, client, url, parser);
+			});
+		}
+
+		return loadCached(key, ref, client, url, parser);
+	}
+
+	private CompletableFuture<String> loadCached(final String key, final WikiCache.Ref ref, final OkHttpClient client,
+		final HttpUrl url, final ResponseParser<Page> parser)
+	{
+		final String cached = cache.get(ref);
+		if (cached != null)
+		{
+			return CompletableFuture.completedFuture(cached);
+		}
+		return fetchUnlessOffline(key, client, url, parser);
+	}
+
+	private CompletableFuture<String> fetchUnlessOffline(final String key, final OkHttpClient client,
+		final HttpUrl url, final ResponseParser<Page> parser)
+	{
+		if (mode == Mode.OFFLINE)
+		{
+			log.debug("Not cached: {}", key);
+			return CompletableFuture.completedFuture("");
+		}
+		return fetch(key, client, url, parser);
+	}
+
+	private CompletableFuture<String> fetch(final String key, final OkHttpClient client, final HttpUrl url,
+		final ResponseParser<Page> parser)
+	{
+		return inflight.computeIfAbsent(key, k ->
+		{
+			final CompletableFuture<Page> response = new CompletableFuture<>();
+			final CompletableFuture<String> future = response.thenApply(page ->
+			{
+				if (page == null)
+				{
+					// not cached, so it is tried again next time
+					return "";
+				}
+
+				if (cache != null)
+				{
+					cache.put(k, page.getRevision(), page.getContent());
+					fetched.add(k);
+				}
+				return page.getContent();
+			});
+			future.whenComplete((r, ex) -> inflight.remove(k, future));
+
+			final Request request = new Request.Builder()
+				.url(url)
+				.build();
+			execute(client, request, parser, 1, response);
+			return future;
+		});
+	}
+
+	/**
+	 * Looks up the latest revision of a page, without its wikitext
+	 *
+	 * @return the revision, {@link #NO_REVISION} if the page does not exist,
+	 * or {@link #UNKNOWN_REVISION} if it could not be looked up
+	 */
+	private CompletableFuture<Long> getRevisionAsync(final String page)
+	{
+		return revisions.computeIfAbsent(page, p ->
+		{
+			final Request request = new Request.Builder()
+				.url(parseUrl(p, "revid").build())
+				.build();
+
+			final CompletableFuture<Long> future = new CompletableFuture<>();
+			execute(client, request, response ->
+			{
+				if (!response.isSuccessful())
+				{
+					return null;
+				}
+
+				final WikiResponse wikiResponse = readResponse(response);
+				return wikiResponse == null || wikiResponse.parse == null ? NO_REVISION : wikiResponse.parse.revid;
+			}, 1, future);
+			return future.thenApply(revision -> revision == null ? UNKNOWN_REVISION : revision);
+		});
+	}
 
-		try (final Response response = client.newCall(request).execute())
+	/**
+	 * Runs a request, retrying it on connection failures and server errors.
+	 * The future is completed with null if the request failed.
+	 */
+	private <T> void execute(final OkHttpClient client, final Request request, final ResponseParser<T> parser,
+		final int attempt, final CompletableFuture<T> future)
+	{
+		client.newCall(request).enqueue(new Callback()
 		{
-			if (response.isSuccessful())
+			@Override
+			public void onFailure(final Call call, final IOException e)
 			{
-				final InputStream in = response.body().byteStream();
-				return App.GSON.fromJson(new InputStreamReader(in), WikiResponse.class).parse.wikitext.get("*");
+				retry(client, request, parser, attempt, future, e);
 			}
-		}
-		catch (Exception e)
+
+			@Override
+			public void onResponse(final Call call, final Response response)
+			{
+				try (response)
+				{
+					if (response.code() == 429 || response.code() >= 500)
+					{
+						retry(client, request, parser, attempt, future, new IOException("HTTP " + response.code()));
+						return;
+					}
+
+					future.complete(parser.parse(response));
+				}
+				catch (IOException | RuntimeException e)
+				{
+					log.warn("Unable to read {}", request.url(), e);
+					future.complete(null);
+				}
+			}
+		});
+	}
+
+	private <T> void retry(final OkHttpClient client, final Request request, final ResponseParser<T> parser,
+		final int attempt, final CompletableFuture<T> future, final IOException e)
+	{
+		if (attempt >= MAX_ATTEMPTS)
 		{
-			return "";
+			log.warn("Giving up on {} after {} attempts", request.url(), attempt, e);
+			future.complete(null);
+			return;
 		}
 
-		return "";
+		log.debug("Retrying {}: {}", request.url(), e.getMessage());
+
+		final long delay = RETRY_DELAY_MS << (attempt - 1);
+		CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+			.execute(() -> execute(client, request, parser, attempt + 1, future));
 	}
 }
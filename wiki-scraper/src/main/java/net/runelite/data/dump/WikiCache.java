@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.data.dump;
+
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.data.App;
+
+/**
+ * On-disk cache of wiki responses.
+ * <p>
+ * Response bodies are stored content-addressed under {@code objects/}, named
+ * by their SHA-256, so identical wikitext served for different pages or
+ * revisions is stored once. Requests are mapped to the object they returned
+ * by a small ref file under {@code refs/}, which also records the page
+ * revision the content was taken from, so it can be checked for staleness.
+ */
+@Slf4j
+class WikiCache
+{
+	@Value
+	static class Ref
+	{
+		String key;
+		long revision;
+		String object;
+	}
+
+	private final Path objects;
+	private final Path refs;
+
+	WikiCache(final File dir)
+	{
+		this.objects = dir.toPath().resolve("objects");
+		this.refs = dir.toPath().resolve("refs");
+	}
+
+	@Nullable
+	String get(final String key)
+	{
+		final Ref ref = getRef(key);
+		return ref == null ? null : get(ref);
+	}
+
+	@Nullable
+	String get(final Ref ref)
+	{
+		try
+		{
+			return new String(Files.readAllBytes(objectPath(ref.getObject())), StandardCharsets.UTF_8);
+		}
+		catch (IOException e)
+		{
+			log.warn("missing object {} for {}", ref.getObject(), ref.getKey());
+			return null;
+		}
+	}
+
+	@Nullable
+	Ref getRef(final String key)
+	{
+		try
+		{
+			final String json = new String(Files.readAllBytes(refPath(key)), StandardCharsets.UTF_8);
+			final Ref ref = App.GSON.fromJson(json, Ref.class);
+			// guard against hash collisions between keys
+			return ref != null && key.equals(ref.getKey()) ? ref : null;
+		}
+		catch (NoSuchFileException e)
+		{
+			return null;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			log.warn("unable to read cache ref for {}", key, e);
+			return null;
+		}
+	}
+
+	void put(final String key, final long revision, final String content)
+	{
+		final byte[] data = content.getBytes(StandardCharsets.UTF_8);
+		final String object = Hashing.sha256().hashBytes(data).toString();
+
+		try
+		{
+			final Path path = objectPath(object);
+			if (!Files.exists(path))
+			{
+				write(path, data);
+			}
+
+			final Ref ref = new Ref(key, revision, object);
+			write(refPath(key), App.GSON.toJson(ref).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e)
+		{
+			log.warn("unable to cache {}", key, e);
+		}
+	}
+
+	private Path objectPath(final String object)
+	{
+		return objects.resolve(object.substring(0, 2)).resolve(object);
+	}
+
+	private Path refPath(final String key)
+	{
+		final String hash = Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+		return refs.resolve(hash.substring(0, 2)).resolve(hash + ".json");
+	}
+
+	private static void write(final Path path, final byte[] data) throws IOException
+	{
+		Files.createDirectories(path.getParent());
+
+		// write to a temporary file first, so a reader never sees a partially written file
+		final Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+		try
+		{
+			Files.write(tmp, data);
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(tmp);
+		}
+	}
+}
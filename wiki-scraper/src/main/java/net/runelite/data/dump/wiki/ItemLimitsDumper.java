@@ -31,10 +31,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.ItemManager;
 import net.runelite.cache.definitions.ItemDefinition;
@@ -47,7 +51,7 @@ import net.runelite.data.dump.MediaWikiTemplate;
 @Slf4j
 public class ItemLimitsDumper
 {
-	public static void dump(final Store store, final MediaWiki wiki, final File path) throws IOException
+	public static void dump(final Store store, final MediaWiki wiki, final Executor parser, final File path) throws IOException
 	{
 		log.info("Dumping item limits to {}", path);
 
@@ -55,29 +59,29 @@ public class ItemLimitsDumper
 		itemManager.load();
 		final Pattern pattern = Pattern.compile("limit {6}= (.*),");
 
-		final Map<Integer, Integer> limits = new TreeMap<>();
+		final Map<Integer, Integer> limits = new ConcurrentHashMap<>();
 		final Collection<ItemDefinition> items = itemManager.getItems();
-		final Stream<ItemDefinition> itemDefinitionStream = items.parallelStream();
-		List<String> missing = new ArrayList<>();
+		final Queue<String> missing = new ConcurrentLinkedQueue<>();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-		itemDefinitionStream.forEach(item ->
+		for (final ItemDefinition item : items)
 		{
 			if (!item.isTradeable)
 			{
-				return;
+				continue;
 			}
 
 			if (item.getNotedTemplate() != -1)
 			{
-				return;
+				continue;
 			}
 
 			if (item.name.equalsIgnoreCase("NULL"))
 			{
-				return;
+				continue;
 			}
 
-			String name = Namer
+			final String name = Namer
 				.removeTags(item.name)
 				.replace('\u00A0', ' ')
 				.replaceAll("\\+", "%2b")
@@ -85,62 +89,19 @@ public class ItemLimitsDumper
 
 			if (name.isEmpty())
 			{
-				return;
+				continue;
 			}
 
-			String data = wiki.getPageData("Module:Exchange/" + name, -1);
-
-			if (Strings.isNullOrEmpty(data))
-			{
-				log.debug("Data is null or empty: {}", name);
-				missing.add(name);
-				return;
-			}
-
-			final MediaWikiTemplate geStats = MediaWikiTemplate.parseLua(data);
-
-			if (geStats == null)
-			{
-				return;
-			}
-
-			final Integer limit = geStats.getInt("limit");
-
-			if (limit == null || limit <= 0)
-			{
-				Matcher matcher = pattern.matcher(data);
-				String temp = "";
-				while (matcher.find())
-				{
-					temp = matcher.group(1);
-					if (Strings.isNullOrEmpty(temp) ||
-						temp.equalsIgnoreCase("no") ||
-						temp.equalsIgnoreCase("n/a") ||
-						temp.equals("nil") ||
-						temp.equalsIgnoreCase("varies"))
-					{
-						temp = null;
-					}
-				}
-				if (!Strings.isNullOrEmpty(temp))
-				{
-					limits.put(item.id, Integer.valueOf(temp));
-				}
-				else
-				{
-					log.debug("Item was still null: {}", name);
-					missing.add(name);
-				}
-				return;
-			}
+			futures.add(wiki.getPageDataAsync("Module:Exchange/" + name, -1)
+				.thenAcceptAsync(data -> parseLimit(limits, missing, pattern, item.id, name, data), parser));
+		}
 
-			limits.put(item.id, limit);
-			log.debug("Dumped item limit for {} {}", item.id, name);
-		});
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
 		try (FileWriter fw = new FileWriter(new File(path, "ge_limits.json")))
 		{
-			fw.write(App.GSON.toJson(limits));
+			// sort output JSON in numerical order (item id)
+			fw.write(App.GSON.toJson(new TreeMap<>(limits)));
 		}
 
 		log.info("Dumped {} item limits", limits.size());
@@ -150,4 +111,56 @@ public class ItemLimitsDumper
 			log.info("Still Missing: {}", str);
 		});
 	}
-}
\ No newline at end of file
+
+	private static void parseLimit(final Map<Integer, Integer> limits, final Queue<String> missing, final Pattern pattern,
+		final int id, final String name, final String data)
+	{
+
+		if (Strings.isNullOrEmpty(data))
+		{
+			log.debug("Data is null or empty: {}", name);
+			missing.add(name);
+			return;
+		}
+
+		final MediaWikiTemplate geStats = MediaWikiTemplate.parseLua(data);
+
+		if (geStats == null)
+		{
+			return;
+		}
+
+		final Integer limit = geStats.getInt("limit");
+
+		if (limit == null || limit <= 0)
+		{
+			Matcher matcher = pattern.matcher(data);
+			String temp = "";
+			while (matcher.find())
+			{
+				temp = matcher.group(1);
+				if (Strings.isNullOrEmpty(temp) ||
+					temp.equalsIgnoreCase("no") ||
+					temp.equalsIgnoreCase("n/a") ||
+					temp.equals("nil") ||
+					temp.equalsIgnoreCase("varies"))
+				{
+					temp = null;
+				}
+			}
+			if (!Strings.isNullOrEmpty(temp))
+			{
+				limits.put(id, Integer.valueOf(temp));
+			}
+			else
+			{
+				log.debug("Item was still null: {}", name);
+				missing.add(name);
+			}
+			return;
+		}
+
+		limits.put(id, limit);
+		log.debug("Dumped item limit for {} {}", id, name);
+	}
+}
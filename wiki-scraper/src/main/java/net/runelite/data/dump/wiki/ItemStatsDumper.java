@@ -27,10 +27,15 @@ import com.google.common.base.Strings;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -48,27 +53,27 @@ public class ItemStatsDumper
 {
 	private final static Integer MAX_ITEMS_ON_PAGE = 50;
 
-	public static void dump(final Store store, final MediaWiki wiki, final File path) throws IOException
+	public static void dump(final Store store, final MediaWiki wiki, final Executor parser, final File path) throws IOException
 	{
 		log.info("Dumping item stats to {}", path);
 
 		final ItemManager itemManager = new ItemManager(store);
 		itemManager.load();
 
-		final Map<Integer, ItemStats> itemStats = new TreeMap<>();
+		final Map<Integer, ItemStats> itemStats = new ConcurrentHashMap<>();
 		final Collection<ItemDefinition> items = itemManager.getItems();
-		final Stream<ItemDefinition> itemDefinitionStream = items.parallelStream();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-		itemDefinitionStream.forEach(item ->
+		for (final ItemDefinition item : items)
 		{
 			if (item.getNotedTemplate() != -1)
 			{
-				return;
+				continue;
 			}
 
 			if (item.name.equalsIgnoreCase("NULL"))
 			{
-				return;
+				continue;
 			}
 
 			final String name = Namer
@@ -78,114 +83,128 @@ public class ItemStatsDumper
 
 			if (name.isEmpty())
 			{
-				return;
+				continue;
 			}
 
-			String data = wiki.getSpecialLookupData("item", item.id, 0);
-
-			if (Strings.isNullOrEmpty(data))
-			{
-				return;
-			}
-
-			MediaWikiTemplate base = MediaWikiTemplate.parseWikitext("Infobox Item", data);
-
-			if (base == null)
-			{
-				return;
-			}
-
-			final int nItems = findMaxIndex(base);
-			final ItemStats.ItemStatsBuilder itemStat = ItemStats.builder();
-
-			for (int index = 1; index <= nItems; index++)
-			{
-				final int offset = nItems == 1 ? 0 : index;
-				final String wikiName = getVarString(base, "name", offset);
-
-				// Skip this index if name or itemId doesn't match with wiki
-				if (nItems > 1 && !wikiName.equalsIgnoreCase(name))
-				{
-					continue;
-				}
-
-				itemStat.name(getVarString(base, "name", offset) == null ? getVarString(base, "name1", offset) : getVarString(base, "name", offset));
-				itemStat.quest(getVarBoolean(base, "quest", offset));
-				itemStat.equipable(getVarBoolean(base, "equipable", offset) == null
-					? getVarBoolean(base, "equipable1", offset) : getVarBoolean(base, "equipable", offset));
-				itemStat.weight(getVarDouble(base, "weight", offset));
-
-
-				if (Boolean.TRUE.equals(itemStat.equipable))
+			futures.add(wiki.getSpecialLookupDataAsync("item", item.id, 0)
+				.thenComposeAsync(data -> parseItemStats(wiki, parser, item.id, name, data), parser)
+				.thenAccept(val ->
 				{
-					MediaWikiTemplate stats = MediaWikiTemplate.parseWikitext("Infobox Bonuses", data);
-
-					if (stats == null)
+					if (val != null)
 					{
-						data = wiki.getSpecialLookupData("item", item.id, 1);
+						itemStats.put(item.id, val);
+						log.debug("Dumped item stat for {} {}", item.id, name);
+					}
+				}));
+		}
 
-						if (Strings.isNullOrEmpty(data))
-						{
-							break;
-						}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
-						stats = MediaWikiTemplate.parseWikitext("Infobox Bonuses", data);
-					}
+		try (FileWriter fw = new FileWriter(new File(path, "item_stats.json")))
+		{
+			// sort output JSON in numerical order (item id)
+			fw.write(App.GSON.toJson(new TreeMap<>(itemStats)));
+		}
 
-					if (stats == null)
-					{
-						break;
-					}
+		log.info("Dumped {} item stats", itemStats.size());
+	}
 
-					final ItemEquipmentStats.ItemEquipmentStatsBuilder equipmentStat = ItemEquipmentStats.builder();
+	/**
+	 * Parses the stats of an item from its wiki page. Bonuses are sometimes
+	 * in the second section of the page, in which case it is fetched as well.
+	 *
+	 * @return the item stats, or null if the page has none for this item
+	 */
+	private static CompletableFuture<ItemStats> parseItemStats(final MediaWiki wiki, final Executor parser,
+		final int id, final String name, final String data)
+	{
+		if (Strings.isNullOrEmpty(data))
+		{
+			return CompletableFuture.completedFuture(null);
+		}
 
-					equipmentStat.slot(toEquipmentSlot(getVarString(stats, "slot", offset)));
-					equipmentStat.astab(getVarInt(stats, "astab", offset));
-					equipmentStat.aslash(getVarInt(stats, "aslash", offset));
-					equipmentStat.acrush(getVarInt(stats, "acrush", offset));
-					equipmentStat.amagic(getVarInt(stats, "amagic", offset));
-					equipmentStat.arange(getVarInt(stats, "arange", offset));
+		final MediaWikiTemplate base = MediaWikiTemplate.parseWikitext("Infobox Item", data);
 
-					equipmentStat.dstab(getVarInt(stats, "dstab", offset));
-					equipmentStat.dslash(getVarInt(stats, "dslash", offset));
-					equipmentStat.dcrush(getVarInt(stats, "dcrush", offset));
-					equipmentStat.dmagic(getVarInt(stats, "dmagic", offset));
-					equipmentStat.drange(getVarInt(stats, "drange", offset));
+		if (base == null)
+		{
+			return CompletableFuture.completedFuture(null);
+		}
 
-					equipmentStat.str(getVarInt(stats, "str", offset));
-					equipmentStat.rstr(getVarInt(stats, "rstr", offset));
-					equipmentStat.mdmg(getVarInt(stats, "mdmg", offset));
-					equipmentStat.prayer(getVarInt(stats, "prayer", offset));
-					equipmentStat.aspeed(getVarInt(stats, "aspeed", offset));
+		final int nItems = findMaxIndex(base);
 
-					final ItemEquipmentStats builtEqStat = equipmentStat.build();
+		for (int index = 1; index <= nItems; index++)
+		{
+			final int offset = nItems == 1 ? 0 : index;
+			final String wikiName = getVarString(base, "name", offset);
 
-					if (!builtEqStat.equals(ItemEquipmentStats.builder().build()))
-					{
-						itemStat.equipment(builtEqStat);
-					}
-				}
+			// Skip this index if name or itemId doesn't match with wiki
+			if (nItems > 1 && !wikiName.equalsIgnoreCase(name))
+			{
+				continue;
+			}
 
-				break;
+			final ItemStats.ItemStatsBuilder itemStat = ItemStats.builder();
+			itemStat.name(getVarString(base, "name", offset) == null ? getVarString(base, "name1", offset) : getVarString(base, "name", offset));
+			itemStat.quest(getVarBoolean(base, "quest", offset));
+			itemStat.equipable(getVarBoolean(base, "equipable", offset) == null
+				? getVarBoolean(base, "equipable1", offset) : getVarBoolean(base, "equipable", offset));
+			itemStat.weight(getVarDouble(base, "weight", offset));
+
+			if (!Boolean.TRUE.equals(itemStat.equipable))
+			{
+				return CompletableFuture.completedFuture(build(itemStat, null, offset));
 			}
 
-			final ItemStats val = itemStat.build();
+			final MediaWikiTemplate stats = MediaWikiTemplate.parseWikitext("Infobox Bonuses", data);
 
-			if (ItemStats.DEFAULT.equals(val))
+			if (stats != null)
 			{
-				return;
+				return CompletableFuture.completedFuture(build(itemStat, stats, offset));
 			}
 
-			itemStats.put(item.id, val);
-			log.debug("Dumped item stat for {} {}", item.id, name);
-		});
+			return wiki.getSpecialLookupDataAsync("item", id, 1)
+				.thenApplyAsync(section -> build(itemStat, Strings.isNullOrEmpty(section)
+					? null : MediaWikiTemplate.parseWikitext("Infobox Bonuses", section), offset), parser);
+		}
 
-		try (FileWriter fw = new FileWriter(new File(path, "item_stats.json")))
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private static ItemStats build(final ItemStats.ItemStatsBuilder itemStat, @Nullable final MediaWikiTemplate stats, final int offset)
+	{
+		if (stats != null)
 		{
-			fw.write(App.GSON.toJson(itemStats));
+			final ItemEquipmentStats.ItemEquipmentStatsBuilder equipmentStat = ItemEquipmentStats.builder();
+
+			equipmentStat.slot(toEquipmentSlot(getVarString(stats, "slot", offset)));
+			equipmentStat.astab(getVarInt(stats, "astab", offset));
+			equipmentStat.aslash(getVarInt(stats, "aslash", offset));
+			equipmentStat.acrush(getVarInt(stats, "acrush", offset));
+			equipmentStat.amagic(getVarInt(stats, "amagic", offset));
+			equipmentStat.arange(getVarInt(stats, "arange", offset));
+
+			equipmentStat.dstab(getVarInt(stats, "dstab", offset));
+			equipmentStat.dslash(getVarInt(stats, "dslash", offset));
+			equipmentStat.dcrush(getVarInt(stats, "dcrush", offset));
+			equipmentStat.dmagic(getVarInt(stats, "dmagic", offset));
+			equipmentStat.drange(getVarInt(stats, "drange", offset));
+
+			equipmentStat.str(getVarInt(stats, "str", offset));
+			equipmentStat.rstr(getVarInt(stats, "rstr", offset));
+			equipmentStat.mdmg(getVarInt(stats, "mdmg", offset));
+			equipmentStat.prayer(getVarInt(stats, "prayer", offset));
+			equipmentStat.aspeed(getVarInt(stats, "aspeed", offset));
+
+			final ItemEquipmentStats builtEqStat = equipmentStat.build();
+
+			if (!builtEqStat.equals(ItemEquipmentStats.builder().build()))
+			{
+				itemStat.equipment(builtEqStat);
+			}
 		}
 
-		log.info("Dumped {} item stats", itemStats.size());
+		final ItemStats val = itemStat.build();
+		return ItemStats.DEFAULT.equals(val) ? null : val;
 	}
 
 	/**
@@ -35,8 +35,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import lombok.Builder;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -123,7 +125,7 @@ public class NpcStatsDumper
 		return templates;
 	}
 
-	public static void dump(final Store store, final MediaWiki wiki, final File path) throws IOException
+	public static void dump(final Store store, final MediaWiki wiki, final Executor parser, final File path) throws IOException
 	{
 
 		log.info("Dumping npc stats to {}", path);
@@ -131,9 +133,8 @@ public class NpcStatsDumper
 		final NpcManager npcManager = new NpcManager(store);
 		npcManager.load();
 
-		final Map<Integer, NpcStats> npcStats = new HashMap<>();
+		final Map<Integer, NpcStats> npcStats = new ConcurrentHashMap<>();
 		final Collection<NpcDefinition> definitions = npcManager.getNpcs();
-		final Stream<NpcDefinition> npcDefinitionStream = definitions.parallelStream();
 
 		// Ensure variant names match cache as wiki isn't always correct
 		final Map<Integer, String> nameMap = new HashMap<>();
@@ -157,105 +158,115 @@ public class NpcStatsDumper
 			nameMap.put(n.getId(), name);
 		}
 
-		npcDefinitionStream.forEach(n ->
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (final NpcDefinition n : definitions)
 		{
-			if (npcStats.containsKey(n.getId()))
-			{
-				return;
-			}
-
 			final String name = nameMap.get(n.getId());
 			if (name == null)
 			{
-				return;
+				continue;
 			}
 
 			if (!isAttackableNpc(n))
 			{
-				return;
+				continue;
 			}
 
-			final String data = wiki.getSpecialLookupData("npc", n.getId(), 0);
-			if (Strings.isNullOrEmpty(data))
+			futures.add(wiki.getSpecialLookupDataAsync("npc", n.getId(), 0)
+				.thenAcceptAsync(data -> parseNpcStats(npcStats, nameMap, n.getId(), name, data), parser));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+		// Cast to TreeMap so sort output JSON in numerical order (npc id)
+		final Map<Integer, NpcStats> sorted = new TreeMap<>(npcStats);
+
+		try (FileWriter fw = new FileWriter(new File(path, "npc_stats.json")))
+		{
+			fw.write(App.GSON.toJson(sorted));
+		}
+
+//		try (FileWriter fw = new FileWriter(new File(out, "npc_stats.min.json")))
+//		{
+//			fw.write(new GsonBuilder().disableHtmlEscaping().create().toJson(sorted));
+//		}
+
+		log.info("Dumped {} npc stats", sorted.size());
+	}
+
+	private static void parseNpcStats(final Map<Integer, NpcStats> npcStats, final Map<Integer, String> nameMap,
+		final int id, final String name, final String data)
+	{
+		// already dumped as a variant listed on another npc's page
+		if (npcStats.containsKey(id))
+		{
+			return;
+		}
+
+		if (Strings.isNullOrEmpty(data))
+		{
+			return;
+		}
+
+		List<MediaWikiTemplate> bases = new ArrayList<>();
+
+		final MediaWikiTemplate switchBase = MediaWikiTemplate.parseWikitext("Switch infobox", data);
+		if (switchBase != null)
+		{
+			bases = parseSwitchInfoboxItems("Infobox Monster", switchBase);
+		}
+		else
+		{
+			final MediaWikiTemplate base = MediaWikiTemplate.parseWikitext("Infobox Monster", data);
+			if (base == null)
 			{
 				return;
 			}
 
-			List<MediaWikiTemplate> bases = new ArrayList<>();
+			bases.add(base);
+		}
 
-			final MediaWikiTemplate switchBase = MediaWikiTemplate.parseWikitext("Switch infobox", data);
-			if (switchBase != null)
-			{
-				bases = parseSwitchInfoboxItems("Infobox Monster", switchBase);
-			}
-			else
+		for (final MediaWikiTemplate base : bases)
+		{
+			int variantKey = 0;
+			String wikiIdString = getWikiIdString(base, variantKey);
+			if (wikiIdString == null)
 			{
-				final MediaWikiTemplate base = MediaWikiTemplate.parseWikitext("Infobox Monster", data);
-				if (base == null)
-				{
-					return;
-				}
-
-				bases.add(base);
+				// Try again as `id` will be null if there are variants and `id1` is the starting key
+				variantKey++;
+				wikiIdString = getWikiIdString(base, variantKey);
 			}
 
-			for (final MediaWikiTemplate base : bases)
+			while (wikiIdString != null)
 			{
-				int variantKey = 0;
-				String wikiIdString = getWikiIdString(base, variantKey);
-				if (wikiIdString == null)
+				if (wikiIdString.isEmpty())
 				{
-					// Try again as `id` will be null if there are variants and `id1` is the starting key
-					variantKey++;
-					wikiIdString = getWikiIdString(base, variantKey);
+					continue;
 				}
 
-				while (wikiIdString != null)
+				final Set<Integer> ids = Arrays.stream(wikiIdString.split(","))
+					.map(s -> Integer.parseInt(s.replaceAll("[^0-9]", "").trim()))
+					.collect(Collectors.toSet());
+
+				final NpcStats stats = buildNpcStats(base, variantKey);
+				if (!stats.equals(DEFAULT))
 				{
-					if (wikiIdString.isEmpty())
+					stats.setName(name);
+					for (final int curID : ids)
 					{
-						continue;
-					}
+						// Update variant name or fall back to current name
+						final String curName = nameMap.get(curID);
+						stats.setName(curName == null ? stats.getName() : curName);
 
-					final Set<Integer> ids = Arrays.stream(wikiIdString.split(","))
-						.map(s -> Integer.parseInt(s.replaceAll("[^0-9]", "").trim()))
-						.collect(Collectors.toSet());
-
-					final NpcStats stats = buildNpcStats(base, variantKey);
-					if (!stats.equals(DEFAULT))
-					{
-						stats.setName(name);
-						for (final int curID : ids)
-						{
-							// Update variant name or fall back to current name
-							final String curName = nameMap.get(curID);
-							stats.setName(curName == null ? stats.getName() : curName);
-
-							npcStats.put(curID, stats);
-							log.debug("Dumped npc stats for npc id: {}", curID);
-						}
+						npcStats.put(curID, stats);
+						log.debug("Dumped npc stats for npc id: {}", curID);
 					}
-
-					variantKey++;
-					wikiIdString = getWikiIdString(base, variantKey);
 				}
-			}
-		});
-
-		// Cast to TreeMap so sort output JSON in numerical order (npc id)
-		final Map<Integer, NpcStats> sorted = new TreeMap<>(npcStats);
 
-		try (FileWriter fw = new FileWriter(new File(path, "npc_stats.json")))
-		{
-			fw.write(App.GSON.toJson(sorted));
+				variantKey++;
+				wikiIdString = getWikiIdString(base, variantKey);
+			}
 		}
-
-//		try (FileWriter fw = new FileWriter(new File(out, "npc_stats.min.json")))
-//		{
-//			fw.write(new GsonBuilder().disableHtmlEscaping().create().toJson(sorted));
-//		}
-
-		log.info("Dumped {} npc stats", sorted.size());
 	}
 
 	private static boolean isAttackableNpc(final NpcDefinition n)
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.data.dump;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MediaWikiTest
+{
+	/**
+	 * A wiki with pages which can be changed during a test, recording the requests made to it
+	 */
+	private class Wiki extends Dispatcher
+	{
+		private final Map<String, String> wikitext = new ConcurrentHashMap<>();
+		private final Map<String, Long> revisions = new ConcurrentHashMap<>();
+		private final Map<String, String> lookups = new ConcurrentHashMap<>();
+		// status codes of the next responses, before the pages are served
+		private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+		private final List<String> requests = new CopyOnWriteArrayList<>();
+		private volatile CountDownLatch gate;
+
+		private void setPage(String page, long revision, String text)
+		{
+			wikitext.put(page, text);
+			revisions.put(page, revision);
+		}
+
+		@Override
+		public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+		{
+			final HttpUrl url = request.getRequestUrl();
+			final boolean lookup = url.encodedPath().equals("/w/Special:Lookup");
+			requests.add(lookup
+				? "lookup:" + url.queryParameter("id")
+				: url.queryParameter("prop") + ":" + url.queryParameter("page"));
+
+			final Integer failure = failures.poll();
+			if (failure != null)
+			{
+				return new MockResponse().setResponseCode(failure);
+			}
+
+			final CountDownLatch gate = this.gate;
+			if (gate != null)
+			{
+				gate.await(10, TimeUnit.SECONDS);
+			}
+
+			if (lookup)
+			{
+				final String page = lookups.get(url.queryParameter("id"));
+				return page == null
+					? new MockResponse().setResponseCode(404)
+					: new MockResponse().setResponseCode(302).setHeader("Location", server.url("/w/" + page));
+			}
+
+			final String page = url.queryParameter("page");
+			final String text = wikitext.get(page);
+			if (text == null)
+			{
+				return new MockResponse().setBody("{\"error\":{\"code\":\"missingtitle\"}}");
+			}
+
+			final long revision = revisions.get(page);
+			return new MockResponse().setBody(url.queryParameter("prop").contains("wikitext")
+				? "{\"parse\":{\"title\":\"" + page + "\",\"revid\":" + revision + ",\"wikitext\":{\"*\":\"" + text + "\"}}}"
+				: "{\"parse\":{\"title\":\"" + page + "\",\"revid\":" + revision + "}}");
+		}
+	}
+
+	@TempDir
+	File folder;
+
+	private final MockWebServer server = new MockWebServer();
+	private final Wiki wiki = new Wiki();
+
+	@BeforeEach
+	void before() throws IOException
+	{
+		server.setDispatcher(wiki);
+		server.start();
+	}
+
+	@AfterEach
+	void after() throws IOException
+	{
+		server.shutdown();
+	}
+
+	private MediaWiki mediaWiki(MediaWiki.Mode mode)
+	{
+		return new MediaWiki(server.url("/").toString(), folder, mode);
+	}
+
+	@Test
+	void concurrentRequestsShareOneCall()
+	{
+		wiki.setPage("Abyssal_whip", 1, "whip");
+		wiki.gate = new CountDownLatch(1);
+
+		final MediaWiki mediaWiki = mediaWiki(MediaWiki.Mode.ONLINE);
+		final CompletableFuture<String> first = mediaWiki.getPageDataAsync("Abyssal whip", 0);
+		final CompletableFuture<String> second = mediaWiki.getPageDataAsync("Abyssal_whip", 0);
+		wiki.gate.countDown();
+
+		assertEquals("whip", first.join());
+		assertEquals("whip", second.join());
+		assertEquals(List.of("wikitext|revid:Abyssal_whip"), wiki.requests);
+	}
+
+	@Test
+	void retriesServerErrors()
+	{
+		wiki.setPage("Abyssal_whip", 1, "whip");
+		wiki.failures.add(503);
+
+		assertEquals("whip", mediaWiki(MediaWiki.Mode.ONLINE).getPageData("Abyssal_whip", 0));
+		assertEquals(2, wiki.requests.size());
+	}
+
+	@Test
+	void failuresAreNotCached()
+	{
+		wiki.setPage("Abyssal_whip", 1, "whip");
+		wiki.failures.add(404);
+
+		assertEquals("", mediaWiki(MediaWiki.Mode.ONLINE).getPageData("Abyssal_whip", 0));
+
+		// the failed response was not cached, so it is fetched again
+		assertEquals("whip", mediaWiki(MediaWiki.Mode.CACHED).getPageData("Abyssal_whip", 0));
+		assertEquals(2, wiki.requests.size());
+	}
+
+	@Test
+	void offlineReplay()
+	{
+		wiki.setPage("Abyssal_whip", 1, "whip");
+		wiki.lookups.put("4151", "Abyssal_whip");
+
+		assertEquals("whip", mediaWiki(MediaWiki.Mode.ONLINE).getSpecialLookupData("item", 4151, 0));
+		assertEquals(List.of("lookup:4151", "wikitext|revid:Abyssal_whip"), wiki.requests);
+
+		wiki.requests.clear();
+		final MediaWiki offline = mediaWiki(MediaWiki.Mode.OFFLINE);
+		assertEquals("whip", offline.getSpecialLookupData("item", 4151, 0));
+		assertEquals("", offline.getSpecialLookupData("item", 4587, 0));
+		assertEquals("", offline.getPageData("Dragon_scimitar", 0));
+		assertEquals(List.of(), wiki.requests);
+	}
+
+	@Test
+	void cachedChecksRevision()
+	{
+		wiki.setPage("Abyssal_whip", 1, "old");
+		assertEquals("old", mediaWiki(MediaWiki.Mode.ONLINE).getPageData("Abyssal_whip", 0));
+
+		wiki.setPage("Abyssal_whip", 2, "new");
+		wiki.requests.clear();
+		assertEquals("new", mediaWiki(MediaWiki.Mode.CACHED).getPageData("Abyssal_whip", 0));
+		assertEquals(List.of("revid:Abyssal_whip", "wikitext|revid:Abyssal_whip"), wiki.requests);
+
+		// up to date, so only the revision is looked up
+		wiki.requests.clear();
+		assertEquals("new", mediaWiki(MediaWiki.Mode.CACHED).getPageData("Abyssal_whip", 0));
+		assertEquals(List.of("revid:Abyssal_whip"), wiki.requests);
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020, OpenOSRS <https://github.com/open-osrs>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.data.dump;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WikiCacheTest
+{
+	@TempDir
+	File folder;
+
+	@Test
+	void getPut()
+	{
+		final WikiCache cache = new WikiCache(folder);
+		assertNull(cache.get("parse:Abyssal_whip#0"));
+
+		cache.put("parse:Abyssal_whip#0", 123, "{{Infobox Item}}");
+		assertEquals("{{Infobox Item}}", cache.get("parse:Abyssal_whip#0"));
+		assertEquals(123, cache.getRef("parse:Abyssal_whip#0").getRevision());
+
+		// survives a restart
+		assertEquals("{{Infobox Item}}", new WikiCache(folder).get("parse:Abyssal_whip#0"));
+	}
+
+	@Test
+	void contentAddressed() throws IOException
+	{
+		final WikiCache cache = new WikiCache(folder);
+		cache.put("parse:Abyssal_whip#0", 1, "same");
+		cache.put("parse:Abyssal_whip#-1", 2, "same");
+		cache.put("lookup:item:4151", -1, "Abyssal_whip");
+
+		try (Stream<Path> objects = Files.walk(folder.toPath().resolve("objects")))
+		{
+			assertEquals(2, objects.filter(Files::isRegularFile).count());
+		}
+
+		assertEquals("same", cache.get("parse:Abyssal_whip#-1"));
+		assertEquals("Abyssal_whip", cache.get("lookup:item:4151"));
+	}
+
+	@Test
+	void emptyContent()
+	{
+		final WikiCache cache = new WikiCache(folder);
+		cache.put("lookup:npc:1", -1, "");
+		assertEquals("", cache.get("lookup:npc:1"));
+	}
+}
@@ -41,15 +41,24 @@ dependencies {
     implementation(group = "org.slf4j", name = "slf4j-simple", version = "1.7.30")
 
     implementation(group = "org.junit.jupiter", name = "junit-jupiter-api", version = "5.7.0-M1")
+
+    testImplementation(group = "com.squareup.okhttp3", name = "mockwebserver", version = "4.8.1")
 }
 
+// -PwikiMode=cached or -PwikiMode=offline to serve wiki responses from the cache
+fun scrapeArgs(type: String) = listOfNotNull(
+    type,
+    rootProject.file("./runelite-client/src/main/resources/").absolutePath,
+    (project.findProperty("wikiMode") as String?)?.let { "--$it" }
+)
+
 tasks {
     register<JavaExec>("npcStatsScrape") {
         group = "openosrs"
 
         classpath = project.sourceSets.main.get().runtimeClasspath
         main = "net.runelite.data.App"
-        args(listOf("npcStats", rootProject.file("./runelite-client/src/main/resources/").absolutePath))
+        args(scrapeArgs("npcStats"))
     }
 
     register<JavaExec>("itemStatsScrape") {
@@ -57,7 +66,7 @@ tasks {
 
         classpath = project.sourceSets.main.get().runtimeClasspath
         main = "net.runelite.data.App"
-        args(listOf("itemStats", rootProject.file("./runelite-client/src/main/resources/").absolutePath))
+        args(scrapeArgs("itemStats"))
     }
 
     register<JavaExec>("itemLimitsScrape") {
@@ -65,6 +74,6 @@ tasks {
 
         classpath = project.sourceSets.main.get().runtimeClasspath
         main = "net.runelite.data.App"
-        args(listOf("itemLimits", rootProject.file("./runelite-client/src/main/resources/").absolutePath))
+        args(scrapeArgs("itemLimits"))
     }
 }